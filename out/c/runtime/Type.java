@@ -1,26 +1,60 @@
 package runtime;
 
+import i2.act.fuzzer.runtime.Interner;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
 
 public abstract class Type {
 
   public final boolean isConst;
 
+  // results of 'assignable()' with this type as source type
+  private Map<Type, Boolean> assignableTargets;
+
   public Type(final boolean isConst) {
     this.isConst = isConst;
   }
 
   // ===============================================================================================
 
+  // the types are interned (see 'intern()'), i.e., structurally equal types are the same instance
   @Override
-  public abstract boolean equals(final Object other);
+  public final boolean equals(final Object other) {
+    return this == other;
+  }
 
   @Override
   public abstract int hashCode();
 
+  // compares the components of this type with the ones of the given type (of the same class); the
+  // components of both types are interned already, i.e., they can be compared by reference
+  protected abstract boolean hasSameStructure(final Type other);
+
+  private static final Interner<Type> types = new Interner<>(new Interner.Structure<Type>() {
+
+      @Override
+      public final int hashCode(final Type type) {
+        return type.hashCode();
+      }
+
+      @Override
+      public final boolean equals(final Type first, final Type second) {
+        return first.getClass() == second.getClass() && first.hasSameStructure(second);
+      }
+
+  });
+
+  @SuppressWarnings("unchecked")
+  private static final <T extends Type> T intern(final T type) {
+    return (T) types.intern(type);
+  }
+
   private static class PrimitiveType extends Type {
     
     public final String name;
@@ -37,13 +71,13 @@ public abstract class Type {
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      return this == other;
+    public final int hashCode() {
+      return System.identityHashCode(this);
     }
 
     @Override
-    public final int hashCode() {
-      return System.identityHashCode(this);
+    protected final boolean hasSameStructure(final Type other) {
+      return this == other;
     }
 
   }
@@ -137,26 +171,25 @@ public abstract class Type {
     public final Type baseType;
     public final int width;
 
+    private final int hashCode;
+
     public BitFieldType(final Type baseType, final int width) {
       super(baseType.isConst);
       this.baseType = baseType;
       this.width = width;
+      this.hashCode = Objects.hash(baseType, width);
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof BitFieldType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final BitFieldType otherBitFieldType = (BitFieldType) other;
-      return this.baseType.equals(otherBitFieldType.baseType)
+      return this.baseType == otherBitFieldType.baseType
           && this.width == otherBitFieldType.width;
     }
 
     @Override
     public final int hashCode() {
-      return Objects.hash(this.baseType, this.width);
+      return this.hashCode;
     }
 
   }
@@ -166,7 +199,7 @@ public abstract class Type {
 
 
   public static final Type createBitFieldType(final Type baseType, final int width) {
-    return new BitFieldType(baseType, width);
+    return intern(new BitFieldType(baseType, width));
   }
 
   public static final boolean isBitFieldType(final Type type) {
@@ -191,28 +224,27 @@ public abstract class Type {
     public final Type baseType;
     public final int dimensionality;
 
+    private final int hashCode;
+
     public ArrayType(final Type baseType, final int dimensionality) {
       super(false); // if the base type is const, this is handled in 'baseType'
 
       this.baseType = baseType;
       this.dimensionality = dimensionality;
+      this.hashCode = Objects.hash(baseType, dimensionality);
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof ArrayType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final ArrayType otherArrayType = (ArrayType) other;
 
       return (this.dimensionality == otherArrayType.dimensionality)
-          && (this.baseType.equals(otherArrayType.baseType));
+          && (this.baseType == otherArrayType.baseType);
     }
 
     @Override
     public final int hashCode() {
-      return Objects.hash(this.baseType, this.dimensionality);
+      return this.hashCode;
     }
 
     @Override
@@ -227,12 +259,12 @@ public abstract class Type {
 
 
   public static final Type createOneDimensionalArrayType(final Type baseType) {
-    return new ArrayType(baseType, 1);
+    return intern(new ArrayType(baseType, 1));
   }
 
   public static final Type extendArrayType(final Type _arrayType) {
     final ArrayType arrayType = (ArrayType) _arrayType;
-    return new ArrayType(arrayType.baseType, arrayType.dimensionality + 1);
+    return intern(new ArrayType(arrayType.baseType, arrayType.dimensionality + 1));
   }
 
   public static final Type narrowArrayType(final Type _arrayType) {
@@ -242,7 +274,7 @@ public abstract class Type {
       throw new RuntimeException("already a one-dimensional array");
     }
 
-    return new ArrayType(arrayType.baseType, arrayType.dimensionality - 1);
+    return intern(new ArrayType(arrayType.baseType, arrayType.dimensionality - 1));
   }
 
   public static final Type getArrayBaseType(final Type arrayType) {
@@ -265,26 +297,25 @@ public abstract class Type {
 
     public final Type pointeeType;
 
+    private final int hashCode;
+
     public PointerType(final Type pointeeType, final boolean isConst) {
       super(isConst);
 
       this.pointeeType = pointeeType;
+      this.hashCode = Objects.hash(isConst, pointeeType);
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof PointerType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final PointerType otherPointerType = (PointerType) other;
       return (this.isConst == otherPointerType.isConst)
-          && (this.pointeeType.equals(otherPointerType.pointeeType));
+          && (this.pointeeType == otherPointerType.pointeeType);
     }
 
     @Override
     public final int hashCode() {
-      return Objects.hash(this.isConst, this.pointeeType);
+      return this.hashCode;
     }
 
   }
@@ -294,7 +325,7 @@ public abstract class Type {
 
 
   public static final Type createPointerType(final Type pointeeType, final boolean isConst) {
-    return new PointerType(pointeeType, isConst);
+    return intern(new PointerType(pointeeType, isConst));
   }
 
   public static final boolean isPointerType(final Type type) {
@@ -321,35 +352,26 @@ public abstract class Type {
 
     public final List<Type> types;
 
-    public TupleType() {
-      super(false);
-
-      this.types = new ArrayList<Type>();
-    }
-
-    public final TupleType clone() {
-      final TupleType clone = new TupleType();
+    private final int hashCode;
 
-      for (final Type type : this.types) {
-        clone.types.add(type);
-      }
+    public TupleType(final List<Type> types) {
+      super(false);
 
-      return clone;
+      this.types = Collections.unmodifiableList(types);
+      this.hashCode = Objects.hash(this.types);
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof TupleType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final TupleType otherTupleType = (TupleType) other;
+
+      // the element types are compared by reference
       return this.types.equals(otherTupleType.types);
     }
 
     @Override
-    public int hashCode() {
-      return Objects.hash(this.types);
+    public final int hashCode() {
+      return this.hashCode;
     }
 
     @Override
@@ -380,21 +402,21 @@ public abstract class Type {
   
 
   public static final Type createEmptyTupleType() {
-    return new TupleType();
+    return intern(new TupleType(new ArrayList<Type>()));
   }
 
   public static final Type createTupleType(final Type firstElement) {
-    final TupleType tupleType = new TupleType();
-    tupleType.types.add(firstElement);
+    final List<Type> types = new ArrayList<>(1);
+    types.add(firstElement);
 
-    return tupleType;
+    return intern(new TupleType(types));
   }
 
   public static final Type mergeTupleTypes(final Type first, final Type second) {
-    final TupleType merged = ((TupleType) first).clone();
-    merged.types.addAll(((TupleType) second).types);
+    final List<Type> types = new ArrayList<>(((TupleType) first).types);
+    types.addAll(((TupleType) second).types);
 
-    return merged;
+    return intern(new TupleType(types));
   }
 
   public static final int getTupleTypeSize(final Type tupleType) {
@@ -413,14 +435,9 @@ public abstract class Type {
       throw new RuntimeException("tuple is empty");
     }
 
-    final TupleType tailType = new TupleType();
+    final List<Type> types = ((TupleType) tupleType).types;
 
-    final int numberOfTypes = ((TupleType) tupleType).types.size();
-    for (int index = 1; index < numberOfTypes; ++index) {
-      tailType.types.add(((TupleType) tupleType).types.get(index));
-    }
-
-    return tailType;
+    return intern(new TupleType(new ArrayList<>(types.subList(1, types.size()))));
   }
 
 
@@ -432,35 +449,34 @@ public abstract class Type {
     public final Type returnType;
     public final Type parameterType;
 
+    private final int hashCode;
+
     public FunctionType(final Type returnType, final Type parameterType) {
       super(false);
 
       this.returnType = returnType;
       this.parameterType = parameterType;
+      this.hashCode = Objects.hash(returnType, parameterType);
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof FunctionType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final FunctionType otherFunctionType = (FunctionType) other;
 
-      return this.returnType.equals(otherFunctionType.returnType)
-          && this.parameterType.equals(otherFunctionType.parameterType);
+      return this.returnType == otherFunctionType.returnType
+          && this.parameterType == otherFunctionType.parameterType;
     }
 
     @Override
     public final int hashCode() {
-      return Objects.hash(this.returnType, this.parameterType);
+      return this.hashCode;
     }
 
   }
 
 
   public static final Type createFunctionType(final Type returnType, final Type parameterType) {
-    return new FunctionType(returnType, parameterType);
+    return intern(new FunctionType(returnType, parameterType));
   }
 
   public static final Type getReturnType(final Type functionType) {
@@ -492,6 +508,8 @@ public abstract class Type {
     public final String name;
     public final LinkedHashMap<Symbol, Type> members;
 
+    private final int hashCode;
+
     public CompositeType(final Kind kind, final String name) {
       this(kind, name, new LinkedHashMap<Symbol, Type>());
     }
@@ -503,6 +521,7 @@ public abstract class Type {
       this.kind = kind;
       this.name = name;
       this.members = members;
+      this.hashCode = Objects.hash(kind, name, members);
     }
 
     public final boolean isStruct() {
@@ -514,13 +533,10 @@ public abstract class Type {
     }
 
     @Override
-    public boolean equals(final Object other) {
-      if (!(other instanceof CompositeType)) {
-        return false;
-      }
-
+    protected boolean hasSameStructure(final Type other) {
       final CompositeType otherCompositeType = (CompositeType) other;
 
+      // the member types are compared by reference
       return this.kind == otherCompositeType.kind
           && this.name.equals(otherCompositeType.name)
           && this.members.equals(otherCompositeType.members);
@@ -528,7 +544,7 @@ public abstract class Type {
 
     @Override
     public int hashCode() {
-      return Objects.hash(this.kind, this.name, this.members);
+      return this.hashCode;
     }
 
     @Override
@@ -551,8 +567,9 @@ public abstract class Type {
       this.expectedMember = expectedMember;
     }
 
+    // the "any" composite types are not interned
     @Override
-    public final boolean equals(final Object other) {
+    protected final boolean hasSameStructure(final Type other) {
       return other == this;
     }
 
@@ -586,12 +603,12 @@ public abstract class Type {
       final String name, final SymbolTable memberSymbols) {
     final LinkedHashMap<Symbol, Type> members = new LinkedHashMap<>();
 
-    assert (memberSymbols.scopes.size() == 1);
-    for (final Symbol member : memberSymbols.scopes.get(0).values()) {
+    assert (SymbolTable.numberOfScopes(memberSymbols) == 1);
+    for (final Symbol member : SymbolTable.visibleSymbols(memberSymbols)) {
       members.put(member, member.type);
     }
 
-    return new CompositeType(kind, name, members);
+    return intern(new CompositeType(kind, name, members));
   }
 
   public static final Type createStructType(final String name, final SymbolTable memberSymbols) {
@@ -621,9 +638,9 @@ public abstract class Type {
   public static final SymbolTable getMembers(final Type type) {
     final CompositeType compositeType = (CompositeType) type;
 
-    final SymbolTable members = new SymbolTable(true);
+    SymbolTable members = SymbolTable.empty();
     for (final Symbol symbol : compositeType.members.keySet()) {
-      members.put(symbol);
+      members = SymbolTable.put(members, symbol);
     }
 
     return members;
@@ -644,13 +661,9 @@ public abstract class Type {
   }
 
   public static final TupleType toTupleType(final Type compositeType) {
-    final TupleType tupleType = new TupleType();
+    final List<Type> types = new ArrayList<>(((CompositeType) compositeType).members.values());
 
-    for (final Type memberType : ((CompositeType) compositeType).members.values()) {
-      tupleType.types.add(memberType);
-    }
-
-    return tupleType;
+    return intern(new TupleType(types));
   }
 
 
@@ -696,7 +709,37 @@ public abstract class Type {
     return isNumberType(type) || isPointerType(type) || isCompositeType(type);
   }
 
+  // the results are cached per pair of (interned) types
   public static final boolean assignable(final Type sourceType, final Type targetType) {
+    if (sourceType == null || targetType instanceof AnyCompositeType
+        || (sourceType instanceof PrimitiveType && targetType instanceof PrimitiveType)) {
+      // no caching for types that are not interned (and for trivial checks)
+      return computeAssignable(sourceType, targetType);
+    }
+
+    synchronized (sourceType) {
+      if (sourceType.assignableTargets == null) {
+        // target types that are no longer used can be garbage collected
+        sourceType.assignableTargets = new WeakHashMap<>();
+      } else {
+        final Boolean assignable = sourceType.assignableTargets.get(targetType);
+
+        if (assignable != null) {
+          return assignable;
+        }
+      }
+    }
+
+    final boolean assignable = computeAssignable(sourceType, targetType);
+
+    synchronized (sourceType) {
+      sourceType.assignableTargets.put(targetType, assignable);
+    }
+
+    return assignable;
+  }
+
+  private static final boolean computeAssignable(final Type sourceType, final Type targetType) {
     //if (anyType.equals(targetType)) {
     //  return true;
     //}
@@ -10,8 +10,6 @@ import java.util.Random;
 
 public final class LuaUtils {
 
-  private static final Random rng = new Random();
-
   public static final EmbeddedCode print(final SymbolTable symbols) {
     final EmbeddedCode code = EmbeddedCode.create()
       .print("do").indent()
@@ -71,7 +69,7 @@ public final class LuaUtils {
   }
 
   public static final EmbeddedCode printRandomInt(final Node node) {
-    rng.setSeed(node.id);
+    final Random rng = new Random(node.id);
 
     return EmbeddedCode.create().println(
         String.format("do io.write(%d, \"\\n\") end", rng.nextInt(99) + 1));
@@ -1,46 +1,76 @@
 package runtime;
 
-import java.util.HashMap;
-import java.util.Iterator;
+import i2.act.util.PersistentLinkedHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 public final class SymbolTable {
 
+  // symbol tables are immutable and share their scopes (and the entries of their scopes) with the
+  // symbol tables they have been derived from
+  private static final class Scope {
+
+    public final PersistentLinkedHashMap<String, Symbol> symbols;
+    public final Scope enclosingScope;
+
+    public Scope(final PersistentLinkedHashMap<String, Symbol> symbols,
+        final Scope enclosingScope) {
+      this.symbols = symbols;
+      this.enclosingScope = enclosingScope;
+    }
+
+  }
+
+  private static final SymbolTable EMPTY =
+      new SymbolTable(new Scope(PersistentLinkedHashMap.<String, Symbol>empty(), null), 1);
+
   public static final SymbolTable empty() {
-    return new SymbolTable(true);
+    return EMPTY;
   }
 
   public static final SymbolTable put(final SymbolTable symbolTable, final Symbol symbol) {
-    final SymbolTable clone = symbolTable.clone();
-
-    clone.put(symbol);
+    final Scope innermostScope = symbolTable.getInnermostScope();
 
-    return clone;
+    return new SymbolTable(
+        new Scope(innermostScope.symbols.put(symbol.name, symbol), innermostScope.enclosingScope),
+        symbolTable.numberOfScopes);
   }
 
   public static final SymbolTable put(final SymbolTable symbolTable, final Symbol symbol,
       final boolean inGlobalScope) {
-    final SymbolTable clone = symbolTable.clone();
+    if (inGlobalScope) {
+      return new SymbolTable(
+          putIntoGlobalScope(symbolTable.getInnermostScope(), symbol.name, symbol),
+          symbolTable.numberOfScopes);
+    } else {
+      return put(symbolTable, symbol);
+    }
+  }
 
-    clone.put(symbol, inGlobalScope);
+  private static final Scope putIntoGlobalScope(final Scope scope, final String name,
+      final Symbol symbol) {
+    if (scope.enclosingScope == null) {
+      return new Scope(scope.symbols.put(name, symbol), null);
+    }
 
-    return clone;
+    return new Scope(scope.symbols, putIntoGlobalScope(scope.enclosingScope, name, symbol));
   }
 
-
   public static final SymbolTable putAll(final SymbolTable symbolTable, final Tuple symbolTuple) {
-    final SymbolTable clone = symbolTable.clone();
+    SymbolTable newSymbolTable = symbolTable;
 
     final int size = Tuple.size(symbolTuple);
     for (int idx = 0; idx < size; ++idx) {
       final Symbol symbol = (Symbol) symbolTuple.elements.get(idx);
-      clone.put(symbol);
+      newSymbolTable = put(newSymbolTable, symbol);
     }
 
-    return clone;
+    return newSymbolTable;
   }
 
   public static final SymbolTable update(final SymbolTable symbolTable,
@@ -48,9 +78,7 @@ public final class SymbolTable {
     assert (Tuple.size(symbolTuple) == Tuple.size(typeTuple))
         : String.format("%s <=> %s", symbolTuple, typeTuple);
 
-    final SymbolTable clone = symbolTable.clone();
-
-    final Map<String, Symbol> globalScope = clone.scopes.get(0);
+    SymbolTable newSymbolTable = symbolTable;
 
     final int size = Tuple.size(symbolTuple);
     for (int idx = 0; idx < size; ++idx) {
@@ -64,59 +92,55 @@ public final class SymbolTable {
       final Symbol newSymbol = new Symbol(symbol.name, type);
 
       if (localDeclaration) {
-        clone.put(newSymbol);
+        newSymbolTable = put(newSymbolTable, newSymbol);
       } else {
-        final Map<String, Symbol> containingScope = getContainingScope(clone, symbol.name);
+        final Scope containingScope = getContainingScope(newSymbolTable, symbol.name);
 
         if (containingScope != null) {
-          final Symbol oldSymbol = containingScope.get(symbol.name);
+          final Symbol oldSymbol = containingScope.symbols.get(symbol.name);
           assert (oldSymbol != null);
           assert (Type.assignable(type, oldSymbol.type))
               : String.format("cannot assign %s to %s", type, oldSymbol.type);
           // do nothing here, keep old type
         } else {
           // no declaration found -> has to be a global variable
-          globalScope.put(symbol.name, newSymbol);
+          newSymbolTable = new SymbolTable(
+              putIntoGlobalScope(newSymbolTable.getInnermostScope(), symbol.name, newSymbol),
+              newSymbolTable.numberOfScopes);
         }
       }
     }
 
-    return clone;
+    return newSymbolTable;
   }
 
-  // XXX performance could be improved
   public static final SymbolTable enterScope(final SymbolTable symbolTable) {
-    final SymbolTable clone = symbolTable.clone();
-
-    clone.scopes.add(new LinkedHashMap<String, Symbol>());
-
-    return clone;
+    return new SymbolTable(
+        new Scope(PersistentLinkedHashMap.<String, Symbol>empty(), symbolTable.innermostScope),
+        symbolTable.numberOfScopes + 1);
   }
 
   public static final SymbolTable leaveScope(final SymbolTable symbolTable) {
-    final SymbolTable clone = symbolTable.clone();
-
-    clone.scopes.removeLast();
-
-    return clone;
+    return new SymbolTable(symbolTable.getInnermostScope().enclosingScope,
+        symbolTable.numberOfScopes - 1);
   }
 
   public static final SymbolTable merge(final SymbolTable first, final SymbolTable second) {
-    final SymbolTable merged = new SymbolTable(true);
+    PersistentLinkedHashMap<String, Symbol> merged = PersistentLinkedHashMap.empty();
 
-    for (final Map<String, Symbol> scope : first.scopes) {
-      for (final Symbol symbol : scope.values()) {
-        merged.put(symbol);
+    for (final Scope scope : first.getScopes()) {
+      for (final Symbol symbol : scope.symbols.values()) {
+        merged = merged.put(symbol.name, symbol);
       }
     }
 
-    for (final Map<String, Symbol> scope : second.scopes) {
-      for (final Symbol symbol : scope.values()) {
-        merged.put(symbol);
+    for (final Scope scope : second.getScopes()) {
+      for (final Symbol symbol : scope.symbols.values()) {
+        merged = merged.put(symbol.name, symbol);
       }
     }
 
-    return merged;
+    return new SymbolTable(new Scope(merged, null), 1);
   }
 
   public static final SymbolTable common(final SymbolTable first, final SymbolTable second) {
@@ -128,17 +152,23 @@ public final class SymbolTable {
       return first;
     }
 
-    final SymbolTable common = new SymbolTable(false);
-
-    assert (first.scopes.size() == second.scopes.size())
+    assert (first.numberOfScopes == second.numberOfScopes)
         : String.format("number of scopes does not match: %d vs. %d",
-            first.scopes.size(), second.scopes.size());
-    final int numberOfScopes = first.scopes.size();
+            first.numberOfScopes, second.numberOfScopes);
+
+    final List<Scope> firstScopes = first.getScopes();
+    final List<Scope> secondScopes = second.getScopes();
+
+    Scope commonScopes = null;
+
+    final int numberOfScopes = firstScopes.size();
     for (int scopeIndex = 0; scopeIndex < numberOfScopes; ++scopeIndex) {
-      final Map<String, Symbol> firstScope = first.scopes.get(scopeIndex);
-      final Map<String, Symbol> secondScope = second.scopes.get(scopeIndex);
+      final PersistentLinkedHashMap<String, Symbol> firstScope =
+          firstScopes.get(scopeIndex).symbols;
+      final PersistentLinkedHashMap<String, Symbol> secondScope =
+          secondScopes.get(scopeIndex).symbols;
 
-      final LinkedHashMap<String, Symbol> commonScope = new LinkedHashMap<>();
+      PersistentLinkedHashMap<String, Symbol> commonScope = PersistentLinkedHashMap.empty();
 
       for (final Symbol firstSymbol : firstScope.values()) {
         final Symbol secondSymbol = secondScope.get(firstSymbol.name);
@@ -146,50 +176,47 @@ public final class SymbolTable {
         if (secondSymbol != null) {
           assert (firstSymbol.name.equals(secondSymbol.name));
 
+          final Symbol commonSymbol;
           if (firstSymbol.type.equals(secondSymbol.type)) {
-              commonScope.put(firstSymbol.name, new Symbol(firstSymbol.name, firstSymbol.type));
+            commonSymbol = new Symbol(firstSymbol.name, firstSymbol.type);
           } else {
             if (Type.assignable(firstSymbol.type, secondSymbol.type)) {
-              commonScope.put(secondSymbol.name, new Symbol(secondSymbol.name, secondSymbol.type));
+              commonSymbol = new Symbol(secondSymbol.name, secondSymbol.type);
             } else if (Type.assignable(secondSymbol.type, firstSymbol.type)) {
-              commonScope.put(firstSymbol.name, new Symbol(firstSymbol.name, firstSymbol.type));
+              commonSymbol = new Symbol(firstSymbol.name, firstSymbol.type);
             } else {
-              commonScope.put(firstSymbol.name, new Symbol(firstSymbol.name, Type.Nil()));
+              commonSymbol = new Symbol(firstSymbol.name, Type.Nil());
             }
           }
+
+          commonScope = commonScope.put(commonSymbol.name, commonSymbol);
         }
       }
 
-      common.scopes.add(commonScope);
+      commonScopes = new Scope(commonScope, commonScopes);
     }
 
-    return common;
+    return new SymbolTable(commonScopes, numberOfScopes);
   }
 
   public static final boolean mayDefine(final SymbolTable symbolTable, final String name) {
-    return !symbolTable.scopes.getLast().containsKey(name);
+    return !symbolTable.getInnermostScope().symbols.containsKey(name);
   }
 
   public static final Symbol get(final SymbolTable symbolTable, final String name) {
-    final Iterator<Map<String, Symbol>> scopeIterator = symbolTable.scopes.descendingIterator();
-    while (scopeIterator.hasNext()) {
-      final Map<String, Symbol> scope = scopeIterator.next();
+    final Scope containingScope = getContainingScope(symbolTable, name);
 
-      if (scope.containsKey(name)) {
-        return scope.get(name);
-      }
+    if (containingScope != null) {
+      return containingScope.symbols.get(name);
     }
 
     throw new RuntimeException("name not defined");
   }
 
-  private static final Map<String, Symbol> getContainingScope(final SymbolTable symbolTable,
+  private static final Scope getContainingScope(final SymbolTable symbolTable,
       final String name) {
-    final Iterator<Map<String, Symbol>> scopeIterator = symbolTable.scopes.descendingIterator();
-    while (scopeIterator.hasNext()) {
-      final Map<String, Symbol> scope = scopeIterator.next();
-
-      if (scope.containsKey(name)) {
+    for (Scope scope = symbolTable.innermostScope; scope != null; scope = scope.enclosingScope) {
+      if (scope.symbols.containsKey(name)) {
         return scope;
       }
     }
@@ -202,8 +229,8 @@ public final class SymbolTable {
   }
 
   public static final boolean isEmpty(final SymbolTable symbolTable) {
-    for (final Map<String, Symbol> scope : symbolTable.scopes) {
-      if (!scope.isEmpty()) {
+    for (Scope scope = symbolTable.innermostScope; scope != null; scope = scope.enclosingScope) {
+      if (!scope.symbols.isEmpty()) {
         return false;
       }
     }
@@ -214,8 +241,8 @@ public final class SymbolTable {
   private static final LinkedHashMap<String, Symbol> flatten(final SymbolTable symbolTable) {
     final LinkedHashMap<String, Symbol> flattened = new LinkedHashMap<>();
 
-    for (final Map<String, Symbol> scope : symbolTable.scopes) {
-      for (final Symbol symbol : scope.values()) {
+    for (final Scope scope : symbolTable.getScopes()) {
+      for (final Symbol symbol : scope.symbols.values()) {
         flattened.put(symbol.name, symbol);
       }
     }
@@ -264,36 +291,33 @@ public final class SymbolTable {
 
   // -----------------------------------------------------------------------------------------------
 
-  public final LinkedList<Map<String, Symbol>> scopes;
-
-  public SymbolTable(final boolean addScope) {
-    this.scopes = new LinkedList<Map<String, Symbol>>();
+  private final Scope innermostScope;
+  private final int numberOfScopes;
 
-    if (addScope) {
-      this.scopes.add(new LinkedHashMap<String, Symbol>());
-    }
+  private SymbolTable(final Scope innermostScope, final int numberOfScopes) {
+    this.innermostScope = innermostScope;
+    this.numberOfScopes = numberOfScopes;
   }
 
-  public final SymbolTable clone() {
-    final SymbolTable clone = new SymbolTable(false);
-
-    for (final Map<String, Symbol> scope : this.scopes) {
-      clone.scopes.add(new LinkedHashMap<String, Symbol>(scope));
+  private final Scope getInnermostScope() {
+    if (this.innermostScope == null) {
+      throw new NoSuchElementException("symbol table does not contain any scopes");
     }
 
-    return clone;
+    return this.innermostScope;
   }
 
-  public final void put(final Symbol symbol) {
-    this.scopes.getLast().put(symbol.name, symbol);
-  }
+  // outermost scope first
+  private final List<Scope> getScopes() {
+    final List<Scope> scopes = new ArrayList<>(this.numberOfScopes);
 
-  public final void put(final Symbol symbol, final boolean inGlobalScope) {
-    if (inGlobalScope) {
-      this.scopes.getFirst().put(symbol.name, symbol);
-    } else {
-      this.scopes.getLast().put(symbol.name, symbol);
+    for (Scope scope = this.innermostScope; scope != null; scope = scope.enclosingScope) {
+      scopes.add(scope);
     }
+
+    Collections.reverse(scopes);
+
+    return scopes;
   }
 
   @Override
@@ -303,7 +327,21 @@ public final class SymbolTable {
     }
 
     final SymbolTable otherSymbolTable = (SymbolTable) other;
-    return this.scopes.equals(otherSymbolTable.scopes);
+
+    if (this.numberOfScopes != otherSymbolTable.numberOfScopes) {
+      return false;
+    }
+
+    Scope otherScope = otherSymbolTable.innermostScope;
+    for (Scope scope = this.innermostScope; scope != otherScope; scope = scope.enclosingScope) {
+      if (!scope.symbols.equals(otherScope.symbols)) {
+        return false;
+      }
+
+      otherScope = otherScope.enclosingScope;
+    }
+
+    return true;
   }
 
   @Override
@@ -318,7 +356,7 @@ public final class SymbolTable {
     builder.append("[");
 
     boolean firstScope = true;
-    for (final Map<String, Symbol> scope : this.scopes) {
+    for (final Scope scope : getScopes()) {
       if (!firstScope) {
         builder.append(", ");
       }
@@ -327,13 +365,13 @@ public final class SymbolTable {
       builder.append("{");
 
       boolean firstEntry = true;
-      for (final Map.Entry<String, Symbol> entry : scope.entrySet()) {
+      for (final Symbol symbol : scope.symbols.values()) {
         if (!firstEntry) {
           builder.append(", ");
         }
         firstEntry = false;
 
-        builder.append(String.format("%s: %s", entry.getKey(), entry.getValue()));
+        builder.append(String.format("%s: %s", symbol.name, symbol));
       }
 
       builder.append("}");
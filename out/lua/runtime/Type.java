@@ -1,5 +1,6 @@
 package runtime;
 
+import i2.act.fuzzer.runtime.Interner;
 import runtime.TableField.*;
 
 import java.util.ArrayList;
@@ -7,15 +8,47 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
 
 public abstract class Type {
 
+  // results of 'assignable()' (with non-strict table types) with this type as source type
+  private Map<Type, Boolean> assignableTargets;
+
+  // the types are interned (see 'intern()'), i.e., structurally equal types are the same instance
   @Override
-  public abstract boolean equals(final Object other);
+  public final boolean equals(final Object other) {
+    return this == other;
+  }
 
   @Override
   public abstract String toString();
 
+  // compares the components of this type with the ones of the given type (of the same class); the
+  // components of both types are interned already, i.e., they can be compared by reference
+  protected abstract boolean hasSameStructure(final Type other);
+
+  protected abstract int structureHashCode();
+
+  private static final Interner<Type> types = new Interner<>(new Interner.Structure<Type>() {
+
+      @Override
+      public final int hashCode(final Type type) {
+        return type.structureHashCode();
+      }
+
+      @Override
+      public final boolean equals(final Type first, final Type second) {
+        return first.getClass() == second.getClass() && first.hasSameStructure(second);
+      }
+
+  });
+
+  @SuppressWarnings("unchecked")
+  private static final <T extends Type> T intern(final T type) {
+    return (T) types.intern(type);
+  }
+
 
   // ------------------------------------------------------
 
@@ -28,12 +61,17 @@ public abstract class Type {
       this.name = name;
     }
 
-
+    // the primitive types are singletons
     @Override
-    public final boolean equals(final Object other) {
+    protected final boolean hasSameStructure(final Type other) {
       return other == this;
     }
 
+    @Override
+    protected final int structureHashCode() {
+      return System.identityHashCode(this);
+    }
+
     @Override
     public final String toString() {
       return this.name;
@@ -85,11 +123,7 @@ public abstract class Type {
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof TupleType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final TupleType otherTupleType = (TupleType) other;
 
       if (Tuple.size(this.tuple) != Tuple.size(otherTupleType.tuple)) {
@@ -106,6 +140,11 @@ public abstract class Type {
       return true;
     }
 
+    @Override
+    protected final int structureHashCode() {
+      return this.tuple.elements.hashCode();
+    }
+
     @Override
     public final String toString() {
       return "TupleType" + this.tuple.toString();
@@ -114,7 +153,7 @@ public abstract class Type {
   }
 
   public static final TupleType fromTuple(final Tuple tuple) {
-    return new TupleType(tuple);
+    return intern(new TupleType(tuple));
   }
 
   public static final Tuple toTuple(final Type type) {
@@ -146,16 +185,18 @@ public abstract class Type {
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof TableType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final TableType otherTableType = (TableType) other;
       return this.members.equals(otherTableType.members)
           && this.arrayElements.equals(otherTableType.arrayElements)
-          && Objects.equals(this.expectedNamedMember, otherTableType.expectedNamedMember)
-          && Objects.equals(this.expectedArrayElement, otherTableType.expectedArrayElement);
+          && this.expectedNamedMember == otherTableType.expectedNamedMember
+          && this.expectedArrayElement == otherTableType.expectedArrayElement;
+    }
+
+    @Override
+    protected final int structureHashCode() {
+      return Objects.hash(this.members, this.arrayElements.elements, this.expectedNamedMember,
+          this.expectedArrayElement);
     }
 
     @Override
@@ -264,20 +305,20 @@ public abstract class Type {
   }
 
   private static final TableType ANY_TABLE =
-      new TableType(new LinkedHashMap<>(), Tuple.empty(), null, null);
+      intern(new TableType(new LinkedHashMap<>(), Tuple.empty(), null, null));
   private static final TableType EMPTY_TABLE =
-      new TableType(new LinkedHashMap<>(), Tuple.empty(), null, null);
+      intern(new TableType(new LinkedHashMap<>(), Tuple.empty(), null, null));
 
   public static final TableType anyTableType() {
     return ANY_TABLE;
   }
 
   public static final TableType anyTableTypeWithMember(final Type memberType) {
-    return new TableType(new LinkedHashMap<>(), Tuple.empty(), memberType, null);
+    return intern(new TableType(new LinkedHashMap<>(), Tuple.empty(), memberType, null));
   }
 
   public static final TableType anyTableTypeWithArrayElement(final Type arrayElementType) {
-    return new TableType(new LinkedHashMap<>(), Tuple.empty(), null, arrayElementType);
+    return intern(new TableType(new LinkedHashMap<>(), Tuple.empty(), null, arrayElementType));
   }
 
   public static final TableType emptyTableType() {
@@ -333,7 +374,8 @@ public abstract class Type {
     if (tableType.arrayElements.size() == 0) {
       return tableType;
     } else {
-      return new TableType(tableType.members, Tuple.tail(tableType.arrayElements), null, null);
+      return intern(
+          new TableType(tableType.members, Tuple.tail(tableType.arrayElements), null, null));
     }
   }
 
@@ -347,7 +389,7 @@ public abstract class Type {
       final Map<String, Type> newMembers = new LinkedHashMap<>(tableType.members);
       newMembers.remove(name);
 
-      return new TableType(newMembers, tableType.arrayElements, null, null);
+      return intern(new TableType(newMembers, tableType.arrayElements, null, null));
     }
   }
 
@@ -357,8 +399,8 @@ public abstract class Type {
     if (tableType.expectedNamedMember == null) {
       return tableType;
     } else {
-      return new TableType(tableType.members, tableType.arrayElements,
-          null, tableType.expectedArrayElement);
+      return intern(new TableType(tableType.members, tableType.arrayElements,
+          null, tableType.expectedArrayElement));
     }
   }
 
@@ -368,8 +410,8 @@ public abstract class Type {
     if (tableType.expectedArrayElement == null) {
       return tableType;
     } else {
-      return new TableType(tableType.members, tableType.arrayElements,
-          tableType.expectedNamedMember, null);
+      return intern(new TableType(tableType.members, tableType.arrayElements,
+          tableType.expectedNamedMember, null));
     }
   }
 
@@ -412,7 +454,7 @@ public abstract class Type {
       }
     }
 
-    return new TableType(members, arrayElements, null, null);
+    return intern(new TableType(members, arrayElements, null, null));
   }
 
   public static final List<Symbol> getTableMembers(final Type _tableType, final Type expectedType) {
@@ -476,14 +518,15 @@ public abstract class Type {
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof FunctionType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final FunctionType otherFunctionType = (FunctionType) other;
-      return this.parameterTypes.equals(otherFunctionType.parameterTypes)
-          && this.returnType.equals(otherFunctionType.returnType);
+      return this.parameterTypes == otherFunctionType.parameterTypes
+          && this.returnType == otherFunctionType.returnType;
+    }
+
+    @Override
+    protected final int structureHashCode() {
+      return Objects.hash(this.parameterTypes, this.returnType);
     }
 
     @Override
@@ -507,15 +550,15 @@ public abstract class Type {
 
   public static final FunctionType functionType(final TupleType parameterTypes,
       final Type returnType) {
-    return new FunctionType(parameterTypes, returnType);
+    return intern(new FunctionType(parameterTypes, returnType));
   }
 
   public static final FunctionType anyFunctionType() {
-    return new FunctionType(null, null);
+    return intern(new FunctionType(null, null));
   }
 
   public static final FunctionType anyFunctionType(final Type returnType) {
-    return new FunctionType(null, returnType);
+    return intern(new FunctionType(null, returnType));
   }
 
   public static final TupleType getParameterTypes(final Type functionType) {
@@ -534,8 +577,34 @@ public abstract class Type {
     return typeOne.equals(typeTwo);
   }
 
+  // the results are cached per pair of (interned) types
   public static final boolean assignable(final Type sourceType, final Type targetType) {
-    return assignable(sourceType, targetType, false);
+    if (sourceType == null || targetType == null
+        || (sourceType instanceof PrimitiveType && targetType instanceof PrimitiveType)) {
+      // no caching for trivial checks
+      return assignable(sourceType, targetType, false);
+    }
+
+    synchronized (sourceType) {
+      if (sourceType.assignableTargets == null) {
+        // target types that are no longer used can be garbage collected
+        sourceType.assignableTargets = new WeakHashMap<>();
+      } else {
+        final Boolean assignable = sourceType.assignableTargets.get(targetType);
+
+        if (assignable != null) {
+          return assignable;
+        }
+      }
+    }
+
+    final boolean assignable = assignable(sourceType, targetType, false);
+
+    synchronized (sourceType) {
+      sourceType.assignableTargets.put(targetType, assignable);
+    }
+
+    return assignable;
   }
 
   public static final boolean assignable(final Type sourceType, final Type targetType,
@@ -6,8 +6,6 @@ import java.util.Random;
 
 public final class BitVector {
 
-  private static final Random rng = new Random();
-
   public static final String randomBitVector(final Node node, int minWidth, int maxWidth) {
     if (minWidth < 1) {
       minWidth = 1;
@@ -17,7 +15,7 @@ public final class BitVector {
       maxWidth = minWidth + 10;
     }
 
-    rng.setSeed(node.id);
+    final Random rng = new Random(node.id);
 
     final int width;
     {
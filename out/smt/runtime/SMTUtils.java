@@ -9,8 +9,6 @@ import java.util.Random;
 
 public final class SMTUtils {
 
-  private static final Random rng = new Random();
-
   private static final class Value {
 
     protected final int value;
@@ -29,7 +27,7 @@ public final class SMTUtils {
   }
 
   public static final Value hexNumber(final Node node, final int minValue) {
-    rng.setSeed(node.id);
+    final Random rng = new Random(node.id);
 
     final int value;
     {
@@ -44,7 +42,7 @@ public final class SMTUtils {
   }
 
   public static final Value singletonCharacterSeq(final Node node, final int minValue) {
-    rng.setSeed(node.id);
+    final Random rng = new Random(node.id);
 
     final List<Character> characters = new ArrayList<>();
     {
@@ -1,50 +1,73 @@
 package runtime;
 
-import java.util.HashMap;
-import java.util.Iterator;
+import i2.act.util.PersistentLinkedHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 public final class SymbolTable {
 
+  // symbol tables are immutable and share their scopes (and the entries of their scopes) with the
+  // symbol tables they have been derived from
+  private static final class Scope {
+
+    public final PersistentLinkedHashMap<String, Symbol> symbols;
+    public final Scope enclosingScope;
+
+    public Scope(final PersistentLinkedHashMap<String, Symbol> symbols,
+        final Scope enclosingScope) {
+      this.symbols = symbols;
+      this.enclosingScope = enclosingScope;
+    }
+
+  }
+
+  private static final SymbolTable EMPTY =
+      new SymbolTable(new Scope(PersistentLinkedHashMap.<String, Symbol>empty(), null), 1);
+
   public static final SymbolTable empty() {
-    return new SymbolTable(true);
+    return EMPTY;
   }
 
   public static final SymbolTable put(final SymbolTable symbolTable, final Symbol symbol) {
-    final SymbolTable clone = symbolTable.clone();
-
-    clone.put(symbol);
+    final Scope innermostScope = symbolTable.getInnermostScope();
 
-    return clone;
+    return new SymbolTable(
+        new Scope(innermostScope.symbols.put(symbol.name, symbol), innermostScope.enclosingScope),
+        symbolTable.numberOfScopes);
   }
 
-  // XXX performance could be improved
   public static final SymbolTable enterScopes(final SymbolTable symbolTable, final int count) {
-    final SymbolTable clone = symbolTable.clone();
+    Scope innermostScope = symbolTable.innermostScope;
 
     for (int i = 0; i < count; ++i) {
-      clone.scopes.add(new LinkedHashMap<String, Symbol>());
+      innermostScope =
+          new Scope(PersistentLinkedHashMap.<String, Symbol>empty(), innermostScope);
     }
 
-    return clone;
+    return new SymbolTable(innermostScope, symbolTable.numberOfScopes + count);
   }
 
-  // XXX performance could be improved
   public static final SymbolTable enterScope(final SymbolTable symbolTable) {
     return enterScopes(symbolTable, 1);
   }
 
   public static final SymbolTable leaveScopes(final SymbolTable symbolTable, final int count) {
-    final SymbolTable clone = symbolTable.clone();
+    Scope innermostScope = symbolTable.innermostScope;
 
     for (int i = 0; i < count; ++i) {
-      clone.scopes.removeLast();
+      if (innermostScope == null) {
+        throw new NoSuchElementException("symbol table does not contain any scopes");
+      }
+
+      innermostScope = innermostScope.enclosingScope;
     }
 
-    return clone;
+    return new SymbolTable(innermostScope, symbolTable.numberOfScopes - count);
   }
 
   public static final SymbolTable leaveScope(final SymbolTable symbolTable) {
@@ -52,34 +75,31 @@ public final class SymbolTable {
   }
 
   public static final SymbolTable merge(final SymbolTable first, final SymbolTable second) {
-    final SymbolTable merged = new SymbolTable(true);
+    PersistentLinkedHashMap<String, Symbol> merged = PersistentLinkedHashMap.empty();
 
-    for (final Map<String, Symbol> scope : first.scopes) {
-      for (final Symbol symbol : scope.values()) {
-        merged.put(symbol);
+    for (final Scope scope : first.getScopes()) {
+      for (final Symbol symbol : scope.symbols.values()) {
+        merged = merged.put(symbol.name, symbol);
       }
     }
 
-    for (final Map<String, Symbol> scope : second.scopes) {
-      for (final Symbol symbol : scope.values()) {
-        merged.put(symbol);
+    for (final Scope scope : second.getScopes()) {
+      for (final Symbol symbol : scope.symbols.values()) {
+        merged = merged.put(symbol.name, symbol);
       }
     }
 
-    return merged;
+    return new SymbolTable(new Scope(merged, null), 1);
   }
 
   public static final boolean mayDefine(final SymbolTable symbolTable, final String name) {
-    return !symbolTable.scopes.getLast().containsKey(name);
+    return !symbolTable.getInnermostScope().symbols.containsKey(name);
   }
 
   public static final Symbol get(final SymbolTable symbolTable, final String name) {
-    final Iterator<Map<String, Symbol>> scopeIterator = symbolTable.scopes.descendingIterator();
-    while (scopeIterator.hasNext()) {
-      final Map<String, Symbol> scope = scopeIterator.next();
-
-      if (scope.containsKey(name)) {
-        return scope.get(name);
+    for (Scope scope = symbolTable.innermostScope; scope != null; scope = scope.enclosingScope) {
+      if (scope.symbols.containsKey(name)) {
+        return scope.symbols.get(name);
       }
     }
 
@@ -87,11 +107,8 @@ public final class SymbolTable {
   }
 
   public static final boolean contains(final SymbolTable symbolTable, final String name) {
-    final Iterator<Map<String, Symbol>> scopeIterator = symbolTable.scopes.descendingIterator();
-    while (scopeIterator.hasNext()) {
-      final Map<String, Symbol> scope = scopeIterator.next();
-
-      if (scope.containsKey(name)) {
+    for (Scope scope = symbolTable.innermostScope; scope != null; scope = scope.enclosingScope) {
+      if (scope.symbols.containsKey(name)) {
         return true;
       }
     }
@@ -102,8 +119,8 @@ public final class SymbolTable {
   private static final LinkedHashMap<String, Symbol> flatten(final SymbolTable symbolTable) {
     final LinkedHashMap<String, Symbol> flattened = new LinkedHashMap<>();
 
-    for (final Map<String, Symbol> scope : symbolTable.scopes) {
-      for (final Symbol symbol : scope.values()) {
+    for (final Scope scope : symbolTable.getScopes()) {
+      for (final Symbol symbol : scope.symbols.values()) {
         flattened.put(symbol.name, symbol);
       }
     }
@@ -164,28 +181,33 @@ public final class SymbolTable {
 
   // -----------------------------------------------------------------------------------------------
 
-  public final LinkedList<Map<String, Symbol>> scopes;
+  private final Scope innermostScope;
+  private final int numberOfScopes;
 
-  public SymbolTable(final boolean addScope) {
-    this.scopes = new LinkedList<Map<String, Symbol>>();
+  private SymbolTable(final Scope innermostScope, final int numberOfScopes) {
+    this.innermostScope = innermostScope;
+    this.numberOfScopes = numberOfScopes;
+  }
 
-    if (addScope) {
-      this.scopes.add(new LinkedHashMap<String, Symbol>());
+  private final Scope getInnermostScope() {
+    if (this.innermostScope == null) {
+      throw new NoSuchElementException("symbol table does not contain any scopes");
     }
+
+    return this.innermostScope;
   }
 
-  public final SymbolTable clone() {
-    final SymbolTable clone = new SymbolTable(false);
+  // outermost scope first
+  private final List<Scope> getScopes() {
+    final List<Scope> scopes = new ArrayList<>(this.numberOfScopes);
 
-    for (final Map<String, Symbol> scope : this.scopes) {
-      clone.scopes.add(new LinkedHashMap<String, Symbol>(scope));
+    for (Scope scope = this.innermostScope; scope != null; scope = scope.enclosingScope) {
+      scopes.add(scope);
     }
 
-    return clone;
-  }
+    Collections.reverse(scopes);
 
-  public final void put(final Symbol symbol) {
-    this.scopes.getLast().put(symbol.name, symbol);
+    return scopes;
   }
 
   @Override
@@ -195,7 +217,21 @@ public final class SymbolTable {
     }
 
     final SymbolTable otherSymbolTable = (SymbolTable) other;
-    return this.scopes.equals(otherSymbolTable.scopes);
+
+    if (this.numberOfScopes != otherSymbolTable.numberOfScopes) {
+      return false;
+    }
+
+    Scope otherScope = otherSymbolTable.innermostScope;
+    for (Scope scope = this.innermostScope; scope != otherScope; scope = scope.enclosingScope) {
+      if (!scope.symbols.equals(otherScope.symbols)) {
+        return false;
+      }
+
+      otherScope = otherScope.enclosingScope;
+    }
+
+    return true;
   }
 
   @Override
@@ -210,7 +246,7 @@ public final class SymbolTable {
     builder.append("[");
 
     boolean firstScope = true;
-    for (final Map<String, Symbol> scope : this.scopes) {
+    for (final Scope scope : getScopes()) {
       if (!firstScope) {
         builder.append(", ");
       }
@@ -219,13 +255,13 @@ public final class SymbolTable {
       builder.append("{");
 
       boolean firstEntry = true;
-      for (final Map.Entry<String, Symbol> entry : scope.entrySet()) {
+      for (final Symbol symbol : scope.symbols.values()) {
         if (!firstEntry) {
           builder.append(", ");
         }
         firstEntry = false;
 
-        builder.append(String.format("%s: %s", entry.getKey(), entry.getValue()));
+        builder.append(String.format("%s: %s", symbol.name, symbol));
       }
 
       builder.append("}");
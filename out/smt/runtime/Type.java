@@ -1,16 +1,47 @@
 package runtime;
 
 import i2.act.fuzzer.Node;
+import i2.act.fuzzer.runtime.Interner;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 
 public abstract class Type {
 
+  // the sorts are interned (see 'intern()'), i.e., structurally equal sorts are the same instance
   @Override
-  public abstract boolean equals(final Object other);
-  
+  public final boolean equals(final Object other) {
+    return this == other;
+  }
+
+  // compares the components of this type with the ones of the given type (of the same class); the
+  // components of both types are interned already, i.e., they can be compared by reference
+  protected abstract boolean hasSameStructure(final Type other);
+
+  protected abstract int structureHashCode();
+
+  private static final Interner<Type> types = new Interner<>(new Interner.Structure<Type>() {
+
+      @Override
+      public final int hashCode(final Type type) {
+        return type.structureHashCode();
+      }
+
+      @Override
+      public final boolean equals(final Type first, final Type second) {
+        return first.getClass() == second.getClass() && first.hasSameStructure(second);
+      }
+
+  });
+
+  @SuppressWarnings("unchecked")
+  private static final <T extends Type> T intern(final T type) {
+    return (T) types.intern(type);
+  }
+
   private static final class PrimitiveType extends Type {
 
     public final String name;
@@ -19,11 +50,17 @@ public abstract class Type {
       this.name = name;
     }
 
+    // the primitive sorts are singletons
     @Override
-    public final boolean equals(final Object other) {
+    protected final boolean hasSameStructure(final Type other) {
       return this == other;
     }
 
+    @Override
+    protected final int structureHashCode() {
+      return System.identityHashCode(this);
+    }
+
   }
 
   private static final Type unknownSort = new PrimitiveType("<unknown>");
@@ -37,10 +74,15 @@ public abstract class Type {
   private static final Type regLanSort = new Type() {
 
     @Override
-    public final boolean equals(final Object other) {
+    protected final boolean hasSameStructure(final Type other) {
       return this == other;
     }
 
+    @Override
+    protected final int structureHashCode() {
+      return System.identityHashCode(this);
+    }
+
   };
 
   public static final Type unknownSort() {
@@ -107,28 +149,21 @@ public abstract class Type {
 
     public final List<Type> types;
 
-    public TupleType() {
-      this.types = new ArrayList<Type>();
+    public TupleType(final List<Type> types) {
+      this.types = Collections.unmodifiableList(types);
     }
 
-    public final TupleType clone() {
-      final TupleType clone = new TupleType();
-
-      for (final Type type : this.types) {
-        clone.types.add(type);
-      }
+    @Override
+    protected final boolean hasSameStructure(final Type other) {
+      final TupleType otherTupleType = (TupleType) other;
 
-      return clone;
+      // the element sorts are compared by reference
+      return this.types.equals(otherTupleType.types);
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof TupleType)) {
-        return false;
-      }
-
-      final TupleType otherTupleType = (TupleType) other;
-      return this.types.equals(otherTupleType.types);
+    protected final int structureHashCode() {
+      return this.types.hashCode();
     }
 
   }
@@ -138,21 +173,21 @@ public abstract class Type {
   
 
   public static final Type createEmptyTupleType() {
-    return new TupleType();
+    return intern(new TupleType(new ArrayList<Type>()));
   }
 
   public static final Type createTupleType(final Type firstElement) {
-    final TupleType tupleType = new TupleType();
-    tupleType.types.add(firstElement);
+    final List<Type> types = new ArrayList<>(1);
+    types.add(firstElement);
 
-    return tupleType;
+    return intern(new TupleType(types));
   }
 
   public static final Type mergeTupleTypes(final Type first, final Type second) {
-    final TupleType merged = ((TupleType) first).clone();
-    merged.types.addAll(((TupleType) second).types);
+    final List<Type> types = new ArrayList<>(((TupleType) first).types);
+    types.addAll(((TupleType) second).types);
 
-    return merged;
+    return intern(new TupleType(types));
   }
 
   public static final int getTupleTypeSize(final Type tupleType) {
@@ -171,14 +206,9 @@ public abstract class Type {
       throw new RuntimeException("tuple is empty");
     }
 
-    final TupleType tailType = new TupleType();
-
-    final int numberOfTypes = ((TupleType) tupleType).types.size();
-    for (int index = 1; index < numberOfTypes; ++index) {
-      tailType.types.add(((TupleType) tupleType).types.get(index));
-    }
+    final List<Type> types = ((TupleType) tupleType).types;
 
-    return tailType;
+    return intern(new TupleType(new ArrayList<>(types.subList(1, types.size()))));
   }
 
 
@@ -196,22 +226,23 @@ public abstract class Type {
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof FunctionType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final FunctionType otherFunctionType = (FunctionType) other;
 
-      return this.returnType.equals(otherFunctionType.returnType)
-          && this.parameterType.equals(otherFunctionType.parameterType);
+      return this.returnType == otherFunctionType.returnType
+          && this.parameterType == otherFunctionType.parameterType;
+    }
+
+    @Override
+    protected final int structureHashCode() {
+      return Objects.hash(this.returnType, this.parameterType);
     }
 
   }
 
 
   public static final Type createFunctionType(final Type returnType, final Type parameterType) {
-    return new FunctionType(returnType, parameterType);
+    return intern(new FunctionType(returnType, parameterType));
   }
 
   public static final Type getReturnType(final Type functionType) {
@@ -249,15 +280,16 @@ public abstract class Type {
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof ArrayType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final ArrayType otherArrayType = (ArrayType) other;
 
-      return this.indexType.equals(otherArrayType.indexType)
-          && this.valueType.equals(otherArrayType.valueType);
+      return this.indexType == otherArrayType.indexType
+          && this.valueType == otherArrayType.valueType;
+    }
+
+    @Override
+    protected final int structureHashCode() {
+      return Objects.hash(this.indexType, this.valueType);
     }
 
   }
@@ -267,7 +299,7 @@ public abstract class Type {
 
 
   public static final Type createArraySort(final Type indexType, final Type valueType) {
-    return new ArrayType(indexType, valueType);
+    return intern(new ArrayType(indexType, valueType));
   }
 
   public static final boolean isArraySort(final Type type) {
@@ -302,35 +334,36 @@ public abstract class Type {
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (!(other instanceof BitVectorType)) {
-        return false;
-      }
-
+    protected final boolean hasSameStructure(final Type other) {
       final BitVectorType otherBitVectorType = (BitVectorType) other;
 
       return (this.minWidth == otherBitVectorType.minWidth)
           && (this.maxWidth == otherBitVectorType.maxWidth);
     }
 
+    @Override
+    protected final int structureHashCode() {
+      return 31 * this.minWidth + this.maxWidth;
+    }
+
   }
 
  
   // ------------------------------------------------------
 
 
-  private static final BitVectorType anyBitVector = new BitVectorType(-1, -1);
+  private static final BitVectorType anyBitVector = intern(new BitVectorType(-1, -1));
 
   public static final Type anyBitVector() {
     return anyBitVector;
   }
 
   public static final Type createBitVectorSort(final int width) {
-    return new BitVectorType(width);
+    return intern(new BitVectorType(width));
   }
 
   public static final Type createBitVectorRange(final int minWidth, final int maxWidth) {
-    return new BitVectorType(minWidth, maxWidth);
+    return intern(new BitVectorType(minWidth, maxWidth));
   }
 
   public static final boolean isBitVectorSort(final Type type) {
@@ -359,10 +392,9 @@ public abstract class Type {
     final int widthOne = getWidth(bitVectorOne);
     final int widthTwo = getWidth(bitVectorTwo);
 
-    return new BitVectorType(widthOne + widthTwo);
+    return intern(new BitVectorType(widthOne + widthTwo));
   }
 
-  private static final Random rng = new Random();
   private static final int MAX_UPPER_RANDOM = 32;
 
   public static final int randomUpper(final Node node, final Type expectedType) {
@@ -377,7 +409,7 @@ public abstract class Type {
       }
     }
 
-    rng.setSeed(node.id);
+    final Random rng = new Random(node.id);
 
     return minUpper + rng.nextInt(MAX_UPPER_RANDOM);
   }
@@ -387,7 +419,7 @@ public abstract class Type {
     final int minWidth = getMinWidth(expectedType);
     final int maxWidth = getMaxWidth(expectedType);
 
-    rng.setSeed(node.id);
+    final Random rng = new Random(node.id);
 
     if (minWidth == -1 && maxWidth == -1) {
       return rng.nextInt(upper + 1);
@@ -434,31 +466,32 @@ public abstract class Type {
     }
 
     @Override
-    public final boolean equals(final Object other) {
-      if (other instanceof FloatingPointType) {
-
-        final FloatingPointType otherFloatingPointType = (FloatingPointType) other;
+    protected final boolean hasSameStructure(final Type other) {
+      final FloatingPointType otherFloatingPointType = (FloatingPointType) other;
 
-        return (this.minExpBits == otherFloatingPointType.minExpBits)
-            && (this.maxExpBits == otherFloatingPointType.maxExpBits)
-            && (this.minSigfBits == otherFloatingPointType.minSigfBits)
-            && (this.maxSigfBits == otherFloatingPointType.maxSigfBits);
-      }
+      return (this.minExpBits == otherFloatingPointType.minExpBits)
+          && (this.maxExpBits == otherFloatingPointType.maxExpBits)
+          && (this.minSigfBits == otherFloatingPointType.minSigfBits)
+          && (this.maxSigfBits == otherFloatingPointType.maxSigfBits);
+    }
 
-      return false;
+    @Override
+    protected final int structureHashCode() {
+      return Objects.hash(this.minExpBits, this.maxExpBits, this.minSigfBits, this.maxSigfBits);
     }
   }
 
   // ------------------------------------------------------
 
-  private static final FloatingPointType anyFloatingPoint = new FloatingPointType(-1, -1);
+  private static final FloatingPointType anyFloatingPoint =
+      intern(new FloatingPointType(-1, -1));
 
   public static final Type anyFloatingPoint() {
     return anyFloatingPoint;
   }
 
   public static final Type createFloatingPointSort(final int expBits, final int sigfBits) {
-    return new FloatingPointType(expBits, sigfBits);
+    return intern(new FloatingPointType(expBits, sigfBits));
   }
 
   public static final boolean isFloatingPointSort(final Type type) {
@@ -500,7 +533,7 @@ public abstract class Type {
       throw new IllegalArgumentException("Width must be greater than 1");
     }
 
-    rng.setSeed(node.id);
+    final Random rng = new Random(node.id);
 
     return lower + rng.nextInt(upper - lower + 1);
   }
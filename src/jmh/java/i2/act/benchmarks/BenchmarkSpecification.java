@@ -0,0 +1,57 @@
+package i2.act.benchmarks;
+
+import i2.act.errors.RPGException;
+
+// the specifications in 'specs/' with the depth settings that are used by 'translate_all.sh'
+public enum BenchmarkSpecification {
+
+  C("c", "c.ls", "c", 11),
+  LUA("lua", "lua.ls", "lua", 13),
+  SMT("smt", "smt.ls", "smt", 11),
+  SMT_FP("smt_fp", "smt_fp.ls", "smt", 11),
+  SMT_STRINGS("smt_strings", "smt_strings.ls", "smt", 13),
+  SQL_WRAPPER("sql_wrapper", "sql_wrapper.ls", "sql", 40),
+  SQL_ARITH("sql_arith", "sql_arith.ls", "sql", 40),
+  PAPER_SPEC("paper_spec", "paper_spec.ls", "paper_spec", 11),
+  PAPER_SPEC_GEN("paper_spec_gen", "paper_spec_gen.ls", "paper_spec", 11);
+
+  public static final String SPECIFICATION_DIRECTORY = "specs";
+  public static final String OUTPUT_DIRECTORY = "out";
+
+  public final String name;
+  public final String specificationFileName;
+  public final String outputDirectoryName;
+  public final int maxDepth;
+
+  private BenchmarkSpecification(final String name, final String specificationFileName,
+      final String outputDirectoryName, final int maxDepth) {
+    this.name = name;
+    this.specificationFileName = specificationFileName;
+    this.outputDirectoryName = outputDirectoryName;
+    this.maxDepth = maxDepth;
+  }
+
+  public final String getSpecificationPath() {
+    return String.format("%s/%s", SPECIFICATION_DIRECTORY, this.specificationFileName);
+  }
+
+  public final String getRuntimePath() {
+    return String.format("%s/%s/runtime", OUTPUT_DIRECTORY, this.outputDirectoryName);
+  }
+
+  public static final BenchmarkSpecification fromName(final String name) {
+    for (final BenchmarkSpecification specification : values()) {
+      if (specification.name.equals(name)) {
+        return specification;
+      }
+    }
+
+    throw new RPGException(String.format("unknown specification '%s'", name));
+  }
+
+  @Override
+  public final String toString() {
+    return this.name;
+  }
+
+}
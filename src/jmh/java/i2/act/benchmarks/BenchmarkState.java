@@ -0,0 +1,110 @@
+package i2.act.benchmarks;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.Fuzzer;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.RandomFuzzer;
+import i2.act.fuzzer.Specification;
+import i2.act.fuzzer.SpecificationFactory;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// common parameters of all benchmarks; the programs are generated with the seeds 'seed',
+// 'seed + 1', ..., 'seed + numberOfSeeds - 1' (in a round-robin fashion)
+public abstract class BenchmarkState {
+
+  public static final int USE_DEFAULT_MAX_DEPTH = -1;
+
+  @Param({
+    "c", "lua", "smt", "smt_fp", "smt_strings", "sql_wrapper", "sql_arith", "paper_spec",
+    "paper_spec_gen"
+  })
+  public String spec;
+
+  @Param({"0"})
+  public long seed;
+
+  @Param({"100"})
+  public int numberOfSeeds;
+
+  // '-1' uses the depth setting of 'translate_all.sh' (see BenchmarkSpecification)
+  @Param({"-1"})
+  public int maxDepth;
+
+  // translate the specification with '--attributeSlots'
+  @Param({"false"})
+  public boolean attributeSlots;
+
+  // translate the specification with '--splitCode'
+  @Param({"false"})
+  public boolean splitCode;
+
+  protected Specification specification;
+
+  protected int programDepth;
+
+  private int seedIndex;
+
+  @Setup(Level.Trial)
+  public final void setUpSpecification() {
+    final BenchmarkSpecification benchmarkSpecification =
+        BenchmarkSpecification.fromName(this.spec);
+    final SpecificationFactory specificationFactory =
+        SpecificationCompiler.load(benchmarkSpecification, this.attributeSlots, this.splitCode);
+
+    this.specification = specificationFactory.createSpecification();
+
+    if (this.maxDepth == USE_DEFAULT_MAX_DEPTH) {
+      this.programDepth = this.specification.defaultMaxRecursionDepth;
+    } else {
+      this.programDepth = this.maxDepth;
+    }
+
+    this.seedIndex = 0;
+
+    setUp();
+  }
+
+  // called once the specification has been loaded
+  protected void setUp() {
+    // intentionally left blank
+  }
+
+  protected final long nextSeed() {
+    final long nextSeed = this.seed + this.seedIndex;
+    this.seedIndex = (this.seedIndex + 1) % this.numberOfSeeds;
+
+    return nextSeed;
+  }
+
+  protected final RandomFuzzer createFuzzer(final long seed) {
+    return RandomFuzzer.createFor(this.specification, seed, 0., false, false, -1, -1, false,
+        null, null);
+  }
+
+  protected final List<Node> generatePrograms() {
+    final List<Node> programs = new ArrayList<>(this.numberOfSeeds);
+
+    for (int index = 0; index < this.numberOfSeeds; ++index) {
+      final RandomFuzzer fuzzer = createFuzzer(this.seed + index);
+
+      try {
+        programs.add(fuzzer.generateProgram(this.programDepth, false));
+      } catch (final Fuzzer.FuzzingFailedException exception) {
+        // skip seeds for which the generation fails
+      }
+    }
+
+    if (programs.isEmpty()) {
+      throw new RPGException(String.format("could not generate any program for '%s'", this.spec));
+    }
+
+    return programs;
+  }
+
+}
@@ -0,0 +1,66 @@
+package i2.act.benchmarks;
+
+import i2.act.fuzzer.Fuzzer;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.RandomFuzzer;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// measures the number of generated programs per second (run with '-prof gc' to also get the
+// allocation rate); the time spent in chooseAlternative() and in the attribute evaluation is
+// reported via auxiliary counters (in ms per iteration)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class GenerationBenchmark extends BenchmarkState {
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class PhaseTimes {
+
+    public double chooseAlternativeMs;
+    public double attributeEvaluationMs;
+    public long failedPrograms;
+
+    @Setup(Level.Iteration)
+    public final void reset() {
+      this.chooseAlternativeMs = 0;
+      this.attributeEvaluationMs = 0;
+      this.failedPrograms = 0;
+    }
+
+  }
+
+  @Benchmark
+  public final Node generateProgram(final PhaseTimes phaseTimes) {
+    final RandomFuzzer fuzzer = createFuzzer(nextSeed());
+    fuzzer.measurePhaseTimes = true;
+
+    try {
+      return fuzzer.generateProgram(this.programDepth, false);
+    } catch (final Fuzzer.FuzzingFailedException exception) {
+      ++phaseTimes.failedPrograms;
+      return null;
+    } finally {
+      phaseTimes.chooseAlternativeMs += fuzzer.getChooseAlternativeTime() / 1e6;
+      phaseTimes.attributeEvaluationMs += fuzzer.getAttributeEvaluationTime() / 1e6;
+    }
+  }
+
+}
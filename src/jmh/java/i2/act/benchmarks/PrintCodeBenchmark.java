@@ -0,0 +1,44 @@
+package i2.act.benchmarks;
+
+import i2.act.fuzzer.Node;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// measures the pretty printing of pre-generated programs
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class PrintCodeBenchmark extends BenchmarkState {
+
+  private List<Node> programs;
+  private int programIndex;
+
+  @Override
+  protected final void setUp() {
+    this.programs = generatePrograms();
+    this.programIndex = 0;
+  }
+
+  @Benchmark
+  public final String printCode() {
+    final Node program = this.programs.get(this.programIndex);
+    this.programIndex = (this.programIndex + 1) % this.programs.size();
+
+    return program.printCode();
+  }
+
+}
@@ -0,0 +1,46 @@
+package i2.act.benchmarks;
+
+import i2.act.fuzzer.SpecificationFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// translates a specification to Java, compiles the generated code (together with the runtime
+// classes of the specification) and loads the resulting specification factory; the class files
+// are cached in BUILD_DIRECTORY (see 'i2.act.SpecificationCompiler')
+public final class SpecificationCompiler {
+
+  public static final String BUILD_DIRECTORY = "build/jmh";
+
+  private static final Map<String, SpecificationFactory> factories = new HashMap<>();
+
+  public static final synchronized SpecificationFactory load(
+      final BenchmarkSpecification specification, final boolean attributeSlots,
+      final boolean splitCode) {
+    final String key = getKey(specification, attributeSlots, splitCode);
+
+    if (!factories.containsKey(key)) {
+      factories.put(key, translateAndCompile(specification, attributeSlots, splitCode));
+    }
+
+    return factories.get(key);
+  }
+
+  private static final String getKey(final BenchmarkSpecification specification,
+      final boolean attributeSlots, final boolean splitCode) {
+    return specification.name + (attributeSlots ? "_slots" : "") + (splitCode ? "_split" : "");
+  }
+
+  private static final SpecificationFactory translateAndCompile(
+      final BenchmarkSpecification specification, final boolean attributeSlots,
+      final boolean splitCode) {
+    final i2.act.SpecificationCompiler specificationCompiler =
+        new i2.act.SpecificationCompiler(specification.getSpecificationPath(),
+            specification.maxDepth, null, null, attributeSlots, Collections.<String>emptySet(),
+            splitCode, specification.getRuntimePath(), BUILD_DIRECTORY);
+
+    return specificationCompiler.loadFactory();
+  }
+
+}
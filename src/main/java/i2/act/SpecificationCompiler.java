@@ -0,0 +1,381 @@
+package i2.act;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.SpecificationFactory;
+import i2.act.util.FileUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+// translates a specification to Java, compiles the generated code in memory (together with the
+// runtime classes of the specification) and loads the resulting classes (see option '--compile')
+//
+// the class files are cached in a directory whose name contains a hash of everything that
+// influences them: the specification, the runtime sources, the translation options, the translator
+// itself and the Java version; thus, an unchanged specification is neither translated nor compiled
+// again, and a changed one never picks up stale class files
+public final class SpecificationCompiler {
+
+  private static final String HASH_ALGORITHM = "SHA-256";
+  private static final int HASH_PREFIX_LENGTH = 16;
+
+  private static final String CLASS_DIRECTORY = "classes";
+  private static final String COMPLETE_MARKER = "complete";
+
+  private final String specificationFileName;
+  private final int maxDepth;
+  private final String javaClassName;
+  private final String packageName;
+  private final Set<String> features;
+  private final boolean attributeSlots;
+  private final Set<String> pureFunctions;
+  private final boolean splitCode;
+
+  // may be 'null' (if the specification does not use any runtime classes)
+  private final String runtimeDirectory;
+
+  private final File cacheDirectory;
+
+  // 'features' may be 'null' (all features enabled)
+  public SpecificationCompiler(final String specificationFileName, final int maxDepth,
+      final String packageName, final Set<String> features, final boolean attributeSlots,
+      final Set<String> pureFunctions, final boolean splitCode, final String runtimeDirectory,
+      final String cacheDirectory) {
+    this.specificationFileName = specificationFileName;
+    this.maxDepth = maxDepth;
+    this.javaClassName = FileUtil.getStrippedBaseName(specificationFileName);
+    this.packageName = packageName;
+    this.features = features;
+    this.attributeSlots = attributeSlots;
+    this.pureFunctions = pureFunctions;
+    this.splitCode = splitCode;
+    this.runtimeDirectory = runtimeDirectory;
+    this.cacheDirectory = new File(cacheDirectory);
+  }
+
+  public final String getQualifiedClassName() {
+    if (this.packageName == null) {
+      return this.javaClassName;
+    } else {
+      return this.packageName + "." + this.javaClassName;
+    }
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  public final SpecificationFactory loadFactory() {
+    final String factoryName =
+        String.format("%s$%sFactory", getQualifiedClassName(), this.javaClassName);
+
+    try {
+      final Class<?> factoryClass = Class.forName(factoryName, true, createClassLoader());
+      return (SpecificationFactory) factoryClass.getField("INSTANCE").get(null);
+    } catch (final ReflectiveOperationException exception) {
+      throw new RPGException(String.format(
+          "could not load specification '%s'", this.specificationFileName), exception);
+    }
+  }
+
+  // runs the 'main' method of the generated class, i.e., generates programs just like the
+  // separately compiled class would
+  public final void runMain(final String[] args) {
+    final Method mainMethod;
+    try {
+      final Class<?> mainClass =
+          Class.forName(getQualifiedClassName(), true, createClassLoader());
+      mainMethod = mainClass.getMethod("main", String[].class);
+    } catch (final ReflectiveOperationException exception) {
+      throw new RPGException(String.format(
+          "could not load specification '%s'", this.specificationFileName), exception);
+    }
+
+    try {
+      mainMethod.invoke(null, (Object) args);
+    } catch (final IllegalAccessException exception) {
+      throw new RPGException("could not run generated class", exception);
+    } catch (final InvocationTargetException exception) {
+      final Throwable cause = exception.getCause();
+
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new RPGException("could not run generated class", cause);
+      }
+    }
+  }
+
+  private final ClassLoader createClassLoader() {
+    final File classDirectory = compile();
+
+    try {
+      return new URLClassLoader(new URL[] { classDirectory.toURI().toURL() },
+          SpecificationCompiler.class.getClassLoader());
+    } catch (final IOException exception) {
+      throw new RPGException("could not create class loader", exception);
+    }
+  }
+
+  // returns the directory that contains the class files (translates and compiles the specification
+  // only if the cache does not contain them yet)
+  public final File compile() {
+    final File entryDirectory = new File(this.cacheDirectory,
+        String.format("%s-%s", this.javaClassName, computeKey()));
+    final File classDirectory = new File(entryDirectory, CLASS_DIRECTORY);
+
+    if (new File(entryDirectory, COMPLETE_MARKER).isFile()) {
+      return classDirectory;
+    }
+
+    // compile into a fresh directory that is renamed once the compilation has finished, i.e.,
+    // concurrent compilations of the same specification do not see partial results
+    final File temporaryDirectory = createTemporaryDirectory();
+
+    try {
+      final String javaCode =
+          new StarSmithTranslate(this.specificationFileName, this.maxDepth).translateToJava(
+              this.javaClassName, this.packageName, this.features, this.attributeSlots,
+              this.pureFunctions, this.splitCode);
+
+      final File temporaryClassDirectory = new File(temporaryDirectory, CLASS_DIRECTORY);
+      createDirectory(temporaryClassDirectory);
+
+      compile(javaCode, temporaryClassDirectory);
+
+      createFile(new File(temporaryDirectory, COMPLETE_MARKER));
+
+      if (!temporaryDirectory.renameTo(entryDirectory)
+          && !new File(entryDirectory, COMPLETE_MARKER).isFile()) {
+        throw new RPGException(
+            String.format("could not create cache entry '%s'", entryDirectory.getPath()));
+      }
+    } finally {
+      deleteRecursively(temporaryDirectory);
+    }
+
+    return classDirectory;
+  }
+
+  private final void compile(final String javaCode, final File classDirectory) {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+    if (compiler == null) {
+      throw new RPGException("no Java compiler available (running on a JRE?)");
+    }
+
+    final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+
+    try {
+      final List<JavaFileObject> compilationUnits = new ArrayList<>();
+      compilationUnits.add(new SourceCode(getQualifiedClassName(), javaCode));
+
+      for (final JavaFileObject runtimeFile :
+          fileManager.getJavaFileObjectsFromFiles(getRuntimeFiles())) {
+        compilationUnits.add(runtimeFile);
+      }
+
+      final List<String> options = Arrays.asList(
+          "-nowarn",
+          "-d", classDirectory.getPath(),
+          "-cp", System.getProperty("java.class.path"));
+
+      final boolean success =
+          compiler.getTask(null, fileManager, null, options, null, compilationUnits).call();
+
+      if (!success) {
+        throw new RPGException(String.format(
+            "could not compile specification '%s'", this.specificationFileName));
+      }
+    } finally {
+      try {
+        fileManager.close();
+      } catch (final IOException exception) {
+        // ignore
+      }
+    }
+  }
+
+  private static final class SourceCode extends SimpleJavaFileObject {
+
+    private final String code;
+
+    public SourceCode(final String qualifiedClassName, final String code) {
+      super(URI.create(String.format("string:///%s%s",
+          qualifiedClassName.replace('.', '/'), Kind.SOURCE.extension)), Kind.SOURCE);
+      this.code = code;
+    }
+
+    @Override
+    public final CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+      return this.code;
+    }
+
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  // sorted by name (for a deterministic key)
+  private final List<File> getRuntimeFiles() {
+    final List<File> runtimeFiles = new ArrayList<>();
+
+    if (this.runtimeDirectory != null) {
+      final File[] files = new File(this.runtimeDirectory).listFiles();
+
+      if (files == null) {
+        throw new RPGException(
+            String.format("runtime directory '%s' does not exist", this.runtimeDirectory));
+      }
+
+      for (final File file : files) {
+        if (file.getName().endsWith(".java")) {
+          runtimeFiles.add(file);
+        }
+      }
+    }
+
+    Collections.sort(runtimeFiles);
+
+    return runtimeFiles;
+  }
+
+  private final String computeKey() {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(HASH_ALGORITHM);
+    } catch (final NoSuchAlgorithmException exception) {
+      throw new RPGException("hash algorithm not available", exception);
+    }
+
+    updateDigest(digest, readFile(new File(this.specificationFileName)));
+
+    for (final File runtimeFile : getRuntimeFiles()) {
+      updateDigest(digest, runtimeFile.getName());
+      updateDigest(digest, readFile(runtimeFile));
+    }
+
+    updateDigest(digest, String.valueOf(this.maxDepth));
+    updateDigest(digest, String.valueOf(this.packageName));
+    updateDigest(digest, (this.features == null) ? "*" : sorted(this.features));
+    updateDigest(digest, String.valueOf(this.attributeSlots));
+    updateDigest(digest, sorted(this.pureFunctions));
+    updateDigest(digest, String.valueOf(this.splitCode));
+    updateDigest(digest, getTranslatorFingerprint());
+    updateDigest(digest, System.getProperty("java.version"));
+
+    final StringBuilder builder = new StringBuilder();
+    for (final byte hashByte : digest.digest()) {
+      builder.append(String.format("%02x", hashByte));
+    }
+
+    return builder.substring(0, HASH_PREFIX_LENGTH * 2);
+  }
+
+  // each value is prefixed with its length, i.e., different sequences of values never result in
+  // the same input of the hash function
+  private static final void updateDigest(final MessageDigest digest, final byte[] value) {
+    digest.update(String.format("%d:", value.length).getBytes(StandardCharsets.UTF_8));
+    digest.update(value);
+  }
+
+  private static final void updateDigest(final MessageDigest digest, final String value) {
+    updateDigest(digest, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static final String sorted(final Set<String> values) {
+    return String.valueOf(new TreeSet<>(values));
+  }
+
+  // size and modification time of the JAR file (or class directory) that contains the translator,
+  // i.e., rebuilding StarSmith invalidates the cache
+  private static final String getTranslatorFingerprint() {
+    final CodeSource codeSource =
+        SpecificationCompiler.class.getProtectionDomain().getCodeSource();
+
+    if (codeSource == null) {
+      return "";
+    }
+
+    try {
+      final File location = new File(codeSource.getLocation().toURI());
+      return String.format("%s:%d:%d",
+          location.getPath(), location.length(), location.lastModified());
+    } catch (final URISyntaxException | IllegalArgumentException exception) {
+      return "";
+    }
+  }
+
+  private static final byte[] readFile(final File file) {
+    try {
+      return Files.readAllBytes(file.toPath());
+    } catch (final IOException exception) {
+      throw new RPGException(
+          String.format("unable to read file '%s'", file.getPath()), exception);
+    }
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  private final File createTemporaryDirectory() {
+    createDirectory(this.cacheDirectory);
+
+    try {
+      return Files.createTempDirectory(this.cacheDirectory.toPath(), ".tmp-").toFile();
+    } catch (final IOException exception) {
+      throw new RPGException(String.format(
+          "could not create directory in '%s'", this.cacheDirectory.getPath()), exception);
+    }
+  }
+
+  private static final void createDirectory(final File directory) {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new RPGException(
+          String.format("could not create directory '%s'", directory.getPath()));
+    }
+  }
+
+  private static final void createFile(final File file) {
+    try {
+      Files.createFile(file.toPath());
+    } catch (final IOException exception) {
+      throw new RPGException(
+          String.format("could not create file '%s'", file.getPath()), exception);
+    }
+  }
+
+  private static final void deleteRecursively(final File file) {
+    final File[] children = file.listFiles();
+
+    if (children != null) {
+      for (final File child : children) {
+        deleteRecursively(child);
+      }
+    }
+
+    file.delete();
+  }
+
+}
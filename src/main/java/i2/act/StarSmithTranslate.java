@@ -12,11 +12,13 @@ import i2.act.lala.ast.ProductionDeclaration;
 import i2.act.lala.ast.visitors.*;
 import i2.act.lala.info.SourceFile;
 import i2.act.lala.parser.LaLaParser;
+import i2.act.util.ArgumentSplitter;
 import i2.act.util.FileUtil;
 import i2.act.util.options.*;
 
 import java.io.BufferedWriter;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -41,6 +43,12 @@ public final class StarSmithTranslate {
   private static final String OPTION_PACKAGE = "--package";
   private static final String OPTION_FEATURES = "--features";
   private static final String OPTION_ALL_FEATURES = "--allFeatures";
+  private static final String OPTION_ATTRIBUTE_SLOTS = "--attributeSlots";
+  private static final String OPTION_PURE_FUNCTIONS = "--pure";
+  private static final String OPTION_SPLIT_CODE = "--splitCode";
+  private static final String OPTION_COMPILE = "--compile";
+  private static final String OPTION_RUNTIME = "--runtime";
+  private static final String OPTION_RUN = "--run";
 
   static {
     argumentsParser = new ProgramArgumentsParser();
@@ -58,6 +66,13 @@ public final class StarSmithTranslate {
     argumentsParser.addOption(OPTION_PACKAGE, false, true, "<package of the generated class>");
     argumentsParser.addOption(OPTION_FEATURES, false, true, "<comma separated list of features>");
     argumentsParser.addOption(OPTION_ALL_FEATURES, false);
+    argumentsParser.addOption(OPTION_ATTRIBUTE_SLOTS, false);
+    argumentsParser.addOption(OPTION_PURE_FUNCTIONS, false, true,
+        "<comma separated list of pure attribute functions (e.g., Type:assignable)>");
+    argumentsParser.addOption(OPTION_SPLIT_CODE, false);
+    argumentsParser.addOption(OPTION_COMPILE, false, true, "<cache directory for class files>");
+    argumentsParser.addOption(OPTION_RUNTIME, false, true, "<directory of runtime sources>");
+    argumentsParser.addOption(OPTION_RUN, false, true, "<options of the generated program>");
   }
 
   private static final void usage() {
@@ -88,6 +103,21 @@ public final class StarSmithTranslate {
     return featureSet;
   }
 
+  // the functions are given as '<namespace>:<function name>' (as in the LaLa specification)
+  private static final Set<String> getPureFunctions(final String pureFunctionsString) {
+    final Set<String> pureFunctions = new HashSet<>();
+
+    if (pureFunctionsString != null) {
+      for (final String pureFunction : pureFunctionsString.split(",")) {
+        if (!pureFunction.trim().isEmpty()) {
+          pureFunctions.add(pureFunction.trim());
+        }
+      }
+    }
+
+    return pureFunctions;
+  }
+
   public static final void main(final String[] args) {
     ProgramArguments arguments = null;
   
@@ -99,6 +129,11 @@ public final class StarSmithTranslate {
       if (arguments.hasOption(OPTION_MAX_DEPTH)) {
         maxDepth = arguments.getIntOption(OPTION_MAX_DEPTH);
       }
+
+      if (arguments.hasOption(OPTION_RUN) && !arguments.hasOption(OPTION_COMPILE)) {
+        throw new RuntimeException(
+            String.format("option '%s' requires option '%s'", OPTION_RUN, OPTION_COMPILE));
+      }
     } catch (final Exception exception) {
       System.err.println("[!] " + exception.getMessage());
       usage();
@@ -123,11 +158,32 @@ public final class StarSmithTranslate {
         getFeatureSet(
             arguments.getOptionOr(OPTION_FEATURES, null),
             arguments.hasOption(OPTION_ALL_FEATURES));
+    final boolean attributeSlots = arguments.hasOption(OPTION_ATTRIBUTE_SLOTS);
+    final Set<String> pureFunctions =
+        getPureFunctions(arguments.getOptionOr(OPTION_PURE_FUNCTIONS, null));
+    final boolean splitCode = arguments.hasOption(OPTION_SPLIT_CODE);
+
+    final String cacheDirectory = arguments.getOptionOr(OPTION_COMPILE, null);
+    final String runtimeDirectory = arguments.getOptionOr(OPTION_RUNTIME, null);
+    final String runOptions = arguments.getOptionOr(OPTION_RUN, null);
 
     try {
-      starSmithTranslate.run(prettyPrint, printGeneratorGraph, printDominatorTree,
-          printAttributeDependencies, printDepths, toJavaFileName, printISSI, printDependencyGraphs,
-          packageName, features);
+      if (cacheDirectory == null) {
+        starSmithTranslate.run(prettyPrint, printGeneratorGraph, printDominatorTree,
+            printAttributeDependencies, printDepths, toJavaFileName, printISSI,
+            printDependencyGraphs, packageName, features, attributeSlots, pureFunctions,
+            splitCode);
+      } else {
+        final SpecificationCompiler specificationCompiler =
+            new SpecificationCompiler(inputFileName, maxDepth, packageName, features,
+                attributeSlots, pureFunctions, splitCode, runtimeDirectory, cacheDirectory);
+
+        if (runOptions == null) {
+          System.out.println(specificationCompiler.compile().getPath());
+        } else {
+          specificationCompiler.runMain(ArgumentSplitter.splitArguments(runOptions));
+        }
+      }
     } catch (final InvalidLanguageSpecificationException exception) {
       System.err.println("[!] invalid language specification");
       System.err.println(exception.getMessage());
@@ -153,21 +209,11 @@ public final class StarSmithTranslate {
   public final void run(final boolean prettyPrint, final boolean printGeneratorGraph,
       final boolean printDominatorTree, final boolean printAttributeDependencies,
       final boolean printDepths, final String toJavaFileName, final boolean printISSI,
-      final boolean printDependencyGraphs, final String packageName, final Set<String> features) {
+      final boolean printDependencyGraphs, final String packageName, final Set<String> features,
+      final boolean attributeSlots, final Set<String> pureFunctions, final boolean splitCode) {
     final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(System.out));
 
-    final LaLaParser parser =
-        LaLaParser.constructParser(this.sourceFile);
-
-    final LaLaSpecification specification = parser.parseLanguageSpecification();
-
-    // semantic analysis
-    SemanticAnalysis.analyze(specification);
-    AttributeCheck.analyze(specification);
-    StrongNonCyclicityCheck.analyze(specification, printISSI, printDependencyGraphs);
-
-    // warn on unused classes
-    UnusedClasses.emitWarnings(specification);
+    final LaLaSpecification specification = parseAndAnalyze(printISSI, printDependencyGraphs);
 
     // pretty print language specification
     if (prettyPrint) {
@@ -185,15 +231,7 @@ public final class StarSmithTranslate {
     final GeneratorGraph generatorGraph = GeneratorGraph.fromAST(specification);
 
     // compute depths
-    MinHeightComputation.computeMinHeights(generatorGraph);
-
-    // check that each production has a sub-tree with finite height
-    for (final ProductionNode production : generatorGraph.getProductionNodes()) {
-      if (production.getMinHeight() >= Integer.MAX_VALUE) {
-        LanguageSpecificationError.fail((ProductionDeclaration) production,
-            String.format("production '%s' does not have finite height", production.getName()));
-      }
-    }
+    computeAndCheckMinHeights(generatorGraph);
 
     // print depths (if enabled)
     if (printDepths) {
@@ -225,13 +263,69 @@ public final class StarSmithTranslate {
       }
 
       final GenerateJavaSpec javaSpecGenerator = new GenerateJavaSpec(javaClassName,
-          this.maxDepth, packageName, features);
+          this.maxDepth, packageName, features, attributeSlots, pureFunctions, splitCode);
       javaSpecGenerator.visit(specification, javaFileWriter);
 
-      FileUtil.flushWriter(javaFileWriter);
+      if (javaFileWriter == writer) {
+        FileUtil.flushWriter(javaFileWriter);
+      } else {
+        FileUtil.closeWriter(javaFileWriter);
+      }
     }
 
-    FileUtil.closeWriter(writer);
+    // do not close the writer, as this would also close System.out
+    FileUtil.flushWriter(writer);
+  }
+
+  // translates the specification to the source code of a Java class (used to compile the
+  // specification in memory, see 'SpecificationCompiler')
+  public final String translateToJava(final String javaClassName, final String packageName,
+      final Set<String> features, final boolean attributeSlots, final Set<String> pureFunctions,
+      final boolean splitCode) {
+    final LaLaSpecification specification = parseAndAnalyze(false, false);
+
+    computeAndCheckMinHeights(GeneratorGraph.fromAST(specification));
+
+    final StringWriter javaCode = new StringWriter();
+    final BufferedWriter javaCodeWriter = new BufferedWriter(javaCode);
+
+    final GenerateJavaSpec javaSpecGenerator = new GenerateJavaSpec(javaClassName,
+        this.maxDepth, packageName, features, attributeSlots, pureFunctions, splitCode);
+    javaSpecGenerator.visit(specification, javaCodeWriter);
+
+    FileUtil.closeWriter(javaCodeWriter);
+
+    return javaCode.toString();
+  }
+
+  private final LaLaSpecification parseAndAnalyze(final boolean printISSI,
+      final boolean printDependencyGraphs) {
+    final LaLaParser parser =
+        LaLaParser.constructParser(this.sourceFile);
+
+    final LaLaSpecification specification = parser.parseLanguageSpecification();
+
+    // semantic analysis
+    SemanticAnalysis.analyze(specification);
+    AttributeCheck.analyze(specification);
+    StrongNonCyclicityCheck.analyze(specification, printISSI, printDependencyGraphs);
+
+    // warn on unused classes
+    UnusedClasses.emitWarnings(specification);
+
+    return specification;
+  }
+
+  private static final void computeAndCheckMinHeights(final GeneratorGraph generatorGraph) {
+    MinHeightComputation.computeMinHeights(generatorGraph);
+
+    // check that each production has a sub-tree with finite height
+    for (final ProductionNode production : generatorGraph.getProductionNodes()) {
+      if (production.getMinHeight() >= Integer.MAX_VALUE) {
+        LanguageSpecificationError.fail((ProductionDeclaration) production,
+            String.format("production '%s' does not have finite height", production.getName()));
+      }
+    }
   }
 
 }
@@ -0,0 +1,64 @@
+package i2.act.fuzzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// maps each source attribute instance of a production (i.e., an attribute together with the index
+// of the node it belongs to) to the attribute rules that read it
+public final class AttributeDependencies {
+
+  // index 0 holds the attributes of the node itself (source node index -1), index i + 1 those of
+  // the i-th child
+  private final List<Map<Attribute, List<AttributeRule>>> readers;
+
+  public AttributeDependencies(final List<AttributeRule> attributeRules) {
+    this.readers = new ArrayList<>();
+
+    for (final AttributeRule attributeRule : attributeRules) {
+      final Attribute[] sourceAttributes = attributeRule.getSourceAttributes();
+      final int[] sourceNodeIndexes = attributeRule.getSourceNodeIndexes();
+
+      final int numberOfSourceAttributes = attributeRule.getNumberOfSourceAttributes();
+      for (int i = 0; i < numberOfSourceAttributes; ++i) {
+        final int index = sourceNodeIndexes[i] + 1;
+
+        while (this.readers.size() <= index) {
+          this.readers.add(new HashMap<>());
+        }
+
+        final Map<Attribute, List<AttributeRule>> readersOfNode = this.readers.get(index);
+
+        List<AttributeRule> readersOfAttribute = readersOfNode.get(sourceAttributes[i]);
+        if (readersOfAttribute == null) {
+          readersOfAttribute = new ArrayList<>();
+          readersOfNode.put(sourceAttributes[i], readersOfAttribute);
+        }
+
+        if (!readersOfAttribute.contains(attributeRule)) {
+          readersOfAttribute.add(attributeRule);
+        }
+      }
+    }
+  }
+
+  public final List<AttributeRule> getReaders(final Attribute attribute,
+      final int sourceNodeIndex) {
+    final int index = sourceNodeIndex + 1;
+
+    if (index >= this.readers.size()) {
+      return Collections.emptyList();
+    }
+
+    final List<AttributeRule> readersOfAttribute = this.readers.get(index).get(attribute);
+
+    if (readersOfAttribute == null) {
+      return Collections.emptyList();
+    }
+
+    return readersOfAttribute;
+  }
+
+}
@@ -0,0 +1,180 @@
+package i2.act.fuzzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// worklist-based attribute evaluation: after one pass over the (sub-)tree, an attribute rule is
+// only visited again if one of its source attributes has been computed in the meantime (or if it
+// computes a synthesized attribute and the guards of its node have been satisfied in the meantime)
+public final class AttributeEvaluator {
+
+  private static final int INITIAL_WORKLIST_CAPACITY = 64;
+
+  private Node[] worklistNodes;
+  private AttributeRule[] worklistRules;
+  private int worklistSize;
+
+  // synthesized attribute rules that wait for the guards of their node to be satisfied
+  private final Map<Node, List<AttributeRule>> blockedRules;
+
+  private Node rootNode;
+  private boolean shallow;
+  private boolean printExceptions;
+
+  public AttributeEvaluator() {
+    this.worklistNodes = new Node[INITIAL_WORKLIST_CAPACITY];
+    this.worklistRules = new AttributeRule[INITIAL_WORKLIST_CAPACITY];
+    this.worklistSize = 0;
+
+    this.blockedRules = new IdentityHashMap<>();
+  }
+
+  public final void evaluate(final Node rootNode, final boolean shallow,
+      final boolean printExceptions) {
+    this.rootNode = rootNode;
+    this.shallow = shallow;
+    this.printExceptions = printExceptions;
+
+    try {
+      evaluateSubtree(rootNode);
+
+      while (this.worklistSize > 0) {
+        --this.worklistSize;
+
+        final Node node = this.worklistNodes[this.worklistSize];
+        final AttributeRule attributeRule = this.worklistRules[this.worklistSize];
+
+        this.worklistNodes[this.worklistSize] = null;
+        this.worklistRules[this.worklistSize] = null;
+
+        evaluateRule(node, attributeRule);
+      }
+    } finally {
+      for (int index = 0; index < this.worklistSize; ++index) {
+        this.worklistNodes[index] = null;
+        this.worklistRules[index] = null;
+      }
+
+      this.worklistSize = 0;
+      this.blockedRules.clear();
+      this.rootNode = null;
+    }
+  }
+
+  private final void evaluateSubtree(final Node node) {
+    final Production production = node.getProduction();
+
+    if (production != null) {
+      for (final AttributeRule attributeRule : production.getAttributeRules()) {
+        evaluateRule(node, attributeRule);
+      }
+    }
+
+    for (final Node child : node.getChildren()) {
+      if (isEvaluated(child)) {
+        evaluateSubtree(child);
+      }
+    }
+  }
+
+  // assumes that the parent of the node is evaluated
+  private final boolean isEvaluated(final Node node) {
+    return !this.shallow || !node.isGuardedOrUnit();
+  }
+
+  private final void evaluateRule(final Node node, final AttributeRule attributeRule) {
+    if (attributeRule.alreadyComputed(node)) {
+      // attribute value has already been computed => do nothing
+      return;
+    }
+
+    if (attributeRule.isSynthesizedRule() && !node.allGuardsSatisfied(false)) {
+      // only evaluate synthesized attribute if all guards evaluate successfully
+      block(node, attributeRule);
+      return;
+    }
+
+    if (attributeRule.evaluate(node, this.printExceptions) && attributeRule.alreadyComputed(node)) {
+      attributeComputed(node, attributeRule);
+    }
+  }
+
+  private final void attributeComputed(final Node node, final AttributeRule attributeRule) {
+    final Attribute attribute = attributeRule.getTargetAttribute();
+    final int targetNodeIndex = attributeRule.getTargetNodeIndex();
+
+    if (targetNodeIndex == -1) {
+      scheduleReaders(node, attribute, -1);
+
+      if (attribute.isGuard()) {
+        unblock(node);
+      }
+
+      final Node parent = node.getParent();
+      if (node != this.rootNode && parent != null) {
+        scheduleReaders(parent, attribute, parent.getIndexOfChild(node));
+      }
+    } else {
+      scheduleReaders(node, attribute, targetNodeIndex);
+
+      final Node targetNode = node.getChild(targetNodeIndex);
+      if (isEvaluated(targetNode)) {
+        scheduleReaders(targetNode, attribute, -1);
+      }
+    }
+  }
+
+  private final void scheduleReaders(final Node node, final Attribute attribute,
+      final int sourceNodeIndex) {
+    final Production production = node.getProduction();
+
+    if (production == null) {
+      return;
+    }
+
+    for (final AttributeRule reader
+        : production.getAttributeDependencies().getReaders(attribute, sourceNodeIndex)) {
+      if (!reader.alreadyComputed(node)) {
+        push(node, reader);
+      }
+    }
+  }
+
+  private final void push(final Node node, final AttributeRule attributeRule) {
+    if (this.worklistSize == this.worklistNodes.length) {
+      final int capacity = 2 * this.worklistSize;
+
+      this.worklistNodes = Arrays.copyOf(this.worklistNodes, capacity);
+      this.worklistRules = Arrays.copyOf(this.worklistRules, capacity);
+    }
+
+    this.worklistNodes[this.worklistSize] = node;
+    this.worklistRules[this.worklistSize] = attributeRule;
+    ++this.worklistSize;
+  }
+
+  private final void block(final Node node, final AttributeRule attributeRule) {
+    List<AttributeRule> blockedRulesOfNode = this.blockedRules.get(node);
+
+    if (blockedRulesOfNode == null) {
+      blockedRulesOfNode = new ArrayList<>();
+      this.blockedRules.put(node, blockedRulesOfNode);
+    }
+
+    blockedRulesOfNode.add(attributeRule);
+  }
+
+  private final void unblock(final Node node) {
+    if (!this.blockedRules.containsKey(node) || !node.allGuardsSatisfied(false)) {
+      return;
+    }
+
+    for (final AttributeRule attributeRule : this.blockedRules.remove(node)) {
+      push(node, attributeRule);
+    }
+  }
+
+}
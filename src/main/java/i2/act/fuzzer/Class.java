@@ -43,6 +43,9 @@ public abstract class Class implements ClassNode {
 
   private final int maxAlternatives;
 
+  // computed on first use (i.e., after all productions have been added)
+  private volatile WeightedProductions weightedProductions;
+
   public Class(final int id, final String name, final boolean isUnit, final boolean isList,
       final boolean isGeneratorClass, final int generatorPrecedence, final Attribute[] attributes,
       final String regularExpression, final int literalCount, final int maxHeight,
@@ -196,6 +199,7 @@ public abstract class Class implements ClassNode {
   public final void addProduction(final Production production) {
     this.productionList.add(production); // ensures deterministic ordering
     this.productionNames.put(production.name, production);
+    this.weightedProductions = null;
 
     for (final Class childClass : production.childClasses()) {
       childClass.generatingProductions.add(production);
@@ -206,6 +210,17 @@ public abstract class Class implements ClassNode {
     return Collections.unmodifiableList(this.productionList);
   }
 
+  public final WeightedProductions getWeightedProductions() {
+    WeightedProductions weightedProductions = this.weightedProductions;
+
+    if (weightedProductions == null) {
+      weightedProductions = new WeightedProductions(this.productionList);
+      this.weightedProductions = weightedProductions;
+    }
+
+    return weightedProductions;
+  }
+
   public final Production getProductionByName(final String productionName) {
     return this.productionNames.get(productionName);
   }
@@ -284,16 +299,16 @@ public abstract class Class implements ClassNode {
     return this.id;
   }
 
-  public final Node createNode(final Node parent, final int allowedHeight,
-      final int allowedWidth) {
-    return createNode(parent, allowedHeight, allowedWidth, null);
+  public final Node createNode(final GenerationContext context, final Node parent,
+      final int allowedHeight, final int allowedWidth) {
+    return createNode(context, parent, allowedHeight, allowedWidth, null);
   }
 
 
   // --- to implement in the sub-classes ---
 
 
-  public abstract Node createNode(final Node parent, final int allowedHeight,
-      final int allowedWidth, final Node expected);
+  public abstract Node createNode(final GenerationContext context, final Node parent,
+      final int allowedHeight, final int allowedWidth, final Node expected);
 
 }
@@ -0,0 +1,114 @@
+package i2.act.fuzzer;
+
+import i2.act.errors.RPGException;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// target of 'printCode()': either an in-memory string builder or a writer that streams the code
+// directly to its destination (e.g., a file) without materializing the whole program text
+public abstract class CodeSink {
+
+  public static final CodeSink forBuilder(final StringBuilder builder) {
+    return new BuilderSink(builder);
+  }
+
+  public static final CodeSink forWriter(final Writer writer) {
+    return new WriterSink(writer);
+  }
+
+  // --------------------------------------------------------------------------
+
+  private static final class BuilderSink extends CodeSink {
+
+    private final StringBuilder builder;
+
+    public BuilderSink(final StringBuilder builder) {
+      this.builder = builder;
+    }
+
+    @Override
+    public final CodeSink append(final String string) {
+      this.builder.append(string);
+      return this;
+    }
+
+    @Override
+    public final CodeSink append(final char character) {
+      this.builder.append(character);
+      return this;
+    }
+
+    @Override
+    public final void checkError() {
+      // appending to a string builder cannot fail
+    }
+
+  }
+
+  // the generated 'printCode()' methods silently ignore exceptions that are thrown while printing
+  // the result of an attribute expression -> I/O errors are recorded and reported by 'checkError()'
+  private static final class WriterSink extends CodeSink {
+
+    private final Writer writer;
+
+    private IOException exception;
+
+    public WriterSink(final Writer writer) {
+      this.writer = writer;
+    }
+
+    @Override
+    public final CodeSink append(final String string) {
+      if (this.exception == null) {
+        try {
+          this.writer.write(string);
+        } catch (final IOException exception) {
+          this.exception = exception;
+        }
+      }
+
+      return this;
+    }
+
+    @Override
+    public final CodeSink append(final char character) {
+      if (this.exception == null) {
+        try {
+          this.writer.write(character);
+        } catch (final IOException exception) {
+          this.exception = exception;
+        }
+      }
+
+      return this;
+    }
+
+    @Override
+    public final void checkError() {
+      if (this.exception != null) {
+        throw new RPGException("unable to write code", this.exception);
+      }
+    }
+
+  }
+
+  // --------------------------------------------------------------------------
+
+  public abstract CodeSink append(final String string);
+
+  public abstract CodeSink append(final char character);
+
+  public final CodeSink append(final Object object) {
+    return append(String.valueOf(object));
+  }
+
+  public final void printIndentation(final int indentation) {
+    for (int i = 0; i < indentation; ++i) {
+      append("  ");
+    }
+  }
+
+  public abstract void checkError();
+
+}
@@ -0,0 +1,262 @@
+package i2.act.fuzzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// fail patterns that apply to a node, bucketed by the production at their root such that matching
+// a tree (or filtering the patterns for one of its children) only has to look at the patterns
+// that may actually match
+//
+// an index may be layered on top of another (shared) index, i.e., the fail patterns that a node
+// inherits from its parent are never copied; only the fail patterns that are added to the node
+// itself are stored in its own layer (see 'Node.addFailPattern()')
+public final class FailPatternIndex {
+
+  public static final FailPatternIndex EMPTY = new FailPatternIndex();
+
+  // 'null' if this index is not layered on top of another one
+  private final FailPatternIndex base;
+
+  // number of distinct root productions (including the ones of the base, excluding the wildcard)
+  private int numberOfFailedProductions;
+
+  // all fail patterns of this layer in insertion order
+  private final List<FailPattern> failPatterns;
+
+  private final List<FailPattern> wildcards;
+
+  private final Map<Production, List<FailPattern>> byProduction;
+
+  // XXX NOTE: this assumes that the reference of the generator value does not change!
+  private final Map<Object, List<FailPattern>> byGeneratorValue;
+
+  private final Set<Object> failedGeneratorValues;
+
+  public FailPatternIndex() {
+    this(null);
+  }
+
+  // NOTE: the base is shared, i.e., it must not be changed afterwards
+  public FailPatternIndex(final FailPatternIndex base) {
+    if (base == null || base.isEmpty()) {
+      this.base = null;
+      this.numberOfFailedProductions = 0;
+    } else {
+      this.base = base;
+      this.numberOfFailedProductions = base.numberOfFailedProductions;
+    }
+
+    this.failPatterns = new ArrayList<>();
+    this.wildcards = new ArrayList<>();
+    this.byProduction = new HashMap<>();
+    this.byGeneratorValue = new IdentityHashMap<>();
+    this.failedGeneratorValues = new HashSet<>();
+  }
+
+  public final void add(final FailPattern failPattern) {
+    assert (this != EMPTY);
+
+    this.failPatterns.add(failPattern);
+
+    final Production production = failPattern.getRootProduction();
+
+    if (production == FailPattern.WILDCARD) {
+      this.wildcards.add(failPattern);
+      return;
+    }
+
+    if (!isFailedProduction(production)) {
+      ++this.numberOfFailedProductions;
+    }
+
+    addToBucket(this.byProduction, production, failPattern);
+
+    if (production.generatorValue != null) {
+      addToBucket(this.byGeneratorValue, production.generatorValue, failPattern);
+      this.failedGeneratorValues.add(production.generatorValue);
+    }
+  }
+
+  private static final <K> void addToBucket(final Map<K, List<FailPattern>> buckets,
+      final K key, final FailPattern failPattern) {
+    List<FailPattern> bucket = buckets.get(key);
+
+    if (bucket == null) {
+      bucket = new ArrayList<>();
+      buckets.put(key, bucket);
+    }
+
+    bucket.add(failPattern);
+  }
+
+  public final boolean isEmpty() {
+    return size() == 0;
+  }
+
+  public final int size() {
+    if (this.base == null) {
+      return this.failPatterns.size();
+    } else {
+      return this.base.size() + this.failPatterns.size();
+    }
+  }
+
+  // the fail patterns of the base come first
+  public final List<FailPattern> asList() {
+    if (this.base == null) {
+      return Collections.unmodifiableList(this.failPatterns);
+    }
+
+    final List<FailPattern> failPatterns = new ArrayList<>(this.base.asList());
+    failPatterns.addAll(this.failPatterns);
+
+    return Collections.unmodifiableList(failPatterns);
+  }
+
+  public final boolean containsWildcard() {
+    return !this.wildcards.isEmpty() || (this.base != null && this.base.containsWildcard());
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  public final boolean matches(final Node tree) {
+    if (containsWildcard()) {
+      return true;
+    }
+
+    final Production production = tree.getProduction();
+
+    if (production == null) {
+      // only wildcards match unresolved nodes
+      return false;
+    }
+
+    if (production.generatorValue != null) {
+      // every fail pattern with the same generator value matches
+      return isFailedGeneratorValue(production.generatorValue);
+    }
+
+    return matches(tree, production);
+  }
+
+  private final boolean matches(final Node tree, final Production production) {
+    if (this.base != null && this.base.matches(tree, production)) {
+      return true;
+    }
+
+    final List<FailPattern> bucket = this.byProduction.get(production);
+
+    if (bucket != null) {
+      for (final FailPattern failPattern : bucket) {
+        if (failPattern.matches(tree)) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  // returns the sub-patterns at the given child index of all fail patterns that match the node
+  // (ignoring the sub-tree at this child index)
+  //
+  // the sub-patterns are in the same order as the fail patterns (first the wildcards, then the
+  // ones of the bucket of the node's production; the ones of the base before the ones of this
+  // layer)
+  public final FailPatternIndex filter(final Node node, final int childIndex) {
+    FailPatternIndex matchingFailPatterns = filterWildcards(childIndex, null);
+    matchingFailPatterns = filterBucket(node, childIndex, matchingFailPatterns);
+
+    if (matchingFailPatterns == null) {
+      return EMPTY;
+    }
+
+    return matchingFailPatterns;
+  }
+
+  private final FailPatternIndex filterWildcards(final int childIndex,
+      FailPatternIndex matchingFailPatterns) {
+    if (this.base != null) {
+      matchingFailPatterns = this.base.filterWildcards(childIndex, matchingFailPatterns);
+    }
+
+    for (final FailPattern failPattern : this.wildcards) {
+      matchingFailPatterns =
+          addChild(matchingFailPatterns, failPattern.getChild(childIndex));
+    }
+
+    return matchingFailPatterns;
+  }
+
+  private final FailPatternIndex filterBucket(final Node node, final int childIndex,
+      FailPatternIndex matchingFailPatterns) {
+    if (this.base != null) {
+      matchingFailPatterns = this.base.filterBucket(node, childIndex, matchingFailPatterns);
+    }
+
+    final Production production = node.getProduction();
+
+    if (production != null && production.generatorValue != null) {
+      final List<FailPattern> bucket = this.byGeneratorValue.get(production.generatorValue);
+
+      if (bucket != null) {
+        for (final FailPattern failPattern : bucket) {
+          matchingFailPatterns =
+              addChild(matchingFailPatterns, failPattern.getChild(childIndex));
+        }
+      }
+    } else if (production != null) {
+      final List<FailPattern> bucket = this.byProduction.get(production);
+
+      if (bucket != null) {
+        for (final FailPattern failPattern : bucket) {
+          if (failPattern.matches(node, childIndex)) {
+            matchingFailPatterns =
+                addChild(matchingFailPatterns, failPattern.getChild(childIndex));
+          }
+        }
+      }
+    }
+
+    return matchingFailPatterns;
+  }
+
+  private static final FailPatternIndex addChild(final FailPatternIndex failPatterns,
+      final FailPattern childFailPattern) {
+    final FailPatternIndex extendedFailPatterns =
+        (failPatterns == null) ? new FailPatternIndex() : failPatterns;
+
+    extendedFailPatterns.add(childFailPattern);
+
+    return extendedFailPatterns;
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  public final boolean isFailedProduction(final Production production) {
+    return this.byProduction.containsKey(production)
+        || (this.base != null && this.base.isFailedProduction(production));
+  }
+
+  public final boolean isFailedGeneratorValue(final Object generatorValue) {
+    return this.failedGeneratorValues.contains(generatorValue)
+        || (this.base != null && this.base.isFailedGeneratorValue(generatorValue));
+  }
+
+  // number of distinct root productions (the wildcard counts as one production)
+  public final int numberOfFailedProductions() {
+    return this.numberOfFailedProductions + (containsWildcard() ? 1 : 0);
+  }
+
+  @Override
+  public final String toString() {
+    return asList().toString();
+  }
+
+}
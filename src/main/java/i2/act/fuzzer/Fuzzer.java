@@ -9,8 +9,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -25,9 +23,9 @@ public class Fuzzer {
       new Integer[] { }
   ));
 
-  public static final class Candidate extends Pair<Node, List<FailPattern>> {
+  public static final class Candidate extends Pair<Node, FailPatternIndex> {
 
-    public Candidate(final Node node, final List<FailPattern> failPatterns) {
+    public Candidate(final Node node, final FailPatternIndex failPatterns) {
       super(node, failPatterns);
     }
 
@@ -100,12 +98,37 @@ public class Fuzzer {
 
   private final BufferedWriter errorWriter;
 
+  private final GenerationContext generationContext;
+
   public boolean useSpecificPatterns = false;
 
   public boolean handleHeightLimitSpecially = true;
 
   public boolean shallowAttributeEvaluation = true;
 
+  // if set, the alternatives of each attempt are limited by the policy and the fuzzer restarts
+  // (even without 'restartOnFailure') once the budget of an attempt is exhausted
+  public RestartPolicy restartPolicy = null;
+
+  // if set, the fuzzer records its events in the profile (see option '--profile')
+  public GenerationProfile profile = null;
+
+  // budget consumed by the last generated program (over all attempts)
+  private int consumedAlternatives;
+  private int numberOfRestarts;
+
+  // if enabled, the (inclusive) time spent in chooseAlternative() and in the attribute evaluation
+  // is accumulated over all generated programs (used by the benchmarks)
+  public boolean measurePhaseTimes = false;
+
+  private long chooseAlternativeTime;
+  private int chooseAlternativeNesting;
+
+  private long attributeEvaluationTime;
+
+  // reused by 'applicableProductions()' (the result is only used until the production is chosen)
+  private final List<Production> applicableProductionsBuffer = new ArrayList<>();
+
   public Fuzzer(
       final Specification specification,
       final ProductionSelection productionSelection,
@@ -125,6 +148,8 @@ public class Fuzzer {
     this.debug = debug;
     this.diagnosticsWriter = diagnosticsWriter;
     this.errorWriter = errorWriter;
+
+    this.generationContext = new GenerationContext();
   }
 
   public final Node generateProgram(final int maxRecursionDepth) {
@@ -139,8 +164,11 @@ public class Fuzzer {
       final Node expected) {
     final int allowedWidth = this.specification.getRootClass().getMaxWidth();
 
-    final Node rootNode =
-        this.specification.getRootClass().createNode(null, -1, allowedWidth, expected);
+    // the id of the root node should not depend on previously generated programs
+    this.generationContext.resetNodeIds();
+
+    final Node rootNode = this.specification.getRootClass().createNode(
+        this.generationContext, null, -1, allowedWidth, expected);
 
     if (generateTree(rootNode, maxRecursionDepth, printDuration)) {
       return rootNode;
@@ -149,6 +177,29 @@ public class Fuzzer {
     }
   }
 
+  // in nanoseconds
+  public final long getChooseAlternativeTime() {
+    return this.chooseAlternativeTime;
+  }
+
+  // in nanoseconds
+  public final long getAttributeEvaluationTime() {
+    return this.attributeEvaluationTime;
+  }
+
+  public final int getConsumedAlternatives() {
+    return this.consumedAlternatives;
+  }
+
+  public final int getNumberOfRestarts() {
+    return this.numberOfRestarts;
+  }
+
+  public final void resetPhaseTimes() {
+    this.chooseAlternativeTime = 0;
+    this.attributeEvaluationTime = 0;
+  }
+
   public final boolean generateSubTree(final Node subRootNode) {
     return generateSubTree(subRootNode, this.specification.defaultMaxRecursionDepth,
         PRINT_DURATION);
@@ -165,8 +216,11 @@ public class Fuzzer {
 
     this.programRootNode = rootNode;
 
+    this.consumedAlternatives = 0;
+    this.numberOfRestarts = 0;
+
     while (true) {
-      Node.resetIdCounter();
+      rootNode.getGenerationContext().resetNodeIds();
       this.fuzzCount = 0;
       
       // setup counters for timeout checks
@@ -182,12 +236,22 @@ public class Fuzzer {
 
       this.startTime = System.currentTimeMillis();
 
+      final int maxAlternatives;
+      {
+        if (this.restartPolicy == null) {
+          maxAlternatives = this.maxAlternatives;
+        } else {
+          maxAlternatives = RestartPolicy.combine(
+              this.maxAlternatives, this.restartPolicy.getBudget(this.numberOfRestarts));
+        }
+      }
+
       FuzzingResult fuzzingResult;
       int numberOfAlternatives = 0;
       
       try {
         final Pair<FuzzingResult, Integer> returnValue =
-            fuzz(rootNode, new ArrayList<>(), maxRecursionDepth, 0, this.maxAlternatives);
+            fuzz(rootNode, FailPatternIndex.EMPTY, maxRecursionDepth, 0, maxAlternatives);
 
         fuzzingResult = returnValue.getFirst();
         numberOfAlternatives = returnValue.getSecond();
@@ -203,12 +267,19 @@ public class Fuzzer {
         fuzzingResult = FuzzingResult.FUZZ_FAIL;
       }
 
+      this.consumedAlternatives += numberOfAlternatives;
+
       if (fuzzingResult != FuzzingResult.FUZZ_SUCCESS) {
         rootNode.clearFailPatterns();
         rootNode.deconstructButKeepInheritedAttributeValues();
 
-        if (this.restartOnFailure) {
+        if (this.restartPolicy != null) {
+          // the budget of the next attempt is determined by the restart policy
+          ++this.numberOfRestarts;
+          continue;
+        } else if (this.restartOnFailure) {
           System.err.println("[i] fuzzing failed -> restart");
+          ++this.numberOfRestarts;
           continue;
         } else {
           return false;
@@ -220,8 +291,9 @@ public class Fuzzer {
 
         final long size = rootNode.size();
 
-        System.err.format("[i] program generation took %d ms (%d alternatives, %d nodes)\n",
-            endTime - startTime, numberOfAlternatives, size);
+        System.err.format(
+            "[i] program generation took %d ms (%d alternatives, %d restarts, %d nodes)\n",
+            endTime - startTime, this.consumedAlternatives, this.numberOfRestarts, size);
       }
 
       return true;
@@ -235,14 +307,25 @@ public class Fuzzer {
   private Node programRootNode;
   private int fuzzCount;
 
+  // one frontier per recursion depth of fuzz() (reused for all alternatives)
+  private final List<ResolutionFrontier> resolutionFrontiers = new ArrayList<>();
+
   private final Pair<FuzzingResult, Integer> fuzz(final Node rootNode,
-      final List<FailPattern> failPatterns, final int maxRecursionDepth, final int debugDepth,
+      final FailPatternIndex failPatterns, final int maxRecursionDepth, final int debugDepth,
       int maxAlternatives) {
     assert (rootNode.getFailPatterns().isEmpty());
     rootNode.setFailPatterns(failPatterns);
 
     final int ownFuzzCount = ++this.fuzzCount;
 
+    final long fuzzStartTime;
+    if (this.profile == null) {
+      fuzzStartTime = 0;
+    } else {
+      this.profile.recordFuzzCall(rootNode.getNodeClass());
+      fuzzStartTime = System.nanoTime();
+    }
+
     int numberOfAlternatives = 0;
 
     // decrease 'maxAlternatives' if root class allows less alternatives than are currently allowed
@@ -272,7 +355,8 @@ public class Fuzzer {
 
     // generator classes may have no possible productions
     if (rootNode.getPossibleProductions().isEmpty()) {
-      handleReturn(FuzzingResult.FUZZ_FAIL, debugDepth, rootNode, ownFuzzCount, 0);
+      handleReturn(
+          FuzzingResult.FUZZ_FAIL, debugDepth, rootNode, ownFuzzCount, fuzzStartTime, 0);
       return new Pair<FuzzingResult, Integer>(FuzzingResult.FUZZ_FAIL, numberOfAlternatives);
     }
 
@@ -281,11 +365,15 @@ public class Fuzzer {
     if (!constructGuardFree(rootNode, true, maxRecursionDepth, debugDepth, failPatterns)) {
       // NOTE: root node has already been deconstructed by constructGuardFree()
 
-      handleReturn(FuzzingResult.FUZZ_FAIL, debugDepth, rootNode, ownFuzzCount, 0);
+      handleReturn(
+          FuzzingResult.FUZZ_FAIL, debugDepth, rootNode, ownFuzzCount, fuzzStartTime, 0);
 
       return new Pair<FuzzingResult, Integer>(FuzzingResult.FUZZ_FAIL, numberOfAlternatives);
     }
 
+    // nested calls of fuzz() use the frontier of the next recursion depth
+    final ResolutionFrontier frontier = getResolutionFrontier(debugDepth);
+
     boolean childFailedDueToHeightLimit = false;
 
     boolean firstRound = true;
@@ -310,25 +398,27 @@ public class Fuzzer {
       evaluateAttributes(rootNode, true);
 
       if (!this.syntaxOnly && !rootNode.allGuardsOnInheritedAttributesSatisfied()) {
+        recordGuardFailure(rootNode);
         final FailPattern failPattern = FailPattern.forRootAlternative(rootNode);
         rootNode.addFailPattern(failPattern);
         continue enumerateAlternatives;
       }
 
       if (!this.syntaxOnly && !rootNode.noGuardsFailing(false)) {
+        recordGuardFailure(rootNode);
         final FailPattern failPattern =
             FailPattern.fromFailingRoot(rootNode, this.useSpecificPatterns);
         rootNode.addFailPattern(failPattern);
         continue enumerateAlternatives;
       }
 
-      Candidate resolvableNode;
+      frontier.collect(rootNode);
 
-      while ((resolvableNode = findFirstResolvableGuardedNode(rootNode)) != null) {
-        final Candidate toResolve = resolvableNode;
+      int resolvableIndex;
 
-        final Node nodeToResolve = toResolve.getFirst();
-        final List<FailPattern> failPatternsToResolve = toResolve.getSecond();
+      while ((resolvableIndex = frontier.findFirstResolvable()) != -1) {
+        final Node nodeToResolve = frontier.getNode(resolvableIndex);
+        final FailPatternIndex failPatternsToResolve = frontier.getFailPatterns(resolvableIndex);
 
         final int remainingAlternatives =
             (maxAlternatives == -1) ? (-1) : (maxAlternatives - numberOfAlternatives);
@@ -345,8 +435,8 @@ public class Fuzzer {
         if (fuzzingResult != FuzzingResult.FUZZ_SUCCESS) {
           if (fuzzingResult == FuzzingResult.FUZZ_FAIL) {
             final FailPattern failPattern =
-                FailPattern.fromFailingChild(rootNode, nodeToResolve, failPatternsToResolve,
-                    this.useSpecificPatterns);
+                FailPattern.fromFailingChild(rootNode, nodeToResolve,
+                    failPatternsToResolve.asList(), this.useSpecificPatterns);
             rootNode.addFailPattern(failPattern);
           } else {
             assert (fuzzingResult == FuzzingResult.FUZZ_HEIGHT_LIMIT);
@@ -362,10 +452,13 @@ public class Fuzzer {
         } // end-if "recursive call not successful"
 
         // -> recursive call successful
+        frontier.remove(resolvableIndex);
+
         // more attribute values may be available now that make the next node 'resolvable'
         evaluateAttributes(rootNode, true);
 
         if (!this.syntaxOnly && !rootNode.noGuardsFailing(false)) {
+          recordGuardFailure(rootNode);
           final FailPattern failPattern =
               FailPattern.fromFailingRoot(rootNode, this.useSpecificPatterns);
           rootNode.addFailPattern(failPattern);
@@ -393,11 +486,12 @@ public class Fuzzer {
         rootNode.clearFailPatterns();
 
         handleReturn(FuzzingResult.FUZZ_SUCCESS, debugDepth, rootNode, ownFuzzCount,
-            numberOfAlternatives);
+            fuzzStartTime, numberOfAlternatives);
 
         // \o/
         return new Pair<FuzzingResult, Integer>(FuzzingResult.FUZZ_SUCCESS, numberOfAlternatives);
       } else {
+        recordGuardFailure(rootNode);
         final FailPattern failPattern =
             FailPattern.fromFailingRoot(rootNode, this.useSpecificPatterns);
         rootNode.addFailPattern(failPattern);
@@ -428,12 +522,19 @@ public class Fuzzer {
       }
     }
 
-    handleReturn(fuzzingResult, debugDepth, rootNode, ownFuzzCount, numberOfAlternatives);
+    handleReturn(fuzzingResult, debugDepth, rootNode, ownFuzzCount, fuzzStartTime,
+        numberOfAlternatives);
 
     return new Pair<FuzzingResult, Integer>(fuzzingResult, numberOfAlternatives);
   }
 
-  private static final boolean isGuardedOrUnit(final Class _class) {
+  private final void recordGuardFailure(final Node node) {
+    if (this.profile != null) {
+      this.profile.recordGuardFailure(node);
+    }
+  }
+
+  static final boolean isGuardedOrUnit(final Class _class) {
     return _class.hasGuardAttribute() || _class.isUnit;
   }
 
@@ -460,11 +561,17 @@ public class Fuzzer {
   }
 
   private final void handleReturn(final FuzzingResult result, final int debugDepth,
-      final Node rootNode, final int ownFuzzCount, final int numberOfAlternatives) {
+      final Node rootNode, final int ownFuzzCount, final long fuzzStartTime,
+      final int numberOfAlternatives) {
     if (this.debug) {
       printDebugReturn(result, debugDepth, rootNode, ownFuzzCount);
     }
 
+    if (this.profile != null) {
+      this.profile.recordFuzzReturn(rootNode.getNodeClass(), result, numberOfAlternatives,
+          System.nanoTime() - fuzzStartTime);
+    }
+
     final String className = rootNode.getNodeClass().getName();
     final int numberOfCalls = this.fuzzCount - ownFuzzCount;
 
@@ -493,7 +600,13 @@ public class Fuzzer {
 
   private final void evaluateAttributes(final Node rootNode, final boolean shallow) {
     if (!this.syntaxOnly) {
-      rootNode.evaluateAttributesLoop(this.shallowAttributeEvaluation && shallow);
+      if (this.measurePhaseTimes) {
+        final long timeBefore = System.nanoTime();
+        rootNode.evaluateAttributesLoop(this.shallowAttributeEvaluation && shallow);
+        this.attributeEvaluationTime += System.nanoTime() - timeBefore;
+      } else {
+        rootNode.evaluateAttributesLoop(this.shallowAttributeEvaluation && shallow);
+      }
     }
   }
 
@@ -526,20 +639,25 @@ public class Fuzzer {
       }
 
       if (!nodeClass.isList && node.getAllowedHeight() == -1) {
-        final List<Production> applicableProductions =
-            new LinkedList<>(node.getPossibleProductions());
-        for (final Iterator<Production> iterator = applicableProductions.iterator();
-            iterator.hasNext(); ) {
-          final Production production = iterator.next();
-          if (production.weight == 0) {
-            iterator.remove();
+        if (!node.hasExpectedProduction()) {
+          // nothing is pruned -> the selection can use the precomputed cumulative weights
+          return nodeClass.getWeightedProductions().getProductions();
+        }
+
+        final List<Production> applicableProductions = this.applicableProductionsBuffer;
+        applicableProductions.clear();
+
+        for (final Production production : node.getPossibleProductions()) {
+          if (production.weight != 0) {
+            applicableProductions.add(production);
           }
         }
         return applicableProductions;
       }
     }
 
-    final List<Production> applicableProductions = new ArrayList<>();
+    final List<Production> applicableProductions = this.applicableProductionsBuffer;
+    applicableProductions.clear();
 
     for (final Production production : node.getPossibleProductions()) {
       if (productionApplicable(node, production)) {
@@ -564,6 +682,10 @@ public class Fuzzer {
       final Production production =
           this.productionSelection.choose(rootNode, applicableProductions);
 
+      if (this.profile != null) {
+        this.profile.recordApplication(rootNode, production);
+      }
+
       rootNode.applyProduction(production, maxRecursionDepth);
     }
 
@@ -576,18 +698,16 @@ public class Fuzzer {
 
   private final boolean constructGuardFree(final Node rootNode,
       final boolean forceRootNodeConstruction, final int maxRecursionDepth, final int debugDepth,
-      final List<FailPattern> failPatterns) {
+      final FailPatternIndex failPatterns) {
     constructGuardFree(rootNode, forceRootNodeConstruction, maxRecursionDepth);
 
-    for (final FailPattern failPattern : failPatterns) {
-      if (failPattern.matches(rootNode)) {
-        if (!chooseAlternative(rootNode, failPatterns, maxRecursionDepth, debugDepth)) {
-          rootNode.clearFailPatterns();
-          rootNode.deconstructButKeepInheritedAttributeValues();
-          return false;
-        }
-        return true; // already constructed an alternative that does not violate any fail patterns
+    if (failPatterns.matches(rootNode)) {
+      if (!chooseAlternative(rootNode, failPatterns, maxRecursionDepth, debugDepth)) {
+        rootNode.clearFailPatterns();
+        rootNode.deconstructButKeepInheritedAttributeValues();
+        return false;
       }
+      return true; // already constructed an alternative that does not violate any fail patterns
     }
 
     return true;
@@ -664,12 +784,28 @@ public class Fuzzer {
   }
 
   private final boolean chooseAlternative(final Node rootNode,
-      final List<FailPattern> failPatterns, final int maxRecursionDepth, final int debugDepth) {
-    return chooseAlternative(rootNode, rootNode, failPatterns, maxRecursionDepth, debugDepth, true);
+      final FailPatternIndex failPatterns, final int maxRecursionDepth, final int debugDepth) {
+    if (!this.measurePhaseTimes) {
+      return chooseAlternative(
+          rootNode, rootNode, failPatterns, maxRecursionDepth, debugDepth, true);
+    }
+
+    // calls may be nested (via constructGuardFree()) -> only measure the outermost one
+    final long timeBefore = System.nanoTime();
+    ++this.chooseAlternativeNesting;
+
+    try {
+      return chooseAlternative(
+          rootNode, rootNode, failPatterns, maxRecursionDepth, debugDepth, true);
+    } finally {
+      if (--this.chooseAlternativeNesting == 0) {
+        this.chooseAlternativeTime += System.nanoTime() - timeBefore;
+      }
+    }
   }
 
   private final boolean chooseAlternative(final Node subRootNode, final Node rootNode,
-      final List<FailPattern> failPatterns, final int maxRecursionDepth,
+      final FailPatternIndex failPatterns, final int maxRecursionDepth,
       final int debugDepth, final boolean replaceSubRootNode) {
     if (subRootNode != rootNode && isGuardedOrUnit(subRootNode.getNodeClass())) {
       deconstructSubtree(subRootNode, rootNode, true);
@@ -707,7 +843,7 @@ public class Fuzzer {
       for (final int replaceableChildIndex : childVisitationOrder) {
         final Node replaceableChild = subRootNode.getChild(replaceableChildIndex);
 
-        final List<FailPattern> matchingFailPatterns =
+        final FailPatternIndex matchingFailPatterns =
             filterMatchingFailPatterns(subRootNode, failPatterns, replaceableChildIndex);
 
         if (containsWildcardPattern(matchingFailPatterns)) {
@@ -748,9 +884,13 @@ public class Fuzzer {
 
     final Production alternative = this.productionSelection.choose(subRootNode, alternatives);
 
+    if (this.profile != null) {
+      this.profile.recordApplication(subRootNode, alternative);
+    }
+
     deconstructSubtree(subRootNode, rootNode, true);
     subRootNode.applyProduction(alternative, maxRecursionDepth);
-    constructGuardFree(subRootNode, false, maxRecursionDepth, debugDepth, new ArrayList<>());
+    constructGuardFree(subRootNode, false, maxRecursionDepth, debugDepth, FailPatternIndex.EMPTY);
 
     rootNode.clearNonInheritedAttributeValues();
     evaluateAttributes(rootNode, true);
@@ -759,7 +899,7 @@ public class Fuzzer {
   }
 
   private final boolean shrinkList(final Node node, final Node rootNode,
-      final List<FailPattern> failPatterns, final int maxRecursionDepth, final int debugDepth) {
+      final FailPatternIndex failPatterns, final int maxRecursionDepth, final int debugDepth) {
     final Class nodeClass = node.getNodeClass();
     final boolean isListRecursion = node.getProduction().isListRecursion;
 
@@ -795,11 +935,9 @@ public class Fuzzer {
       }
 
       // check if new sub-tree is prohibited by a fail pattern
-      for (final FailPattern failPattern : failPatterns) {
-        if (failPattern.matches(replacement)) {
-          // shortened list is prohibited by a fail pattern -> discard
-          return false;
-        }
+      if (failPatterns.matches(replacement)) {
+        // shortened list is prohibited by a fail pattern -> discard
+        return false;
       }
 
       // check that guards in replacement are satisfied
@@ -870,7 +1008,7 @@ public class Fuzzer {
   }
 
   private final boolean chooseAlternativeExtensive(final Node subRootNode, final Node rootNode,
-      final List<FailPattern> failPatterns, final int maxRecursionDepth, final int debugDepth) {
+      final FailPatternIndex failPatterns, final int maxRecursionDepth, final int debugDepth) {
     final Production currentProduction = subRootNode.getProduction();
     final List<Production> productions = subRootNode.getPossibleProductions();
 
@@ -890,20 +1028,19 @@ public class Fuzzer {
 
       if (productionApplicable(subRootNode, production)) {
         final Node alternativeSubTree =
-            subRootNode.getNodeClass().createNode(null, allowedHeight, allowedWidth);
+            subRootNode.getNodeClass().createNode(
+                subRootNode.getGenerationContext(), null, allowedHeight, allowedWidth);
         alternativeSubTree.applyProduction(production, maxRecursionDepth);
 
         constructGuardFree(alternativeSubTree, false, maxRecursionDepth, debugDepth,
-            new ArrayList<>());
+            FailPatternIndex.EMPTY);
 
-        for (final FailPattern failPattern : failPatterns) {
-          if (failPattern.matches(alternativeSubTree)) {
-            if (!chooseAlternative(alternativeSubTree, alternativeSubTree, failPatterns,
-                maxRecursionDepth, debugDepth, false)) {
-              continue rootProductionAlternative;
-            }
-            break; // already constructed an alternative that does not violate any fail pattern
+        if (failPatterns.matches(alternativeSubTree)) {
+          if (!chooseAlternative(alternativeSubTree, alternativeSubTree, failPatterns,
+              maxRecursionDepth, debugDepth, false)) {
+            continue rootProductionAlternative;
           }
+          // -> already constructed an alternative that does not violate any fail pattern
         }
 
         for (final Attribute attribute : subRootNode.getNodeClass().getInheritedAttributes()) {
@@ -927,36 +1064,23 @@ public class Fuzzer {
     return false;
   }
 
-  private final boolean containsWildcardPattern(final List<FailPattern> failPatterns) {
-    for (final FailPattern failPattern : failPatterns) {
-      if (failPattern.getRootProduction() == FailPattern.WILDCARD) {
-        return true;
-      }
-    }
-    return false;
+  private final boolean containsWildcardPattern(final FailPatternIndex failPatterns) {
+    return failPatterns.containsWildcard();
   }
 
   private final List<Production> getAlternativesFor(final Node subRootNode,
-      final List<FailPattern> failPatterns) {
-    final Set<Production> failedProductions = getFailedProductions(failPatterns);
-    final Set<Object> failedGeneratorValues = new HashSet<>();
-    {
-      for (final Production failedProduction : failedProductions) {
-        if (failedProduction.generatorValue != null) {
-          failedGeneratorValues.add(failedProduction.generatorValue);
-        }
-      }
-    }
+      final FailPatternIndex failPatterns) {
+    final List<Production> possibleProductions = subRootNode.getPossibleProductions();
 
-    if (failedProductions.size() == subRootNode.getPossibleProductions().size()) {
+    if (failPatterns.numberOfFailedProductions() == possibleProductions.size()) {
       return null;
     }
 
     final List<Production> alternatives = new ArrayList<>();
 
-    for (final Production production : subRootNode.getPossibleProductions()) {
-      if (!failedProductions.contains(production)
-          && !failedGeneratorValues.contains(production.generatorValue)
+    for (final Production production : possibleProductions) {
+      if (!failPatterns.isFailedProduction(production)
+          && !failPatterns.isFailedGeneratorValue(production.generatorValue)
           && productionApplicable(subRootNode, production)) {
         alternatives.add(production);
       }
@@ -965,16 +1089,6 @@ public class Fuzzer {
     return alternatives;
   }
 
-  private final Set<Production> getFailedProductions(final List<FailPattern> failPatterns) {
-    final Set<Production> failedProductions = new HashSet<>();
-
-    for (final FailPattern failPattern : failPatterns) {
-      failedProductions.add(failPattern.getRootProduction());
-    }
-
-    return failedProductions;
-  }
-
   // currently also used by reduction algorithm
   public static final void deconstructSubtree(final Node subRootNode, final Node rootNode,
       final boolean deconstructSubRootNode) {
@@ -1048,57 +1162,17 @@ public class Fuzzer {
     }
   }
 
-  private final Candidate findFirstResolvableGuardedNode(final Node rootNode) {
-    return findFirstResolvableGuardedNode(rootNode, rootNode.getFailPatterns(), rootNode);
-  }
-
-  private final Candidate findFirstResolvableGuardedNode(final Node currentNode,
-      final List<FailPattern> failPatterns, final Node rootNode) {
-    if (currentNode != rootNode && isGuardedOrUnit(currentNode.getNodeClass())) {
-      if (currentNode.isResolved()) {
-        // found guard/unit node that has already been resolved
-        // -> do not search any further in this sub-tree 
-        return null;
-      } else {
-        if (currentNode.allInheritedAttributesEvaluated()) {
-          // found resolvable node
-          return new Candidate(currentNode, failPatterns);
-        } else {
-          // cannot resolve this guard/unit node
-          return null;
-        }
-      }
-    } else {
-      final int numberOfChildren = currentNode.getNumberOfChildren();
-      for (int childIndex = 0; childIndex < numberOfChildren; ++childIndex) {
-        final Node childNode = currentNode.getChild(childIndex);
-
-        final List<FailPattern> matchingFailPatterns =
-            filterMatchingFailPatterns(currentNode, failPatterns, childIndex);
-
-        final Candidate candidate =
-            findFirstResolvableGuardedNode(childNode, matchingFailPatterns, rootNode);
-
-        if (candidate != null) {
-          return candidate;
-        }
-      }
+  private final ResolutionFrontier getResolutionFrontier(final int recursionDepth) {
+    while (this.resolutionFrontiers.size() <= recursionDepth) {
+      this.resolutionFrontiers.add(new ResolutionFrontier());
     }
 
-    return null;
+    return this.resolutionFrontiers.get(recursionDepth);
   }
 
-  private final List<FailPattern> filterMatchingFailPatterns(final Node node,
-      final List<FailPattern> failPatterns, final int childIndex) {
-    final List<FailPattern> matchingFailPatterns = new ArrayList<>();
-
-    for (final FailPattern failPattern : failPatterns) {
-      if (failPattern.matches(node, childIndex)) {
-        matchingFailPatterns.add(failPattern.getChild(childIndex));
-      }
-    }
-
-    return matchingFailPatterns;
+  private final FailPatternIndex filterMatchingFailPatterns(final Node node,
+      final FailPatternIndex failPatterns, final int childIndex) {
+    return failPatterns.filter(node, childIndex);
   }
 
   private final boolean failedDueToHeightLimit(final Node rootNode) {
@@ -1108,21 +1182,14 @@ public class Fuzzer {
       return false;
     }
 
-    final Set<Production> failedProductions = new HashSet<>();
-    {
-      for (final FailPattern failPattern : rootNode.getFailPatterns()) {
-        final Production failedProduction = failPattern.getRootProduction();
+    final FailPatternIndex failPatterns = rootNode.getFailPatterns();
 
-        if (failedProduction == FailPattern.WILDCARD) {
-          return false;
-        }
-
-        failedProductions.add(failedProduction);
-      }
+    if (failPatterns.containsWildcard()) {
+      return false;
     }
 
     for (final Production production : rootNode.getPossibleProductions()) {
-      if (!failedProductions.contains(production)) {
+      if (!failPatterns.isFailedProduction(production)) {
         return true;
       }
     }
@@ -1176,7 +1243,7 @@ public class Fuzzer {
   }
 
   private final void findUnresolvedGuardedNodes(final Node rootNode,
-      final List<FailPattern> failPatterns, final List<Candidate> unresolvedNodes) {
+      final FailPatternIndex failPatterns, final List<Candidate> unresolvedNodes) {
     if ((!rootNode.isResolved()) && isGuardedOrUnit(rootNode.getNodeClass())) {
       unresolvedNodes.add(new Candidate(rootNode, failPatterns));
     }
@@ -1185,7 +1252,7 @@ public class Fuzzer {
     for (int childIndex = 0; childIndex < numberOfChildren; ++childIndex) {
       final Node childNode = rootNode.getChild(childIndex);
 
-      final List<FailPattern> matchingFailPatterns =
+      final FailPatternIndex matchingFailPatterns =
           filterMatchingFailPatterns(rootNode, failPatterns, childIndex);
 
       findUnresolvedGuardedNodes(childNode, matchingFailPatterns, unresolvedNodes);
@@ -0,0 +1,35 @@
+package i2.act.fuzzer;
+
+// state that is shared by all nodes of a tree during its generation; each fuzzer owns its own
+// context, so that several fuzzers may generate programs concurrently within the same JVM
+public final class GenerationContext {
+
+  private int nodeIdCounter;
+
+  private final AttributeEvaluator attributeEvaluator;
+
+  private final GeneratorProductionCache generatorProductionCache;
+
+  public GenerationContext() {
+    this.nodeIdCounter = 0;
+    this.attributeEvaluator = new AttributeEvaluator();
+    this.generatorProductionCache = new GeneratorProductionCache();
+  }
+
+  public final int nextNodeId() {
+    return ++this.nodeIdCounter;
+  }
+
+  public final void resetNodeIds() {
+    this.nodeIdCounter = 0;
+  }
+
+  public final AttributeEvaluator getAttributeEvaluator() {
+    return this.attributeEvaluator;
+  }
+
+  final GeneratorProductionCache getGeneratorProductionCache() {
+    return this.generatorProductionCache;
+  }
+
+}
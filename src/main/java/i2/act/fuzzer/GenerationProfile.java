@@ -0,0 +1,275 @@
+package i2.act.fuzzer;
+
+import java.util.List;
+import java.util.Locale;
+
+// in-memory counters per class and per production of a specification (see option '--profile')
+//
+// in contrast to the diagnostics log, recording an event only increments an array element, i.e.,
+// profiling is cheap enough to stay enabled for long runs; each generator thread records into its
+// own profile (no synchronization), the profiles of all threads are summed up by 'merge()'
+//
+// NOTE: a merge that runs concurrently to the generator threads may miss the latest increments,
+// i.e., periodic snapshots are only approximate (the final snapshot is exact)
+public final class GenerationProfile {
+
+  private static final int FUZZ_CALLS = 0;
+  private static final int ALTERNATIVES = 1;
+  private static final int FAILURES = 2;
+  private static final int HEIGHT_LIMIT_FAILURES = 3;
+  private static final int GUARD_FAILURES = 4;
+  private static final int APPLICATIONS = 5;
+  private static final int TIME = 6;
+
+  private static final int NUMBER_OF_COUNTERS = 7;
+
+  private static final String[] COUNTER_NAMES = {
+    "fuzzCalls", "alternatives", "failures", "heightLimitFailures", "guardFailures",
+    "applications", "timeMs"
+  };
+
+  private final List<Class> classes;
+
+  // indexed by the class id
+  private final long[][] classCounters;
+
+  // indexed by the class id and the production id; 'null' for literal and generator classes (their
+  // productions are not grammar rules, but values)
+  private final long[][][] productionCounters;
+
+  public GenerationProfile(final Specification specification) {
+    this(specification.getClasses());
+  }
+
+  private GenerationProfile(final List<Class> classes) {
+    this.classes = classes;
+
+    int maxClassId = -1;
+    for (final Class _class : this.classes) {
+      maxClassId = Math.max(maxClassId, _class.id);
+    }
+
+    this.classCounters = new long[maxClassId + 1][NUMBER_OF_COUNTERS];
+    this.productionCounters = new long[maxClassId + 1][][];
+
+    for (final Class _class : this.classes) {
+      if (hasProductionCounters(_class)) {
+        this.productionCounters[_class.id] =
+            new long[_class.getProductions().size()][NUMBER_OF_COUNTERS];
+      }
+    }
+  }
+
+  private static final boolean hasProductionCounters(final Class _class) {
+    return !_class.isLiteralClass() && !_class.isGeneratorClass();
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  public final void recordFuzzCall(final Class _class) {
+    ++this.classCounters[_class.id][FUZZ_CALLS];
+  }
+
+  // 'time' is the (inclusive) time of the fuzz call in nanoseconds
+  public final void recordFuzzReturn(final Class _class, final Fuzzer.FuzzingResult result,
+      final int numberOfAlternatives, final long time) {
+    final long[] counters = this.classCounters[_class.id];
+
+    counters[ALTERNATIVES] += numberOfAlternatives;
+    counters[TIME] += time;
+
+    if (result == Fuzzer.FuzzingResult.FUZZ_FAIL) {
+      ++counters[FAILURES];
+    } else if (result == Fuzzer.FuzzingResult.FUZZ_HEIGHT_LIMIT) {
+      ++counters[HEIGHT_LIMIT_FAILURES];
+    }
+  }
+
+  public final void recordGuardFailure(final Node node) {
+    final Class _class = node.getNodeClass();
+
+    ++this.classCounters[_class.id][GUARD_FAILURES];
+
+    final long[] counters = getProductionCounters(_class, node.getProduction());
+    if (counters != null) {
+      ++counters[GUARD_FAILURES];
+    }
+  }
+
+  public final void recordApplication(final Node node, final Production production) {
+    final Class _class = node.getNodeClass();
+
+    ++this.classCounters[_class.id][APPLICATIONS];
+
+    final long[] counters = getProductionCounters(_class, production);
+    if (counters != null) {
+      ++counters[APPLICATIONS];
+    }
+  }
+
+  private final long[] getProductionCounters(final Class _class, final Production production) {
+    if (production == null) {
+      return null;
+    }
+
+    final long[][] counters = this.productionCounters[_class.id];
+
+    if (counters == null || production.id >= counters.length) {
+      return null;
+    }
+
+    return counters[production.id];
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  // sums up the counters of the given profiles (which have to belong to instances of the same
+  // specification, e.g., the instances of the generator threads)
+  public static final GenerationProfile merge(final List<GenerationProfile> profiles) {
+    assert (!profiles.isEmpty());
+
+    final GenerationProfile mergedProfile = new GenerationProfile(profiles.get(0).classes);
+
+    for (final GenerationProfile profile : profiles) {
+      for (int classId = 0; classId < mergedProfile.classCounters.length; ++classId) {
+        add(mergedProfile.classCounters[classId], profile.classCounters[classId]);
+
+        final long[][] productionCounters = mergedProfile.productionCounters[classId];
+        if (productionCounters != null) {
+          for (int productionId = 0; productionId < productionCounters.length; ++productionId) {
+            add(productionCounters[productionId],
+                profile.productionCounters[classId][productionId]);
+          }
+        }
+      }
+    }
+
+    return mergedProfile;
+  }
+
+  private static final void add(final long[] target, final long[] source) {
+    for (int index = 0; index < NUMBER_OF_COUNTERS; ++index) {
+      target[index] += source[index];
+    }
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  // one line per class (with an empty production name) and one line per production
+  public final String toCSV() {
+    final StringBuilder builder = new StringBuilder();
+
+    builder.append("class, production");
+    for (final String counterName : COUNTER_NAMES) {
+      builder.append(", ");
+      builder.append(counterName);
+    }
+    builder.append("\n");
+
+    for (final Class _class : this.classes) {
+      appendCSVLine(builder, _class.name, "", this.classCounters[_class.id]);
+
+      final long[][] productionCounters = this.productionCounters[_class.id];
+      if (productionCounters != null) {
+        for (final Production production : _class.getProductions()) {
+          appendCSVLine(builder, _class.name, production.name,
+              productionCounters[production.id]);
+        }
+      }
+    }
+
+    return builder.toString();
+  }
+
+  private static final void appendCSVLine(final StringBuilder builder, final String className,
+      final String productionName, final long[] counters) {
+    builder.append(className);
+    builder.append(", ");
+    builder.append(productionName);
+
+    for (int index = 0; index < NUMBER_OF_COUNTERS; ++index) {
+      builder.append(", ");
+      builder.append(formatCounter(counters, index));
+    }
+
+    builder.append("\n");
+  }
+
+  public final String toJSON() {
+    final StringBuilder builder = new StringBuilder();
+
+    builder.append("{\n  \"classes\": [");
+
+    boolean firstClass = true;
+    for (final Class _class : this.classes) {
+      builder.append(firstClass ? "\n" : ",\n");
+      firstClass = false;
+
+      builder.append("    { \"name\": ");
+      appendJSONString(builder, _class.name);
+      appendJSONCounters(builder, this.classCounters[_class.id]);
+
+      final long[][] productionCounters = this.productionCounters[_class.id];
+      if (productionCounters != null) {
+        builder.append(", \"productions\": [");
+
+        boolean firstProduction = true;
+        for (final Production production : _class.getProductions()) {
+          builder.append(firstProduction ? "\n" : ",\n");
+          firstProduction = false;
+
+          builder.append("      { \"name\": ");
+          appendJSONString(builder, production.name);
+          appendJSONCounters(builder, productionCounters[production.id]);
+          builder.append(" }");
+        }
+
+        builder.append(" ]");
+      }
+
+      builder.append(" }");
+    }
+
+    builder.append("\n  ]\n}\n");
+
+    return builder.toString();
+  }
+
+  private static final void appendJSONCounters(final StringBuilder builder,
+      final long[] counters) {
+    for (int index = 0; index < NUMBER_OF_COUNTERS; ++index) {
+      builder.append(", \"");
+      builder.append(COUNTER_NAMES[index]);
+      builder.append("\": ");
+      builder.append(formatCounter(counters, index));
+    }
+  }
+
+  private static final void appendJSONString(final StringBuilder builder, final String string) {
+    builder.append('"');
+
+    for (int index = 0; index < string.length(); ++index) {
+      final char character = string.charAt(index);
+
+      if (character == '"' || character == '\\') {
+        builder.append('\\');
+        builder.append(character);
+      } else if (character < 0x20) {
+        builder.append(String.format("\\u%04x", (int) character));
+      } else {
+        builder.append(character);
+      }
+    }
+
+    builder.append('"');
+  }
+
+  private static final String formatCounter(final long[] counters, final int index) {
+    if (index == TIME) {
+      return String.format(Locale.US, "%.3f", counters[index] / 1e6);
+    } else {
+      return String.valueOf(counters[index]);
+    }
+  }
+
+}
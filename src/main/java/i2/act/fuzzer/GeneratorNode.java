@@ -11,15 +11,16 @@ public abstract class GeneratorNode extends Node {
 
   private List<Production> possibleProductions;
 
-  public GeneratorNode(final Node parent, final int allowedHeight, final int allowedWidth,
-      final Node expected) {
-    super(parent, allowedHeight, allowedWidth, expected);
+  public GeneratorNode(final GenerationContext context, final Node parent,
+      final int allowedHeight, final int allowedWidth, final Node expected) {
+    super(context, parent, allowedHeight, allowedWidth, expected);
     this.possibleProductions = null; // will be computed on demand
   }
 
-  public GeneratorNode(final Node parent, final int allowedHeight, final int allowedWidth,
-      final Node expected, final int id, final Production production) {
-    super(parent, allowedHeight, allowedWidth, expected, id, production);
+  public GeneratorNode(final GenerationContext context, final Node parent,
+      final int allowedHeight, final int allowedWidth, final Node expected, final int id,
+      final Production production) {
+    super(context, parent, allowedHeight, allowedWidth, expected, id, production);
     this.possibleProductions = null; // will be computed on demand
   }
 
@@ -33,53 +34,61 @@ public abstract class GeneratorNode extends Node {
     if (this.possibleProductions == null) {
       assert (allInheritedAttributesEvaluated());
 
-      this.possibleProductions = new ArrayList<Production>();
-
-      final Class nodeClass = getNodeClass();
-
-      int index = 0;
-      final List<?> generatorValues = generatorValues(this);
-      for (final Object generatorValue : generatorValues) {
-        this.possibleProductions.add(new Production(index, GENERATOR_PRODUCTION_PREFIX + index, 1,
-            nodeClass, nodeClass.getGeneratorPrecedence(), generatorValue,
-            nodeClass.getGeneratorAttributeRules()) {
+      // nodes with the same inherited attribute values share their productions
+      this.possibleProductions =
+          this.context.getGeneratorProductionCache().getProductions(this);
+    }
 
-            @Override
-            public final Node[] createChildrenFor(final Node node, final int maxRecursionDepth) {
-              return new Node[] {}; // nodes of generator classes do not have any children 
-            }
+    return this.possibleProductions;
+  }
 
-            @Override
-            public final void printCode(final Node node, final StringBuilder builder,
-                final int indentation) {
-              if (this.generatorValue instanceof Printable) {
-                builder.append(((Printable) this.generatorValue).print());
-              } else {
-                builder.append(this.generatorValue);
-              }
+  final List<Production> createGeneratorProductions() {
+    final List<Production> productions = new ArrayList<Production>();
+
+    final Class nodeClass = getNodeClass();
+
+    int index = 0;
+    final List<?> generatorValues = generatorValues(this);
+    for (final Object generatorValue : generatorValues) {
+      productions.add(new Production(index, GENERATOR_PRODUCTION_PREFIX + index, 1,
+          nodeClass, nodeClass.getGeneratorPrecedence(), generatorValue,
+          nodeClass.getGeneratorAttributeRules()) {
+
+          @Override
+          public final Node[] createChildrenFor(final Node node, final int maxRecursionDepth) {
+            return new Node[] {}; // nodes of generator classes do not have any children
+          }
+
+          @Override
+          public final void printCode(final Node node, final CodeSink sink,
+              final int indentation) {
+            if (this.generatorValue instanceof Printable) {
+              sink.append(((Printable) this.generatorValue).print());
+            } else {
+              sink.append(this.generatorValue);
             }
-
-            @Override
-            public final void tokenize(final Node node, final List<String> tokens) {
-              if (this.generatorValue instanceof Printable) {
-                tokens.add(((Printable) this.generatorValue).print());
-              } else {
-                tokens.add(String.valueOf(this.generatorValue));
-              }
+          }
+
+          @Override
+          public final void tokenize(final Node node, final List<String> tokens) {
+            if (this.generatorValue instanceof Printable) {
+              tokens.add(((Printable) this.generatorValue).print());
+            } else {
+              tokens.add(String.valueOf(this.generatorValue));
             }
+          }
 
-            @Override
-            public final boolean isGeneratorNode() {
-              return true;
-            }
+          @Override
+          public final boolean isGeneratorNode() {
+            return true;
+          }
 
-        });
+      });
 
-        ++index;
-      }
+      ++index;
     }
 
-    return this.possibleProductions;
+    return productions;
   }
 
 
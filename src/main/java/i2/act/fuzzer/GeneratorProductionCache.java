@@ -0,0 +1,76 @@
+package i2.act.fuzzer;
+
+import i2.act.util.LRUCache;
+import i2.act.util.ValueKey;
+
+import java.util.Collections;
+import java.util.List;
+
+// caches the productions of generator nodes, keyed by the generator class and the values of its
+// inherited attributes
+//
+// the generator calls are functions of the inherited attributes of the generator node; since the
+// attribute values are not modified after their computation, the same values (i.e., the same
+// objects) always yield the same productions -> backtracking over the same scope reuses the
+// productions instead of calling the generator and allocating the productions again
+final class GeneratorProductionCache {
+
+  public static final int DEFAULT_MAX_SIZE = 4096;
+
+  private final LRUCache<ValueKey, List<Production>> cache;
+
+  private long hits;
+  private long misses;
+
+  public GeneratorProductionCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  public GeneratorProductionCache(final int maxSize) {
+    this.cache = new LRUCache<>(new LRUCache.EvictionFixedSize(maxSize));
+  }
+
+  public final List<Production> getProductions(final GeneratorNode node) {
+    final ValueKey key = createKey(node);
+
+    final List<Production> cachedProductions = this.cache.get(key);
+    if (cachedProductions != null) {
+      ++this.hits;
+      return cachedProductions;
+    }
+
+    ++this.misses;
+
+    final List<Production> productions =
+        Collections.unmodifiableList(node.createGeneratorProductions());
+    this.cache.put(key, productions);
+
+    return productions;
+  }
+
+  public final long getHits() {
+    return this.hits;
+  }
+
+  public final long getMisses() {
+    return this.misses;
+  }
+
+  private static final ValueKey createKey(final GeneratorNode node) {
+    final Class nodeClass = node.getNodeClass();
+    final List<Attribute> inheritedAttributes = nodeClass.getInheritedAttributes();
+
+    // the node class is compared by identity
+    final Object[] values = new Object[inheritedAttributes.size() + 1];
+    values[0] = nodeClass;
+
+    int index = 1;
+    for (final Attribute attribute : inheritedAttributes) {
+      assert (attribute.hasValue(node));
+      values[index++] = attribute.getValue(node);
+    }
+
+    return new ValueKey(values);
+  }
+
+}
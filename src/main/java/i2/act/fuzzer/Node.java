@@ -3,21 +3,16 @@ package i2.act.fuzzer;
 import i2.act.util.Pair;
 import i2.act.util.lexer.Lexer;
 
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public abstract class Node {
 
-  private static int idCounter;
-
-  public static final void resetIdCounter() {
-    Node.idCounter = 0;
-  }
-  
-  // ===============================================================================================
-
   public int id;
+
+  protected final GenerationContext context;
   
   protected Node parent;
   protected List<Node> children;
@@ -29,20 +24,24 @@ public abstract class Node {
 
   protected Production production;
 
-  protected List<FailPattern> failPatterns;
+  protected FailPatternIndex failPatterns;
+
+  // 'false' if the fail patterns are shared with another index (see 'setFailPatterns()')
+  protected boolean ownsFailPatterns;
 
   // default constructor
-  public Node(final Node parent, final int allowedHeight, final int allowedWidth,
-      final Node expected) {
-    this(parent, allowedHeight, allowedWidth, expected,
-        (expected == null) ? (++Node.idCounter) : expected.id,
+  public Node(final GenerationContext context, final Node parent, final int allowedHeight,
+      final int allowedWidth, final Node expected) {
+    this(context, parent, allowedHeight, allowedWidth, expected,
+        (expected == null) ? context.nextNodeId() : expected.id,
         null);
   }
 
   // constructor for cloning
-  protected Node(final Node parent, final int allowedHeight, final int allowedWidth,
-      final Node expected, final int id, final Production production) {
+  protected Node(final GenerationContext context, final Node parent, final int allowedHeight,
+      final int allowedWidth, final Node expected, final int id, final Production production) {
     this.id = id;
+    this.context = context;
 
     this.parent = parent;
     this.production = production;
@@ -51,7 +50,12 @@ public abstract class Node {
     this.allowedWidth = allowedWidth;
     this.expected = expected;
 
-    this.failPatterns = new ArrayList<FailPattern>();
+    this.failPatterns = FailPatternIndex.EMPTY;
+    this.ownsFailPatterns = false;
+  }
+
+  public final GenerationContext getGenerationContext() {
+    return this.context;
   }
 
   public final Node getParent() {
@@ -126,21 +130,29 @@ public abstract class Node {
     return this.allowedWidth;
   }
 
-  public final List<FailPattern> getFailPatterns() {
+  public final FailPatternIndex getFailPatterns() {
     return this.failPatterns;
   }
 
   public final void addFailPattern(final FailPattern failPattern) {
+    if (!this.ownsFailPatterns) {
+      // copy-on-write: add the fail pattern to a new layer on top of the shared fail patterns
+      this.failPatterns = new FailPatternIndex(this.failPatterns);
+      this.ownsFailPatterns = true;
+    }
+
     this.failPatterns.add(failPattern);
   }
 
-  public final void setFailPatterns(final List<FailPattern> failPatterns) {
-    this.failPatterns.clear();
-    this.failPatterns.addAll(failPatterns);
+  // the given fail patterns are shared (i.e., not copied) and must not be changed afterwards
+  public final void setFailPatterns(final FailPatternIndex failPatterns) {
+    this.failPatterns = failPatterns;
+    this.ownsFailPatterns = false;
   }
 
   public final void clearFailPatterns() {
-    this.failPatterns.clear();
+    this.failPatterns = FailPatternIndex.EMPTY;
+    this.ownsFailPatterns = false;
   }
 
   public final void evaluateAttributesLoop() {
@@ -153,6 +165,14 @@ public abstract class Node {
 
   public final void evaluateAttributesLoop(final boolean shallow,
       final boolean printExceptions) {
+    this.context.getAttributeEvaluator().evaluate(this, shallow, printExceptions);
+  }
+
+  // evaluates the attributes in rounds until no more attribute values can be computed (this
+  // yields the same attribute values as evaluateAttributesLoop(), but re-visits all attribute
+  // rules in each round)
+  public final void evaluateAttributesInRounds(final boolean shallow,
+      final boolean printExceptions) {
     int round = 0;
     while (evaluateAttributes(round == 0, shallow, printExceptions)) {
       ++round;
@@ -276,13 +296,23 @@ public abstract class Node {
   }
 
   public final StringBuilder printCode(final StringBuilder builder, final int indentation) {
+    printCode(CodeSink.forBuilder(builder), indentation);
+    return builder;
+  }
+
+  // streams the code to the given writer (the writer is neither flushed nor closed)
+  public final void printCode(final Writer writer) {
+    final CodeSink sink = CodeSink.forWriter(writer);
+    printCode(sink, 0);
+    sink.checkError();
+  }
+
+  public final void printCode(final CodeSink sink, final int indentation) {
     if (this.production == null) {
-      builder.append(getNodeName());
+      sink.append(getNodeName());
     } else {
-      this.production.printCode(this, builder, indentation);
+      this.production.printCode(this, sink, indentation);
     }
-
-    return builder;
   }
 
   public final List<String> tokenize() {
@@ -414,20 +444,17 @@ public abstract class Node {
         + " fontname=\"Droid Sans Mono\"];\n");
 
     // the actual node ids are not guaranteed to be unique...
-    Node.dotIDCounter = 0;
-
-    toDot(builder, includeIDs);
+    toDot(builder, includeIDs, new int[1]);
 
     builder.append("}");
 
     return builder.toString();
   }
 
-  private static int dotIDCounter;
-
-  private final int toDot(final StringBuilder builder, final boolean includeIDs) {
+  private final int toDot(final StringBuilder builder, final boolean includeIDs,
+      final int[] dotIDCounter) {
     // the actual node ids are not guaranteed to be unique...
-    final int id = Node.dotIDCounter++;
+    final int id = dotIDCounter[0]++;
 
     String format = "";
     {
@@ -452,7 +479,7 @@ public abstract class Node {
     builder.append(String.format("\tn%d [label=\"%s\"%s];\n", id, label, format));
 
     for (final Node child : this.children) {
-      final int childID = child.toDot(builder, includeIDs);
+      final int childID = child.toDot(builder, includeIDs, dotIDCounter);
       builder.append(String.format("\tn%d -> n%d;\n", id, childID));
     }
 
@@ -529,6 +556,7 @@ public abstract class Node {
 
     if (replaceFailPatterns) {
       this.failPatterns = otherNode.failPatterns;
+      this.ownsFailPatterns = otherNode.ownsFailPatterns;
     }
   }
 
@@ -550,8 +578,12 @@ public abstract class Node {
     return printCode();
   }
 
+  public final boolean hasExpectedProduction() {
+    return this.expected != null && this.expected.production != null;
+  }
+
   public final List<Production> getPossibleProductions() {
-    if (this.expected != null && this.expected.production != null) {
+    if (hasExpectedProduction()) {
       return Arrays.asList(this.expected.production);
     } else {
       return getAvailableProductions();
@@ -29,6 +29,9 @@ public abstract class Production implements ProductionNode {
   
   private final List<AttributeRule> attributeRules;
 
+  // computed on demand
+  private volatile AttributeDependencies attributeDependencies;
+
   public int minHeight;
   public int minSize;
 
@@ -87,9 +90,8 @@ public abstract class Production implements ProductionNode {
       }
 
       @Override
-      public final void printCode(final Node node, final StringBuilder builder,
-          final int indentation) {
-        builder.append(literal);
+      public final void printCode(final Node node, final CodeSink sink, final int indentation) {
+        sink.append(literal);
       }
 
       @Override
@@ -244,6 +246,18 @@ public abstract class Production implements ProductionNode {
 
   public final void addAttributeRule(final AttributeRule attributeRule) {
     this.attributeRules.add(attributeRule);
+    this.attributeDependencies = null;
+  }
+
+  public final AttributeDependencies getAttributeDependencies() {
+    AttributeDependencies attributeDependencies = this.attributeDependencies;
+
+    if (attributeDependencies == null) {
+      attributeDependencies = new AttributeDependencies(this.attributeRules);
+      this.attributeDependencies = attributeDependencies;
+    }
+
+    return attributeDependencies;
   }
 
   public final AttributeRule getAttributeRuleFor(final Attribute attribute,
@@ -319,10 +333,8 @@ public abstract class Production implements ProductionNode {
   }
 
 
-  protected final void printIndentation(final StringBuilder builder, final int indentation) {
-    for (int i = 0; i < indentation; ++i) {
-      builder.append("  ");
-    }
+  protected final void printIndentation(final CodeSink sink, final int indentation) {
+    sink.printIndentation(indentation);
   }
 
 
@@ -331,8 +343,7 @@ public abstract class Production implements ProductionNode {
 
   public abstract Node[] createChildrenFor(final Node node, final int maxRecursionDepth);
 
-  public abstract void printCode(final Node node, final StringBuilder builder,
-      final int indentation);
+  public abstract void printCode(final Node node, final CodeSink sink, final int indentation);
 
   public abstract void tokenize(final Node node, final List<String> tokens);
 
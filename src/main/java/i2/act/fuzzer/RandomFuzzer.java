@@ -1,7 +1,6 @@
 package i2.act.fuzzer;
 
 import i2.act.gengraph.GeneratorGraphNode;
-import i2.act.gengraph.properties.MinSizeComputation;
 
 import java.io.BufferedWriter;
 import java.util.ArrayList;
@@ -33,6 +32,15 @@ public final class RandomFuzzer extends Fuzzer {
         return applicableProductions.get(this.random.nextInt(applicableProductions.size()));
       }
 
+      final WeightedProductions weightedProductions =
+          node.getNodeClass().getWeightedProductions();
+
+      if (applicableProductions == weightedProductions.getProductions()) {
+        // no production has been pruned -> binary search in the precomputed cumulative weights
+        return weightedProductions.choose(
+            this.random.nextInt(weightedProductions.getTotalWeight()));
+      }
+
       int sumOfWeights = 0;
       {
         for (final Production production : applicableProductions) {
@@ -75,7 +83,8 @@ public final class RandomFuzzer extends Fuzzer {
       this.randomProductionSelection = new RandomProductionSelection(random);
 
       if (smallProbability > 0.) {
-        this.minSizes = MinSizeComputation.computeMinSizes(specification);
+        // computed only once per specification (and not once per generated program)
+        this.minSizes = specification.getMinSizes();
       } else {
         // no need to compute the min sizes if probability to choose small productions is 0
         this.minSizes = null;
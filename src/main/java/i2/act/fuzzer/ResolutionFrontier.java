@@ -0,0 +1,100 @@
+package i2.act.fuzzer;
+
+import java.util.Arrays;
+
+// the unresolved guard/unit nodes below a root node that are not nested in another guard/unit node
+// (in depth-first order), together with the fail patterns that apply to them
+//
+// the structure of the tree between the root node and these nodes does not change while they are
+// resolved -> the frontier only has to be collected once per alternative; afterwards, finding the
+// next resolvable node only checks the remaining nodes instead of traversing the whole tree
+final class ResolutionFrontier {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Node[] nodes;
+  private FailPatternIndex[] failPatterns;
+
+  private int size;
+
+  public ResolutionFrontier() {
+    this.nodes = new Node[INITIAL_CAPACITY];
+    this.failPatterns = new FailPatternIndex[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  public final void collect(final Node rootNode) {
+    clear();
+    collect(rootNode, rootNode.getFailPatterns(), rootNode);
+  }
+
+  private final void collect(final Node currentNode, final FailPatternIndex failPatterns,
+      final Node rootNode) {
+    if (currentNode != rootNode && Fuzzer.isGuardedOrUnit(currentNode.getNodeClass())) {
+      // do not search any further in this sub-tree
+      if (!currentNode.isResolved()) {
+        add(currentNode, failPatterns);
+      }
+    } else {
+      final int numberOfChildren = currentNode.getNumberOfChildren();
+      for (int childIndex = 0; childIndex < numberOfChildren; ++childIndex) {
+        final Node childNode = currentNode.getChild(childIndex);
+        final FailPatternIndex matchingFailPatterns = failPatterns.filter(currentNode, childIndex);
+
+        collect(childNode, matchingFailPatterns, rootNode);
+      }
+    }
+  }
+
+  private final void add(final Node node, final FailPatternIndex failPatterns) {
+    if (this.size == this.nodes.length) {
+      this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+      this.failPatterns = Arrays.copyOf(this.failPatterns, 2 * this.size);
+    }
+
+    this.nodes[this.size] = node;
+    this.failPatterns[this.size] = failPatterns;
+    ++this.size;
+  }
+
+  // returns the index of the first node whose inherited attributes have all been evaluated, or -1
+  // if there is no such node
+  public final int findFirstResolvable() {
+    for (int index = 0; index < this.size; ++index) {
+      assert (!this.nodes[index].isResolved());
+
+      if (this.nodes[index].allInheritedAttributesEvaluated()) {
+        return index;
+      }
+    }
+
+    return -1;
+  }
+
+  public final Node getNode(final int index) {
+    return this.nodes[index];
+  }
+
+  public final FailPatternIndex getFailPatterns(final int index) {
+    return this.failPatterns[index];
+  }
+
+  // has to be called once the node at the given index has been resolved
+  public final void remove(final int index) {
+    final int numberOfMoved = this.size - index - 1;
+
+    System.arraycopy(this.nodes, index + 1, this.nodes, index, numberOfMoved);
+    System.arraycopy(this.failPatterns, index + 1, this.failPatterns, index, numberOfMoved);
+
+    --this.size;
+    this.nodes[this.size] = null;
+    this.failPatterns[this.size] = null;
+  }
+
+  public final void clear() {
+    Arrays.fill(this.nodes, 0, this.size, null);
+    Arrays.fill(this.failPatterns, 0, this.size, null);
+    this.size = 0;
+  }
+
+}
@@ -0,0 +1,141 @@
+package i2.act.fuzzer;
+
+import i2.act.errors.RPGException;
+
+// determines the number of alternatives that the fuzzer may try before it gives up the current
+// attempt and restarts the generation of the program from scratch
+//
+// without a restart policy, an attempt only fails if all alternatives are exhausted (or the
+// '--maxAlternatives' limit is hit), which may take very long for a few unlucky random seeds; a
+// restart policy bounds the effort per attempt and increases the budget with each restart, so that
+// a program is still generated eventually
+public abstract class RestartPolicy {
+
+  public static final int UNLIMITED = -1;
+
+  public static final String NAME_LUBY = "luby";
+  public static final String NAME_GEOMETRIC = "geometric";
+
+  // returns the max. number of alternatives for the attempt after the given number of restarts
+  // (or 'UNLIMITED')
+  public abstract int getBudget(final int numberOfRestarts);
+
+  // -----------------------------------------------------------------------------------------------
+
+  // budgets 'unit * (1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...)'
+  public static final class Luby extends RestartPolicy {
+
+    private final int unit;
+
+    public Luby(final int unit) {
+      if (unit < 1) {
+        throw new RPGException("unit of Luby restart policy has to be at least 1");
+      }
+
+      this.unit = unit;
+    }
+
+    @Override
+    public final int getBudget(final int numberOfRestarts) {
+      return limit((long) this.unit * luby(numberOfRestarts + 1));
+    }
+
+    // i-th element (starting at 1) of the Luby sequence
+    public static final long luby(final long index) {
+      assert (index >= 1);
+
+      long remainingIndex = index;
+
+      while (true) {
+        // smallest k with 2^k - 1 >= index
+        int k = 1;
+        while ((1L << k) - 1 < remainingIndex) {
+          ++k;
+        }
+
+        if ((1L << k) - 1 == remainingIndex) {
+          return 1L << (k - 1);
+        }
+
+        remainingIndex = remainingIndex - (1L << (k - 1)) + 1;
+      }
+    }
+
+    @Override
+    public final String toString() {
+      return String.format("%s:%d", NAME_LUBY, this.unit);
+    }
+
+  }
+
+  // budgets 'initial * factor^restarts'
+  public static final class Geometric extends RestartPolicy {
+
+    private final int initial;
+    private final double factor;
+
+    public Geometric(final int initial, final double factor) {
+      if (initial < 1) {
+        throw new RPGException("initial budget of geometric restart policy has to be at least 1");
+      }
+
+      if (factor < 1.) {
+        throw new RPGException("factor of geometric restart policy has to be at least 1");
+      }
+
+      this.initial = initial;
+      this.factor = factor;
+    }
+
+    @Override
+    public final int getBudget(final int numberOfRestarts) {
+      final double budget = this.initial * Math.pow(this.factor, numberOfRestarts);
+      return (budget >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : limit((long) budget);
+    }
+
+    @Override
+    public final String toString() {
+      return String.format("%s:%d:%s", NAME_GEOMETRIC, this.initial, this.factor);
+    }
+
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  // parses 'luby:<unit>' or 'geometric:<initial budget>:<factor>'
+  public static final RestartPolicy fromString(final String policy) {
+    final String[] parts = policy.split(":");
+
+    try {
+      if (NAME_LUBY.equalsIgnoreCase(parts[0]) && parts.length == 2) {
+        return new Luby(Integer.parseInt(parts[1]));
+      }
+
+      if (NAME_GEOMETRIC.equalsIgnoreCase(parts[0]) && parts.length == 3) {
+        return new Geometric(Integer.parseInt(parts[1]), Double.parseDouble(parts[2]));
+      }
+    } catch (final NumberFormatException exception) {
+      throw new RPGException(String.format("invalid restart policy '%s'", policy), exception);
+    }
+
+    throw new RPGException(String.format("unknown restart policy '%s'", policy));
+  }
+
+  // combines the budget of an attempt with the global limit of alternatives
+  public static final int combine(final int maxAlternatives, final int budget) {
+    if (maxAlternatives == UNLIMITED) {
+      return budget;
+    }
+
+    if (budget == UNLIMITED) {
+      return maxAlternatives;
+    }
+
+    return Math.min(maxAlternatives, budget);
+  }
+
+  private static final int limit(final long budget) {
+    return (int) Math.min(budget, Integer.MAX_VALUE);
+  }
+
+}
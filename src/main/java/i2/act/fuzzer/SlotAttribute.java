@@ -0,0 +1,56 @@
+package i2.act.fuzzer;
+
+// attribute whose values are stored in the slot array of the nodes (see SlotNode); the availability
+// of the values is tracked in a bit set (i.e., a node may have at most 64 attribute slots)
+public final class SlotAttribute extends Attribute {
+
+  public static final int MAX_SLOTS = 64;
+
+  private final int slot;
+  private final long mask;
+
+  public SlotAttribute(final String name, final String className, final AttributeKind kind,
+      final int slot) {
+    super(name, className, kind);
+
+    assert (slot >= 0 && slot < MAX_SLOTS);
+
+    this.slot = slot;
+    this.mask = 1L << slot;
+  }
+
+  public final int getSlot() {
+    return this.slot;
+  }
+
+  @Override
+  public final boolean hasValue(final Node node) {
+    return (((SlotNode) node).availableAttributes & this.mask) != 0;
+  }
+
+  @Override
+  public final Object getValue(final Node node) {
+    return ((SlotNode) node).attributeValues[this.slot];
+  }
+
+  @Override
+  public final void setValue(final Node node, final Object value) {
+    final SlotNode slotNode = (SlotNode) node;
+
+    slotNode.attributeValues[this.slot] = value;
+    slotNode.availableAttributes |= this.mask;
+  }
+
+  @Override
+  public final boolean clearValue(final Node node) {
+    final SlotNode slotNode = (SlotNode) node;
+    final boolean change = (slotNode.availableAttributes & this.mask) != 0;
+
+    // drop the value (instead of only clearing the bit) so that it can be garbage collected
+    slotNode.attributeValues[this.slot] = null;
+    slotNode.availableAttributes &= ~this.mask;
+
+    return change;
+  }
+
+}
@@ -0,0 +1,33 @@
+package i2.act.fuzzer;
+
+// node of a specification that has been translated with '--attributeSlots'; the attribute values
+// are stored in a slot array and their availability in a bit set (see SlotAttribute)
+//
+// NOTE: nodes of generator classes never use slots (they have to extend GeneratorNode)
+public abstract class SlotNode extends Node {
+
+  private static final Object[] NO_ATTRIBUTES = new Object[0];
+
+  public final Object[] attributeValues;
+  public long availableAttributes;
+
+  // default constructor
+  public SlotNode(final GenerationContext context, final Node parent, final int allowedHeight,
+      final int allowedWidth, final Node expected, final int numberOfAttributes) {
+    super(context, parent, allowedHeight, allowedWidth, expected);
+    this.attributeValues = createAttributeValues(numberOfAttributes);
+  }
+
+  // constructor for cloning
+  public SlotNode(final GenerationContext context, final Node parent, final int allowedHeight,
+      final int allowedWidth, final Node expected, final int id, final Production production,
+      final int numberOfAttributes) {
+    super(context, parent, allowedHeight, allowedWidth, expected, id, production);
+    this.attributeValues = createAttributeValues(numberOfAttributes);
+  }
+
+  private static final Object[] createAttributeValues(final int numberOfAttributes) {
+    return (numberOfAttributes == 0) ? NO_ATTRIBUTES : new Object[numberOfAttributes];
+  }
+
+}
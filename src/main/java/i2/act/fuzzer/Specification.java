@@ -3,7 +3,10 @@ package i2.act.fuzzer;
 import i2.act.fuzzer.regex.ast.RegularExpression;
 import i2.act.fuzzer.regex.ast.visitors.RandomStringGenerator;
 import i2.act.fuzzer.regex.parser.RegExParser;
+import i2.act.fuzzer.runtime.PureFunctionCache;
+import i2.act.gengraph.GeneratorGraphNode;
 import i2.act.gengraph.properties.MinHeightComputation;
+import i2.act.gengraph.properties.MinSizeComputation;
 import i2.act.gengraph.properties.RecursiveProductionsComputation;
 
 import java.util.Collections;
@@ -24,10 +27,23 @@ public final class Specification {
 
   private final Map<Integer, Class> classIds;
 
+  // caches of the pure functions (only if the specification has been translated with '--pure')
+  private final List<PureFunctionCache> pureFunctionCaches;
+
+  // computed lazily (only needed if small productions should be preferred) and then shared by all
+  // fuzzers that use this specification
+  private volatile Map<GeneratorGraphNode, Integer> minSizes;
+
   public final int defaultMaxRecursionDepth;
 
   public Specification(final Class rootClass, final Class[] classes,
       final int defaultMaxRecursionDepth, final long seed) {
+    this(rootClass, classes, defaultMaxRecursionDepth, seed, new PureFunctionCache[] {});
+  }
+
+  public Specification(final Class rootClass, final Class[] classes,
+      final int defaultMaxRecursionDepth, final long seed,
+      final PureFunctionCache[] pureFunctionCaches) {
     this.rootClass = rootClass;
     this.classes = Collections.unmodifiableList(java.util.Arrays.asList(classes));
 
@@ -40,10 +56,13 @@ public final class Specification {
     }
 
     this.defaultMaxRecursionDepth = defaultMaxRecursionDepth;
+    this.pureFunctionCaches =
+        Collections.unmodifiableList(java.util.Arrays.asList(pureFunctionCaches));
 
     instantiateLiteralClasses(seed);
 
-    // compute min heights and determine recursive productions
+    // compute min heights and determine recursive productions (once per specification, the
+    // results are stored in the classes and productions)
     computeProperties();
 
     this.classIds = new HashMap<Integer, Class>();
@@ -58,6 +77,27 @@ public final class Specification {
     RecursiveProductionsComputation.determineRecursiveProductions(this);
   }
 
+  public final Map<GeneratorGraphNode, Integer> getMinSizes() {
+    Map<GeneratorGraphNode, Integer> minSizes = this.minSizes;
+
+    if (minSizes == null) {
+      synchronized (this) {
+        minSizes = this.minSizes;
+
+        if (minSizes == null) {
+          minSizes = Collections.unmodifiableMap(MinSizeComputation.computeMinSizes(this));
+          this.minSizes = minSizes;
+        }
+      }
+    }
+
+    return minSizes;
+  }
+
+  public final List<PureFunctionCache> getPureFunctionCaches() {
+    return this.pureFunctionCaches;
+  }
+
   public final List<Class> getClasses() {
     return this.classes;
   }
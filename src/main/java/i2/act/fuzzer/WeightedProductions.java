@@ -0,0 +1,68 @@
+package i2.act.fuzzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// the productions of a class with a non-zero weight, together with their cumulative weights
+//
+// if no production is pruned (e.g., by the height limit), a weighted choice only needs a binary
+// search in the cumulative weights instead of summing up the weights on each call; for the same
+// random number, the chosen production is the same as for a linear scan over the productions
+public final class WeightedProductions {
+
+  private final List<Production> productions;
+
+  private final int[] cumulativeWeights;
+
+  public WeightedProductions(final List<Production> allProductions) {
+    final List<Production> productions = new ArrayList<>(allProductions.size());
+    for (final Production production : allProductions) {
+      if (production.weight != 0) {
+        productions.add(production);
+      }
+    }
+
+    this.productions = Collections.unmodifiableList(productions);
+    this.cumulativeWeights = new int[productions.size()];
+
+    int sumOfWeights = 0;
+    for (int index = 0; index < productions.size(); ++index) {
+      sumOfWeights += productions.get(index).weight;
+      this.cumulativeWeights[index] = sumOfWeights;
+    }
+  }
+
+  // the returned list is the same instance on each call
+  public final List<Production> getProductions() {
+    return this.productions;
+  }
+
+  public final int getTotalWeight() {
+    return (this.cumulativeWeights.length == 0)
+        ? 0
+        : this.cumulativeWeights[this.cumulativeWeights.length - 1];
+  }
+
+  // returns the first production whose cumulative weight exceeds the given random number (from
+  // the interval [0, total weight))
+  public final Production choose(final int random) {
+    assert (random >= 0 && random < getTotalWeight());
+
+    int low = 0;
+    int high = this.cumulativeWeights.length - 1;
+
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+
+      if (random < this.cumulativeWeights[middle]) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+
+    return this.productions.get(low);
+  }
+
+}
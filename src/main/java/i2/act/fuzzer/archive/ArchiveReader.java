@@ -0,0 +1,279 @@
+package i2.act.fuzzer.archive;
+
+import i2.act.errors.RPGException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// provides random access (by seed) to the programs of an archive (see 'ArchiveWriter' for a
+// description of the format)
+//
+// the data and index files are memory-mapped and the seeds are binary-searched in the mapped index,
+// i.e., looking up a program only touches the pages that contain the visited index entries and the
+// record itself; if the index file of a segment is missing (e.g., because the generator has been
+// killed), the index of the segment is rebuilt from the records on the heap (a truncated last
+// record is ignored)
+//
+// NOTE: the reader is thread-safe (it only uses absolute reads on the mapped buffers)
+public final class ArchiveReader implements AutoCloseable {
+
+  public static final class Entry {
+
+    public final long seed;
+    public final int size;
+    public final int depth;
+    public final long generationTime;
+
+    private final ByteBuffer data;
+    private final int programOffset;
+    private final int programLength;
+    private final int astLength;
+
+    private Entry(final ByteBuffer data, final int offset) {
+      this.data = data;
+
+      this.seed = data.getLong(offset + 4);
+      this.size = data.getInt(offset + 12);
+      this.depth = data.getInt(offset + 16);
+      this.generationTime = data.getLong(offset + 20);
+      this.programLength = data.getInt(offset + 28);
+      this.astLength = data.getInt(offset + 32);
+      this.programOffset = offset + ArchiveWriter.RECORD_HEADER_SIZE;
+    }
+
+    public final String getProgram() {
+      return new String(getBytes(this.programOffset, this.programLength),
+          StandardCharsets.UTF_8);
+    }
+
+    public final boolean hasAST() {
+      return this.astLength > 0;
+    }
+
+    // returns the AST in the binary format (see 'BinaryASTReader') or 'null' if the AST has not
+    // been archived
+    public final byte[] getAST() {
+      if (!hasAST()) {
+        return null;
+      }
+
+      return getBytes(this.programOffset + this.programLength, this.astLength);
+    }
+
+    private final byte[] getBytes(final int offset, final int length) {
+      final ByteBuffer buffer = this.data.duplicate();
+      buffer.position(offset);
+
+      final byte[] bytes = new byte[length];
+      buffer.get(bytes);
+
+      return bytes;
+    }
+
+  }
+
+  private static final class Segment {
+
+    public final MappedByteBuffer data;
+
+    // entries (seed and record offset, see 'ArchiveWriter') sorted by the seeds
+    private final ByteBuffer index;
+    public final int size;
+
+    public Segment(final MappedByteBuffer data, final ByteBuffer index) {
+      this.data = data;
+      this.index = index;
+      this.size = index.capacity() / ArchiveWriter.INDEX_ENTRY_SIZE;
+    }
+
+    public final long getSeed(final int entry) {
+      return this.index.getLong(entry * ArchiveWriter.INDEX_ENTRY_SIZE);
+    }
+
+    public final Entry getEntry(final int entry) {
+      final int offset = (int) this.index.getLong(entry * ArchiveWriter.INDEX_ENTRY_SIZE + 8);
+      return new Entry(this.data, offset);
+    }
+
+    public final Entry find(final long seed) {
+      // first entry whose seed is not smaller than the searched one (i.e., if a seed occurs more
+      // than once, its first record is returned)
+      int low = 0;
+      int high = this.size;
+
+      while (low < high) {
+        final int middle = (low + high) >>> 1;
+
+        if (getSeed(middle) < seed) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+
+      if (low == this.size || getSeed(low) != seed) {
+        return null;
+      }
+
+      return getEntry(low);
+    }
+
+  }
+
+  private final List<Segment> segments;
+
+  public ArchiveReader(final String directoryName) {
+    final File directory = new File(directoryName);
+
+    if (!directory.isDirectory()) {
+      throw new RPGException(String.format("archive '%s' does not exist", directoryName));
+    }
+
+    this.segments = new ArrayList<>();
+
+    for (final String segmentName : getSegmentNames(directory)) {
+      this.segments.add(openSegment(directory, segmentName));
+    }
+  }
+
+  // returns the names (without suffix) of the segments in the given directory (in order)
+  public static final List<String> getSegmentNames(final File directory) {
+    final List<String> segmentNames = new ArrayList<>();
+
+    for (int segmentNumber = 0; ; ++segmentNumber) {
+      final String segmentName = getSegmentName(segmentNumber);
+
+      if (!new File(directory, segmentName + ArchiveWriter.DATA_FILE_SUFFIX).exists()) {
+        break;
+      }
+
+      segmentNames.add(segmentName);
+    }
+
+    return segmentNames;
+  }
+
+  public static final String getSegmentName(final int segmentNumber) {
+    return String.format("segment_%05d", segmentNumber);
+  }
+
+  // returns the record of the given seed or 'null' if the archive does not contain it
+  public final Entry find(final long seed) {
+    for (final Segment segment : this.segments) {
+      final Entry entry = segment.find(seed);
+
+      if (entry != null) {
+        return entry;
+      }
+    }
+
+    return null;
+  }
+
+  // returns all records, ordered by their seeds within each segment
+  public final List<Entry> entries() {
+    final List<Entry> entries = new ArrayList<>();
+
+    for (final Segment segment : this.segments) {
+      for (int entry = 0; entry < segment.size; ++entry) {
+        entries.add(segment.getEntry(entry));
+      }
+    }
+
+    return entries;
+  }
+
+  public final int size() {
+    int size = 0;
+
+    for (final Segment segment : this.segments) {
+      size += segment.size;
+    }
+
+    return size;
+  }
+
+  @Override
+  public final void close() {
+    // the mapped buffers are released by the garbage collector
+    this.segments.clear();
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  private static final Segment openSegment(final File directory, final String segmentName) {
+    final File dataFile = new File(directory, segmentName + ArchiveWriter.DATA_FILE_SUFFIX);
+    final File indexFile = new File(directory, segmentName + ArchiveWriter.INDEX_FILE_SUFFIX);
+
+    final MappedByteBuffer data = map(dataFile);
+
+    if (indexFile.exists()) {
+      return new Segment(data, map(indexFile));
+    } else {
+      return rebuildIndex(segmentName, data);
+    }
+  }
+
+  private static final Segment rebuildIndex(final String segmentName,
+      final MappedByteBuffer data) {
+    final List<Integer> recordOffsets = new ArrayList<>();
+
+    int offset = 0;
+    while (offset + ArchiveWriter.RECORD_HEADER_SIZE <= data.capacity()) {
+      if (data.getInt(offset) != ArchiveWriter.RECORD_MAGIC) {
+        throw new RPGException(
+            String.format("invalid record at offset %d of segment '%s'", offset, segmentName));
+      }
+
+      final long recordSize = ArchiveWriter.RECORD_HEADER_SIZE
+          + (long) data.getInt(offset + 28) + data.getInt(offset + 32);
+
+      if (offset + recordSize > data.capacity()) {
+        // truncated record
+        break;
+      }
+
+      recordOffsets.add(offset);
+      offset += (int) recordSize;
+    }
+
+    final Integer[] order = recordOffsets.toArray(new Integer[recordOffsets.size()]);
+    Arrays.sort(order, new Comparator<Integer>() {
+
+        @Override
+        public final int compare(final Integer first, final Integer second) {
+          return Long.compare(data.getLong(first + 4), data.getLong(second + 4));
+        }
+
+    });
+
+    // same layout as an index file
+    final ByteBuffer index = ByteBuffer.allocate(order.length * ArchiveWriter.INDEX_ENTRY_SIZE);
+
+    for (final int recordOffset : order) {
+      index.putLong(data.getLong(recordOffset + 4));
+      index.putLong(recordOffset);
+    }
+
+    return new Segment(data, index);
+  }
+
+  private static final MappedByteBuffer map(final File file) {
+    try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+      final FileChannel channel = randomAccessFile.getChannel();
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (final IOException exception) {
+      throw new RPGException(String.format("unable to map '%s'", file.getPath()), exception);
+    }
+  }
+
+}
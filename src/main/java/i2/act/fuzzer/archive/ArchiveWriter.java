@@ -0,0 +1,220 @@
+package i2.act.fuzzer.archive;
+
+import i2.act.errors.RPGException;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+
+// appends the generated programs (plus their ASTs and metadata) to large segment files instead of
+// writing one file per program (see option '--archive' and 'ArchiveReader')
+//
+// an archive is a directory of segments; each segment consists of a data file with one record per
+// program and an index file:
+//
+//   - record: RECORD_MAGIC, seed (long), size (int), depth (int), generation time in ms (long),
+//     length of the program (int), length of the AST (int), program (UTF-8), AST (binary format,
+//     see 'BinaryASTWriter'; empty if the ASTs are not archived)
+//   - index: seed (long) and offset of the record (long) per program, sorted by the seed
+//
+// a segment is closed before its data file would exceed the maximum segment size; the index file
+// is only written when a segment is closed (the records themselves suffice to rebuild a missing
+// index, e.g., after a crash)
+//
+// NOTE: not thread-safe (the archive is written by the writer thread of the output pipeline)
+public final class ArchiveWriter implements AutoCloseable {
+
+  public static final int RECORD_MAGIC = 0x53535052; // "SSPR"
+  public static final int RECORD_HEADER_SIZE = 36;
+
+  public static final int INDEX_ENTRY_SIZE = 16;
+
+  public static final String DATA_FILE_SUFFIX = ".data";
+  public static final String INDEX_FILE_SUFFIX = ".index";
+
+  public static final long DEFAULT_MAX_SEGMENT_SIZE = 256L * 1024 * 1024;
+
+  // segments are memory-mapped as a whole by the reader
+  public static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+  private final File directory;
+  private final long maxSegmentSize;
+  private final boolean writeASTs;
+
+  private int segmentNumber;
+
+  // 'null' if no segment is open
+  private DataOutputStream dataStream;
+  private long dataSize;
+
+  private long[] indexSeeds;
+  private long[] indexOffsets;
+  private int indexSize;
+
+  public ArchiveWriter(final String directoryName, final long maxSegmentSize,
+      final boolean writeASTs) {
+    if (maxSegmentSize < RECORD_HEADER_SIZE || maxSegmentSize > MAX_SEGMENT_SIZE) {
+      throw new RPGException(String.format("invalid segment size: %d", maxSegmentSize));
+    }
+
+    this.directory = new File(directoryName);
+    this.maxSegmentSize = maxSegmentSize;
+    this.writeASTs = writeASTs;
+
+    if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+      throw new RPGException(
+          String.format("could not create directory '%s'", this.directory.getPath()));
+    }
+
+    // existing segments (e.g., of a previous run) are kept
+    this.segmentNumber = ArchiveReader.getSegmentNames(this.directory).size();
+  }
+
+  public final boolean writesASTs() {
+    return this.writeASTs;
+  }
+
+  // 'programBytes' is the UTF-8 encoded program
+  public final void append(final long seed, final int size, final int depth,
+      final long generationTime, final byte[] programBytes, final byte[] ast) {
+    final byte[] astBytes = (this.writeASTs && ast != null) ? ast : new byte[0];
+
+    final long recordSize = RECORD_HEADER_SIZE + (long) programBytes.length + astBytes.length;
+
+    if (recordSize > MAX_SEGMENT_SIZE) {
+      throw new RPGException(String.format("program (seed %d) is too large to archive", seed));
+    }
+
+    try {
+      // a record that is larger than the maximum segment size gets a segment of its own
+      if (this.dataStream != null && this.dataSize > 0
+          && this.dataSize + recordSize > this.maxSegmentSize) {
+        closeSegment();
+      }
+
+      if (this.dataStream == null) {
+        openSegment();
+      }
+
+      addIndexEntry(seed, this.dataSize);
+
+      this.dataStream.writeInt(RECORD_MAGIC);
+      this.dataStream.writeLong(seed);
+      this.dataStream.writeInt(size);
+      this.dataStream.writeInt(depth);
+      this.dataStream.writeLong(generationTime);
+      this.dataStream.writeInt(programBytes.length);
+      this.dataStream.writeInt(astBytes.length);
+      this.dataStream.write(programBytes);
+      this.dataStream.write(astBytes);
+
+      this.dataSize += recordSize;
+    } catch (final IOException exception) {
+      throw new RPGException("unable to write to archive", exception);
+    }
+  }
+
+  public final void flush() {
+    if (this.dataStream != null) {
+      try {
+        this.dataStream.flush();
+      } catch (final IOException exception) {
+        throw new RPGException("unable to flush archive", exception);
+      }
+    }
+  }
+
+  @Override
+  public final void close() {
+    try {
+      if (this.dataStream != null) {
+        closeSegment();
+      }
+    } catch (final IOException exception) {
+      throw new RPGException("unable to close archive", exception);
+    }
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  private final void openSegment() throws IOException {
+    final File dataFile = getSegmentFile(this.segmentNumber, DATA_FILE_SUFFIX);
+
+    this.dataStream = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(dataFile), 1 << 16));
+    this.dataSize = 0;
+
+    this.indexSeeds = new long[1024];
+    this.indexOffsets = new long[1024];
+    this.indexSize = 0;
+  }
+
+  private final void closeSegment() throws IOException {
+    this.dataStream.close();
+    this.dataStream = null;
+
+    writeIndex(getSegmentFile(this.segmentNumber, INDEX_FILE_SUFFIX));
+
+    ++this.segmentNumber;
+  }
+
+  private final void addIndexEntry(final long seed, final long offset) {
+    if (this.indexSize == this.indexSeeds.length) {
+      this.indexSeeds = Arrays.copyOf(this.indexSeeds, 2 * this.indexSize);
+      this.indexOffsets = Arrays.copyOf(this.indexOffsets, 2 * this.indexSize);
+    }
+
+    this.indexSeeds[this.indexSize] = seed;
+    this.indexOffsets[this.indexSize] = offset;
+    ++this.indexSize;
+  }
+
+  // the index is written to a temporary file that is renamed afterwards, i.e., an index file is
+  // always complete
+  private final void writeIndex(final File indexFile) throws IOException {
+    final Integer[] order = new Integer[this.indexSize];
+    for (int index = 0; index < this.indexSize; ++index) {
+      order[index] = index;
+    }
+
+    final long[] seeds = this.indexSeeds;
+    Arrays.sort(order, new Comparator<Integer>() {
+
+        @Override
+        public final int compare(final Integer first, final Integer second) {
+          return Long.compare(seeds[first], seeds[second]);
+        }
+
+    });
+
+    final File temporaryFile =
+        new File(indexFile.getParentFile(), "." + indexFile.getName() + ".tmp");
+
+    try (final DataOutputStream indexStream = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(temporaryFile), 1 << 16))) {
+      for (final int index : order) {
+        indexStream.writeLong(this.indexSeeds[index]);
+        indexStream.writeLong(this.indexOffsets[index]);
+      }
+    }
+
+    try {
+      Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (final AtomicMoveNotSupportedException exception) {
+      Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private final File getSegmentFile(final int segmentNumber, final String suffix) {
+    return new File(this.directory, ArchiveReader.getSegmentName(segmentNumber) + suffix);
+  }
+
+}
@@ -1,5 +1,6 @@
 package i2.act.fuzzer.deserialization;
 
+import i2.act.fuzzer.GenerationContext;
 import i2.act.fuzzer.GeneratorNode;
 import i2.act.fuzzer.Node;
 import i2.act.fuzzer.Production;
@@ -71,7 +72,7 @@ public final class ASTDeserializer {
       if (node == null) {
         // root node -> crete new node
         final i2.act.fuzzer.Class rootClass = specification.getRootClass();
-        node = rootClass.createNode(null, -1, -1);
+        node = rootClass.createNode(new GenerationContext(), null, -1, -1);
       } else {
         // intentionally left blank; node has already been created
       }
@@ -221,7 +222,7 @@ public final class ASTDeserializer {
 
       if (node == null) {
         // root node -> create new node and apply production to it
-        node = _class.createNode(null, -1, -1);
+        node = _class.createNode(new GenerationContext(), null, -1, -1);
       } else {
         // child node -> apply production to already created node (and check class beforehand)
         if (node.getNodeClass() != _class) {
@@ -237,7 +238,7 @@ public final class ASTDeserializer {
     return node;
   }
 
-  private static final void instantiateGeneratorNodes(final Node rootNode,
+  static final void instantiateGeneratorNodes(final Node rootNode,
       final Map<Node, Integer> generatorNodes) {
     boolean change = true;
     while (change && !generatorNodes.isEmpty()) {
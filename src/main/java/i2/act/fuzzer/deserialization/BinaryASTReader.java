@@ -0,0 +1,167 @@
+package i2.act.fuzzer.deserialization;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.GenerationContext;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.Production;
+import i2.act.fuzzer.Specification;
+import i2.act.util.VarInt;
+import i2.act.util.lexer.SyntaxError;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+// reads ASTs in the binary format (see 'BinaryASTWriter' for a description of the format)
+//
+// the ASTs are read one after the other, i.e., a stream of many ASTs never has to be kept in
+// memory as a whole
+public final class BinaryASTReader implements AutoCloseable {
+
+  private final InputStream inputStream;
+  private final Specification specification;
+
+  private int previousId;
+
+  public BinaryASTReader(final InputStream inputStream, final Specification specification) {
+    this.inputStream = new BufferedInputStream(inputStream);
+    this.specification = specification;
+
+    try {
+      for (final byte magicByte : BinaryASTWriter.MAGIC) {
+        if (this.inputStream.read() != magicByte) {
+          throw new SyntaxError("not a binary AST");
+        }
+      }
+
+      final long version = VarInt.readUnsigned(this.inputStream);
+      if (version != BinaryASTWriter.VERSION) {
+        throw new SyntaxError(
+            String.format("unsupported version %d of the binary AST format", version));
+      }
+    } catch (final IOException exception) {
+      throw new RPGException("unable to read AST", exception);
+    }
+  }
+
+  // reads the (first) AST from the given file
+  public static final Node parseFile(final String fileName,
+      final Specification specification) {
+    try (final BinaryASTReader reader =
+        new BinaryASTReader(new FileInputStream(fileName), specification)) {
+      final Node program = reader.read();
+
+      if (program == null) {
+        throw new SyntaxError(String.format("file '%s' does not contain an AST", fileName));
+      }
+
+      return program;
+    } catch (final IOException exception) {
+      throw new RPGException(String.format("unable to read AST from '%s'", fileName), exception);
+    }
+  }
+
+  // returns the next AST of the stream or 'null' if the end of the stream has been reached
+  public final Node read() {
+    this.previousId = 0;
+
+    try {
+      final int firstByte = this.inputStream.read();
+
+      if (firstByte == -1) {
+        return null;
+      }
+
+      final Map<Node, Integer> generatorNodes = new HashMap<>();
+
+      final Node program = readNode(firstByte, null, generatorNodes);
+
+      if (!generatorNodes.isEmpty()) {
+        ASTDeserializer.instantiateGeneratorNodes(program, generatorNodes);
+      }
+
+      return program;
+    } catch (final IOException exception) {
+      throw new RPGException("unable to read AST", exception);
+    }
+  }
+
+  // 'node' is 'null' for the root node, otherwise it is the (already created) child node
+  private final Node readNode(final int firstByte, Node node,
+      final Map<Node, Integer> generatorNodes) throws IOException {
+    final int id = this.previousId
+        + (int) VarInt.decodeZigZag(VarInt.readUnsigned(firstByte, this.inputStream));
+    this.previousId = id;
+
+    final int classId = readInt();
+    final int productionToken = readInt();
+    final int numberOfChildren = readInt();
+
+    final i2.act.fuzzer.Class _class = this.specification.getClassById(classId);
+
+    if (_class == null) {
+      throw new SyntaxError(String.format("unknown class ID '%d'", classId));
+    }
+
+    if (node != null && node.getNodeClass() != _class) {
+      throw new SyntaxError(String.format("expected class '%s' but found class '%s' instead",
+          node.getNodeClass().name, _class.name));
+    }
+
+    if (productionToken == 0) {
+      if (node == null) {
+        // root node -> create new node
+        node = _class.createNode(new GenerationContext(), null, -1, -1);
+      }
+    } else if (node != null && node.getNodeClass().isGeneratorNode()) {
+      // generator nodes are instantiated once their inherited attributes are available
+      generatorNodes.put(node, productionToken - 1);
+    } else {
+      final Production production = _class.getProductionById(productionToken - 1);
+
+      if (production == null) {
+        throw new SyntaxError(
+            String.format("unknown production ID '%d'", productionToken - 1));
+      }
+
+      if (node == null) {
+        // root node -> create new node and apply production to it
+        node = _class.createNode(new GenerationContext(), null, -1, -1);
+      }
+
+      node.applyProduction(production, -1);
+    }
+
+    node.id = id;
+
+    if (numberOfChildren != node.getNumberOfChildren()) {
+      throw new SyntaxError(String.format("expected '%d' child nodes but found '%d'",
+          node.getNumberOfChildren(), numberOfChildren));
+    }
+
+    for (int childIndex = 0; childIndex < numberOfChildren; ++childIndex) {
+      readNode(this.inputStream.read(), node.getChild(childIndex), generatorNodes);
+    }
+
+    return node;
+  }
+
+  private final int readInt() throws IOException {
+    final long value = VarInt.readUnsigned(this.inputStream);
+
+    if (value > Integer.MAX_VALUE) {
+      throw new SyntaxError(String.format("invalid value '%d' in binary AST", value));
+    }
+
+    return (int) value;
+  }
+
+  @Override
+  public final void close() throws IOException {
+    this.inputStream.close();
+  }
+
+}
@@ -0,0 +1,96 @@
+package i2.act.fuzzer.deserialization;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.Node;
+import i2.act.util.VarInt;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// writes ASTs in the binary format (see 'BinaryASTReader' for the counterpart)
+//
+// the stream starts with a header (MAGIC and VERSION), followed by any number of ASTs; each AST
+// is written in pre-order, each node as four variable-length integers (see 'VarInt'):
+//
+//   - the difference of its id to the id of the previous node (zigzag-encoded; the first node of
+//     each AST is compared to 0)
+//   - the id of its class
+//   - 0 if no production has been applied to it, otherwise the id of the production (or the index
+//     of the generated value for generator nodes) plus 1
+//   - the number of its children
+//
+// i.e., the binary format contains the same information as the short text format (see
+// 'Node.serialize()'), but a node typically takes only four bytes
+public final class BinaryASTWriter implements AutoCloseable {
+
+  public static final byte[] MAGIC = { 'S', 'S', 'A', 'B' };
+  public static final int VERSION = 1;
+
+  private final OutputStream outputStream;
+
+  private int previousId;
+
+  public BinaryASTWriter(final OutputStream outputStream) {
+    this.outputStream = new BufferedOutputStream(outputStream);
+
+    try {
+      this.outputStream.write(MAGIC);
+      VarInt.writeUnsigned(VERSION, this.outputStream);
+    } catch (final IOException exception) {
+      throw new RPGException("unable to write AST", exception);
+    }
+  }
+
+  public static final void writeFile(final Node program, final String fileName) {
+    try (final BinaryASTWriter writer = new BinaryASTWriter(new FileOutputStream(fileName))) {
+      writer.write(program);
+    } catch (final IOException exception) {
+      throw new RPGException(String.format("unable to write AST to '%s'", fileName), exception);
+    }
+  }
+
+  public final void write(final Node program) {
+    this.previousId = 0;
+
+    try {
+      writeNode(program);
+    } catch (final IOException exception) {
+      throw new RPGException("unable to write AST", exception);
+    }
+  }
+
+  private final void writeNode(final Node node) throws IOException {
+    VarInt.writeSigned((long) node.id - this.previousId, this.outputStream);
+    this.previousId = node.id;
+
+    VarInt.writeUnsigned(node.getNodeClass().id, this.outputStream);
+
+    if (node.getProduction() == null) {
+      VarInt.writeUnsigned(0, this.outputStream);
+    } else {
+      VarInt.writeUnsigned(node.getProduction().id + 1, this.outputStream);
+    }
+
+    VarInt.writeUnsigned(node.getChildren().size(), this.outputStream);
+
+    for (final Node child : node.getChildren()) {
+      writeNode(child);
+    }
+  }
+
+  public final void flush() {
+    try {
+      this.outputStream.flush();
+    } catch (final IOException exception) {
+      throw new RPGException("unable to flush AST writer", exception);
+    }
+  }
+
+  @Override
+  public final void close() throws IOException {
+    this.outputStream.close();
+  }
+
+}
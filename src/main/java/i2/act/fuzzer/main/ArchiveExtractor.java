@@ -0,0 +1,179 @@
+package i2.act.fuzzer.main;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.archive.ArchiveReader;
+import i2.act.util.FileUtil;
+import i2.act.util.options.*;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// materializes programs (and their ASTs) of an archive that has been written with option
+// '--archive' (see 'ArchiveWriter'); the archive is accessed by seed, i.e., the extractor does not
+// need the specification of the programs
+public final class ArchiveExtractor {
+
+  private static final ProgramArgumentsParser argumentsParser;
+
+  private static final String OPTION_HELP = "--help";
+  private static final String OPTION_ARCHIVE = "--archive";
+  private static final String OPTION_SEED = "--seed";
+  private static final String OPTION_ALL = "--all";
+  private static final String OPTION_LIST = "--list";
+  private static final String OPTION_FILE_NAME_PATTERN = "--out";
+  private static final String OPTION_AST_FILE_NAME_PATTERN = "--ast";
+
+  static {
+    argumentsParser = new ProgramArgumentsParser();
+
+    argumentsParser.addOption(OPTION_HELP, false);
+
+    argumentsParser.addOption(OPTION_ARCHIVE, true, true, "<directory of the archive>");
+    argumentsParser.addOption(OPTION_SEED, false, true,
+        "<comma separated list of the seeds of the programs to extract>");
+    argumentsParser.addOption(OPTION_ALL, false);
+    argumentsParser.addOption(OPTION_LIST, false);
+    argumentsParser.addOption(OPTION_FILE_NAME_PATTERN, false, true,
+        "<file name pattern for the extracted programs (default: stdout)>");
+    argumentsParser.addOption(OPTION_AST_FILE_NAME_PATTERN, false, true,
+        "<file name pattern for the extracted ASTs (binary format)>");
+  }
+
+  private static final void usage() {
+    System.err.println("USAGE:");
+    System.err.println(argumentsParser.usage("  "));
+  }
+
+  public static final void main(final String[] args) {
+    ProgramArguments arguments = null;
+
+    String archiveDirectory = null;
+    final List<Long> seeds = new ArrayList<>();
+    boolean all = false;
+    boolean list = false;
+    String fileNamePattern = null;
+    String fileNamePatternASTs = null;
+
+    try {
+      arguments = argumentsParser.parseArgs(args);
+
+      if (arguments.hasOption(OPTION_HELP)) {
+        usage();
+        System.exit(0);
+      }
+
+      archiveDirectory = arguments.getOption(OPTION_ARCHIVE);
+
+      if (arguments.hasOption(OPTION_SEED)) {
+        for (final String seed : arguments.getOption(OPTION_SEED).split(",")) {
+          seeds.add(Long.parseLong(seed.trim()));
+        }
+      }
+
+      all = arguments.hasOption(OPTION_ALL);
+      list = arguments.hasOption(OPTION_LIST);
+      fileNamePattern = arguments.getOptionOr(OPTION_FILE_NAME_PATTERN, fileNamePattern);
+      fileNamePatternASTs =
+          arguments.getOptionOr(OPTION_AST_FILE_NAME_PATTERN, fileNamePatternASTs);
+    } catch (final InvalidProgramArgumentsException | NumberFormatException exception) {
+      System.err.println("[!] " + exception.getMessage());
+      usage();
+      System.exit(1);
+    }
+
+    if (seeds.isEmpty() && !all && !list) {
+      System.err.println("[!] either specify the seeds of the programs, '--all' or '--list'");
+      usage();
+      System.exit(1);
+    }
+
+    if (all && fileNamePattern == null && fileNamePatternASTs == null) {
+      System.err.println("[!] cannot extract all programs if output path is not specified");
+      usage();
+      System.exit(1);
+    }
+
+    try (final ArchiveReader archive = new ArchiveReader(archiveDirectory)) {
+      if (list) {
+        // the archive does not store the number of alternatives and restarts of the statistics
+        // file (see option '--stats')
+        System.out.println("seed, size, time, depth");
+
+        for (final ArchiveReader.Entry entry : archive.entries()) {
+          System.out.format("%d, %d, %d, %d\n",
+              entry.seed, entry.size, entry.generationTime, entry.depth);
+        }
+      }
+
+      final List<ArchiveReader.Entry> entries;
+      if (all) {
+        entries = archive.entries();
+      } else {
+        entries = new ArrayList<>();
+
+        for (final long seed : seeds) {
+          final ArchiveReader.Entry entry = archive.find(seed);
+
+          if (entry == null) {
+            throw new RPGException(String.format("archive does not contain seed %d", seed));
+          }
+
+          entries.add(entry);
+        }
+      }
+
+      for (final ArchiveReader.Entry entry : entries) {
+        extract(entry, fileNamePattern, fileNamePatternASTs);
+      }
+    }
+  }
+
+  private static final void extract(final ArchiveReader.Entry entry,
+      final String fileNamePattern, final String fileNamePatternASTs) {
+    if (fileNamePattern == null) {
+      if (fileNamePatternASTs == null) {
+        System.out.println(entry.getProgram());
+      }
+    } else {
+      // same content as the files written with option '--out'
+      final String fileName = replaceFileNamePattern(fileNamePattern, entry.seed);
+
+      final BufferedWriter writer = FileUtil.openFileForWriting(fileName, true);
+      FileUtil.write(entry.getProgram(), writer);
+      FileUtil.closeWriter(writer);
+    }
+
+    if (fileNamePatternASTs != null) {
+      if (!entry.hasAST()) {
+        throw new RPGException(
+            String.format("archive does not contain the AST of seed %d", entry.seed));
+      }
+
+      final File file = new File(replaceFileNamePattern(fileNamePatternASTs, entry.seed));
+
+      if (file.getParentFile() != null) {
+        file.getParentFile().mkdirs();
+      }
+
+      try (final FileOutputStream outputStream = new FileOutputStream(file)) {
+        outputStream.write(entry.getAST());
+      } catch (final IOException exception) {
+        throw new RPGException(
+            String.format("unable to write AST to '%s'", file.getPath()), exception);
+      }
+    }
+  }
+
+  private static final String replaceFileNamePattern(final String fileNamePattern,
+      final long seed) {
+    return fileNamePattern
+        .replaceAll(Pattern.quote("#{SEED}"), Matcher.quoteReplacement("" + seed));
+  }
+
+}
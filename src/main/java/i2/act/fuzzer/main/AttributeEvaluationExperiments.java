@@ -22,6 +22,7 @@ public final class AttributeEvaluationExperiments {
   private static final String OPTION_SEED = "--seed";
   private static final String OPTION_COUNT = "--count";
   private static final String OPTION_NAIVE = "--naive";
+  private static final String OPTION_ROUNDS = "--rounds";
   private static final String OPTION_NO_SHALLOW_EVALUATION = "--noShallowEval";
   private static final String OPTION_ACCUMULATED = "--accumulated";
   private static final String OPTION_SANITY_CHECKS = "--sanityChecks";
@@ -36,6 +37,7 @@ public final class AttributeEvaluationExperiments {
     argumentsParser.addOption(OPTION_COUNT, false, true, "<number of programs>");
 
     argumentsParser.addOption(OPTION_NAIVE, false);
+    argumentsParser.addOption(OPTION_ROUNDS, false);
     argumentsParser.addOption(OPTION_NO_SHALLOW_EVALUATION, false);
 
     argumentsParser.addOption(OPTION_ACCUMULATED, false);
@@ -144,7 +146,8 @@ public final class AttributeEvaluationExperiments {
           // attribute evaluation
           {
             final long timeBeforeEvaluation = System.currentTimeMillis();
-            evaluateAttributes(program, arguments.hasOption(OPTION_NAIVE));
+            evaluateAttributes(program, arguments.hasOption(OPTION_NAIVE),
+                arguments.hasOption(OPTION_ROUNDS));
             final long timeAfterEvaluation = System.currentTimeMillis();
 
             timeEvaluation = timeAfterEvaluation - timeBeforeEvaluation;
@@ -198,7 +201,8 @@ public final class AttributeEvaluationExperiments {
         final long timeBeforeEvaluation = System.currentTimeMillis();
 
         for (final Node program : programs) {
-          evaluateAttributes(program, arguments.hasOption(OPTION_NAIVE));
+          evaluateAttributes(program, arguments.hasOption(OPTION_NAIVE),
+              arguments.hasOption(OPTION_ROUNDS));
         }
 
         final long timeAfterEvaluation = System.currentTimeMillis();
@@ -253,9 +257,12 @@ public final class AttributeEvaluationExperiments {
     return program;
   }
 
-  private static final void evaluateAttributes(final Node program, final boolean naive) {
+  private static final void evaluateAttributes(final Node program, final boolean naive,
+      final boolean rounds) {
     if (naive) {
       evaluateAttributesLoopNaive(program);
+    } else if (rounds) {
+      program.evaluateAttributesInRounds(false, false);
     } else {
       program.evaluateAttributesLoop();
     }
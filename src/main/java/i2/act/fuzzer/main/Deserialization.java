@@ -4,6 +4,8 @@ import i2.act.fuzzer.Node;
 import i2.act.fuzzer.Specification;
 import i2.act.fuzzer.SpecificationFactory;
 import i2.act.fuzzer.deserialization.ASTDeserializer;
+import i2.act.fuzzer.deserialization.BinaryASTReader;
+import i2.act.fuzzer.deserialization.BinaryASTWriter;
 import i2.act.util.options.*;
 
 public final class Deserialization {
@@ -17,6 +19,8 @@ public final class Deserialization {
   private static final String OPTION_PRINT_CODE = "--printCode";
   private static final String OPTION_PRINT_DOT = "--printDot";
   private static final String OPTION_SHORT_FORMAT = "--short";
+  private static final String OPTION_BINARY_FORMAT = "--binary";
+  private static final String OPTION_TO_BINARY = "--toBinary";
   private static final String OPTION_DEBUG = "--debug";
 
   static {
@@ -27,6 +31,9 @@ public final class Deserialization {
     argumentsParser.addOption(OPTION_AST_FILE_NAME, true, true,
         "<file name of the serialized AST>");
     argumentsParser.addOption(OPTION_SHORT_FORMAT, false);
+    argumentsParser.addOption(OPTION_BINARY_FORMAT, false);
+    argumentsParser.addOption(OPTION_TO_BINARY, false, true,
+        "<file name of the AST in the binary format (converted from the given AST)>");
     argumentsParser.addOption(OPTION_PRINT_CODE, false);
     argumentsParser.addOption(OPTION_PRINT_DOT, false);
     argumentsParser.addOption(OPTION_DEBUG, false);
@@ -43,6 +50,8 @@ public final class Deserialization {
 
     String fileNameAST = null;
     boolean shortFormat = false;
+    boolean binaryFormat = false;
+    String fileNameBinaryAST = null;
     boolean printCode = true;
     boolean printDot = false;
     boolean debug = false;
@@ -57,6 +66,8 @@ public final class Deserialization {
 
       fileNameAST = arguments.getOptionOr(OPTION_AST_FILE_NAME, fileNameAST);
       shortFormat = arguments.hasOption(OPTION_SHORT_FORMAT);
+      binaryFormat = arguments.hasOption(OPTION_BINARY_FORMAT);
+      fileNameBinaryAST = arguments.getOptionOr(OPTION_TO_BINARY, fileNameBinaryAST);
       printCode = arguments.hasOption(OPTION_PRINT_CODE);
       printDot = arguments.hasOption(OPTION_PRINT_DOT);
       debug = arguments.hasOption(OPTION_DEBUG);
@@ -68,10 +79,19 @@ public final class Deserialization {
 
     final Specification specification = specificationFactory.createSpecification();
 
-    Node node = ASTDeserializer.parseFile(
-        fileNameAST, specification, shortFormat, ADD_MISSING_LITERAL_PRODUCTIONS);
+    Node node;
+    if (binaryFormat) {
+      node = BinaryASTReader.parseFile(fileNameAST, specification);
+    } else {
+      node = ASTDeserializer.parseFile(
+          fileNameAST, specification, shortFormat, ADD_MISSING_LITERAL_PRODUCTIONS);
+    }
     node.evaluateAttributesLoop();
 
+    if (fileNameBinaryAST != null) {
+      BinaryASTWriter.writeFile(node, fileNameBinaryAST);
+    }
+
     if (printCode) {
       System.out.println(node.printCode());
     }
@@ -1,15 +1,38 @@
 package i2.act.fuzzer.main;
 
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.GenerationProfile;
 import i2.act.fuzzer.Node;
 import i2.act.fuzzer.RandomFuzzer;
+import i2.act.fuzzer.RestartPolicy;
 import i2.act.fuzzer.Specification;
 import i2.act.fuzzer.SpecificationFactory;
-import i2.act.util.ArgumentSplitter;
+import i2.act.fuzzer.archive.ArchiveWriter;
+import i2.act.fuzzer.oracle.OracleFactory;
+import i2.act.fuzzer.oracle.ProcessOracle;
+import i2.act.fuzzer.runtime.PureFunctionCache;
+import i2.act.util.CountingOutputStream;
 import i2.act.util.FileUtil;
+import i2.act.util.Pair;
 import i2.act.util.ProcessExecutor;
 import i2.act.util.options.*;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,13 +53,22 @@ public final class FuzzerLoop {
   private static final String OPTION_FILE_NAME_PATTERN = "--out";
   private static final String OPTION_AST_FILE_NAME_PATTERN = "--ast";
   private static final String OPTION_SHORT_FORMAT = "--short";
+  private static final String OPTION_BINARY_FORMAT = "--binaryAST";
+  private static final String OPTION_ARCHIVE = "--archive";
+  private static final String OPTION_ARCHIVE_ASTS = "--archiveASTs";
+  private static final String OPTION_ARCHIVE_SEGMENT_SIZE = "--archiveSegmentSize";
   private static final String OPTION_FIND_BUGS = "--findBugs";
   private static final String OPTION_STATISTICS_FILE = "--stats";
   private static final String OPTION_DIAGNOSTICS_FILE = "--diagnostics";
   private static final String OPTION_ERROR_FILE = "--log";
+  private static final String OPTION_PROFILE_FILE = "--profile";
+  private static final String OPTION_PROFILE_INTERVAL = "--profileInterval";
+  private static final String OPTION_METRICS_FILE = "--metrics";
+  private static final String OPTION_METRICS_INTERVAL = "--metricsInterval";
   private static final String OPTION_SMALL_PROBABILITY = "--small";
   private static final String OPTION_SYNTAX_ONLY = "--syntaxOnly";
   private static final String OPTION_RESTART_ON_FAILURE = "--restartOnFailure";
+  private static final String OPTION_RESTART_POLICY = "--restartPolicy";
   private static final String OPTION_TIMEOUT = "--timeout";
   private static final String OPTION_MAX_ALTERNATIVES = "--maxAlternatives";
   private static final String OPTION_DEBUG = "--debug";
@@ -49,6 +81,16 @@ public final class FuzzerLoop {
   private static final String OPTION_USE_SPECIFIC_PATTERNS = "--specificFPs";
   private static final String OPTION_NO_HEIGHT_FAILURES = "--noHeightFailures";
 
+  private static final String OPTION_THREADS = "--threads";
+  private static final String OPTION_OUTPUT_QUEUE = "--outputQueue";
+
+  private static final String OPTION_DAEMON = "--daemon";
+  private static final String OPTION_DAEMON_PORT = "--daemonPort";
+
+  private static final String OPTION_ORACLE = "--oracle";
+  private static final String OPTION_ORACLE_THREADS = "--oracleThreads";
+  private static final String OPTION_ORACLE_TIMEOUT = "--oracleTimeout";
+
   static {
     argumentsParser = new ProgramArgumentsParser();
 
@@ -62,6 +104,12 @@ public final class FuzzerLoop {
     argumentsParser.addOption(OPTION_AST_FILE_NAME_PATTERN, false, true,
         "<file name pattern for the ASTs of the generated programs>");
     argumentsParser.addOption(OPTION_SHORT_FORMAT, false);
+    argumentsParser.addOption(OPTION_BINARY_FORMAT, false);
+    argumentsParser.addOption(OPTION_ARCHIVE, false, true,
+        "<directory of the archive that stores the generated programs in segment files>");
+    argumentsParser.addOption(OPTION_ARCHIVE_ASTS, false);
+    argumentsParser.addOption(OPTION_ARCHIVE_SEGMENT_SIZE, false, true,
+        "<max. size of an archive segment in MB>");
     argumentsParser.addOption(OPTION_FIND_BUGS, false, true,
         "<command that checks for a bug>");
     argumentsParser.addOption(OPTION_STATISTICS_FILE, false, true,
@@ -70,6 +118,14 @@ public final class FuzzerLoop {
         "<file name of the diagnostics file>");
     argumentsParser.addOption(OPTION_ERROR_FILE, false, true,
         "<file name of the error file>");
+    argumentsParser.addOption(OPTION_PROFILE_FILE, false, true,
+        "<file name of the profile with counters per class and production (.csv or .json)>");
+    argumentsParser.addOption(OPTION_PROFILE_INTERVAL, false, true,
+        "<interval in seconds in which the profile is written>");
+    argumentsParser.addOption(OPTION_METRICS_FILE, false, true,
+        "<file name of the metrics snapshot (JSON)>");
+    argumentsParser.addOption(OPTION_METRICS_INTERVAL, false, true,
+        "<interval in seconds in which the metrics snapshot is written>");
     argumentsParser.addOption(OPTION_DEBUG, false);
 
     argumentsParser.addOption(OPTION_SANITY_CHECKS, false);
@@ -79,6 +135,8 @@ public final class FuzzerLoop {
         OPTION_SMALL_PROBABILITY, false, true, "<probability to choose 'small' productions>");
     argumentsParser.addOption(OPTION_SYNTAX_ONLY, false);
     argumentsParser.addOption(OPTION_RESTART_ON_FAILURE, false);
+    argumentsParser.addOption(OPTION_RESTART_POLICY, false, true,
+        "<budget of alternatives per attempt ('luby:<unit>' or 'geometric:<initial>:<factor>')>");
     argumentsParser.addOption(
         OPTION_TIMEOUT, false, true, "<timeout in ms>");
     argumentsParser.addOption(
@@ -88,6 +146,21 @@ public final class FuzzerLoop {
 
     argumentsParser.addOption(OPTION_USE_SPECIFIC_PATTERNS, false);
     argumentsParser.addOption(OPTION_NO_HEIGHT_FAILURES, false);
+
+    argumentsParser.addOption(OPTION_THREADS, false, true, "<number of generator threads>");
+    argumentsParser.addOption(OPTION_OUTPUT_QUEUE, false, true,
+        "<max. number of generated programs waiting to be written>");
+
+    argumentsParser.addOption(OPTION_DAEMON, false);
+    argumentsParser.addOption(OPTION_DAEMON_PORT, false, true,
+        "<local port on which the daemon handles requests (instead of stdin)>");
+
+    argumentsParser.addOption(OPTION_ORACLE, false, true,
+        "<oracle that runs the '--findBugs' command ('process', 'worker' or custom oracle)>");
+    argumentsParser.addOption(OPTION_ORACLE_THREADS, false, true,
+        "<number of threads that run the '--findBugs' command>");
+    argumentsParser.addOption(OPTION_ORACLE_TIMEOUT, false, true,
+        "<timeout of the '--findBugs' command in ms>");
   }
 
   private static final void usage() {
@@ -105,13 +178,22 @@ public final class FuzzerLoop {
     String fileNamePattern = null;
     String fileNamePatternASTs = null;
     boolean shortFormat = false;
+    boolean binaryFormat = false;
+    String archiveDirectory = null;
+    boolean archiveASTs = false;
+    int archiveSegmentSize = (int) (ArchiveWriter.DEFAULT_MAX_SEGMENT_SIZE >> 20);
     String findBugsCommand = null;
     String statsFileName = null;
     String diagnosticsFileName = null;
     String errorFileName = null;
+    String profileFileName = null;
+    int profileInterval = ProfileWriter.DEFAULT_INTERVAL_SECONDS;
+    String metricsFileName = null;
+    int metricsInterval = GenerationMetrics.DEFAULT_INTERVAL_SECONDS;
     float smallProbability = 0.f;
     boolean syntaxOnly = false;
     boolean restartOnFailure = false;
+    String restartPolicyName = null;
     int maxAlternatives = -1;
     boolean debug = false;
     boolean sanityChecks = false;
@@ -120,6 +202,13 @@ public final class FuzzerLoop {
     int batchSize = DEFAULT_BATCH_SIZE;
     boolean useSpecificPatterns = false;
     boolean handleHeightLimitSpecially = true;
+    int numberOfThreads = 1;
+    int outputQueueCapacity = OutputPipeline.DEFAULT_CAPACITY;
+    boolean daemon = false;
+    int daemonPort = -1;
+    String oracleName = ProcessOracle.NAME;
+    int numberOfOracleThreads = OraclePool.DEFAULT_NUMBER_OF_THREADS;
+    long oracleTimeout = ProcessExecutor.NO_TIMEOUT;
 
     try {
       arguments = argumentsParser.parseArgs(args);
@@ -145,14 +234,24 @@ public final class FuzzerLoop {
       fileNamePatternASTs =
           arguments.getOptionOr(OPTION_AST_FILE_NAME_PATTERN, fileNamePatternASTs);
       shortFormat = arguments.hasOption(OPTION_SHORT_FORMAT);
+      binaryFormat = arguments.hasOption(OPTION_BINARY_FORMAT);
+      archiveDirectory = arguments.getOptionOr(OPTION_ARCHIVE, archiveDirectory);
+      archiveASTs = arguments.hasOption(OPTION_ARCHIVE_ASTS);
+      archiveSegmentSize =
+          arguments.getIntOptionOr(OPTION_ARCHIVE_SEGMENT_SIZE, archiveSegmentSize);
       findBugsCommand = arguments.getOptionOr(OPTION_FIND_BUGS, findBugsCommand);
 
       statsFileName = arguments.getOptionOr(OPTION_STATISTICS_FILE, statsFileName);
       diagnosticsFileName = arguments.getOptionOr(OPTION_DIAGNOSTICS_FILE, diagnosticsFileName);
       errorFileName = arguments.getOptionOr(OPTION_ERROR_FILE, errorFileName);
+      profileFileName = arguments.getOptionOr(OPTION_PROFILE_FILE, profileFileName);
+      profileInterval = arguments.getIntOptionOr(OPTION_PROFILE_INTERVAL, profileInterval);
+      metricsFileName = arguments.getOptionOr(OPTION_METRICS_FILE, metricsFileName);
+      metricsInterval = arguments.getIntOptionOr(OPTION_METRICS_INTERVAL, metricsInterval);
       smallProbability = arguments.getFloatOptionOr(OPTION_SMALL_PROBABILITY, smallProbability);
       syntaxOnly = arguments.hasOption(OPTION_SYNTAX_ONLY);
       restartOnFailure = arguments.hasOption(OPTION_RESTART_ON_FAILURE);
+      restartPolicyName = arguments.getOptionOr(OPTION_RESTART_POLICY, restartPolicyName);
       timeout = arguments.getIntOptionOr(OPTION_TIMEOUT, timeout);
       maxAlternatives = arguments.getIntOptionOr(OPTION_MAX_ALTERNATIVES, maxAlternatives);
       debug = arguments.hasOption(OPTION_DEBUG);
@@ -162,6 +261,14 @@ public final class FuzzerLoop {
           arguments.getIntOptionOr(OPTION_BATCH_SIZE, batchSize);
       useSpecificPatterns = arguments.hasOption(OPTION_USE_SPECIFIC_PATTERNS);
       handleHeightLimitSpecially = !arguments.hasOption(OPTION_NO_HEIGHT_FAILURES);
+      numberOfThreads = arguments.getIntOptionOr(OPTION_THREADS, numberOfThreads);
+      outputQueueCapacity = arguments.getIntOptionOr(OPTION_OUTPUT_QUEUE, outputQueueCapacity);
+      daemon = arguments.hasOption(OPTION_DAEMON) || arguments.hasOption(OPTION_DAEMON_PORT);
+      daemonPort = arguments.getIntOptionOr(OPTION_DAEMON_PORT, daemonPort);
+      oracleName = arguments.getOptionOr(OPTION_ORACLE, oracleName);
+      numberOfOracleThreads =
+          arguments.getIntOptionOr(OPTION_ORACLE_THREADS, numberOfOracleThreads);
+      oracleTimeout = arguments.getLongOptionOr(OPTION_ORACLE_TIMEOUT, oracleTimeout);
     } catch (final InvalidProgramArgumentsException exception) {
       System.err.println("[!] " + exception.getMessage());
       usage();
@@ -174,21 +281,120 @@ public final class FuzzerLoop {
       System.exit(1);
     }
 
+    if (archiveDirectory != null && findBugsCommand != null) {
+      System.err.println("[!] cannot find bugs if the programs are archived");
+      usage();
+      System.exit(1);
+    }
+
+    if (archiveDirectory != null && (fileNamePattern != null || fileNamePatternASTs != null)) {
+      System.err.println("[!] cannot write program or AST files if the programs are archived");
+      usage();
+      System.exit(1);
+    }
+
+    if (archiveASTs && archiveDirectory == null) {
+      System.err.println("[!] cannot archive ASTs if archive directory is not specified");
+      usage();
+      System.exit(1);
+    }
+
+    // the segments are memory-mapped as a whole -> they have to be smaller than 2 GB
+    if (archiveSegmentSize < 1
+        || ((long) archiveSegmentSize << 20) > ArchiveWriter.MAX_SEGMENT_SIZE) {
+      System.err.println("[!] archive segment size has to be between 1 and 2047 MB");
+      usage();
+      System.exit(1);
+    }
+
+    if (numberOfThreads < 1) {
+      System.err.println("[!] number of threads has to be at least 1");
+      usage();
+      System.exit(1);
+    }
+
+    if (outputQueueCapacity < 1) {
+      System.err.println("[!] capacity of output queue has to be at least 1");
+      usage();
+      System.exit(1);
+    }
+
+    if (profileInterval < 1) {
+      System.err.println("[!] profile interval has to be at least 1 second");
+      usage();
+      System.exit(1);
+    }
+
+    if (metricsInterval < 1) {
+      System.err.println("[!] metrics interval has to be at least 1 second");
+      usage();
+      System.exit(1);
+    }
+
+    if (numberOfOracleThreads < 1) {
+      System.err.println("[!] number of oracle threads has to be at least 1");
+      usage();
+      System.exit(1);
+    }
+
+    RestartPolicy restartPolicy = null;
+    if (restartPolicyName != null) {
+      try {
+        restartPolicy = RestartPolicy.fromString(restartPolicyName);
+      } catch (final RPGException exception) {
+        System.err.println("[!] " + exception.getMessage());
+        usage();
+        System.exit(1);
+      }
+    }
+
+    if (daemon) {
+      final GeneratorDaemon generatorDaemon = new GeneratorDaemon(specificationFactory, maxDepth,
+          smallProbability, timeout, maxAlternatives, shortFormat, syntaxOnly, restartOnFailure,
+          restartPolicy, useSpecificPatterns, handleHeightLimitSpecially);
+
+      if (daemonPort == -1) {
+        generatorDaemon.serveStandardStreams();
+      } else {
+        generatorDaemon.serveLocalPort(daemonPort, numberOfThreads);
+      }
+
+      return;
+    }
+
+    OracleFactory oracleFactory = null;
+    try {
+      oracleFactory = OracleFactory.forName(oracleName);
+    } catch (final RPGException exception) {
+      System.err.println("[!] " + exception.getMessage());
+      usage();
+      System.exit(1);
+    }
+
     generatePrograms(specificationFactory, maxDepth, seed, seedInc, count, fileNamePattern,
-        fileNamePatternASTs, shortFormat, findBugsCommand, statsFileName, diagnosticsFileName,
-        errorFileName, smallProbability, syntaxOnly, restartOnFailure, timeout,
+        fileNamePatternASTs, shortFormat, binaryFormat, archiveDirectory, archiveASTs,
+        (long) archiveSegmentSize << 20, findBugsCommand, statsFileName, diagnosticsFileName,
+        errorFileName, profileFileName, profileInterval, metricsFileName, metricsInterval,
+        smallProbability, syntaxOnly, restartOnFailure, restartPolicy, timeout,
         maxAlternatives, debug, sanityChecks, batchSize, useSpecificPatterns,
-        handleHeightLimitSpecially);
+        handleHeightLimitSpecially, numberOfThreads, outputQueueCapacity, oracleFactory,
+        numberOfOracleThreads, oracleTimeout);
   }
 
   public static final Node generatePrograms(final SpecificationFactory specificationFactory,
       final int maxDepth, final long seed, final int seedInc, final int numberOfPrograms,
       final String fileNamePattern, final String fileNamePatternASTs, final boolean shortFormat,
-      final String findBugsCommand, final String statsFileName, final String diagnosticsFileName,
-      final String errorFileName, final double smallProbability, final boolean syntaxOnly,
-      final boolean restartOnFailure, final int timeout, final int maxAlternatives,
-      final boolean debug, final boolean sanityChecks, final int batchSize,
-      final boolean useSpecificPatterns, final boolean handleHeightLimitSpecially) {
+      final boolean binaryFormat, final String archiveDirectory, final boolean archiveASTs,
+      final long archiveSegmentSize, final String findBugsCommand, final String statsFileName,
+      final String diagnosticsFileName, final String errorFileName, final String profileFileName,
+      final int profileInterval,
+      final String metricsFileName, final int metricsInterval, final double smallProbability,
+      final boolean syntaxOnly, final boolean restartOnFailure, final RestartPolicy restartPolicy,
+      final int timeout, final int maxAlternatives, final boolean debug,
+      final boolean sanityChecks, final int batchSize, final boolean useSpecificPatterns,
+      final boolean handleHeightLimitSpecially,
+      final int numberOfThreads, final int outputQueueCapacity, final OracleFactory oracleFactory,
+      final int numberOfOracleThreads, final long oracleTimeout) {
 
     final BufferedWriter statsWriter;
     {
@@ -217,26 +423,135 @@ public final class FuzzerLoop {
       }
     }
 
+    final ProfileWriter profileWriter;
+    {
+      if (profileFileName != null) {
+        profileWriter = new ProfileWriter(profileFileName, profileInterval);
+      } else {
+        profileWriter = null;
+      }
+    }
+
+    final GenerationMetrics metrics;
+    {
+      if (metricsFileName != null) {
+        metrics = new GenerationMetrics(metricsFileName, metricsInterval);
+      } else {
+        metrics = null;
+      }
+    }
+
+    final ArchiveWriter archiveWriter;
+    {
+      if (archiveDirectory != null) {
+        archiveWriter = new ArchiveWriter(archiveDirectory, archiveSegmentSize, archiveASTs);
+      } else {
+        archiveWriter = null;
+      }
+    }
+
+    // each worker handles the program indexes 'workerIndex + k * numberOfThreads', i.e., the
+    // workers use disjoint seeds and each program only depends on its own seed
+    final AtomicBoolean failed = new AtomicBoolean(false);
+
+    final OutputPipeline outputPipeline = new OutputPipeline(
+        outputQueueCapacity, shortFormat, binaryFormat, archiveWriter, statsWriter,
+        diagnosticsWriter, failed);
+
+    final OraclePool oraclePool;
+    {
+      if (findBugsCommand != null) {
+        oraclePool = new OraclePool(oracleFactory, findBugsCommand, numberOfOracleThreads,
+            oracleTimeout, outputPipeline, metrics, failed);
+      } else {
+        oraclePool = null;
+      }
+    }
+
+    // the specification (including its analyses, e.g., the min sizes) is constructed once and
+    // shared read-only by all workers
     final Specification specification = specificationFactory.createSpecification();
 
-    Node result = null;
+    final List<Callable<Pair<Integer, Node>>> workers = new ArrayList<>(numberOfThreads);
+    for (int workerIndex = 0; workerIndex < numberOfThreads; ++workerIndex) {
+      final int firstIndex = workerIndex;
+
+      workers.add(new Callable<Pair<Integer, Node>>() {
+
+          @Override
+          public final Pair<Integer, Node> call() {
+            try {
+              return generatePrograms(specification, maxDepth, seed, seedInc,
+                  numberOfPrograms, firstIndex, numberOfThreads, fileNamePattern,
+                  fileNamePatternASTs, oraclePool, outputPipeline, diagnosticsWriter,
+                  errorWriter, profileWriter, metrics, smallProbability, syntaxOnly,
+                  restartOnFailure, restartPolicy, timeout, maxAlternatives, debug, sanityChecks,
+                  batchSize, useSpecificPatterns, handleHeightLimitSpecially, failed);
+            } catch (final RuntimeException | Error exception) {
+              failed.set(true);
+              throw exception;
+            }
+          }
+
+      });
+    }
 
-    for (int idx = 0; idx < numberOfPrograms || numberOfPrograms == INFINITE_PROGRAMS; ++idx) {
-      final long thisSeed = seed + (idx * seedInc);
+    Pair<Integer, Node> result = null;
 
-      final RandomFuzzer fuzzer = RandomFuzzer.createFor(specification, thisSeed,
-              smallProbability, syntaxOnly, restartOnFailure, timeout, maxAlternatives, debug,
-              diagnosticsWriter, errorWriter);
-      fuzzer.useSpecificPatterns = useSpecificPatterns;
-      fuzzer.handleHeightLimitSpecially = handleHeightLimitSpecially;
+    try {
+      if (numberOfThreads == 1) {
+        result = workers.get(0).call();
+      } else {
+        final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
 
-      final long timeBefore = System.currentTimeMillis();
+        try {
+          final List<Future<Pair<Integer, Node>>> futures = executor.invokeAll(workers);
+
+          for (final Future<Pair<Integer, Node>> future : futures) {
+            final Pair<Integer, Node> workerResult = future.get();
 
-      final Node program;
+            if (workerResult != null
+                && (result == null || workerResult.getFirst() > result.getFirst())) {
+              result = workerResult;
+            }
+          }
+        } finally {
+          executor.shutdownNow();
+        }
+      }
+    } catch (final ExecutionException exception) {
+      final Throwable cause = exception.getCause();
 
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new RuntimeException(cause);
+      }
+    } catch (final RuntimeException | Error exception) {
+      throw exception;
+    } catch (final Exception exception) {
+      throw new RuntimeException(exception);
+    } finally {
       try {
-        program = fuzzer.generateProgram(maxDepth);
-      } catch (final Exception exception) {
+        try {
+          // the oracle threads hand the checked programs over to the output pipeline
+          if (oraclePool != null) {
+            oraclePool.close();
+          }
+        } finally {
+          outputPipeline.close();
+        }
+      } finally {
+        if (archiveWriter != null) {
+          archiveWriter.close();
+        }
+
+        if (statsWriter != null) {
+          FileUtil.closeWriter(statsWriter);
+        }
+
         if (diagnosticsWriter != null) {
           FileUtil.closeWriter(diagnosticsWriter);
         }
@@ -245,107 +560,211 @@ public final class FuzzerLoop {
           FileUtil.closeWriter(errorWriter);
         }
 
-        throw exception;
+        if (profileWriter != null) {
+          profileWriter.close();
+        }
+
+        if (metrics != null) {
+          metrics.close();
+        }
       }
+    }
+
+    printPureFunctionStatistics(specification);
+
+    return (result == null) ? null : result.getSecond();
+  }
+
+  // only specifications that are translated with option '--pure' contain pure function caches
+  private static final void printPureFunctionStatistics(final Specification specification) {
+    for (final PureFunctionCache cache : specification.getPureFunctionCaches()) {
+      System.err.format("[i] pure function '%s': %d hits, %d misses, %d cached results\n",
+          cache.getFunctionName(), cache.getHits(), cache.getMisses(), cache.size());
+    }
+  }
+
+  private static final Pair<Integer, Node> generatePrograms(
+      final Specification specification, final int maxDepth, final long seed,
+      final int seedInc, final int numberOfPrograms, final int firstIndex,
+      final int indexIncrement, final String fileNamePattern, final String fileNamePatternASTs,
+      final OraclePool oraclePool, final OutputPipeline outputPipeline,
+      final BufferedWriter diagnosticsWriter, final BufferedWriter errorWriter,
+      final ProfileWriter profileWriter, final GenerationMetrics metrics,
+      final double smallProbability,
+      final boolean syntaxOnly, final boolean restartOnFailure, final RestartPolicy restartPolicy,
+      final int timeout, final int maxAlternatives, final boolean debug,
+      final boolean sanityChecks, final int batchSize, final boolean useSpecificPatterns,
+      final boolean handleHeightLimitSpecially, final AtomicBoolean failed) {
+    final GenerationProfile profile =
+        (profileWriter == null) ? null : profileWriter.createProfile(specification);
+
+    Pair<Integer, Node> result = null;
+
+    for (int idx = firstIndex;
+        (idx < numberOfPrograms || numberOfPrograms == INFINITE_PROGRAMS) && !failed.get();
+        idx += indexIncrement) {
+      final long thisSeed = seed + (idx * seedInc);
+
+      final RandomFuzzer fuzzer = RandomFuzzer.createFor(specification, thisSeed,
+              smallProbability, syntaxOnly, restartOnFailure, timeout, maxAlternatives, debug,
+              diagnosticsWriter, errorWriter);
+      fuzzer.useSpecificPatterns = useSpecificPatterns;
+      fuzzer.handleHeightLimitSpecially = handleHeightLimitSpecially;
+      fuzzer.restartPolicy = restartPolicy;
+      fuzzer.profile = profile;
+
+      final long timeBefore = System.currentTimeMillis();
+
+      final Node program = fuzzer.generateProgram(maxDepth);
 
       if (sanityChecks) {
         program.clearAttributeValues(true);
         program.evaluateAttributesLoop();
 
         if (!program.allGuardsSatisfied(true)) {
-          System.err.println("===[ INVALID NODES ]===");
-          program.findInvalidNodes();
-          System.err.println("=======================");
+          synchronized (System.err) {
+            System.err.println("===[ INVALID NODES ]===");
+            program.findInvalidNodes();
+            System.err.println("=======================");
+          }
 
           throw new RuntimeException("program contains failing guards!");
         }
       }
 
-      result = program;
+      result = new Pair<>(idx, program);
 
       final long timeAfter = System.currentTimeMillis();
 
-      final String fileNameProgram;
+      if (metrics != null) {
+        metrics.recordProgram(timeAfter - timeBefore, fuzzer.getConsumedAlternatives(),
+            fuzzer.getNumberOfRestarts());
+      }
 
-      // write program to disk or stdout
+      final String fileNameProgram;
       if (fileNamePattern == null) {
         fileNameProgram = null;
-        System.out.println(program.printCode());
       } else {
         fileNameProgram =
             replaceFileNamePattern(fileNamePattern, maxDepth, idx, thisSeed, batchSize);
-
-        final BufferedWriter writer = FileUtil.openFileForWriting(fileNameProgram, true);
-        FileUtil.write(program.printCode(), writer);
-        FileUtil.closeWriter(writer);
-      }
-
-      // write statistics to file (if enabled)
-      if (statsWriter != null) {
-        final int programSize = program.size();
-        final long time = timeAfter - timeBefore;
-        final int programDepth = program.depth();
-
-        FileUtil.write(String.format("%d, %d, %d\n", programSize, time, programDepth), statsWriter);
-        FileUtil.flushWriter(statsWriter);
       }
 
-      // flush diagnostics writer (if enabled)
-      if (diagnosticsFileName != null) {
-        FileUtil.flushWriter(diagnosticsWriter);
+      final String fileNameAST;
+      if (fileNamePatternASTs == null) {
+        fileNameAST = null;
+      } else {
+        fileNameAST =
+            replaceFileNamePattern(fileNamePatternASTs, maxDepth, idx, thisSeed, batchSize);
       }
 
-      boolean writeAST = (fileNamePatternASTs != null);
-
-      // check if generated program triggers a bug
-      if (findBugsCommand != null) {
+      if (oraclePool != null) {
         assert (fileNameProgram != null);
 
-        final String[] findBugsCommandLine = ArgumentSplitter.splitArguments(findBugsCommand);
-        final String[] initialCheckCommandLine =
-            ArgumentSplitter.appendArgument(findBugsCommandLine, fileNameProgram);
+        // the check needs the program file -> write it directly instead of via the pipeline
+        final long programBytes = writeProgram(program, fileNameProgram);
 
-        if (ProcessExecutor.executeAndCheck(initialCheckCommandLine)) {
-          // generated program does not trigger a bug
-          System.out.println("[i] program does not trigger a bug => discard program");
-          FileUtil.deleteFile(fileNameProgram);
+        if (metrics != null) {
+          metrics.recordProgramBytes(programBytes);
+        }
 
-          // do not write AST to file
-          writeAST = false;
+        // check if generated program triggers a bug (the oracle threads hand the program over to
+        // the output pipeline once the check is done)
+        oraclePool.check(program, thisSeed, fileNameProgram, fileNameAST, timeAfter - timeBefore,
+            fuzzer.getConsumedAlternatives(), fuzzer.getNumberOfRestarts());
+      } else {
+        // the code is printed by this thread, since printing may call runtime functions; program
+        // files are streamed (i.e., the program text is only materialized for stdout)
+        String code = null;
+        byte[] encodedCode = null;
+        final long programBytes;
+
+        if (fileNameProgram != null) {
+          programBytes = writeProgram(program, fileNameProgram);
+        } else if (outputPipeline.archivesPrograms()) {
+          encodedCode = encodeProgram(program);
+          programBytes = encodedCode.length;
         } else {
-          // generated program triggers a bug \o/
-          System.out.println("[i] program triggers a bug => keep program");
+          code = program.printCode();
+          programBytes = utf8Length(code);
         }
-      }
 
-      // write AST to file (if enabled)
-      if (writeAST) {
-        assert (fileNamePatternASTs != null);
-        final String fileName =
-            replaceFileNamePattern(fileNamePatternASTs, maxDepth, idx, thisSeed, batchSize);
+        if (metrics != null) {
+          metrics.recordProgramBytes(programBytes);
+        }
 
-        final BufferedWriter writer = FileUtil.openFileForWriting(fileName, true);
-        FileUtil.write(program.serialize(shortFormat), writer);
-        FileUtil.closeWriter(writer);
+        // hand the program over to the writer thread (prints or archives the program and writes
+        // the AST and the statistics, if enabled)
+        outputPipeline.submit(program, code, encodedCode, thisSeed, fileNameAST,
+            timeAfter - timeBefore, fuzzer.getConsumedAlternatives(),
+            fuzzer.getNumberOfRestarts());
       }
     }
 
-    // close writers
-    {
-      if (statsWriter != null) {
-        FileUtil.closeWriter(statsWriter);
-      }
+    return result;
+  }
+
+  // streams the code of the program to the file (in UTF-8); returns the number of written bytes
+  private static final long writeProgram(final Node program, final String fileName) {
+    final File file = new File(fileName);
 
-      if (diagnosticsWriter != null) {
-        FileUtil.closeWriter(diagnosticsWriter);
+    if (file.getParentFile() != null) {
+      file.getParentFile().mkdirs();
+    }
+
+    try {
+      final CountingOutputStream outputStream =
+          new CountingOutputStream(new FileOutputStream(file));
+
+      try (final Writer writer =
+          new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+        program.printCode(writer);
       }
 
-      if (errorWriter != null) {
-        FileUtil.closeWriter(errorWriter);
+      return outputStream.getCount();
+    } catch (final IOException exception) {
+      throw new RPGException(String.format("unable to write program to '%s'", fileName),
+          exception);
+    }
+  }
+
+  // streams the code of the program into a UTF-8 encoded buffer (the payload of an archive record)
+  private static final byte[] encodeProgram(final Node program) {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    try (final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+      program.printCode(writer);
+    } catch (final IOException exception) {
+      throw new RPGException("unable to encode program", exception);
+    }
+
+    return outputStream.toByteArray();
+  }
+
+  // number of bytes of the UTF-8 encoding of the code (without encoding it); like 'getBytes()',
+  // unpaired surrogates count as a single byte (the replacement '?')
+  private static final long utf8Length(final String code) {
+    final int length = code.length();
+    long numberOfBytes = 0;
+
+    for (int index = 0; index < length; ++index) {
+      final char character = code.charAt(index);
+
+      if (character < 0x80) {
+        numberOfBytes += 1;
+      } else if (character < 0x800) {
+        numberOfBytes += 2;
+      } else if (Character.isHighSurrogate(character) && index + 1 < length
+          && Character.isLowSurrogate(code.charAt(index + 1))) {
+        numberOfBytes += 4;
+        ++index;
+      } else if (Character.isSurrogate(character)) {
+        numberOfBytes += 1;
+      } else {
+        numberOfBytes += 3;
       }
     }
 
-    return result;
+    return numberOfBytes;
   }
 
   private static final String replaceFileNamePattern(final String fileNamePattern,
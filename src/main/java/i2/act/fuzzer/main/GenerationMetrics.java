@@ -0,0 +1,182 @@
+package i2.act.fuzzer.main;
+
+import i2.act.util.FileUtil;
+import i2.act.util.Histogram;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+// metrics of a generation campaign (see option '--metrics'): histograms of the generation time,
+// the alternatives and the restarts per program and of the oracle latency, plus the throughput
+//
+// a snapshot of the metrics is periodically written as JSON; the snapshot file is replaced
+// atomically, i.e., readers never see a partially written snapshot
+final class GenerationMetrics {
+
+  public static final int DEFAULT_INTERVAL_SECONDS = 10;
+
+  private static final double[] PERCENTILES = { 50., 90., 99., 99.9 };
+  private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p999" };
+
+  private final String fileName;
+  private final long intervalMs;
+
+  private final long startTime;
+
+  private final Histogram generationTimes;
+  private final Histogram alternatives;
+  private final Histogram restarts;
+  private final Histogram oracleLatencies;
+
+  private final AtomicLong programs;
+  private final AtomicLong bytes;
+
+  // only accessed by the writer thread (and by 'close()' after the writer thread has finished)
+  private long lastSnapshotTime;
+  private long lastSnapshotPrograms;
+  private long lastSnapshotBytes;
+
+  private final Thread writerThread;
+  private volatile boolean closed;
+
+  public GenerationMetrics(final String fileName, final int intervalSeconds) {
+    this.fileName = fileName;
+    this.intervalMs = intervalSeconds * 1000L;
+
+    this.startTime = System.currentTimeMillis();
+
+    this.generationTimes = new Histogram();
+    this.alternatives = new Histogram();
+    this.restarts = new Histogram();
+    this.oracleLatencies = new Histogram();
+
+    this.programs = new AtomicLong();
+    this.bytes = new AtomicLong();
+
+    this.lastSnapshotTime = this.startTime;
+
+    this.writerThread = new Thread(new Runnable() {
+
+        @Override
+        public final void run() {
+          writePeriodically();
+        }
+
+    }, "metrics-writer");
+
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  public final void recordProgram(final long generationTime, final int numberOfAlternatives,
+      final int numberOfRestarts) {
+    this.generationTimes.record(generationTime);
+    this.alternatives.record(numberOfAlternatives);
+    this.restarts.record(numberOfRestarts);
+
+    this.programs.incrementAndGet();
+  }
+
+  // the programs are measured in UTF-8 bytes, no matter whether they are printed, written to files
+  // or archived
+  public final void recordProgramBytes(final long numberOfBytes) {
+    this.bytes.addAndGet(numberOfBytes);
+  }
+
+  public final void recordOracleLatency(final long latency) {
+    this.oracleLatencies.record(latency);
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  private final void writePeriodically() {
+    try {
+      while (!this.closed) {
+        Thread.sleep(this.intervalMs);
+
+        if (!this.closed) {
+          writeSnapshot();
+        }
+      }
+    } catch (final InterruptedException exception) {
+      // closed
+    }
+  }
+
+  private final void writeSnapshot() {
+    final long now = System.currentTimeMillis();
+
+    final long programs = this.programs.get();
+    final long bytes = this.bytes.get();
+
+    final double elapsedSeconds = Math.max(now - this.startTime, 1) / 1000.;
+    final double intervalSeconds = Math.max(now - this.lastSnapshotTime, 1) / 1000.;
+
+    final StringBuilder builder = new StringBuilder();
+
+    builder.append("{\n");
+    appendField(builder, "elapsedSeconds", format(elapsedSeconds));
+    appendField(builder, "programs", String.valueOf(programs));
+    appendField(builder, "programsPerSecond", format(programs / elapsedSeconds));
+    appendField(builder, "recentProgramsPerSecond",
+        format((programs - this.lastSnapshotPrograms) / intervalSeconds));
+    appendField(builder, "bytes", String.valueOf(bytes));
+    appendField(builder, "bytesPerSecond", format(bytes / elapsedSeconds));
+    appendField(builder, "recentBytesPerSecond",
+        format((bytes - this.lastSnapshotBytes) / intervalSeconds));
+    appendField(builder, "generationTimeMs", formatHistogram(this.generationTimes));
+    appendField(builder, "alternatives", formatHistogram(this.alternatives));
+    appendField(builder, "restarts", formatHistogram(this.restarts));
+    builder.append(String.format("  \"oracleLatencyMs\": %s\n",
+        formatHistogram(this.oracleLatencies)));
+    builder.append("}\n");
+
+    this.lastSnapshotTime = now;
+    this.lastSnapshotPrograms = programs;
+    this.lastSnapshotBytes = bytes;
+
+    FileUtil.writeToFileAtomically(builder.toString(), this.fileName);
+  }
+
+  private static final void appendField(final StringBuilder builder, final String name,
+      final String value) {
+    builder.append(String.format("  \"%s\": %s,\n", name, value));
+  }
+
+  private static final String formatHistogram(final Histogram histogram) {
+    final StringBuilder builder = new StringBuilder();
+
+    builder.append(String.format(Locale.US, "{ \"count\": %d, \"min\": %d, \"mean\": %s",
+        histogram.getCount(), histogram.getMin(), format(histogram.getMean())));
+
+    for (int index = 0; index < PERCENTILES.length; ++index) {
+      builder.append(String.format(", \"%s\": %d",
+          PERCENTILE_NAMES[index], histogram.getPercentile(PERCENTILES[index])));
+    }
+
+    builder.append(String.format(", \"max\": %d }", histogram.getMax()));
+
+    return builder.toString();
+  }
+
+  private static final String format(final double value) {
+    return String.format(Locale.US, "%.3f", value);
+  }
+
+  // has to be called after all programs have been generated and checked
+  public final void close() {
+    this.closed = true;
+    this.writerThread.interrupt();
+
+    try {
+      this.writerThread.join();
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+
+    writeSnapshot();
+  }
+
+}
@@ -0,0 +1,317 @@
+package i2.act.fuzzer.main;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.RandomFuzzer;
+import i2.act.fuzzer.RestartPolicy;
+import i2.act.fuzzer.Specification;
+import i2.act.fuzzer.SpecificationFactory;
+import i2.act.util.ArgumentSplitter;
+import i2.act.util.options.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// generates single programs on request (see options '--daemon' and '--daemonPort'), i.e., the
+// JVM startup and the construction of the specification are only paid once
+//
+// each request is one line with the options of the program to generate, e.g.:
+//
+//   --seed 1303 --maxDepth 11 --ast
+//
+// and is answered by a header line 'ok' followed by the program (or its AST) in UTF-8, or by a
+// single line 'error <message>'; the line 'quit' ends the session
+//
+// the program is streamed to the client (i.e., it is not materialized in memory) and therefore
+// sent in chunks: each chunk consists of a line with its number of bytes and these bytes, a chunk
+// of size 0 ends the response; if printing the program fails, a line 'error <message>' replaces
+// the next chunk and ends the response
+//
+// the program for a seed is the same as the one that the non-daemon mode generates for this seed
+// (with the same options)
+final class GeneratorDaemon {
+
+  private static final String OPTION_SEED = "--seed";
+  private static final String OPTION_MAX_DEPTH = "--maxDepth";
+  private static final String OPTION_SMALL_PROBABILITY = "--small";
+  private static final String OPTION_TIMEOUT = "--timeout";
+  private static final String OPTION_MAX_ALTERNATIVES = "--maxAlternatives";
+  private static final String OPTION_AST = "--ast";
+  private static final String OPTION_SHORT_FORMAT = "--short";
+
+  private static final String COMMAND_QUIT = "quit";
+
+  private static final int CHUNK_SIZE = 1 << 16;
+
+  private static final ProgramArgumentsParser requestParser;
+
+  static {
+    requestParser = new ProgramArgumentsParser();
+
+    requestParser.addOption(OPTION_SEED, true, true, "<random seed>");
+    requestParser.addOption(OPTION_MAX_DEPTH, false, true, "<max. program depth>");
+    requestParser.addOption(
+        OPTION_SMALL_PROBABILITY, false, true, "<probability to choose 'small' productions>");
+    requestParser.addOption(OPTION_TIMEOUT, false, true, "<timeout in ms>");
+    requestParser.addOption(
+        OPTION_MAX_ALTERNATIVES, false, true, "<max. number of alternatives>");
+    requestParser.addOption(OPTION_AST, false);
+    requestParser.addOption(OPTION_SHORT_FORMAT, false);
+  }
+
+  // defaults for the options of the requests (the remaining options are fixed for the daemon)
+  private final int maxDepth;
+  private final double smallProbability;
+  private final int timeout;
+  private final int maxAlternatives;
+  private final boolean shortFormat;
+
+  private final boolean syntaxOnly;
+  private final boolean restartOnFailure;
+  private final RestartPolicy restartPolicy;
+  private final boolean useSpecificPatterns;
+  private final boolean handleHeightLimitSpecially;
+
+  // shared read-only by all threads that handle requests
+  private final Specification specification;
+
+  public GeneratorDaemon(final SpecificationFactory specificationFactory, final int maxDepth,
+      final double smallProbability, final int timeout, final int maxAlternatives,
+      final boolean shortFormat, final boolean syntaxOnly, final boolean restartOnFailure,
+      final RestartPolicy restartPolicy, final boolean useSpecificPatterns,
+      final boolean handleHeightLimitSpecially) {
+    this.maxDepth = maxDepth;
+    this.smallProbability = smallProbability;
+    this.timeout = timeout;
+    this.maxAlternatives = maxAlternatives;
+    this.shortFormat = shortFormat;
+    this.syntaxOnly = syntaxOnly;
+    this.restartOnFailure = restartOnFailure;
+    this.restartPolicy = restartPolicy;
+    this.useSpecificPatterns = useSpecificPatterns;
+    this.handleHeightLimitSpecially = handleHeightLimitSpecially;
+
+    // construct the specification before the first request arrives
+    this.specification = specificationFactory.createSpecification();
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  // handles the requests on stdin (the responses are written to stdout)
+  public final void serveStandardStreams() {
+    serve(System.in, System.out);
+  }
+
+  // handles the connections to the given local port (runs until the process is terminated)
+  public final void serveLocalPort(final int port, final int numberOfThreads) {
+    final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+
+    try (final ServerSocket serverSocket =
+        new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+      System.err.format("[i] waiting for requests on port %d\n", serverSocket.getLocalPort());
+
+      while (true) {
+        final Socket socket = serverSocket.accept();
+
+        executor.execute(new Runnable() {
+
+            @Override
+            public final void run() {
+              try {
+                serve(socket.getInputStream(), socket.getOutputStream());
+              } catch (final IOException | RPGException exception) {
+                // e.g., the client closed the connection
+                System.err.println("[!] " + exception.getMessage());
+              } finally {
+                try {
+                  socket.close();
+                } catch (final IOException exception) {
+                  // ignore
+                }
+              }
+            }
+
+        });
+      }
+    } catch (final IOException exception) {
+      throw new RPGException(
+          String.format("unable to handle requests on port %d", port), exception);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private final void serve(final InputStream inputStream, final OutputStream outputStream) {
+    final BufferedReader reader =
+        new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String request = line.trim();
+
+        if (request.isEmpty()) {
+          continue;
+        }
+
+        if (COMMAND_QUIT.equals(request)) {
+          break;
+        }
+
+        handleRequest(request, outputStream);
+        outputStream.flush();
+      }
+    } catch (final IOException exception) {
+      throw new RPGException("unable to handle request", exception);
+    }
+  }
+
+  private final void handleRequest(final String request, final OutputStream outputStream)
+      throws IOException {
+    final ProgramArguments arguments;
+    final Node program;
+    try {
+      arguments = requestParser.parseArgs(ArgumentSplitter.splitArguments(request));
+      program = generate(arguments);
+    } catch (final RuntimeException | AssertionError exception) {
+      writeError(exception, outputStream);
+      return;
+    }
+
+    writeLine("ok", outputStream);
+
+    final ChunkedOutputStream chunkedStream = new ChunkedOutputStream(outputStream);
+    final Writer writer = new OutputStreamWriter(chunkedStream, StandardCharsets.UTF_8);
+
+    try {
+      if (arguments.hasOption(OPTION_AST)) {
+        final boolean shortFormat = this.shortFormat || arguments.hasOption(OPTION_SHORT_FORMAT);
+        writer.write(program.serialize(shortFormat));
+      } else {
+        program.printCode(writer);
+      }
+
+      // the writer is not closed (this would close the connection)
+      writer.flush();
+    } catch (final RuntimeException | AssertionError exception) {
+      // the pending part of the program is dropped
+      writeError(exception, outputStream);
+      return;
+    }
+
+    chunkedStream.finish();
+  }
+
+  private final Node generate(final ProgramArguments arguments) {
+    final long seed = arguments.getLongOption(OPTION_SEED);
+    final int maxDepth = arguments.getIntOptionOr(OPTION_MAX_DEPTH, this.maxDepth);
+    final double smallProbability =
+        arguments.getFloatOptionOr(OPTION_SMALL_PROBABILITY, (float) this.smallProbability);
+    final int timeout = arguments.getIntOptionOr(OPTION_TIMEOUT, this.timeout);
+    final int maxAlternatives =
+        arguments.getIntOptionOr(OPTION_MAX_ALTERNATIVES, this.maxAlternatives);
+
+    final RandomFuzzer fuzzer = RandomFuzzer.createFor(this.specification, seed,
+        smallProbability, this.syntaxOnly, this.restartOnFailure, timeout, maxAlternatives, false,
+        null, null);
+    fuzzer.useSpecificPatterns = this.useSpecificPatterns;
+    fuzzer.handleHeightLimitSpecially = this.handleHeightLimitSpecially;
+    fuzzer.restartPolicy = this.restartPolicy;
+
+    return fuzzer.generateProgram(maxDepth);
+  }
+
+  private static final void writeError(final Throwable exception,
+      final OutputStream outputStream) throws IOException {
+    final String message = String.valueOf(exception.getMessage()).replace('\n', ' ');
+    writeLine(String.format("error %s", message), outputStream);
+  }
+
+  private static final void writeLine(final String line, final OutputStream outputStream)
+      throws IOException {
+    outputStream.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  // sends the written bytes in chunks of at most 'CHUNK_SIZE' bytes (see header comment); the
+  // underlying stream is never closed
+  private static final class ChunkedOutputStream extends OutputStream {
+
+    private final OutputStream outputStream;
+
+    private final byte[] buffer;
+    private int size;
+
+    public ChunkedOutputStream(final OutputStream outputStream) {
+      this.outputStream = outputStream;
+      this.buffer = new byte[CHUNK_SIZE];
+      this.size = 0;
+    }
+
+    @Override
+    public final void write(final int value) throws IOException {
+      if (this.size == this.buffer.length) {
+        writeChunk();
+      }
+
+      this.buffer[this.size++] = (byte) value;
+    }
+
+    @Override
+    public final void write(final byte[] bytes, final int offset, final int length)
+        throws IOException {
+      int written = 0;
+
+      while (written < length) {
+        if (this.size == this.buffer.length) {
+          writeChunk();
+        }
+
+        final int count = Math.min(length - written, this.buffer.length - this.size);
+        System.arraycopy(bytes, offset + written, this.buffer, this.size, count);
+
+        this.size += count;
+        written += count;
+      }
+    }
+
+    @Override
+    public final void flush() throws IOException {
+      if (this.size > 0) {
+        writeChunk();
+      }
+
+      this.outputStream.flush();
+    }
+
+    // writes the pending bytes and the final chunk of size 0
+    public final void finish() throws IOException {
+      if (this.size > 0) {
+        writeChunk();
+      }
+
+      writeLine("0", this.outputStream);
+    }
+
+    private final void writeChunk() throws IOException {
+      writeLine(String.valueOf(this.size), this.outputStream);
+      this.outputStream.write(this.buffer, 0, this.size);
+
+      this.size = 0;
+    }
+
+  }
+
+}
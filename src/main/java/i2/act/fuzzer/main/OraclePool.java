@@ -0,0 +1,176 @@
+package i2.act.fuzzer.main;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.oracle.Oracle;
+import i2.act.fuzzer.oracle.OracleFactory;
+import i2.act.util.FileUtil;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// checks the generated programs with the '--findBugs' oracle in a pool of worker threads, i.e.,
+// the generation of the next programs continues while the oracle runs (each thread uses its own
+// oracle instance)
+//
+// whether a program is kept or discarded only depends on the result of the oracle for this
+// program (a check that exceeds the timeout counts as triggering a bug), not on the scheduling
+final class OraclePool {
+
+  public static final int DEFAULT_NUMBER_OF_THREADS = 1;
+
+  private static final long WAIT_TIMEOUT_MS = 100;
+
+  private final BlockingQueue<Oracle> oracles;
+
+  private final OutputPipeline outputPipeline;
+
+  private final GenerationMetrics metrics;
+
+  private final AtomicBoolean failed;
+
+  private final ExecutorService executor;
+
+  // bounds the number of programs that are being checked or wait for a check
+  private final Semaphore pendingChecks;
+
+  // the first exception of a check (reported by 'close()')
+  private final AtomicReference<Throwable> oracleException;
+
+  public OraclePool(final OracleFactory oracleFactory, final String oracleArguments,
+      final int numberOfThreads, final long timeout, final OutputPipeline outputPipeline,
+      final GenerationMetrics metrics, final AtomicBoolean failed) {
+    this.oracles = new ArrayBlockingQueue<>(numberOfThreads);
+    for (int index = 0; index < numberOfThreads; ++index) {
+      this.oracles.add(oracleFactory.createOracle(oracleArguments, timeout));
+    }
+
+    this.outputPipeline = outputPipeline;
+    this.metrics = metrics;
+    this.failed = failed;
+
+    this.executor = Executors.newFixedThreadPool(numberOfThreads);
+    this.pendingChecks = new Semaphore(2 * numberOfThreads);
+
+    this.oracleException = new AtomicReference<>();
+  }
+
+  // blocks while too many programs wait for a check; the program file has to exist already
+  public final void check(final Node program, final long seed, final String fileNameProgram,
+      final String fileNameAST, final long generationTime, final int numberOfAlternatives,
+      final int numberOfRestarts) {
+    try {
+      while (!this.pendingChecks.tryAcquire(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        if (this.oracleException.get() != null) {
+          // the program is not checked anymore -> do not keep its file (the failure is reported
+          // by 'close()')
+          FileUtil.deleteFile(fileNameProgram);
+          return;
+        }
+      }
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new RPGException("interrupted while waiting for the oracle", exception);
+    }
+
+    this.executor.execute(new Runnable() {
+
+        @Override
+        public final void run() {
+          try {
+            runCheck(program, seed, fileNameProgram, fileNameAST, generationTime,
+                numberOfAlternatives, numberOfRestarts);
+          } catch (final RuntimeException | Error exception) {
+            OraclePool.this.oracleException.compareAndSet(null, exception);
+            OraclePool.this.failed.set(true);
+          } finally {
+            OraclePool.this.pendingChecks.release();
+          }
+        }
+
+    });
+  }
+
+  private final void runCheck(final Node program, final long seed, final String fileNameProgram,
+      final String fileNameAST, final long generationTime, final int numberOfAlternatives,
+      final int numberOfRestarts) {
+    // there is one oracle per thread -> never blocks
+    final Oracle oracle = this.oracles.remove();
+
+    final long timeBefore = System.currentTimeMillis();
+
+    final Oracle.Result result;
+    try {
+      result = oracle.check(fileNameProgram);
+    } catch (final RuntimeException | Error exception) {
+      // the program could not be checked -> do not keep its file (it would be indistinguishable
+      // from a program that triggers a bug)
+      FileUtil.deleteFile(fileNameProgram);
+      throw exception;
+    } finally {
+      this.oracles.add(oracle);
+    }
+
+    if (this.metrics != null) {
+      this.metrics.recordOracleLatency(System.currentTimeMillis() - timeBefore);
+    }
+
+    final String fileNameKeptAST;
+
+    if (result == Oracle.Result.NO_BUG) {
+      // generated program does not trigger a bug
+      System.out.format("[i] program (seed %d) does not trigger a bug => discard program\n", seed);
+      FileUtil.deleteFile(fileNameProgram);
+
+      // do not write AST to file
+      fileNameKeptAST = null;
+    } else {
+      // generated program triggers a bug \o/
+      if (result == Oracle.Result.TIMEOUT) {
+        System.out.format("[i] check of program (seed %d) timed out => keep program\n", seed);
+      } else {
+        System.out.format("[i] program (seed %d) triggers a bug => keep program\n", seed);
+      }
+
+      fileNameKeptAST = fileNameAST;
+    }
+
+    this.outputPipeline.submit(program, null, null, seed, fileNameKeptAST, generationTime,
+        numberOfAlternatives, numberOfRestarts);
+  }
+
+  // waits for all pending checks
+  public final void close() {
+    this.executor.shutdown();
+
+    try {
+      while (!this.executor.awaitTermination(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        // wait
+      }
+    } catch (final InterruptedException exception) {
+      this.executor.shutdownNow();
+      Thread.currentThread().interrupt();
+
+      throw new RPGException("interrupted while waiting for the oracle", exception);
+    } finally {
+      for (final Oracle oracle : this.oracles) {
+        oracle.close();
+      }
+    }
+
+    final Throwable exception = this.oracleException.get();
+
+    if (exception instanceof RuntimeException) {
+      throw (RuntimeException) exception;
+    } else if (exception instanceof Error) {
+      throw (Error) exception;
+    }
+  }
+
+}
@@ -0,0 +1,286 @@
+package i2.act.fuzzer.main;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.archive.ArchiveWriter;
+import i2.act.fuzzer.deserialization.BinaryASTWriter;
+import i2.act.util.FileUtil;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// prints or archives the generated programs and writes their ASTs and the statistics in a separate
+// thread
+//
+// the generator threads hand over the finished programs via a bounded queue, i.e., they are only
+// blocked if the writer thread falls behind; the statistics and diagnostics writers are not
+// flushed after each program, but after a batch of programs (or if no program arrives for a while)
+//
+// NOTE: the code of a program has to be printed by its generator thread (printing the code may
+// evaluate attributes, i.e., call runtime functions that are not necessarily thread-safe); program
+// files are streamed by the generator threads themselves (see 'Node.printCode(Writer)'), i.e., the
+// queue only holds the code of programs that are printed to stdout (as string) or archived (as
+// UTF-8 encoded record payload)
+final class OutputPipeline {
+
+  public static final int DEFAULT_CAPACITY = 64;
+
+  private static final int FLUSH_INTERVAL = 100;
+  private static final long FLUSH_DELAY_MS = 1000;
+
+  private static final long SUBMIT_TIMEOUT_MS = 100;
+
+  private static final class Task {
+
+    public final Node program;
+    public final String code;
+    public final byte[] encodedCode;
+    public final long seed;
+    public final String astFileName;
+    public final long generationTime;
+    public final int numberOfAlternatives;
+    public final int numberOfRestarts;
+
+    public Task(final Node program, final String code, final byte[] encodedCode, final long seed,
+        final String astFileName, final long generationTime, final int numberOfAlternatives,
+        final int numberOfRestarts) {
+      this.program = program;
+      this.code = code;
+      this.encodedCode = encodedCode;
+      this.seed = seed;
+      this.astFileName = astFileName;
+      this.generationTime = generationTime;
+      this.numberOfAlternatives = numberOfAlternatives;
+      this.numberOfRestarts = numberOfRestarts;
+    }
+
+  }
+
+  private static final Task END = new Task(null, null, null, -1, null, -1, -1, -1);
+
+  private final BlockingQueue<Task> queue;
+
+  private final boolean shortFormat;
+  private final boolean binaryFormat;
+
+  private final ArchiveWriter archiveWriter;
+
+  private final BufferedWriter statsWriter;
+  private final BufferedWriter diagnosticsWriter;
+
+  private final AtomicBoolean failed;
+
+  private final Thread writerThread;
+  private volatile Throwable writerException;
+
+  // only accessed by the writer thread
+  private final Set<File> createdDirectories;
+  private int unflushedPrograms;
+  private long lastFlush;
+
+  // if 'binaryFormat' is set, the ASTs are written in the binary format (see 'BinaryASTWriter');
+  // if 'archiveWriter' is not 'null', the programs are appended to the archive instead of being
+  // printed to stdout
+  public OutputPipeline(final int capacity, final boolean shortFormat, final boolean binaryFormat,
+      final ArchiveWriter archiveWriter, final BufferedWriter statsWriter,
+      final BufferedWriter diagnosticsWriter, final AtomicBoolean failed) {
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.shortFormat = shortFormat;
+    this.binaryFormat = binaryFormat;
+    this.archiveWriter = archiveWriter;
+    this.statsWriter = statsWriter;
+    this.diagnosticsWriter = diagnosticsWriter;
+    this.failed = failed;
+
+    this.createdDirectories = new HashSet<>();
+    this.unflushedPrograms = 0;
+    this.lastFlush = System.currentTimeMillis();
+
+    this.writerThread = new Thread(new Runnable() {
+
+        @Override
+        public final void run() {
+          try {
+            processTasks();
+          } catch (final RuntimeException | Error exception) {
+            OutputPipeline.this.writerException = exception;
+            OutputPipeline.this.failed.set(true);
+          }
+        }
+
+    }, "output-writer");
+
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  public final boolean archivesPrograms() {
+    return this.archiveWriter != null;
+  }
+
+  // blocks while the queue is full; returns immediately if the writer thread has failed (the
+  // failure is reported by 'close()')
+  //
+  // 'code' is the program that is printed to stdout and 'encodedCode' the UTF-8 encoded program
+  // that is archived (see 'archivesPrograms()'); both are 'null' if the program has already been
+  // written to a file (or should not be output at all)
+  public final void submit(final Node program, final String code, final byte[] encodedCode,
+      final long seed, final String astFileName, final long generationTime,
+      final int numberOfAlternatives, final int numberOfRestarts) {
+    final Task task = new Task(program, code, encodedCode, seed, astFileName, generationTime,
+        numberOfAlternatives, numberOfRestarts);
+
+    try {
+      while (this.writerException == null) {
+        if (this.queue.offer(task, SUBMIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new RPGException("interrupted while waiting for the output writer", exception);
+    }
+  }
+
+  // writes all pending programs and waits for the writer thread to finish
+  public final void close() {
+    try {
+      while (this.writerException == null && this.writerThread.isAlive()) {
+        if (this.queue.offer(END, SUBMIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          break;
+        }
+      }
+
+      this.writerThread.join();
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new RPGException("interrupted while waiting for the output writer", exception);
+    }
+
+    final Throwable exception = this.writerException;
+
+    if (exception instanceof RuntimeException) {
+      throw (RuntimeException) exception;
+    } else if (exception instanceof Error) {
+      throw (Error) exception;
+    }
+  }
+
+  private final void processTasks() {
+    try {
+      while (true) {
+        final Task task = this.queue.poll(FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+
+        if (task == END) {
+          break;
+        }
+
+        if (task == null) {
+          // no program for a while -> write the statistics of the pending programs
+          if (this.unflushedPrograms > 0) {
+            flush();
+          }
+        } else {
+          process(task);
+
+          ++this.unflushedPrograms;
+          if (this.unflushedPrograms >= FLUSH_INTERVAL
+              || System.currentTimeMillis() - this.lastFlush >= FLUSH_DELAY_MS) {
+            flush();
+          }
+        }
+      }
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+
+    flush();
+  }
+
+  private final void process(final Task task) {
+    if (task.encodedCode != null) {
+      archive(task);
+    } else if (task.code != null) {
+      System.out.println(task.code);
+    }
+
+    if (this.statsWriter != null) {
+      final int programSize = task.program.size();
+      final int programDepth = task.program.depth();
+
+      FileUtil.write(String.format("%d, %d, %d, %d, %d\n", programSize, task.generationTime,
+          programDepth, task.numberOfAlternatives, task.numberOfRestarts), this.statsWriter);
+    }
+
+    if (task.astFileName != null) {
+      if (this.binaryFormat) {
+        createDirectory(task.astFileName);
+        BinaryASTWriter.writeFile(task.program, task.astFileName);
+      } else {
+        final BufferedWriter writer = openFile(task.astFileName);
+        FileUtil.write(task.program.serialize(this.shortFormat), writer);
+        FileUtil.closeWriter(writer);
+      }
+    }
+  }
+
+  private final void archive(final Task task) {
+    final byte[] ast;
+    if (this.archiveWriter.writesASTs()) {
+      final ByteArrayOutputStream astStream = new ByteArrayOutputStream();
+
+      try (final BinaryASTWriter writer = new BinaryASTWriter(astStream)) {
+        writer.write(task.program);
+      } catch (final IOException exception) {
+        throw new RPGException("unable to write AST", exception);
+      }
+
+      ast = astStream.toByteArray();
+    } else {
+      ast = null;
+    }
+
+    this.archiveWriter.append(task.seed, task.program.size(), task.program.depth(),
+        task.generationTime, task.encodedCode, ast);
+  }
+
+  private final BufferedWriter openFile(final String fileName) {
+    createDirectory(fileName);
+    return FileUtil.openFileForWriting(new File(fileName), false);
+  }
+
+  // the programs of a batch share their directory -> only create each directory once
+  private final void createDirectory(final String fileName) {
+    final File directory = new File(fileName).getParentFile();
+
+    if (directory != null && this.createdDirectories.add(directory)) {
+      directory.mkdirs();
+    }
+  }
+
+  private final void flush() {
+    if (this.archiveWriter != null) {
+      this.archiveWriter.flush();
+    }
+
+    if (this.statsWriter != null) {
+      FileUtil.flushWriter(this.statsWriter);
+    }
+
+    if (this.diagnosticsWriter != null) {
+      FileUtil.flushWriter(this.diagnosticsWriter);
+    }
+
+    this.unflushedPrograms = 0;
+    this.lastFlush = System.currentTimeMillis();
+  }
+
+}
@@ -0,0 +1,105 @@
+package i2.act.fuzzer.main;
+
+import i2.act.fuzzer.GenerationProfile;
+import i2.act.fuzzer.Specification;
+import i2.act.util.FileUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// collects the profiles of the generator threads and periodically writes their sum to a file (as
+// JSON if the file name ends with '.json', otherwise as CSV); each snapshot atomically replaces the
+// previous one, the last snapshot is written by 'close()'
+final class ProfileWriter {
+
+  public static final int DEFAULT_INTERVAL_SECONDS = 10;
+
+  private static final String EXTENSION_JSON = "json";
+
+  private final String fileName;
+  private final boolean writeJSON;
+  private final long intervalMs;
+
+  private final List<GenerationProfile> profiles;
+
+  private final Thread writerThread;
+  private volatile boolean closed;
+
+  public ProfileWriter(final String fileName, final int intervalSeconds) {
+    this.fileName = fileName;
+    this.writeJSON = EXTENSION_JSON.equalsIgnoreCase(FileUtil.getFileExtension(fileName));
+    this.intervalMs = intervalSeconds * 1000L;
+
+    this.profiles = new ArrayList<>();
+
+    this.writerThread = new Thread(new Runnable() {
+
+        @Override
+        public final void run() {
+          writePeriodically();
+        }
+
+    }, "profile-writer");
+
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  // returns a new profile for a generator thread that uses the given specification instance
+  public final GenerationProfile createProfile(final Specification specification) {
+    final GenerationProfile profile = new GenerationProfile(specification);
+
+    synchronized (this.profiles) {
+      this.profiles.add(profile);
+    }
+
+    return profile;
+  }
+
+  private final void writePeriodically() {
+    try {
+      while (!this.closed) {
+        Thread.sleep(this.intervalMs);
+
+        if (!this.closed) {
+          writeSnapshot();
+        }
+      }
+    } catch (final InterruptedException exception) {
+      // closed
+    }
+  }
+
+  private final void writeSnapshot() {
+    final GenerationProfile mergedProfile;
+    synchronized (this.profiles) {
+      if (this.profiles.isEmpty()) {
+        return;
+      }
+
+      mergedProfile = GenerationProfile.merge(this.profiles);
+    }
+
+    final String snapshot = this.writeJSON ? mergedProfile.toJSON() : mergedProfile.toCSV();
+
+    // the periodic and the final snapshot must not write the file concurrently
+    synchronized (this) {
+      FileUtil.writeToFileAtomically(snapshot, this.fileName);
+    }
+  }
+
+  // has to be called after all generator threads have finished
+  public final void close() {
+    this.closed = true;
+    this.writerThread.interrupt();
+
+    try {
+      this.writerThread.join();
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+
+    writeSnapshot();
+  }
+
+}
@@ -0,0 +1,19 @@
+package i2.act.fuzzer.oracle;
+
+// checks whether a generated program triggers a bug
+//
+// an oracle instance is only used by one thread at a time (the oracle pool creates one instance
+// per thread)
+public interface Oracle {
+
+  public static enum Result {
+    NO_BUG,
+    BUG,
+    TIMEOUT;
+  }
+
+  public Result check(final String programFileName);
+
+  public void close();
+
+}
@@ -0,0 +1,35 @@
+package i2.act.fuzzer.oracle;
+
+import i2.act.errors.RPGException;
+
+import java.util.ServiceLoader;
+
+// service provider interface for oracles: additional oracles (e.g., in-JVM oracles that use an
+// embedded database) are registered in 'META-INF/services/i2.act.fuzzer.oracle.OracleFactory' and
+// selected via their name
+public interface OracleFactory {
+
+  public static OracleFactory forName(final String name) {
+    if (ProcessOracle.NAME.equals(name)) {
+      return ProcessOracle.FACTORY;
+    }
+
+    if (WorkerOracle.NAME.equals(name)) {
+      return WorkerOracle.FACTORY;
+    }
+
+    for (final OracleFactory factory : ServiceLoader.load(OracleFactory.class)) {
+      if (factory.getName().equals(name)) {
+        return factory;
+      }
+    }
+
+    throw new RPGException(String.format("unknown oracle '%s'", name));
+  }
+
+  public String getName();
+
+  // 'arguments' is the value of the '--findBugs' option; a timeout <= 0 denotes no timeout
+  public Oracle createOracle(final String arguments, final long timeout);
+
+}
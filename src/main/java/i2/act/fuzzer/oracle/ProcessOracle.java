@@ -0,0 +1,55 @@
+package i2.act.fuzzer.oracle;
+
+import i2.act.util.ArgumentSplitter;
+import i2.act.util.ProcessExecutor;
+
+// runs the command once per program (with the file name of the program as last argument); an exit
+// value of 0 denotes that the program does not trigger a bug
+public final class ProcessOracle implements Oracle {
+
+  public static final String NAME = "process";
+
+  public static final OracleFactory FACTORY = new OracleFactory() {
+
+      @Override
+      public final String getName() {
+        return NAME;
+      }
+
+      @Override
+      public final Oracle createOracle(final String arguments, final long timeout) {
+        return new ProcessOracle(ArgumentSplitter.splitArguments(arguments), timeout);
+      }
+
+  };
+
+  private final String[] commandLine;
+  private final long timeout;
+
+  public ProcessOracle(final String[] commandLine, final long timeout) {
+    this.commandLine = commandLine;
+    this.timeout = timeout;
+  }
+
+  @Override
+  public final Result check(final String programFileName) {
+    final String[] checkCommandLine =
+        ArgumentSplitter.appendArgument(this.commandLine, programFileName);
+
+    final int exitValue = ProcessExecutor.execute(this.timeout, checkCommandLine);
+
+    if (exitValue == ProcessExecutor.EXIT_VALUE_SUCCESS) {
+      return Result.NO_BUG;
+    } else if (exitValue == ProcessExecutor.EXIT_VALUE_TIMEOUT) {
+      return Result.TIMEOUT;
+    } else {
+      return Result.BUG;
+    }
+  }
+
+  @Override
+  public final void close() {
+    // nothing to do
+  }
+
+}
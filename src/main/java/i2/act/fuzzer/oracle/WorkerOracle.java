@@ -0,0 +1,220 @@
+package i2.act.fuzzer.oracle;
+
+import i2.act.errors.RPGException;
+import i2.act.util.ArgumentSplitter;
+import i2.act.util.ProcessExecutor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// keeps a long-running worker process that checks one program after the other
+//
+// protocol: for each program, the worker receives a line with the length of the program (in
+// bytes), followed by the program itself (UTF-8) on its standard input; it answers with a line that
+// contains the result on its standard output (0 if the program does not trigger a bug, any other
+// number otherwise)
+//
+// if the worker terminates while checking a program, the program counts as triggering a bug; if
+// it exceeds the timeout (which covers sending the program as well as waiting for the result), the
+// worker is killed; in both cases, a new worker is started for the next program
+public final class WorkerOracle implements Oracle {
+
+  public static final String NAME = "worker";
+
+  public static final OracleFactory FACTORY = new OracleFactory() {
+
+      @Override
+      public final String getName() {
+        return NAME;
+      }
+
+      @Override
+      public final Oracle createOracle(final String arguments, final long timeout) {
+        return new WorkerOracle(ArgumentSplitter.splitArguments(arguments), timeout);
+      }
+
+  };
+
+  private static final long SHUTDOWN_TIMEOUT_MS = 1000;
+
+  private static final AtomicInteger numberOfCommunicationThreads = new AtomicInteger(0);
+
+  private final String[] commandLine;
+  private final long timeout;
+
+  private final boolean ownProcessGroup;
+
+  // sends the programs to the worker and reads its responses (so that the timeout can be enforced
+  // for both -> a worker that stops reading its input can not block the oracle)
+  private final ExecutorService workerCommunication;
+
+  private Process process;
+  private OutputStream processInput;
+  private BufferedReader processOutput;
+
+  public WorkerOracle(final String[] commandLine, final long timeout) {
+    this.commandLine = commandLine;
+    this.timeout = timeout;
+    this.ownProcessGroup = ProcessExecutor.supportsProcessGroups();
+
+    this.workerCommunication = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+        @Override
+        public final Thread newThread(final Runnable runnable) {
+          final Thread thread = new Thread(runnable,
+              "oracle-worker-communication-" + numberOfCommunicationThreads.getAndIncrement());
+          thread.setDaemon(true);
+
+          return thread;
+        }
+
+    });
+  }
+
+  @Override
+  public final Result check(final String programFileName) {
+    final byte[] program;
+    try {
+      program = Files.readAllBytes(Paths.get(programFileName));
+    } catch (final IOException exception) {
+      throw new RPGException(
+          String.format("unable to read program '%s'", programFileName), exception);
+    }
+
+    if (this.process == null) {
+      startWorker();
+    }
+
+    final byte[] header =
+        String.format("%d\n", program.length).getBytes(StandardCharsets.US_ASCII);
+
+    final OutputStream processInput = this.processInput;
+    final BufferedReader processOutput = this.processOutput;
+    final Future<String> response = this.workerCommunication.submit(new Callable<String>() {
+
+        @Override
+        public final String call() throws IOException {
+          // blocks if the worker does not consume a program that exceeds the pipe buffer -> the
+          // write is unblocked when the worker is killed at the deadline
+          processInput.write(header);
+          processInput.write(program);
+          processInput.flush();
+
+          return processOutput.readLine();
+        }
+
+    });
+
+    final String responseLine;
+    try {
+      if (this.timeout > 0) {
+        responseLine = response.get(this.timeout, TimeUnit.MILLISECONDS);
+      } else {
+        responseLine = response.get();
+      }
+    } catch (final TimeoutException exception) {
+      response.cancel(true);
+      stopWorker();
+      return Result.TIMEOUT;
+    } catch (final ExecutionException exception) {
+      return workerCrashed();
+    } catch (final InterruptedException exception) {
+      stopWorker();
+      Thread.currentThread().interrupt();
+
+      throw new RPGException("interrupted while waiting for the oracle worker", exception);
+    }
+
+    if (responseLine == null) {
+      return workerCrashed();
+    }
+
+    final int result;
+    try {
+      result = Integer.parseInt(responseLine.trim());
+    } catch (final NumberFormatException exception) {
+      stopWorker();
+      throw new RPGException(
+          String.format("invalid response of oracle worker: '%s'", responseLine));
+    }
+
+    return (result == 0) ? Result.NO_BUG : Result.BUG;
+  }
+
+  @Override
+  public final void close() {
+    if (this.process != null) {
+      // give the worker the chance to terminate on its own (its standard input is closed)
+      try {
+        this.processInput.close();
+        this.process.waitFor(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      } catch (final IOException exception) {
+        // worker has already terminated
+      } catch (final InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+
+      stopWorker();
+    }
+
+    this.workerCommunication.shutdownNow();
+  }
+
+  private final void startWorker() {
+    final ProcessBuilder processBuilder =
+        ProcessExecutor.createProcessBuilder(this.ownProcessGroup, this.commandLine);
+    processBuilder.redirectError(Redirect.INHERIT);
+
+    try {
+      this.process = processBuilder.start();
+    } catch (final IOException exception) {
+      throw new RPGException("unable to start oracle worker", exception);
+    }
+
+    this.processInput = this.process.getOutputStream();
+    this.processOutput = new BufferedReader(
+        new InputStreamReader(this.process.getInputStream(), StandardCharsets.UTF_8));
+  }
+
+  private final Result workerCrashed() {
+    System.err.println("[i] oracle worker terminated unexpectedly => restart worker");
+    stopWorker();
+
+    return Result.BUG;
+  }
+
+  private final void stopWorker() {
+    if (this.process == null) {
+      return;
+    }
+
+    // kill the worker first: closing its input would block while a program is still written to it
+    ProcessExecutor.killProcessTree(this.process, this.ownProcessGroup);
+
+    try {
+      this.processInput.close();
+    } catch (final IOException exception) {
+      // worker has already terminated
+    }
+
+    this.process = null;
+    this.processInput = null;
+    this.processOutput = null;
+  }
+
+}
@@ -1,5 +1,7 @@
 package i2.act.fuzzer.runtime;
 
+import i2.act.fuzzer.CodeSink;
+
 import java.util.LinkedList;
 import java.util.List;
 
@@ -7,13 +9,7 @@ public final class EmbeddedCode {
 
   private abstract static class Token {
 
-    public static final void printIndentation(final StringBuilder builder, final int indentation) {
-      for (int i = 0; i < indentation; ++i) {
-        builder.append("  ");
-      }
-    }
-
-    public abstract int printToken(final StringBuilder builder, final int indentation);
+    public abstract int printToken(final CodeSink sink, final int indentation);
 
   }
 
@@ -26,8 +22,8 @@ public final class EmbeddedCode {
     }
 
     @Override
-    public final int printToken(final StringBuilder builder, final int indentation) {
-      builder.append(this.string);
+    public final int printToken(final CodeSink sink, final int indentation) {
+      sink.append(this.string);
       return indentation;
     }
 
@@ -36,9 +32,9 @@ public final class EmbeddedCode {
   private static final Token NEWLINE = new Token() {
     
     @Override
-    public final int printToken(final StringBuilder builder, final int indentation) {
-      builder.append("\n");
-      printIndentation(builder, indentation);
+    public final int printToken(final CodeSink sink, final int indentation) {
+      sink.append("\n");
+      sink.printIndentation(indentation);
       return indentation;
     }
 
@@ -47,9 +43,9 @@ public final class EmbeddedCode {
   private static final Token INDENT = new Token() {
 
     @Override
-    public final int printToken(final StringBuilder builder, final int indentation) {
-      builder.append("\n");
-      printIndentation(builder, indentation + 1);
+    public final int printToken(final CodeSink sink, final int indentation) {
+      sink.append("\n");
+      sink.printIndentation(indentation + 1);
       return indentation + 1;
     }
 
@@ -58,9 +54,9 @@ public final class EmbeddedCode {
   private static final Token UNINDENT = new Token() {
 
     @Override
-    public final int printToken(final StringBuilder builder, final int indentation) {
-      builder.append("\n");
-      printIndentation(builder, indentation - 1);
+    public final int printToken(final CodeSink sink, final int indentation) {
+      sink.append("\n");
+      sink.printIndentation(indentation - 1);
       return indentation - 1;
     }
 
@@ -116,10 +112,14 @@ public final class EmbeddedCode {
   }
 
   public final void printCode(final StringBuilder builder, final int indentation) {
+    printCode(CodeSink.forBuilder(builder), indentation);
+  }
+
+  public final void printCode(final CodeSink sink, final int indentation) {
     int currentIndentation = indentation;
 
     for (final Token token : this.tokens) {
-      currentIndentation = token.printToken(builder, currentIndentation);
+      currentIndentation = token.printToken(sink, currentIndentation);
     }
   }
 
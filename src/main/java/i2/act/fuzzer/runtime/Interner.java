@@ -0,0 +1,165 @@
+package i2.act.fuzzer.runtime;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+// hash-consing of immutable runtime values (e.g., the types of a runtime library): 'intern()'
+// returns a canonical instance for all values with the same structure, i.e., interned values can be
+// compared by reference
+//
+// the interner only holds weak references to the canonical instances -> values that are no longer
+// used (e.g., types of programs that have been generated already) can be garbage collected
+//
+// the values are usually interned in their factory methods, so that their components are interned
+// already -> 'Structure' only has to compare the components by reference (and not recursively)
+//
+// NOTE: the interner is thread-safe without a global lock (the runtime libraries use a single
+// static interner that is shared by all generator threads)
+public final class Interner<T> {
+
+  public static interface Structure<T> {
+
+    public int hashCode(final T value);
+
+    public boolean equals(final T first, final T second);
+
+  }
+
+  // a key refers to a (possibly not yet interned) value and uses its structural hash code and
+  // equality; keys of collected values are only equal to themselves
+  private static interface Key<T> {
+
+    public T get();
+
+  }
+
+  // key of a looked up value
+  private final class StrongKey implements Key<T> {
+
+    private final T value;
+    private final int hashCode;
+
+    public StrongKey(final T value, final int hashCode) {
+      this.value = value;
+      this.hashCode = hashCode;
+    }
+
+    @Override
+    public final T get() {
+      return this.value;
+    }
+
+    @Override
+    public final int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+      return keysEqual(this, other);
+    }
+
+  }
+
+  // key of a canonical instance (does not keep it alive)
+  private final class WeakKey extends WeakReference<T> implements Key<T> {
+
+    private final int hashCode;
+
+    public WeakKey(final T value, final int hashCode) {
+      super(value, Interner.this.queue);
+      this.hashCode = hashCode;
+    }
+
+    @Override
+    public final int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+      return keysEqual(this, other);
+    }
+
+  }
+
+  private final Structure<T> structure;
+
+  private final ConcurrentHashMap<Key<T>, WeakKey> entries;
+
+  private final ReferenceQueue<T> queue;
+
+  public Interner(final Structure<T> structure) {
+    this.structure = structure;
+    this.entries = new ConcurrentHashMap<>();
+    this.queue = new ReferenceQueue<>();
+  }
+
+  public final T intern(final T value) {
+    removeStaleEntries();
+
+    final int hashCode = this.structure.hashCode(value);
+
+    final WeakKey existingKey = this.entries.get(new StrongKey(value, hashCode));
+    if (existingKey != null) {
+      final T canonicalValue = existingKey.get();
+
+      if (canonicalValue != null) {
+        return canonicalValue;
+      }
+    }
+
+    final WeakKey key = new WeakKey(value, hashCode);
+
+    while (true) {
+      final WeakKey previousKey = this.entries.putIfAbsent(key, key);
+
+      if (previousKey == null) {
+        return value;
+      }
+
+      final T canonicalValue = previousKey.get();
+
+      if (canonicalValue != null) {
+        // another thread has interned an equal value in the meantime
+        return canonicalValue;
+      }
+
+      // the canonical instance has just been collected -> replace its entry
+      if (this.entries.replace(previousKey, previousKey, key)) {
+        return value;
+      }
+    }
+  }
+
+  public final int size() {
+    removeStaleEntries();
+    return this.entries.size();
+  }
+
+  private final boolean keysEqual(final Key<T> key, final Object other) {
+    if (key == other) {
+      return true;
+    }
+
+    if (!(other instanceof Key) || key.hashCode() != other.hashCode()) {
+      return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    final T otherValue = ((Key<T>) other).get();
+    final T value = key.get();
+
+    return value != null && otherValue != null && this.structure.equals(value, otherValue);
+  }
+
+  private final void removeStaleEntries() {
+    Object staleKey;
+    while ((staleKey = this.queue.poll()) != null) {
+      // a collected key is only equal to itself
+      this.entries.remove(staleKey);
+    }
+  }
+
+}
@@ -0,0 +1,106 @@
+package i2.act.fuzzer.runtime;
+
+import i2.act.util.LRUCache;
+import i2.act.util.ValueKey;
+
+
+// memo cache for the results of a pure attribute function (i.e., a function whose result only
+// depends on its arguments), see option '--pure' of the translator
+//
+// the generated code first looks up the arguments; only if there is no cached result, the actual
+// function is called and its result is stored in the returned entry:
+//
+//   final PureFunctionCache.Entry pureEntry = cache.lookup(arg1, arg2);
+//   ... (pureEntry.hasValue() ? pureEntry.getValue() : pureEntry.setValue(fn(arg1, arg2)))
+//
+// the caches are static members of the generated specification, i.e., they are shared by all
+// generator threads; they are registered with the specification (see
+// 'Specification.getPureFunctionCaches()') and not globally, i.e., they are dropped together with
+// the class of the specification
+public final class PureFunctionCache {
+
+  public static final int DEFAULT_MAX_SIZE = 4096;
+
+  public static final class Entry {
+
+    private final PureFunctionCache cache;
+    private final ValueKey key;
+
+    private boolean hasValue;
+    private Object value;
+
+    private Entry(final PureFunctionCache cache, final ValueKey key) {
+      this.cache = cache;
+      this.key = key;
+    }
+
+    public final boolean hasValue() {
+      return this.hasValue;
+    }
+
+    public final Object getValue() {
+      assert (this.hasValue);
+      return this.value;
+    }
+
+    public final <T> T setValue(final T value) {
+      this.value = value;
+      this.hasValue = true;
+
+      this.cache.store(this);
+
+      return value;
+    }
+
+  }
+
+  private final String functionName;
+
+  private final LRUCache<ValueKey, Entry> cache;
+
+  private long hits;
+  private long misses;
+
+  public PureFunctionCache(final String functionName) {
+    this(functionName, DEFAULT_MAX_SIZE);
+  }
+
+  public PureFunctionCache(final String functionName, final int maxSize) {
+    this.functionName = functionName;
+    this.cache = new LRUCache<>(new LRUCache.EvictionFixedSize(maxSize));
+  }
+
+  public final String getFunctionName() {
+    return this.functionName;
+  }
+
+  public final synchronized Entry lookup(final Object... arguments) {
+    final ValueKey key = new ValueKey(arguments);
+
+    final Entry cachedEntry = this.cache.get(key);
+    if (cachedEntry != null) {
+      ++this.hits;
+      return cachedEntry;
+    }
+
+    ++this.misses;
+    return new Entry(this, key);
+  }
+
+  private final synchronized void store(final Entry entry) {
+    this.cache.put(entry.key, entry);
+  }
+
+  public final synchronized long getHits() {
+    return this.hits;
+  }
+
+  public final synchronized long getMisses() {
+    return this.misses;
+  }
+
+  public final synchronized int size() {
+    return this.cache.size();
+  }
+
+}
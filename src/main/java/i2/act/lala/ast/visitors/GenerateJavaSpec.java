@@ -1,6 +1,7 @@
 package i2.act.lala.ast.visitors;
 
 import i2.act.errors.RPGException;
+import i2.act.fuzzer.SlotAttribute;
 import i2.act.lala.ast.*;
 import i2.act.lala.ast.AttributeModifier.AttributeModifierKind;
 import i2.act.lala.semantics.attributes.BuiltinFunction;
@@ -16,22 +17,30 @@ import java.io.BufferedWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 public final class GenerateJavaSpec
     extends BaseLaLaSpecificationVisitor<BufferedWriter, Void> {
 
   private static final int DEFAULT_LITERAL_COUNT = 50;
 
+  private static final int MAX_RULES_PER_DISPATCH_CLASS = 64;
+
   private final String javaClassName;
   private final int maxRecursionDepth;
   private final String packageName;
   private final Set<String> features;
+  private final boolean attributeSlots;
+  private final Set<String> pureFunctions;
+  private final boolean splitCode;
 
   private final Map<AttributeSymbol, String> attributeNames;
   private final Map<AttributeSymbol, String> attributeAvailableNames;
+  private final Map<AttributeSymbol, Integer> attributeSlotIndexes;
   private final Map<ClassSymbol, String> classNames;
   private final Map<ClassSymbol, String> nodeClassNames;
   private final Map<ProductionSymbol, String> productionNames;
@@ -40,15 +49,48 @@ public final class GenerateJavaSpec
 
   private ProductionDeclaration enclosingProductionDeclaration;
 
+  // call whose result is taken from the lookup in the memo cache (see 'writePureFunctionLookup()')
+  private AttributeFunctionCall memoizedFunctionCall;
+
   public GenerateJavaSpec(final String javaClassName, final int maxRecursionDepth,
       final String packageName, final Set<String> features) {
+    this(javaClassName, maxRecursionDepth, packageName, features, false);
+  }
+
+  // if 'attributeSlots' is set, the attribute values of a node are stored in a slot array (with a
+  // bit set for their availability) instead of one field (and flag) per attribute
+  public GenerateJavaSpec(final String javaClassName, final int maxRecursionDepth,
+      final String packageName, final Set<String> features, final boolean attributeSlots) {
+    this(javaClassName, maxRecursionDepth, packageName, features, attributeSlots,
+        new HashSet<String>());
+  }
+
+  // calls of the given 'pureFunctions' (i.e., functions whose results only depend on their
+  // arguments) are memoized in a cache per function (given as '<namespace>:<function name>')
+  public GenerateJavaSpec(final String javaClassName, final int maxRecursionDepth,
+      final String packageName, final Set<String> features, final boolean attributeSlots,
+      final Set<String> pureFunctions) {
+    this(javaClassName, maxRecursionDepth, packageName, features, attributeSlots, pureFunctions,
+        false);
+  }
+
+  // if 'splitCode' is set, the productions and attribute rules are created in one method per class
+  // (instead of a single huge method) and the attribute rules of a class share a few dispatch
+  // classes (instead of one anonymous class per rule), see 'writeSplitAttributeRules()'
+  public GenerateJavaSpec(final String javaClassName, final int maxRecursionDepth,
+      final String packageName, final Set<String> features, final boolean attributeSlots,
+      final Set<String> pureFunctions, final boolean splitCode) {
     this.javaClassName = javaClassName;
     this.maxRecursionDepth = maxRecursionDepth;
     this.packageName = packageName;
     this.features = features;
+    this.attributeSlots = attributeSlots;
+    this.pureFunctions = pureFunctions;
+    this.splitCode = splitCode;
 
     this.attributeNames = new HashMap<AttributeSymbol, String>();
     this.attributeAvailableNames = new HashMap<AttributeSymbol, String>();
+    this.attributeSlotIndexes = new HashMap<AttributeSymbol, Integer>();
     this.classNames = new HashMap<ClassSymbol, String>();
     this.nodeClassNames = new HashMap<ClassSymbol, String>();
     this.productionNames = new HashMap<ProductionSymbol, String>();
@@ -141,6 +183,14 @@ public final class GenerateJavaSpec
 
       FileUtil.write(builtinFunction.generateJavaCode(codeOperands), writer);
     } else {
+      final boolean memoized = (attributeFunctionCall == this.memoizedFunctionCall);
+      this.memoizedFunctionCall = null;
+
+      if (memoized) {
+        FileUtil.write("(pureEntry.hasValue() ? pureEntry.getValue() : pureEntry.setValue(",
+            writer);
+      }
+
       attributeFunction.accept(this, writer);
 
       FileUtil.write("(", writer);
@@ -156,6 +206,10 @@ public final class GenerateJavaSpec
       }
 
       FileUtil.write(")", writer);
+
+      if (memoized) {
+        FileUtil.write("))", writer);
+      }
     }
 
     return null;
@@ -193,11 +247,8 @@ public final class GenerateJavaSpec
     final String nodeAccess = getNodeAccess(attributeAccess, this.enclosingProductionDeclaration);
 
     assert (this.attributeNames.containsKey(attributeAccess.getSymbol()));
-    final String attributeName = this.attributeNames.get(attributeAccess.getSymbol());
 
-    FileUtil.write(
-        String.format("%s.%s", nodeAccess, attributeName),
-        writer);
+    FileUtil.write(getAttributeValue(nodeAccess, attributeAccess.getSymbol()), writer);
 
     return null;
   }
@@ -253,6 +304,7 @@ public final class GenerateJavaSpec
     writeAttributeDeclarations(languageSpecification, writer);
     writeClassDeclarations(languageSpecification, writer);
     writeProductionDeclarations(languageSpecification, writer);
+    writePureFunctionCacheDeclarations(writer);
 
     writeNodeClasses(languageSpecification, writer);
   }
@@ -266,7 +318,19 @@ public final class GenerateJavaSpec
       this.nodeClassNames.put(classDeclaration.getSymbol(), nodeClassName);
 
       final boolean isGeneratorClass = isGeneratorClass(classDeclaration);
-      final String baseClassName = isGeneratorClass ? "GeneratorNode" : "Node";
+      final boolean usesAttributeSlots = usesAttributeSlots(classDeclaration);
+
+      final String baseClassName;
+      if (usesAttributeSlots) {
+        baseClassName = "SlotNode";
+      } else {
+        baseClassName = isGeneratorClass ? "GeneratorNode" : "Node";
+      }
+
+      // the slot array is allocated by SlotNode
+      final String numberOfSlots = usesAttributeSlots
+          ? String.format(", %d", classDeclaration.getAttributeDeclarations().size())
+          : "";
 
       FileUtil.write(
           String.format("\tpublic static final class %s extends %s {\n\n",
@@ -283,30 +347,36 @@ public final class GenerateJavaSpec
         // default constructor
         FileUtil.write(
             String.format("\t\tpublic %s(final i2.act.fuzzer.Class nodeClass, "
-                + "final Node parent, final int allowedHeight, final int allowedWidth, "
-                + "final Node expected) {\n",
+                + "final GenerationContext context, final Node parent, final int allowedHeight, "
+                + "final int allowedWidth, final Node expected) {\n",
                 nodeClassName),
             writer);
-        FileUtil.write("\t\t\tsuper(parent, allowedHeight, allowedWidth, expected);\n", writer);
+        FileUtil.write(
+            String.format(
+                "\t\t\tsuper(context, parent, allowedHeight, allowedWidth, expected%s);\n",
+                numberOfSlots),
+            writer);
         FileUtil.write("\t\t\tthis.nodeClass = nodeClass;\n", writer);
         FileUtil.write("\t\t}\n\n", writer);
 
         // constructor for cloning
         FileUtil.write(
             String.format("\t\tpublic %s(final i2.act.fuzzer.Class nodeClass, "
-                + "final Node parent, final int allowedHeight, final int allowedWidth, "
-                + "final Node expected, final int id, final Production production) {\n",
+                + "final GenerationContext context, final Node parent, final int allowedHeight, "
+                + "final int allowedWidth, final Node expected, final int id, "
+                + "final Production production) {\n",
                 nodeClassName),
             writer);
         FileUtil.write(
-            "\t\t\tsuper(parent, allowedHeight, allowedWidth, expected, id, production);\n",
+            String.format("\t\t\tsuper(context, parent, allowedHeight, allowedWidth, expected, id, "
+                + "production%s);\n", numberOfSlots),
             writer);
         FileUtil.write("\t\t\tthis.nodeClass = nodeClass;\n", writer);
         FileUtil.write("\t\t}\n\n", writer);
       }
 
-      // attributes
-      {
+      // attributes (not needed if the values are stored in slots)
+      if (!usesAttributeSlots(classDeclaration)) {
         final List<AttributeDeclaration> attributeDeclarations =
             classDeclaration.getAttributeDeclarations();
         for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
@@ -340,14 +410,21 @@ public final class GenerateJavaSpec
             String.format("\t\tpublic final %s cloneNode(final Node parent) {\n", nodeClassName),
             writer);
         FileUtil.write(
-            String.format("\t\t\tfinal %s clone = new %s(this.nodeClass, parent, "
+            String.format("\t\t\tfinal %s clone = new %s(this.nodeClass, this.context, parent, "
                 + "this.allowedHeight, this.allowedWidth, null, this.id, "
                 + "this.production);\n",
                 nodeClassName, nodeClassName),
             writer);
 
         // copy attribute values
-        {
+        if (usesAttributeSlots(classDeclaration)) {
+          if (!classDeclaration.getAttributeDeclarations().isEmpty()) {
+            FileUtil.write("\t\t\tSystem.arraycopy(this.attributeValues, 0, "
+                + "clone.attributeValues, 0, this.attributeValues.length);\n", writer);
+          }
+
+          FileUtil.write("\t\t\tclone.availableAttributes = this.availableAttributes;\n", writer);
+        } else {
           final List<AttributeDeclaration> attributeDeclarations =
               classDeclaration.getAttributeDeclarations();
           for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
@@ -406,23 +483,43 @@ public final class GenerateJavaSpec
             classDeclaration.getAttributeDeclarations();
         for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
           if (!attributeDeclaration.getModifier().isInheritedAttribute()) {
-            final String attributeName =
-                this.attributeNames.get(attributeDeclaration.getSymbol());
-            final String attributeAvailableName =
-                this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+            final AttributeSymbol attributeSymbol = attributeDeclaration.getSymbol();
 
-            FileUtil.write(
-                String.format("\t\t\tthis.%s = otherNode.%s;\n",
-                    attributeName, attributeName),
-                writer);
+            if (usesAttributeSlots(classDeclaration)) {
+              final int slot = this.attributeSlotIndexes.get(attributeSymbol);
 
-            FileUtil.write(
-                String.format("\t\t\tthis.%s = otherNode.%s;\n",
-                    attributeAvailableName, attributeAvailableName),
-                writer);
+              FileUtil.write(
+                  String.format("\t\t\tthis.attributeValues[%d] = otherNode.attributeValues[%d];\n",
+                      slot, slot),
+                  writer);
+            } else {
+              final String attributeName = this.attributeNames.get(attributeSymbol);
+              final String attributeAvailableName =
+                  this.attributeAvailableNames.get(attributeSymbol);
+
+              FileUtil.write(
+                  String.format("\t\t\tthis.%s = otherNode.%s;\n",
+                      attributeName, attributeName),
+                  writer);
+
+              FileUtil.write(
+                  String.format("\t\t\tthis.%s = otherNode.%s;\n",
+                      attributeAvailableName, attributeAvailableName),
+                  writer);
+            }
           }
         }
 
+        if (usesAttributeSlots(classDeclaration)) {
+          final String inheritedMask =
+              getAttributeMask(classDeclaration, AttributeModifierKind.MOD_INH);
+
+          FileUtil.write(
+              String.format("\t\t\tthis.availableAttributes = (this.availableAttributes & %s) "
+                  + "| (otherNode.availableAttributes & ~%s);\n", inheritedMask, inheritedMask),
+              writer);
+        }
+
         FileUtil.write("\t\t}\n\n", writer);
       }
 
@@ -432,15 +529,25 @@ public final class GenerateJavaSpec
         FileUtil.write(
             "\t\tpublic final void clearAttributeValues(final boolean recursive) {\n", writer);
 
-        final List<AttributeDeclaration> attributeDeclarations =
-            classDeclaration.getAttributeDeclarations();
-        for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
-          final String attributeAvailableName =
-              this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+        if (usesAttributeSlots(classDeclaration)) {
+          if (!classDeclaration.getAttributeDeclarations().isEmpty()) {
+            // drop the values so that they can be garbage collected
+            FileUtil.write(
+                "\t\t\tjava.util.Arrays.fill(this.attributeValues, null);\n", writer);
+          }
 
-          FileUtil.write(
-              String.format("\t\t\tthis.%s = false;\n", attributeAvailableName),
-              writer);
+          FileUtil.write("\t\t\tthis.availableAttributes = 0L;\n", writer);
+        } else {
+          final List<AttributeDeclaration> attributeDeclarations =
+              classDeclaration.getAttributeDeclarations();
+          for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
+            final String attributeAvailableName =
+                this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+
+            FileUtil.write(
+                String.format("\t\t\tthis.%s = false;\n", attributeAvailableName),
+                writer);
+          }
         }
 
         FileUtil.write("\n", writer);
@@ -460,19 +567,38 @@ public final class GenerateJavaSpec
         FileUtil.write(
             "\t\tpublic final void clearNonInheritedAttributeValues() {\n", writer);
 
-        final List<AttributeDeclaration> attributeDeclarations =
-            classDeclaration.getAttributeDeclarations();
-        for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
-          final boolean isInheritedAttribute =
-              attributeDeclaration.getModifier().getModifierKind() == AttributeModifierKind.MOD_INH;
+        if (usesAttributeSlots(classDeclaration)) {
+          for (final AttributeDeclaration attributeDeclaration
+              : classDeclaration.getAttributeDeclarations()) {
+            if (attributeDeclaration.getModifier().getModifierKind()
+                != AttributeModifierKind.MOD_INH) {
+              FileUtil.write(
+                  String.format("\t\t\tthis.attributeValues[%d] = null;\n",
+                      this.attributeSlotIndexes.get(attributeDeclaration.getSymbol())),
+                  writer);
+            }
+          }
 
-          if (!isInheritedAttribute) {
-            final String attributeAvailableName =
-                this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+          FileUtil.write(
+              String.format("\t\t\tthis.availableAttributes &= %s;\n",
+                  getAttributeMask(classDeclaration, AttributeModifierKind.MOD_INH)),
+              writer);
+        } else {
+          final List<AttributeDeclaration> attributeDeclarations =
+              classDeclaration.getAttributeDeclarations();
+          for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
+            final boolean isInheritedAttribute =
+                attributeDeclaration.getModifier().getModifierKind()
+                    == AttributeModifierKind.MOD_INH;
 
-            FileUtil.write(
-                String.format("\t\t\tthis.%s = false;\n", attributeAvailableName),
-                writer);
+            if (!isInheritedAttribute) {
+              final String attributeAvailableName =
+                  this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+
+              FileUtil.write(
+                  String.format("\t\t\tthis.%s = false;\n", attributeAvailableName),
+                  writer);
+            }
           }
         }
 
@@ -485,23 +611,34 @@ public final class GenerateJavaSpec
         FileUtil.write(
             "\t\tpublic final boolean allInheritedAttributesEvaluated() {\n", writer);
 
-        FileUtil.write("\t\t\treturn true", writer);
+        if (usesAttributeSlots(classDeclaration)) {
+          final String inheritedMask =
+              getAttributeMask(classDeclaration, AttributeModifierKind.MOD_INH);
 
-        final List<AttributeDeclaration> attributeDeclarations =
-            classDeclaration.getAttributeDeclarations();
-        for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
-          final boolean isInheritedAttribute =
-              attributeDeclaration.getModifier().getModifierKind() == AttributeModifierKind.MOD_INH;
+          FileUtil.write(
+              String.format("\t\t\treturn (this.availableAttributes & %s) == %s;\n",
+                  inheritedMask, inheritedMask),
+              writer);
+        } else {
+          FileUtil.write("\t\t\treturn true", writer);
 
-          if (isInheritedAttribute) {
-            final String attributeAvailableName =
-                this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+          final List<AttributeDeclaration> attributeDeclarations =
+              classDeclaration.getAttributeDeclarations();
+          for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
+            final boolean isInheritedAttribute =
+                attributeDeclaration.getModifier().getModifierKind()
+                    == AttributeModifierKind.MOD_INH;
 
-            FileUtil.write(String.format(" && this.%s", attributeAvailableName), writer);
+            if (isInheritedAttribute) {
+              final String attributeAvailableName =
+                  this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+
+              FileUtil.write(String.format(" && this.%s", attributeAvailableName), writer);
+            }
           }
-        }
 
-        FileUtil.write(";\n", writer);
+          FileUtil.write(";\n", writer);
+        }
 
         FileUtil.write("\t\t}\n\n", writer);
       }
@@ -512,23 +649,31 @@ public final class GenerateJavaSpec
         FileUtil.write(
             "\t\tpublic final boolean someSynthesizedAttributesEvaluated() {\n", writer);
 
-        FileUtil.write("\t\t\treturn false", writer);
+        if (usesAttributeSlots(classDeclaration)) {
+          FileUtil.write(
+              String.format("\t\t\treturn (this.availableAttributes & %s) != 0L;\n",
+                  getAttributeMask(classDeclaration, AttributeModifierKind.MOD_SYN)),
+              writer);
+        } else {
+          FileUtil.write("\t\t\treturn false", writer);
 
-        final List<AttributeDeclaration> attributeDeclarations =
-            classDeclaration.getAttributeDeclarations();
-        for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
-          final boolean isSynthesizedAttribute =
-              attributeDeclaration.getModifier().getModifierKind() == AttributeModifierKind.MOD_SYN;
+          final List<AttributeDeclaration> attributeDeclarations =
+              classDeclaration.getAttributeDeclarations();
+          for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
+            final boolean isSynthesizedAttribute =
+                attributeDeclaration.getModifier().getModifierKind()
+                    == AttributeModifierKind.MOD_SYN;
 
-          if (isSynthesizedAttribute) {
-            final String attributeAvailableName =
-                this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+            if (isSynthesizedAttribute) {
+              final String attributeAvailableName =
+                  this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
 
-            FileUtil.write(String.format(" || this.%s", attributeAvailableName), writer);
+              FileUtil.write(String.format(" || this.%s", attributeAvailableName), writer);
+            }
           }
-        }
 
-        FileUtil.write(";\n", writer);
+          FileUtil.write(";\n", writer);
+        }
 
         FileUtil.write("\t\t}\n\n", writer);
       }
@@ -556,13 +701,12 @@ public final class GenerateJavaSpec
               attributeDeclaration.getModifier().getModifierKind() == AttributeModifierKind.MOD_GRD;
 
           if (isGuardAttribute) {
-            final String attributeName =
-                this.attributeNames.get(attributeDeclaration.getSymbol());
-            final String attributeAvailableName =
-                this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+            final AttributeSymbol attributeSymbol = attributeDeclaration.getSymbol();
 
             FileUtil.write(
-                String.format(" && (this.%s && this.%s)", attributeAvailableName, attributeName),
+                String.format(" && (%s && %s)",
+                    getAttributeAvailable("this", attributeSymbol),
+                    getAttributeValue("this", attributeSymbol)),
                 writer);
           }
         }
@@ -595,13 +739,12 @@ public final class GenerateJavaSpec
               attributeDeclaration.getModifier().getModifierKind() == AttributeModifierKind.MOD_GRD;
 
           if (isGuardAttribute) {
-            final String attributeName =
-                this.attributeNames.get(attributeDeclaration.getSymbol());
-            final String attributeAvailableName =
-                this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+            final AttributeSymbol attributeSymbol = attributeDeclaration.getSymbol();
 
             FileUtil.write(
-                String.format(" && (!this.%s || this.%s)", attributeAvailableName, attributeName),
+                String.format(" && (!%s || %s)",
+                    getAttributeAvailable("this", attributeSymbol),
+                    getAttributeValue("this", attributeSymbol)),
                 writer);
           }
         }
@@ -638,15 +781,14 @@ public final class GenerateJavaSpec
               attributeDeclaration.getModifier().getModifierKind() == AttributeModifierKind.MOD_INH;
 
           if (isInheritedAttribute) {
-            final String attributeName =
-                this.attributeNames.get(attributeDeclaration.getSymbol());
-            final String attributeAvailableName =
-                this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
+            final AttributeSymbol attributeSymbol = attributeDeclaration.getSymbol();
 
             FileUtil.write(
-                String.format(
-                    " && this.%s && otherNode.%s && Objects.equals(this.%s, otherNode.%s)",
-                    attributeAvailableName, attributeAvailableName, attributeName, attributeName),
+                String.format(" && %s && %s && Objects.equals(%s, %s)",
+                    getAttributeAvailable("this", attributeSymbol),
+                    getAttributeAvailable("otherNode", attributeSymbol),
+                    getAttributeValue("this", attributeSymbol),
+                    getAttributeValue("otherNode", attributeSymbol)),
                 writer);
           }
         }
@@ -676,9 +818,14 @@ public final class GenerateJavaSpec
         final AttributeFunctionCall generatorCall =
             generatorProductionDeclaration.getGeneratorCall();
 
-        FileUtil.write("\t\t\treturn ", writer);
-
         this.enclosingProductionDeclaration = generatorProductionDeclaration;
+
+        if (writePureFunctionLookup(generatorCall, "\t\t\t", writer)) {
+          FileUtil.write("\t\t\treturn (List<?>) ", writer);
+        } else {
+          FileUtil.write("\t\t\treturn ", writer);
+        }
+
         generatorCall.accept(this, writer);
         this.enclosingProductionDeclaration = null;
 
@@ -697,6 +844,9 @@ public final class GenerateJavaSpec
     FileUtil.write("\t// ==========[ ATTRIBUTES ]==========\n\n", writer);
 
     for (final ClassDeclaration classDeclaration : languageSpecification.getClassDeclarations()) {
+      final boolean usesAttributeSlots = usesAttributeSlots(classDeclaration);
+      int slot = 0;
+
       final List<AttributeDeclaration> attributeDeclarations =
           classDeclaration.getAttributeDeclarations();
       for (final AttributeDeclaration attributeDeclaration : attributeDeclarations) {
@@ -705,6 +855,10 @@ public final class GenerateJavaSpec
               classDeclaration.getName(), attributeDeclaration.getName());
         this.attributeNames.put(attributeDeclaration.getSymbol(), attributeName);
 
+        if (usesAttributeSlots) {
+          this.attributeSlotIndexes.put(attributeDeclaration.getSymbol(), slot++);
+        }
+
         FileUtil.write(String.format("\tprivate Attribute %s;\n", attributeName), writer);
       }
     }
@@ -808,6 +962,17 @@ public final class GenerateJavaSpec
         final String attributeAvailableName =
             this.attributeAvailableNames.get(attributeDeclaration.getSymbol());
 
+        if (usesAttributeSlots(classDeclaration)) {
+          FileUtil.write(
+              String.format("\t\t%s = new SlotAttribute(\"%s\", \"%s\", %s, %d);\n",
+                  attributeName, attributeDeclaration.getName(), classDeclaration.getName(),
+                  getAttributeKind(modifierKind),
+                  this.attributeSlotIndexes.get(attributeDeclaration.getSymbol())),
+              writer);
+
+          continue;
+        }
+
         FileUtil.write(
             String.format("\t\t%s = new Attribute(\"%s\", \"%s\", %s) {\n\n",
                 attributeName, attributeDeclaration.getName(), classDeclaration.getName(),
@@ -959,17 +1124,19 @@ public final class GenerateJavaSpec
 
       FileUtil.write(") {\n\n", writer);
 
-      // public abstract Node createNode(final Node parent, final int allowedHeight,
-      //     final int allowedWidth, final Node expected);
+      // public abstract Node createNode(final GenerationContext context, final Node parent,
+      //     final int allowedHeight, final int allowedWidth, final Node expected);
       {
         FileUtil.write("\t\t\t@Override\n", writer);
         FileUtil.write(
-            "\t\t\tpublic final Node createNode(final Node parent, final int allowedHeight, "
-            + "final int allowedWidth, final Node expected) {\n",
+            "\t\t\tpublic final Node createNode(final GenerationContext context, "
+            + "final Node parent, final int allowedHeight, final int allowedWidth, "
+            + "final Node expected) {\n",
             writer);
         FileUtil.write(
             String.format(
-                "\t\t\t\treturn new %s(this, parent, allowedHeight, allowedWidth, expected);\n",
+                "\t\t\t\treturn new %s(this, context, parent, allowedHeight, allowedWidth, "
+                + "expected);\n",
                 nodeClassName),
             writer);
         FileUtil.write("\t\t\t}\n\n", writer);
@@ -1007,32 +1174,74 @@ public final class GenerateJavaSpec
         "\tprivate final void generateProductions() {\n",
         writer);
 
+    for (final ProductionClassDeclaration classDeclaration :
+        getProductionClassDeclarations(languageSpecification)) {
+      if (this.splitCode) {
+        FileUtil.write(String.format("\t\tgenerateProductions_%s();\n",
+            this.classNames.get(classDeclaration.getSymbol())), writer);
+      } else {
+        writeGenerateProductions(classDeclaration, writer);
+      }
+    }
+
+    FileUtil.write("\t}\n\n", writer);
+
+    if (this.splitCode) {
+      for (final ProductionClassDeclaration classDeclaration :
+          getProductionClassDeclarations(languageSpecification)) {
+        FileUtil.write(String.format("\tprivate final void generateProductions_%s() {\n",
+            this.classNames.get(classDeclaration.getSymbol())), writer);
+
+        writeGenerateProductions(classDeclaration, writer);
+
+        FileUtil.write("\t}\n\n", writer);
+      }
+    }
+  }
+
+  private final void writeGenerateProductions(
+      final ProductionClassDeclaration productionClassDeclaration, final BufferedWriter writer) {
+    int productionId = 0;
+
+    for (final ProductionDeclaration productionDeclaration : getEnabledProductions(
+        productionClassDeclaration)) {
+      if (productionDeclaration instanceof TreeProductionDeclaration) {
+        final TreeProductionDeclaration treeProductionDeclaration =
+            (TreeProductionDeclaration) productionDeclaration;
+        writeGenerateTreeProduction(
+            treeProductionDeclaration, productionClassDeclaration, productionId++, writer);
+      } else {
+        assert (productionDeclaration instanceof GeneratorProductionDeclaration);
+        // generator productions are instantiated dynamically at runtime
+      }
+    }
+  }
+
+  private static final List<ProductionClassDeclaration> getProductionClassDeclarations(
+      final LaLaSpecification languageSpecification) {
+    final List<ProductionClassDeclaration> productionClassDeclarations = new ArrayList<>();
+
     for (final ClassDeclaration classDeclaration : languageSpecification.getClassDeclarations()) {
       if (classDeclaration instanceof ProductionClassDeclaration) {
-        final ProductionClassDeclaration productionClassDeclaration =
-            (ProductionClassDeclaration) classDeclaration;
+        productionClassDeclarations.add((ProductionClassDeclaration) classDeclaration);
+      }
+    }
 
-        int productionId = 0;
+    return productionClassDeclarations;
+  }
 
-        final List<ProductionDeclaration> productionDelcarations =
-            productionClassDeclaration.getProductionDeclarations();
-        for (final ProductionDeclaration productionDeclaration : productionDelcarations) {
-          if (isProductionEnabled(productionDeclaration)) {
-            if (productionDeclaration instanceof TreeProductionDeclaration) {
-              final TreeProductionDeclaration treeProductionDeclaration =
-                  (TreeProductionDeclaration) productionDeclaration;
-              writeGenerateTreeProduction(
-                  treeProductionDeclaration, productionClassDeclaration, productionId++, writer);
-            } else {
-              assert (productionDeclaration instanceof GeneratorProductionDeclaration);
-              // generator productions are instantiated dynamically at runtime
-            }
-          }
-        }
+  private final List<ProductionDeclaration> getEnabledProductions(
+      final ProductionClassDeclaration productionClassDeclaration) {
+    final List<ProductionDeclaration> enabledProductions = new ArrayList<>();
+
+    for (final ProductionDeclaration productionDeclaration :
+        productionClassDeclaration.getProductionDeclarations()) {
+      if (isProductionEnabled(productionDeclaration)) {
+        enabledProductions.add(productionDeclaration);
       }
     }
 
-    FileUtil.write("\t}\n\n", writer);
+    return enabledProductions;
   }
 
   private final void writeGenerateTreeProduction(
@@ -1143,8 +1352,8 @@ public final class GenerateJavaSpec
 
         FileUtil.write(
             String.format(
-                "%s.createNode(node, allowedHeight(node, %s, maxRecursionDepth), "
-                + " allowedWidth(node, %s))",
+                "%s.createNode(node.getGenerationContext(), node, "
+                + "allowedHeight(node, %s, maxRecursionDepth), allowedWidth(node, %s))",
                 childClassName, childClassName, childClassName),
             writer);
       }
@@ -1152,8 +1361,7 @@ public final class GenerateJavaSpec
       FileUtil.write("};\n\t\t\t}\n\n", writer);
     }
 
-    // public abstract void printCode(final Node node, final StringBuilder builder,
-    //    final int indentation);
+    // public abstract void printCode(final Node node, final CodeSink sink, final int indentation);
     {
       final boolean isHidden =
           productionDeclaration.hasAnnotation(AnnotationSymbol.ANNOTATION_HIDDEN)
@@ -1162,7 +1370,7 @@ public final class GenerateJavaSpec
       FileUtil.write("\t\t\t@Override\n", writer);
       FileUtil.write(
           "\t\t\tpublic final void printCode(final Node node, "
-          + "final StringBuilder builder, final int indentation) {\n", writer);
+          + "final CodeSink sink, final int indentation) {\n", writer);
 
       if (isHidden) {
         FileUtil.write("\t\t\t\t// hidden\n", writer);
@@ -1182,9 +1390,9 @@ public final class GenerateJavaSpec
               final BufferedWriter writer) {
             switch (escapeSequence.getEscapeToken()) {
               case ESCAPE_NEWLINE: {
-                FileUtil.write("\t\t\t\tbuilder.append(\"\\n\");\n", writer);
+                FileUtil.write("\t\t\t\tsink.append(\"\\n\");\n", writer);
                 FileUtil.write(
-                    String.format("\t\t\t\tprintIndentation(builder, indentation + %d);\n",
+                    String.format("\t\t\t\tprintIndentation(sink, indentation + %d);\n",
                         this.currentIndentation),
                     writer);
 
@@ -1193,9 +1401,9 @@ public final class GenerateJavaSpec
               case ESCAPE_INDENT: {
                 ++this.currentIndentation;
 
-                FileUtil.write("\t\t\t\tbuilder.append(\"\\n\");\n", writer);
+                FileUtil.write("\t\t\t\tsink.append(\"\\n\");\n", writer);
                 FileUtil.write(
-                    String.format("\t\t\t\tprintIndentation(builder, indentation + %d);\n",
+                    String.format("\t\t\t\tprintIndentation(sink, indentation + %d);\n",
                         this.currentIndentation),
                     writer);
 
@@ -1204,24 +1412,24 @@ public final class GenerateJavaSpec
               case ESCAPE_UNINDENT: {
                 --this.currentIndentation;
 
-                FileUtil.write("\t\t\t\tbuilder.append(\"\\n\");\n", writer);
+                FileUtil.write("\t\t\t\tsink.append(\"\\n\");\n", writer);
                 FileUtil.write(
-                    String.format("\t\t\t\tprintIndentation(builder, indentation + %d);\n",
+                    String.format("\t\t\t\tprintIndentation(sink, indentation + %d);\n",
                         this.currentIndentation),
                     writer);
 
                 break;
               }
               case ESCAPE_DOLLAR: {
-                FileUtil.write("\t\t\t\tbuilder.append(\"$\");\n", writer);
+                FileUtil.write("\t\t\t\tsink.append(\"$\");\n", writer);
                 break;
               }
               case ESCAPE_HASH: {
-                FileUtil.write("\t\t\t\tbuilder.append(\"#\");\n", writer);
+                FileUtil.write("\t\t\t\tsink.append(\"#\");\n", writer);
                 break;
               }
               case ESCAPE_QUOTE: {
-                FileUtil.write("\t\t\t\tbuilder.append(\"\\\"\");\n", writer);
+                FileUtil.write("\t\t\t\tsink.append(\"\\\"\");\n", writer);
                 break;
               }
               default: {
@@ -1237,7 +1445,7 @@ public final class GenerateJavaSpec
           public final Void visit(final StringCharacters stringCharacters,
               final BufferedWriter writer) {
             FileUtil.write(
-                String.format("\t\t\t\tbuilder.append(\"%s\");\n",
+                String.format("\t\t\t\tsink.append(\"%s\");\n",
                     stringCharacters.getCharacters()),
                 writer);
 
@@ -1258,16 +1466,16 @@ public final class GenerateJavaSpec
                       + "AutomaticParentheses.needsParentheses(node, node.getChild(%d));",
                       childIndex),
                   writer);
-              FileUtil.write("\t\t\t\t\tif (needsParentheses) { builder.append('('); }\n", writer);
+              FileUtil.write("\t\t\t\t\tif (needsParentheses) { sink.append('('); }\n", writer);
             }
 
             FileUtil.write(
-                String.format("\t\t\t\t\tnode.getChild(%d).printCode(builder, indentation + %d);\n",
+                String.format("\t\t\t\t\tnode.getChild(%d).printCode(sink, indentation + %d);\n",
                     childIndex, this.currentIndentation),
                 writer);
 
             if (childDeclaration.hasAutomaticParentheses()) {
-              FileUtil.write("\t\t\t\t\tif (needsParentheses) { builder.append(')'); }\n", writer);
+              FileUtil.write("\t\t\t\t\tif (needsParentheses) { sink.append(')'); }\n", writer);
             }
 
             FileUtil.write("\t\t\t\t}\n", writer);
@@ -1281,6 +1489,7 @@ public final class GenerateJavaSpec
 
             FileUtil.write("\t\t\t\ttry {\n", writer);
 
+            writePureFunctionLookup(expression, "\t\t\t\t\t", writer);
             FileUtil.write("\t\t\t\t\tfinal Object result = ", writer);
             expression.accept(GenerateJavaSpec.this, writer);
             FileUtil.write(";\n", writer);
@@ -1288,13 +1497,13 @@ public final class GenerateJavaSpec
             FileUtil.write("\t\t\t\t\tif (result instanceof EmbeddedCode) {\n", writer);
             FileUtil.write(
                 String.format(
-                    "\t\t\t\t\t\t((EmbeddedCode) result).printCode(builder, indentation + %d);\n",
+                    "\t\t\t\t\t\t((EmbeddedCode) result).printCode(sink, indentation + %d);\n",
                     this.currentIndentation),
                 writer);
             FileUtil.write("\t\t\t\t\t} else if (result instanceof Printable) {\n", writer);
-            FileUtil.write("\t\t\t\t\t\tbuilder.append(((Printable) result).print());\n", writer);
+            FileUtil.write("\t\t\t\t\t\tsink.append(((Printable) result).print());\n", writer);
             FileUtil.write("\t\t\t\t\t} else {\n", writer);
-            FileUtil.write("\t\t\t\t\t\tbuilder.append(result);\n", writer);
+            FileUtil.write("\t\t\t\t\t\tsink.append(result);\n", writer);
             FileUtil.write("\t\t\t\t\t}\n", writer);
 
             FileUtil.write("\t\t\t\t} catch (final Throwable t) {}\n", writer);
@@ -1414,6 +1623,7 @@ public final class GenerateJavaSpec
 
             FileUtil.write("\t\t\t\ttry {\n", writer);
 
+            writePureFunctionLookup(expression, "\t\t\t\t\t", writer);
             FileUtil.write("\t\t\t\t\tfinal Object result = ", writer);
             expression.accept(GenerateJavaSpec.this, writer);
             FileUtil.write(";\n", writer);
@@ -1470,193 +1680,337 @@ public final class GenerateJavaSpec
       final BufferedWriter writer) {
     FileUtil.write("\tprivate final void generateAttributeRules() {\n", writer);
 
-    for (final ClassDeclaration classDeclaration : languageSpecification.getClassDeclarations()) {
-      if (classDeclaration instanceof ProductionClassDeclaration) {
-        final ProductionClassDeclaration productionClassDeclaration =
-            (ProductionClassDeclaration) classDeclaration;
+    for (final ProductionClassDeclaration classDeclaration :
+        getProductionClassDeclarations(languageSpecification)) {
+      if (this.splitCode) {
+        FileUtil.write(String.format("\t\tgenerateAttributeRules_%s();\n",
+            this.classNames.get(classDeclaration.getSymbol())), writer);
+      } else {
+        for (final ProductionDeclaration productionDeclaration : getEnabledProductions(
+            classDeclaration)) {
+          for (final AttributeEvaluationRule attributeRule :
+              productionDeclaration.getAttributeEvaluationRules()) {
+            writeAttributeRule(attributeRule, productionDeclaration, classDeclaration, writer);
+          }
+        }
+      }
+    }
 
-        assert (this.classNames.containsKey(productionClassDeclaration.getSymbol()));
-        final String className = this.classNames.get(productionClassDeclaration.getSymbol());
+    FileUtil.write("\t}\n\n", writer);
 
-        final List<ProductionDeclaration> productionDeclarations =
-            productionClassDeclaration.getProductionDeclarations();
-        for (final ProductionDeclaration productionDeclaration : productionDeclarations) {
-          if (!isProductionEnabled(productionDeclaration)) {
-            continue;
-          }
+    if (this.splitCode) {
+      for (final ProductionClassDeclaration classDeclaration :
+          getProductionClassDeclarations(languageSpecification)) {
+        writeSplitAttributeRules(classDeclaration, writer);
+      }
+    }
+  }
 
-          assert (this.productionNames.containsKey(productionDeclaration.getSymbol()));
-          final String productionName = this.productionNames.get(productionDeclaration.getSymbol());
+  private final void writeAttributeRule(final AttributeEvaluationRule attributeRule,
+      final ProductionDeclaration productionDeclaration,
+      final ProductionClassDeclaration productionClassDeclaration, final BufferedWriter writer) {
+    FileUtil.write(
+        String.format("\t\t%s(new AttributeRule(", getAddAttributeRuleMethodName(
+            productionDeclaration, productionClassDeclaration)),
+        writer);
+
+    writeAttributeRuleArguments(attributeRule, productionDeclaration, writer);
+
+    FileUtil.write(") {\n\n", writer);
 
-          final List<AttributeEvaluationRule> attributeEvaluationRules =
-              productionDeclaration.getAttributeEvaluationRules();
-          for (final AttributeEvaluationRule attributeRule : attributeEvaluationRules) {
-            final AttributeAccess targetAttribute = attributeRule.getTargetAttribute();
+    // public abstract boolean alreadyComputed(final Node node);
+    {
+      FileUtil.write("\t\t\t@Override\n", writer);
+      FileUtil.write(
+          "\t\t\tpublic final boolean alreadyComputed(final Node node) {\n",
+          writer);
 
-            assert (this.attributeNames.containsKey(targetAttribute.getSymbol()));
-            final String targetAttributeName = this.attributeNames.get(targetAttribute.getSymbol());
+      writeAlreadyComputed(attributeRule, productionDeclaration, "\t\t\t\t", writer);
 
-            //public AttributeRule(final Attribute targetAttribute, final int targetNodeIndex,
-            //    final Attribute[] sourceAttributes, final int[] sourceNodeIndexes) {
+      FileUtil.write("\t\t\t}\n\n", writer);
+    }
 
-            final int targetNodeIndex = getChildIndex(targetAttribute, productionDeclaration);
+    // public abstract boolean allSourceAttributesAvailable(final Node node);
+    {
+      FileUtil.write("\t\t\t@Override\n", writer);
+      FileUtil.write(
+          "\t\t\tpublic final boolean allSourceAttributesAvailable(final Node node) {\n",
+          writer);
 
-            final String addMethodName;
-            {
-              if (productionDeclaration instanceof TreeProductionDeclaration) {
-                addMethodName = productionName + ".addAttributeRule";
-              } else {
-                assert (productionDeclaration instanceof GeneratorProductionDeclaration);
-                addMethodName = className + ".addGeneratorAttributeRule";
-              }
-            }
+      writeAllSourceAttributesAvailable(attributeRule, productionDeclaration, "\t\t\t\t", writer);
 
-            FileUtil.write(
-                String.format("\t\t%s(new AttributeRule(%s, %d, new Attribute[] {",
-                    addMethodName, targetAttributeName, targetNodeIndex),
-                writer);
+      FileUtil.write("\t\t\t}\n\n", writer);
+    }
 
-            final List<AttributeAccess> sourceAttributes = attributeRule.gatherSourceAttributes();
+    // public abstract void compute(final Node node);
+    {
+      FileUtil.write("\t\t\t@Override\n", writer);
+      FileUtil.write(
+          "\t\t\tpublic final void compute(final Node node) {\n",
+          writer);
 
-            // source attributes
-            {
-              boolean first = true;
-              for (final AttributeAccess sourceAttribute : sourceAttributes) {
-                if (!first) {
-                  FileUtil.write(", ", writer);
-                }
-                first = false;
+      writeCompute(attributeRule, productionDeclaration, "\t\t\t\t", writer);
 
-                final AttributeSymbol sourceSymbol = sourceAttribute.getSymbol();
+      FileUtil.write("\t\t\t}\n\n", writer);
+    }
 
-                assert (this.attributeNames.containsKey(sourceSymbol));
-                final String sourceAttributeName = this.attributeNames.get(sourceSymbol);
+    FileUtil.write("\t\t});\n\n", writer);
+  }
 
-                FileUtil.write(sourceAttributeName, writer);
-              }
-            }
+  // instead of one anonymous class per attribute rule, the rules of a class are instances of a few
+  // dispatch classes (with at most MAX_RULES_PER_DISPATCH_CLASS rules each) that select the code of
+  // a rule by its index, and they are created in a separate method per class; this keeps the
+  // number of generated classes and the size of each method small
+  private final void writeSplitAttributeRules(
+      final ProductionClassDeclaration productionClassDeclaration, final BufferedWriter writer) {
+    final String className = this.classNames.get(productionClassDeclaration.getSymbol());
 
-            FileUtil.write("}, new int[] {", writer);
+    final List<ProductionDeclaration> ruleProductions = new ArrayList<>();
+    final List<AttributeEvaluationRule> rules = new ArrayList<>();
 
-            // source node indexes
-            {
-              boolean first = true;
-              for (final AttributeAccess sourceAttribute : sourceAttributes) {
-                if (!first) {
-                  FileUtil.write(", ", writer);
-                }
-                first = false;
+    for (final ProductionDeclaration productionDeclaration : getEnabledProductions(
+        productionClassDeclaration)) {
+      for (final AttributeEvaluationRule attributeRule :
+          productionDeclaration.getAttributeEvaluationRules()) {
+        ruleProductions.add(productionDeclaration);
+        rules.add(attributeRule);
+      }
+    }
 
-                final int sourceChildIndex = getChildIndex(sourceAttribute, productionDeclaration);
+    // instantiation of the rules
+    {
+      FileUtil.write(
+          String.format("\tprivate final void generateAttributeRules_%s() {\n", className),
+          writer);
 
-                FileUtil.write(sourceChildIndex + "", writer);
-              }
-            }
+      for (int ruleIndex = 0; ruleIndex < rules.size(); ++ruleIndex) {
+        final ProductionDeclaration productionDeclaration = ruleProductions.get(ruleIndex);
 
-            FileUtil.write("}) {\n\n", writer);
+        FileUtil.write(
+            String.format("\t\t%s(new %s(%d, ",
+                getAddAttributeRuleMethodName(productionDeclaration, productionClassDeclaration),
+                getRuleDispatchClassName(className, ruleIndex),
+                ruleIndex % MAX_RULES_PER_DISPATCH_CLASS),
+            writer);
 
-            // public abstract boolean alreadyComputed(final Node node);
-            {
-              FileUtil.write("\t\t\t@Override\n", writer);
-              FileUtil.write(
-                  "\t\t\tpublic final boolean alreadyComputed(final Node node) {\n",
-                  writer);
+        writeAttributeRuleArguments(rules.get(ruleIndex), productionDeclaration, writer);
 
-              final String nodeAccess = getNodeAccess(targetAttribute, productionDeclaration);
+        FileUtil.write("));\n", writer);
+      }
 
-              assert (this.attributeAvailableNames.containsKey(targetAttribute.getSymbol()));
-              final String attributeAvailableName =
-                  this.attributeAvailableNames.get(targetAttribute.getSymbol());
+      FileUtil.write("\t}\n\n", writer);
+    }
 
-              FileUtil.write(
-                  String.format("\t\t\t\treturn %s.%s;\n", nodeAccess, attributeAvailableName),
-                  writer);
+    // dispatch classes
+    for (int firstRule = 0; firstRule < rules.size(); firstRule += MAX_RULES_PER_DISPATCH_CLASS) {
+      final int lastRule = Math.min(firstRule + MAX_RULES_PER_DISPATCH_CLASS, rules.size());
+      final String dispatchClassName = getRuleDispatchClassName(className, firstRule);
 
-              FileUtil.write("\t\t\t}\n\n", writer);
-            }
+      FileUtil.write(
+          String.format("\tprivate final class %s extends AttributeRule {\n\n", dispatchClassName),
+          writer);
 
-            // public abstract boolean allSourceAttributesAvailable(final Node node);
-            {
-              FileUtil.write("\t\t\t@Override\n", writer);
-              FileUtil.write(
-                  "\t\t\tpublic final boolean allSourceAttributesAvailable(final Node node) {\n",
-                  writer);
+      FileUtil.write("\t\tprivate final int rule;\n\n", writer);
+
+      FileUtil.write(
+          String.format("\t\tpublic %s(final int rule, final Attribute targetAttribute, "
+              + "final int targetNodeIndex, final Attribute[] sourceAttributes, "
+              + "final int[] sourceNodeIndexes) {\n", dispatchClassName),
+          writer);
+      FileUtil.write("\t\t\tsuper(targetAttribute, targetNodeIndex, sourceAttributes, "
+          + "sourceNodeIndexes);\n", writer);
+      FileUtil.write("\t\t\tthis.rule = rule;\n", writer);
+      FileUtil.write("\t\t}\n\n", writer);
 
-              FileUtil.write("\t\t\t\treturn true", writer);
+      final String[] methodHeaders = {
+        "\t\tpublic final boolean alreadyComputed(final Node node) {\n",
+        "\t\tpublic final boolean allSourceAttributesAvailable(final Node node) {\n",
+        "\t\tpublic final void compute(final Node node) {\n"
+      };
 
-              for (final AttributeAccess sourceAttribute : sourceAttributes) {
-                final String nodeAccess = getNodeAccess(sourceAttribute, productionDeclaration);
+      for (int method = 0; method < methodHeaders.length; ++method) {
+        FileUtil.write("\t\t@Override\n", writer);
+        FileUtil.write(methodHeaders[method], writer);
+        FileUtil.write("\t\t\tswitch (this.rule) {\n", writer);
 
-                assert (this.attributeAvailableNames.containsKey(sourceAttribute.getSymbol()));
-                final String attributeAvailableName =
-                    this.attributeAvailableNames.get(sourceAttribute.getSymbol());
+        for (int ruleIndex = firstRule; ruleIndex < lastRule; ++ruleIndex) {
+          final AttributeEvaluationRule attributeRule = rules.get(ruleIndex);
+          final ProductionDeclaration productionDeclaration = ruleProductions.get(ruleIndex);
 
-                FileUtil.write(
-                    String.format(" && (%s.%s)", nodeAccess, attributeAvailableName),
-                    writer);
-              }
+          FileUtil.write(
+              String.format("\t\t\t\tcase %d: {\n", ruleIndex - firstRule), writer);
+
+          if (method == 0) {
+            writeAlreadyComputed(attributeRule, productionDeclaration, "\t\t\t\t\t", writer);
+          } else if (method == 1) {
+            writeAllSourceAttributesAvailable(
+                attributeRule, productionDeclaration, "\t\t\t\t\t", writer);
+          } else {
+            writeCompute(attributeRule, productionDeclaration, "\t\t\t\t\t", writer);
+            FileUtil.write("\t\t\t\t\treturn;\n", writer);
+          }
 
-              FileUtil.write(";\n", writer);
+          FileUtil.write("\t\t\t\t}\n", writer);
+        }
 
-              FileUtil.write("\t\t\t}\n\n", writer);
-            }
+        FileUtil.write("\t\t\t\tdefault:\n", writer);
+        FileUtil.write("\t\t\t\t\tthrow new AssertionError(this.rule);\n", writer);
+        FileUtil.write("\t\t\t}\n", writer);
+        FileUtil.write("\t\t}\n\n", writer);
+      }
 
-            // public abstract void compute(final Node node);
-            {
-              FileUtil.write("\t\t\t@Override\n", writer);
-              FileUtil.write(
-                  "\t\t\tpublic final void compute(final Node node) {\n",
-                  writer);
+      FileUtil.write("\t}\n\n", writer);
+    }
+  }
 
-              // actual computation
-              {
-                final String nodeAccess = getNodeAccess(targetAttribute, productionDeclaration);
+  private static final String getRuleDispatchClassName(final String className,
+      final int ruleIndex) {
+    return String.format("Rules_%s_%d", className, ruleIndex / MAX_RULES_PER_DISPATCH_CLASS);
+  }
+
+  private final String getAddAttributeRuleMethodName(
+      final ProductionDeclaration productionDeclaration,
+      final ProductionClassDeclaration productionClassDeclaration) {
+    if (productionDeclaration instanceof TreeProductionDeclaration) {
+      assert (this.productionNames.containsKey(productionDeclaration.getSymbol()));
+      return this.productionNames.get(productionDeclaration.getSymbol()) + ".addAttributeRule";
+    } else {
+      assert (productionDeclaration instanceof GeneratorProductionDeclaration);
+      assert (this.classNames.containsKey(productionClassDeclaration.getSymbol()));
+      return this.classNames.get(productionClassDeclaration.getSymbol())
+          + ".addGeneratorAttributeRule";
+    }
+  }
 
-                final AttributeSymbol attributeSymbol = targetAttribute.getSymbol();
+  // writes the arguments of the AttributeRule constructor
+  private final void writeAttributeRuleArguments(final AttributeEvaluationRule attributeRule,
+      final ProductionDeclaration productionDeclaration, final BufferedWriter writer) {
+    final AttributeAccess targetAttribute = attributeRule.getTargetAttribute();
 
-                assert (this.attributeNames.containsKey(attributeSymbol));
-                final String attributeName = this.attributeNames.get(attributeSymbol);
-                final String attributeTypeName = attributeSymbol.getTypeName();
+    assert (this.attributeNames.containsKey(targetAttribute.getSymbol()));
+    final String targetAttributeName = this.attributeNames.get(targetAttribute.getSymbol());
 
-                FileUtil.write(
-                    String.format("\t\t\t\t%s.%s = (%s) (",
-                      nodeAccess, attributeName, attributeTypeName),
-                    writer);
+    //public AttributeRule(final Attribute targetAttribute, final int targetNodeIndex,
+    //    final Attribute[] sourceAttributes, final int[] sourceNodeIndexes) {
 
-                this.enclosingProductionDeclaration = productionDeclaration;
+    final int targetNodeIndex = getChildIndex(targetAttribute, productionDeclaration);
 
-                final AttributeExpression attributeExpression =
-                    attributeRule.getAttributeExpression();
-                attributeExpression.accept(this, writer);
+    FileUtil.write(
+        String.format("%s, %d, new Attribute[] {", targetAttributeName, targetNodeIndex),
+        writer);
 
-                this.enclosingProductionDeclaration = null;
+    final List<AttributeAccess> sourceAttributes = attributeRule.gatherSourceAttributes();
 
-                FileUtil.write(");\n", writer);
-              }
+    // source attributes
+    {
+      boolean first = true;
+      for (final AttributeAccess sourceAttribute : sourceAttributes) {
+        if (!first) {
+          FileUtil.write(", ", writer);
+        }
+        first = false;
 
-              // set has_<ATTRIBUTE>
-              {
-                final String nodeAccess = getNodeAccess(targetAttribute, productionDeclaration);
+        final AttributeSymbol sourceSymbol = sourceAttribute.getSymbol();
 
-                assert (this.attributeAvailableNames.containsKey(targetAttribute.getSymbol()));
-                final String attributeAvailableName =
-                    this.attributeAvailableNames.get(targetAttribute.getSymbol());
+        assert (this.attributeNames.containsKey(sourceSymbol));
+        final String sourceAttributeName = this.attributeNames.get(sourceSymbol);
 
-                FileUtil.write(
-                    String.format("\t\t\t\t%s.%s = true;\n", nodeAccess, attributeAvailableName),
-                    writer);
-              }
+        FileUtil.write(sourceAttributeName, writer);
+      }
+    }
 
-              FileUtil.write("\t\t\t}\n\n", writer);
-            }
+    FileUtil.write("}, new int[] {", writer);
 
-            FileUtil.write("\t\t});\n\n", writer);
-          }
+    // source node indexes
+    {
+      boolean first = true;
+      for (final AttributeAccess sourceAttribute : sourceAttributes) {
+        if (!first) {
+          FileUtil.write(", ", writer);
         }
+        first = false;
+
+        final int sourceChildIndex = getChildIndex(sourceAttribute, productionDeclaration);
+
+        FileUtil.write(sourceChildIndex + "", writer);
       }
     }
 
-    FileUtil.write("\t}\n\n", writer);
+    FileUtil.write("}", writer);
+  }
+
+  private final void writeAlreadyComputed(final AttributeEvaluationRule attributeRule,
+      final ProductionDeclaration productionDeclaration, final String indentation,
+      final BufferedWriter writer) {
+    final AttributeAccess targetAttribute = attributeRule.getTargetAttribute();
+    final String nodeAccess = getNodeAccess(targetAttribute, productionDeclaration);
+
+    FileUtil.write(
+        String.format("%sreturn %s;\n", indentation,
+            getAttributeAvailable(nodeAccess, targetAttribute.getSymbol())),
+        writer);
+  }
+
+  private final void writeAllSourceAttributesAvailable(
+      final AttributeEvaluationRule attributeRule,
+      final ProductionDeclaration productionDeclaration, final String indentation,
+      final BufferedWriter writer) {
+    FileUtil.write(indentation + "return true", writer);
+
+    for (final AttributeAccess sourceAttribute : attributeRule.gatherSourceAttributes()) {
+      final String nodeAccess = getNodeAccess(sourceAttribute, productionDeclaration);
+
+      FileUtil.write(
+          String.format(" && (%s)",
+              getAttributeAvailable(nodeAccess, sourceAttribute.getSymbol())),
+          writer);
+    }
+
+    FileUtil.write(";\n", writer);
+  }
+
+  private final void writeCompute(final AttributeEvaluationRule attributeRule,
+      final ProductionDeclaration productionDeclaration, final String indentation,
+      final BufferedWriter writer) {
+    final AttributeAccess targetAttribute = attributeRule.getTargetAttribute();
+
+    // actual computation
+    {
+      final String nodeAccess = getNodeAccess(targetAttribute, productionDeclaration);
+
+      final AttributeSymbol attributeSymbol = targetAttribute.getSymbol();
+
+      assert (this.attributeNames.containsKey(attributeSymbol));
+
+      this.enclosingProductionDeclaration = productionDeclaration;
+
+      final AttributeExpression attributeExpression =
+          attributeRule.getAttributeExpression();
+
+      writePureFunctionLookup(attributeExpression, indentation, writer);
+
+      FileUtil.write(
+          String.format("%s%s = %s(", indentation,
+            getAttributeTarget(nodeAccess, attributeSymbol),
+            getAttributeCast(attributeSymbol)),
+          writer);
+
+      attributeExpression.accept(this, writer);
+
+      this.enclosingProductionDeclaration = null;
+
+      FileUtil.write(");\n", writer);
+    }
+
+    // set has_<ATTRIBUTE>
+    {
+      final String nodeAccess = getNodeAccess(targetAttribute, productionDeclaration);
+
+      FileUtil.write(
+          String.format("%s%s;\n", indentation,
+              getSetAttributeAvailable(nodeAccess, targetAttribute.getSymbol())),
+          writer);
+    }
   }
 
   private void writeSpecificationFactory(final LaLaSpecification languageSpecification,
@@ -1689,7 +2043,26 @@ public final class GenerateJavaSpec
         FileUtil.write(className, writer);
       }
     }
-    FileUtil.write("}, DEFAULT_MAX_DEPTH, seed);\n", writer);
+    FileUtil.write("}, DEFAULT_MAX_DEPTH, seed", writer);
+
+    // pure function caches
+    if (!this.pureFunctions.isEmpty()) {
+      FileUtil.write(", new PureFunctionCache[] {", writer);
+
+      boolean first = true;
+      for (final String pureFunction : new TreeSet<String>(this.pureFunctions)) {
+        if (!first) {
+          FileUtil.write(", ", writer);
+        }
+        first = false;
+
+        FileUtil.write(getPureFunctionCacheName(pureFunction), writer);
+      }
+
+      FileUtil.write("}", writer);
+    }
+
+    FileUtil.write(");\n", writer);
 
     FileUtil.write("\t}\n\n", writer);
 
@@ -1987,6 +2360,226 @@ public final class GenerateJavaSpec
     throw new RPGException("unknown child: " + childSymbol.getName());
   }
 
+  private final void writePureFunctionCacheDeclarations(final BufferedWriter writer) {
+    if (this.pureFunctions.isEmpty()) {
+      return;
+    }
+
+    FileUtil.write("\t// ==========[ PURE FUNCTION CACHES ]==========\n\n", writer);
+
+    for (final String pureFunction : new TreeSet<String>(this.pureFunctions)) {
+      FileUtil.write(
+          String.format(
+              "\tprivate static final PureFunctionCache %s = new PureFunctionCache(\"%s\");\n",
+              getPureFunctionCacheName(pureFunction), pureFunction),
+          writer);
+    }
+
+    FileUtil.write("\n", writer);
+  }
+
+  private static final String getPureFunctionName(final AttributeFunction attributeFunction) {
+    final Identifier namespace = attributeFunction.getNamespace();
+    final Identifier functionName = attributeFunction.getFunctionName();
+
+    if (namespace == null) {
+      return functionName.getName();
+    } else {
+      return String.format("%s:%s", namespace.getName(), functionName.getName());
+    }
+  }
+
+  private static final String getPureFunctionCacheName(final String pureFunction) {
+    return "pure_" + pureFunction.replaceAll("[^A-Za-z0-9_]", "_");
+  }
+
+  private static final AttributeExpression resolveLocalAttributes(
+      final AttributeExpression expression) {
+    if (expression instanceof LocalAttributeAccess) {
+      final LocalAttributeSymbol attributeSymbol =
+          ((LocalAttributeAccess) expression).getSymbol();
+      return resolveLocalAttributes(attributeSymbol.getDeclaration().getAttributeExpression());
+    }
+
+    return expression;
+  }
+
+  // the arguments are evaluated twice (for the lookup and for the actual call) -> only calls with
+  // arguments that are cheap and free of side effects are memoized
+  private final AttributeFunctionCall getMemoizableCall(final AttributeExpression expression) {
+    final AttributeExpression actualExpression = resolveLocalAttributes(expression);
+
+    if (!(actualExpression instanceof AttributeFunctionCall)) {
+      return null;
+    }
+
+    final AttributeFunctionCall attributeFunctionCall = (AttributeFunctionCall) actualExpression;
+    final AttributeFunction attributeFunction = attributeFunctionCall.getFunction();
+
+    if (attributeFunction.isBuiltinFunction()
+        || !this.pureFunctions.contains(getPureFunctionName(attributeFunction))) {
+      return null;
+    }
+
+    for (final AttributeExpression argument : attributeFunctionCall.getArguments()) {
+      final AttributeExpression actualArgument = resolveLocalAttributes(argument);
+
+      if (!(actualArgument instanceof AttributeAccess || actualArgument instanceof AttributeLiteral
+          || actualArgument instanceof ChildReference
+          || actualArgument instanceof GeneratorValue)) {
+        return null;
+      }
+    }
+
+    return attributeFunctionCall;
+  }
+
+  // if the expression is a call of a pure function, the arguments are looked up in the memo cache
+  // of the function (the result is stored in the local variable 'pureEntry'); the following visit
+  // of the expression then only calls the function if the cache does not contain its result
+  //
+  // the result of a memoized call has the static type 'Object' -> this may only be used for
+  // expressions whose value is cast or used as 'Object' anyway; returns whether the lookup has been
+  // written
+  private final boolean writePureFunctionLookup(final AttributeExpression expression,
+      final String indentation, final BufferedWriter writer) {
+    final AttributeFunctionCall attributeFunctionCall = getMemoizableCall(expression);
+
+    if (attributeFunctionCall == null) {
+      return false;
+    }
+
+    FileUtil.write(
+        String.format("%sfinal PureFunctionCache.Entry pureEntry = %s.lookup(new Object[] {",
+            indentation,
+            getPureFunctionCacheName(getPureFunctionName(attributeFunctionCall.getFunction()))),
+        writer);
+
+    boolean first = true;
+    for (final AttributeExpression argument : attributeFunctionCall.getArguments()) {
+      if (!first) {
+        FileUtil.write(", ", writer);
+      }
+      first = false;
+
+      argument.accept(this, writer);
+    }
+
+    FileUtil.write("});\n", writer);
+
+    this.memoizedFunctionCall = attributeFunctionCall;
+
+    return true;
+  }
+
+  private final boolean usesAttributeSlots(final ClassDeclaration classDeclaration) {
+    // classes with too many attributes fall back to one field per attribute, as do generator
+    // classes (their nodes have to extend GeneratorNode instead of SlotNode)
+    return this.attributeSlots
+        && classDeclaration.getAttributeDeclarations().size() <= SlotAttribute.MAX_SLOTS
+        && !isGeneratorClass(classDeclaration);
+  }
+
+  private final boolean usesAttributeSlots(final AttributeSymbol attributeSymbol) {
+    return this.attributeSlotIndexes.containsKey(attributeSymbol);
+  }
+
+  // bit mask (as Java literal) of all slot attributes of the given kind
+  private final String getAttributeMask(final ClassDeclaration classDeclaration,
+      final AttributeModifierKind modifierKind) {
+    long mask = 0L;
+
+    for (final AttributeDeclaration attributeDeclaration
+        : classDeclaration.getAttributeDeclarations()) {
+      if (attributeDeclaration.getModifier().getModifierKind() == modifierKind) {
+        mask |= 1L << this.attributeSlotIndexes.get(attributeDeclaration.getSymbol());
+      }
+    }
+
+    return String.format("0x%xL", mask);
+  }
+
+  private final String getAttributeValue(final String nodeAccess,
+      final AttributeSymbol attributeSymbol) {
+    if (!usesAttributeSlots(attributeSymbol)) {
+      return String.format("%s.%s", nodeAccess, this.attributeNames.get(attributeSymbol));
+    }
+
+    final String typeName = attributeSymbol.getTypeName();
+    final String boxedTypeName = getBoxedTypeName(typeName);
+    final String slotAccess = getAttributeTarget(nodeAccess, attributeSymbol);
+
+    if (boxedTypeName == null) {
+      return String.format("((%s) %s)", typeName, slotAccess);
+    } else {
+      // unbox explicitly (e.g., '==' should not compare the boxed values by reference)
+      return String.format("((%s) %s).%sValue()", boxedTypeName, slotAccess, typeName);
+    }
+  }
+
+  private final String getAttributeTarget(final String nodeAccess,
+      final AttributeSymbol attributeSymbol) {
+    if (usesAttributeSlots(attributeSymbol)) {
+      return String.format("%s.attributeValues[%d]",
+          nodeAccess, this.attributeSlotIndexes.get(attributeSymbol));
+    } else {
+      return String.format("%s.%s", nodeAccess, this.attributeNames.get(attributeSymbol));
+    }
+  }
+
+  // cast that is applied to the computed value before it is assigned to the attribute
+  private final String getAttributeCast(final AttributeSymbol attributeSymbol) {
+    final String typeName = attributeSymbol.getTypeName();
+
+    if (usesAttributeSlots(attributeSymbol)) {
+      final String boxedTypeName = getBoxedTypeName(typeName);
+
+      if (boxedTypeName != null) {
+        return String.format("(%s) (%s) ", boxedTypeName, typeName);
+      }
+    }
+
+    return String.format("(%s) ", typeName);
+  }
+
+  private final String getAttributeAvailable(final String nodeAccess,
+      final AttributeSymbol attributeSymbol) {
+    if (usesAttributeSlots(attributeSymbol)) {
+      return String.format("((%s.availableAttributes & 0x%xL) != 0L)",
+          nodeAccess, 1L << this.attributeSlotIndexes.get(attributeSymbol));
+    } else {
+      assert (this.attributeAvailableNames.containsKey(attributeSymbol));
+      return String.format("%s.%s", nodeAccess, this.attributeAvailableNames.get(attributeSymbol));
+    }
+  }
+
+  private final String getSetAttributeAvailable(final String nodeAccess,
+      final AttributeSymbol attributeSymbol) {
+    if (usesAttributeSlots(attributeSymbol)) {
+      return String.format("%s.availableAttributes |= 0x%xL",
+          nodeAccess, 1L << this.attributeSlotIndexes.get(attributeSymbol));
+    } else {
+      assert (this.attributeAvailableNames.containsKey(attributeSymbol));
+      return String.format("%s.%s = true",
+          nodeAccess, this.attributeAvailableNames.get(attributeSymbol));
+    }
+  }
+
+  // returns null for non-primitive types
+  private static final String getBoxedTypeName(final String typeName) {
+    switch (typeName) {
+      case "boolean": return "Boolean";
+      case "byte": return "Byte";
+      case "char": return "Character";
+      case "short": return "Short";
+      case "int": return "Integer";
+      case "long": return "Long";
+      case "float": return "Float";
+      case "double": return "Double";
+      default: return null;
+    }
+  }
+
   private final String getNodeClassName(final ChildSymbol childSymbol) {
     final ClassSymbol classSymbol = childSymbol.getType();
 
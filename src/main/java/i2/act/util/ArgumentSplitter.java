@@ -94,4 +94,13 @@ public final class ArgumentSplitter {
     return newArguments;
   }
 
+  public static final String[] prependArgument(final String[] previousArguments,
+      final String newArgument) {
+    final String[] newArguments = new String[previousArguments.length + 1];
+    newArguments[0] = newArgument;
+    System.arraycopy(previousArguments, 0, newArguments, 1, previousArguments.length);
+
+    return newArguments;
+  }
+
 }
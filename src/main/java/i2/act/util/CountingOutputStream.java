@@ -0,0 +1,33 @@
+package i2.act.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// counts the bytes that are written to the underlying stream
+public final class CountingOutputStream extends FilterOutputStream {
+
+  private long count;
+
+  public CountingOutputStream(final OutputStream outputStream) {
+    super(outputStream);
+  }
+
+  public final long getCount() {
+    return this.count;
+  }
+
+  @Override
+  public final void write(final int value) throws IOException {
+    this.out.write(value);
+    ++this.count;
+  }
+
+  @Override
+  public final void write(final byte[] bytes, final int offset, final int length)
+      throws IOException {
+    this.out.write(bytes, offset, length);
+    this.count += length;
+  }
+
+}
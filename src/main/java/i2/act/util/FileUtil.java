@@ -8,8 +8,10 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 public final class FileUtil {
 
@@ -113,6 +115,26 @@ public final class FileUtil {
     FileUtil.closeWriter(writer);
   }
 
+  // writes the string to a temporary file that then replaces the given file, i.e., readers of the
+  // file never see a partially written content
+  public static final void writeToFileAtomically(final String string, final String fileName) {
+    final File file = new File(fileName).getAbsoluteFile();
+    final File temporaryFile = new File(file.getParentFile(), "." + file.getName() + ".tmp");
+
+    writeToFile(string, temporaryFile.getPath());
+
+    try {
+      try {
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (final AtomicMoveNotSupportedException exception) {
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (final IOException exception) {
+      throw new RPGException(String.format("unable to write file '%s'", fileName), exception);
+    }
+  }
+
   public static final BufferedReader openFileForReading(final String fileName) {
     final File file = new File(fileName);
     return openFileForReading(file);
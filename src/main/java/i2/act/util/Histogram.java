@@ -0,0 +1,106 @@
+package i2.act.util;
+
+// histogram of non-negative values with logarithmic buckets that are subdivided linearly (similar
+// to an HDR histogram), i.e., the memory is constant and the relative error of the percentiles is
+// below 1/16 for any value range; count, min., max. and mean are exact
+//
+// all methods are synchronized, i.e., a histogram may be shared by several threads
+public final class Histogram {
+
+  // values below 2^SUB_BUCKET_BITS have their own bucket; larger values are assigned to one of
+  // 2^(SUB_BUCKET_BITS - 1) buckets per power of two
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+  private static final int NUMBER_OF_BUCKETS =
+      SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+  private final long[] counts;
+
+  private long count;
+  private long sum;
+  private long min;
+  private long max;
+
+  public Histogram() {
+    this.counts = new long[NUMBER_OF_BUCKETS];
+    this.min = Long.MAX_VALUE;
+    this.max = 0;
+  }
+
+  private static final int getBucketIndex(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    final int shift = exponent - SUB_BUCKET_BITS + 1;
+
+    return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS
+        + (int) (value >> shift) - HALF_SUB_BUCKETS;
+  }
+
+  // returns the largest value that is assigned to the bucket with the given index
+  private static final long getBucketUpperBound(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+
+    final int exponent = SUB_BUCKET_BITS + (index - SUB_BUCKETS) / HALF_SUB_BUCKETS;
+    final int shift = exponent - SUB_BUCKET_BITS + 1;
+    final long mantissa = HALF_SUB_BUCKETS + (index - SUB_BUCKETS) % HALF_SUB_BUCKETS;
+
+    return ((mantissa + 1) << shift) - 1;
+  }
+
+  // negative values are recorded as 0
+  public final synchronized void record(final long value) {
+    final long recordedValue = Math.max(value, 0);
+
+    ++this.counts[getBucketIndex(recordedValue)];
+
+    ++this.count;
+    this.sum += recordedValue;
+    this.min = Math.min(this.min, recordedValue);
+    this.max = Math.max(this.max, recordedValue);
+  }
+
+  public final synchronized long getCount() {
+    return this.count;
+  }
+
+  public final synchronized long getMin() {
+    return (this.count == 0) ? 0 : this.min;
+  }
+
+  public final synchronized long getMax() {
+    return this.max;
+  }
+
+  public final synchronized double getMean() {
+    return (this.count == 0) ? 0. : ((double) this.sum / this.count);
+  }
+
+  // returns an upper bound of the value at the given percentile (from the interval [0, 100]), which
+  // is off by less than 1/16 of the actual value
+  public final synchronized long getPercentile(final double percentile) {
+    if (this.count == 0) {
+      return 0;
+    }
+
+    final long rank = Math.max(1, (long) Math.ceil((percentile / 100.) * this.count));
+
+    long cumulativeCount = 0;
+    for (int index = 0; index < NUMBER_OF_BUCKETS; ++index) {
+      cumulativeCount += this.counts[index];
+
+      if (cumulativeCount >= rank) {
+        return Math.min(getBucketUpperBound(index), this.max);
+      }
+    }
+
+    return this.max;
+  }
+
+}
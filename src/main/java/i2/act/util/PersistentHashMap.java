@@ -0,0 +1,343 @@
+package i2.act.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// immutable hash map (hash array mapped trie) -- put() returns a new map that shares all unchanged
+// sub-tries with the original one; iteration order is unspecified
+public final class PersistentHashMap<K, V> {
+
+  private static final int BITS_PER_LEVEL = 5;
+  private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+  private abstract static class TrieNode {
+
+    public abstract Leaf find(final int hash, final Object key, final int shift);
+
+    public abstract TrieNode put(final Leaf leaf, final int shift);
+
+    public abstract void collectLeaves(final List<Leaf> leaves);
+
+  }
+
+  private static final class Leaf extends TrieNode {
+
+    public final int hash;
+    public final Object key;
+    public final Object value;
+
+    public Leaf(final int hash, final Object key, final Object value) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public final Leaf find(final int hash, final Object key, final int shift) {
+      if (this.hash == hash && Objects.equals(this.key, key)) {
+        return this;
+      }
+      return null;
+    }
+
+    @Override
+    public final TrieNode put(final Leaf leaf, final int shift) {
+      if (this.hash == leaf.hash) {
+        if (Objects.equals(this.key, leaf.key)) {
+          return (this.value == leaf.value) ? this : leaf;
+        }
+        return new Collision(this.hash, new Leaf[] { this, leaf });
+      }
+      return Branch.create(this, this.hash, leaf, leaf.hash, shift);
+    }
+
+    @Override
+    public final void collectLeaves(final List<Leaf> leaves) {
+      leaves.add(this);
+    }
+
+  }
+
+  // leaves with different keys but the same hash
+  private static final class Collision extends TrieNode {
+
+    public final int hash;
+    public final Leaf[] leaves;
+
+    public Collision(final int hash, final Leaf[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    @Override
+    public final Leaf find(final int hash, final Object key, final int shift) {
+      if (this.hash != hash) {
+        return null;
+      }
+
+      for (final Leaf leaf : this.leaves) {
+        if (Objects.equals(leaf.key, key)) {
+          return leaf;
+        }
+      }
+
+      return null;
+    }
+
+    @Override
+    public final TrieNode put(final Leaf leaf, final int shift) {
+      if (this.hash != leaf.hash) {
+        return Branch.create(this, this.hash, leaf, leaf.hash, shift);
+      }
+
+      final int numberOfLeaves = this.leaves.length;
+      for (int index = 0; index < numberOfLeaves; ++index) {
+        if (Objects.equals(this.leaves[index].key, leaf.key)) {
+          final Leaf[] leaves = this.leaves.clone();
+          leaves[index] = leaf;
+          return new Collision(this.hash, leaves);
+        }
+      }
+
+      final Leaf[] leaves = Arrays.copyOf(this.leaves, numberOfLeaves + 1);
+      leaves[numberOfLeaves] = leaf;
+      return new Collision(this.hash, leaves);
+    }
+
+    @Override
+    public final void collectLeaves(final List<Leaf> leaves) {
+      leaves.addAll(Arrays.asList(this.leaves));
+    }
+
+  }
+
+  private static final class Branch extends TrieNode {
+
+    public final int bitmap;
+    public final TrieNode[] children;
+
+    public Branch(final int bitmap, final TrieNode[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    public static final TrieNode create(final TrieNode first, final int firstHash,
+        final TrieNode second, final int secondHash, final int shift) {
+      final int firstIndex = (firstHash >>> shift) & LEVEL_MASK;
+      final int secondIndex = (secondHash >>> shift) & LEVEL_MASK;
+
+      if (firstIndex == secondIndex) {
+        final TrieNode child =
+            create(first, firstHash, second, secondHash, shift + BITS_PER_LEVEL);
+        return new Branch(1 << firstIndex, new TrieNode[] { child });
+      }
+
+      final int bitmap = (1 << firstIndex) | (1 << secondIndex);
+
+      if (firstIndex < secondIndex) {
+        return new Branch(bitmap, new TrieNode[] { first, second });
+      } else {
+        return new Branch(bitmap, new TrieNode[] { second, first });
+      }
+    }
+
+    @Override
+    public final Leaf find(final int hash, final Object key, final int shift) {
+      final int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+
+      if ((this.bitmap & bit) == 0) {
+        return null;
+      }
+
+      final TrieNode child = this.children[Integer.bitCount(this.bitmap & (bit - 1))];
+      return child.find(hash, key, shift + BITS_PER_LEVEL);
+    }
+
+    @Override
+    public final TrieNode put(final Leaf leaf, final int shift) {
+      final int bit = 1 << ((leaf.hash >>> shift) & LEVEL_MASK);
+      final int position = Integer.bitCount(this.bitmap & (bit - 1));
+
+      if ((this.bitmap & bit) == 0) {
+        final int numberOfChildren = this.children.length;
+
+        final TrieNode[] children = new TrieNode[numberOfChildren + 1];
+        System.arraycopy(this.children, 0, children, 0, position);
+        children[position] = leaf;
+        System.arraycopy(this.children, position, children, position + 1,
+            numberOfChildren - position);
+
+        return new Branch(this.bitmap | bit, children);
+      }
+
+      final TrieNode child = this.children[position];
+      final TrieNode newChild = child.put(leaf, shift + BITS_PER_LEVEL);
+
+      if (newChild == child) {
+        return this;
+      }
+
+      final TrieNode[] children = this.children.clone();
+      children[position] = newChild;
+
+      return new Branch(this.bitmap, children);
+    }
+
+    @Override
+    public final void collectLeaves(final List<Leaf> leaves) {
+      for (final TrieNode child : this.children) {
+        child.collectLeaves(leaves);
+      }
+    }
+
+  }
+
+  private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+  @SuppressWarnings("unchecked")
+  public static final <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  private static final int hash(final Object key) {
+    final int hashCode = Objects.hashCode(key);
+    return hashCode ^ (hashCode >>> 16);
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  private final TrieNode root;
+  private final int size;
+
+  private PersistentHashMap(final TrieNode root, final int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  public final int size() {
+    return this.size;
+  }
+
+  public final boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public final boolean containsKey(final Object key) {
+    return find(key) != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public final V get(final Object key) {
+    final Leaf leaf = find(key);
+
+    if (leaf == null) {
+      return null;
+    }
+
+    return (V) leaf.value;
+  }
+
+  private final Leaf find(final Object key) {
+    if (this.root == null) {
+      return null;
+    }
+
+    return this.root.find(hash(key), key, 0);
+  }
+
+  public final PersistentHashMap<K, V> put(final K key, final V value) {
+    final Leaf leaf = new Leaf(hash(key), key, value);
+
+    if (this.root == null) {
+      return new PersistentHashMap<>(leaf, 1);
+    }
+
+    final int size = containsKey(key) ? this.size : (this.size + 1);
+    final TrieNode root = this.root.put(leaf, 0);
+
+    if (root == this.root) {
+      return this;
+    }
+
+    return new PersistentHashMap<>(root, size);
+  }
+
+  private final List<Leaf> leaves() {
+    final List<Leaf> leaves = new ArrayList<>(this.size);
+
+    if (this.root != null) {
+      this.root.collectLeaves(leaves);
+    }
+
+    return leaves;
+  }
+
+  @Override
+  public final boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+
+    if (!(other instanceof PersistentHashMap)) {
+      return false;
+    }
+
+    final PersistentHashMap<?, ?> otherMap = (PersistentHashMap<?, ?>) other;
+
+    if (this.size != otherMap.size) {
+      return false;
+    }
+
+    if (this.root == otherMap.root) {
+      return true;
+    }
+
+    for (final Leaf leaf : leaves()) {
+      final Leaf otherLeaf = otherMap.find(leaf.key);
+
+      if (otherLeaf == null || !Objects.equals(leaf.value, otherLeaf.value)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public final int hashCode() {
+    // same as java.util.Map.hashCode()
+    int hashCode = 0;
+
+    for (final Leaf leaf : leaves()) {
+      hashCode += Objects.hashCode(leaf.key) ^ Objects.hashCode(leaf.value);
+    }
+
+    return hashCode;
+  }
+
+  @Override
+  public final String toString() {
+    final StringBuilder builder = new StringBuilder();
+
+    builder.append("{");
+
+    boolean first = true;
+    for (final Leaf leaf : leaves()) {
+      if (!first) {
+        builder.append(", ");
+      }
+      first = false;
+
+      builder.append(leaf.key);
+      builder.append("=");
+      builder.append(leaf.value);
+    }
+
+    builder.append("}");
+
+    return builder.toString();
+  }
+
+}
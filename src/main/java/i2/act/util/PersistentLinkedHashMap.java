@@ -0,0 +1,177 @@
+package i2.act.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// immutable counterpart of java.util.LinkedHashMap: put() returns a new map and shares the
+// existing entries with the original one; iteration follows the insertion order of the keys
+// (re-inserting a key updates its value, but does not change its position)
+public final class PersistentLinkedHashMap<K, V> {
+
+  private static final class Insertion<K, V> {
+
+    public final K key;
+    public final V value;
+
+    public final Insertion<K, V> previous;
+
+    public Insertion(final K key, final V value, final Insertion<K, V> previous) {
+      this.key = key;
+      this.value = value;
+      this.previous = previous;
+    }
+
+  }
+
+  private static final PersistentLinkedHashMap<?, ?> EMPTY =
+      new PersistentLinkedHashMap<>(PersistentHashMap.empty(), null, 0);
+
+  @SuppressWarnings("unchecked")
+  public static final <K, V> PersistentLinkedHashMap<K, V> empty() {
+    return (PersistentLinkedHashMap<K, V>) EMPTY;
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
+  private final PersistentHashMap<K, V> map;
+
+  // most recent insertion first
+  private final Insertion<K, V> lastInsertion;
+  private final int numberOfInsertions;
+
+  private PersistentLinkedHashMap(final PersistentHashMap<K, V> map,
+      final Insertion<K, V> lastInsertion, final int numberOfInsertions) {
+    this.map = map;
+    this.lastInsertion = lastInsertion;
+    this.numberOfInsertions = numberOfInsertions;
+  }
+
+  public final int size() {
+    return this.map.size();
+  }
+
+  public final boolean isEmpty() {
+    return this.map.isEmpty();
+  }
+
+  public final boolean containsKey(final Object key) {
+    return this.map.containsKey(key);
+  }
+
+  public final V get(final Object key) {
+    return this.map.get(key);
+  }
+
+  public final PersistentLinkedHashMap<K, V> put(final K key, final V value) {
+    final PersistentHashMap<K, V> map = this.map.put(key, value);
+
+    if (map == this.map) {
+      return this;
+    }
+
+    return new PersistentLinkedHashMap<>(map,
+        new Insertion<>(key, value, this.lastInsertion), this.numberOfInsertions + 1);
+  }
+
+  // returns all insertions in their original order (including insertions of keys that have been
+  // re-inserted later on)
+  private final List<Insertion<K, V>> insertions() {
+    final List<Insertion<K, V>> insertions = new ArrayList<>(this.numberOfInsertions);
+
+    for (Insertion<K, V> insertion = this.lastInsertion; insertion != null;
+        insertion = insertion.previous) {
+      insertions.add(insertion);
+    }
+
+    Collections.reverse(insertions);
+
+    return insertions;
+  }
+
+  public final List<K> keys() {
+    final List<K> keys = new ArrayList<>(size());
+
+    if (this.numberOfInsertions == size()) {
+      // no key has been re-inserted
+      for (final Insertion<K, V> insertion : insertions()) {
+        keys.add(insertion.key);
+      }
+    } else {
+      keys.addAll(toLinkedHashMap().keySet());
+    }
+
+    return keys;
+  }
+
+  public final List<V> values() {
+    final List<V> values = new ArrayList<>(size());
+
+    if (this.numberOfInsertions == size()) {
+      // no key has been re-inserted
+      for (final Insertion<K, V> insertion : insertions()) {
+        values.add(insertion.value);
+      }
+    } else {
+      values.addAll(toLinkedHashMap().values());
+    }
+
+    return values;
+  }
+
+  public final LinkedHashMap<K, V> toLinkedHashMap() {
+    final LinkedHashMap<K, V> linkedHashMap = new LinkedHashMap<>();
+
+    for (final Insertion<K, V> insertion : insertions()) {
+      linkedHashMap.put(insertion.key, insertion.value);
+    }
+
+    return linkedHashMap;
+  }
+
+  // same semantics as java.util.Map.equals(), i.e., the insertion order is irrelevant
+  @Override
+  public final boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+
+    if (!(other instanceof PersistentLinkedHashMap)) {
+      return false;
+    }
+
+    final PersistentLinkedHashMap<?, ?> otherMap = (PersistentLinkedHashMap<?, ?>) other;
+    return this.map.equals(otherMap.map);
+  }
+
+  @Override
+  public final int hashCode() {
+    return this.map.hashCode();
+  }
+
+  @Override
+  public final String toString() {
+    final StringBuilder builder = new StringBuilder();
+
+    builder.append("{");
+
+    boolean first = true;
+    for (final Map.Entry<K, V> entry : toLinkedHashMap().entrySet()) {
+      if (!first) {
+        builder.append(", ");
+      }
+      first = false;
+
+      builder.append(entry.getKey());
+      builder.append("=");
+      builder.append(entry.getValue());
+    }
+
+    builder.append("}");
+
+    return builder.toString();
+  }
+
+}
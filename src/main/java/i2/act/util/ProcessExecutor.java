@@ -2,20 +2,59 @@ package i2.act.util;
 
 import i2.act.errors.RPGException;
 
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
 public final class ProcessExecutor {
 
   public static final int EXIT_VALUE_SUCCESS = 0;
 
+  // returned if the process did not terminate within the given timeout (actual exit values of
+  // processes are never negative)
+  public static final int EXIT_VALUE_TIMEOUT = -1;
+
+  public static final long NO_TIMEOUT = -1;
+
+  // if available, the commands are started in their own process group (via 'setsid') so that a
+  // process that exceeds its timeout can be killed together with all of its child processes
+  private static final String SETSID = findExecutable("/usr/bin/setsid", "/bin/setsid");
+  private static final String KILL = findExecutable("/usr/bin/kill", "/bin/kill");
+
   public static final int execute(final String... command) {
-    final ProcessBuilder processBuilder = new ProcessBuilder(command);
+    return execute(NO_TIMEOUT, command);
+  }
+
+  public static final int execute(final long timeout, final String... command) {
+    final boolean ownProcessGroup = (timeout > 0 && supportsProcessGroups());
+
+    final ProcessBuilder processBuilder = createProcessBuilder(ownProcessGroup, command);
     processBuilder.inheritIO();
 
+    final Process process;
     try {
-      final Process process = processBuilder.start();
-      process.waitFor();
-      return process.exitValue();
+      process = processBuilder.start();
     } catch (final Throwable throwable) {
-      throw new RPGException("unable to execute command");
+      throw new RPGException("unable to execute command", throwable);
+    }
+
+    try {
+      if (timeout > 0) {
+        if (!process.waitFor(timeout, TimeUnit.MILLISECONDS)) {
+          killProcessTree(process, ownProcessGroup);
+          return EXIT_VALUE_TIMEOUT;
+        }
+      } else {
+        process.waitFor();
+      }
+
+      return process.exitValue();
+    } catch (final InterruptedException exception) {
+      killProcessTree(process, ownProcessGroup);
+      Thread.currentThread().interrupt();
+
+      throw new RPGException("interrupted while executing command", exception);
     }
   }
 
@@ -23,4 +62,82 @@ public final class ProcessExecutor {
     return execute(command) == EXIT_VALUE_SUCCESS;
   }
 
+  // a timeout counts as a failed check
+  public static final boolean executeAndCheck(final long timeout, final String... command) {
+    return execute(timeout, command) == EXIT_VALUE_SUCCESS;
+  }
+
+  public static final boolean supportsProcessGroups() {
+    return SETSID != null && KILL != null;
+  }
+
+  // the process builder starts the command in its own process group if 'ownProcessGroup' is set
+  // (which requires 'supportsProcessGroups()')
+  public static final ProcessBuilder createProcessBuilder(final boolean ownProcessGroup,
+      final String... command) {
+    if (ownProcessGroup) {
+      assert (supportsProcessGroups());
+      return new ProcessBuilder(ArgumentSplitter.prependArgument(command, SETSID));
+    } else {
+      return new ProcessBuilder(command);
+    }
+  }
+
+  // 'ownProcessGroup' has to match the setting that was used to start the process (otherwise, the
+  // process group of the JVM itself would be killed)
+  public static final void killProcessTree(final Process process,
+      final boolean ownProcessGroup) {
+    if (ownProcessGroup) {
+      final long pid = getPid(process);
+
+      if (pid > 0) {
+        // a negative pid denotes the whole process group
+        try {
+          final Process killProcess =
+              new ProcessBuilder(KILL, "-KILL", "--", String.valueOf(-pid)).start();
+          killProcess.waitFor();
+        } catch (final Throwable throwable) {
+          // fall back to killing the direct child process only
+        }
+      }
+    }
+
+    process.destroyForcibly();
+
+    try {
+      process.waitFor();
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // 'Process.pid()' is only available since Java 9, on Java 8 the pid is stored in a private field
+  // of the (Unix-specific) implementation class
+  private static final long getPid(final Process process) {
+    try {
+      final Method pidMethod = Process.class.getMethod("pid");
+      return (Long) pidMethod.invoke(process);
+    } catch (final Throwable throwable) {
+      // not available
+    }
+
+    try {
+      final Field pidField = process.getClass().getDeclaredField("pid");
+      pidField.setAccessible(true);
+      return pidField.getInt(process);
+    } catch (final Throwable throwable) {
+      return -1;
+    }
+  }
+
+  private static final String findExecutable(final String... candidates) {
+    for (final String candidate : candidates) {
+      if (new File(candidate).canExecute()) {
+        return candidate;
+      }
+    }
+
+    return null;
+  }
+
 }
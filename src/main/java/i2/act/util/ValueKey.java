@@ -0,0 +1,70 @@
+package i2.act.util;
+
+// key for caches that are indexed by (attribute) values
+//
+// the values are compared by identity (their 'equals()' may be expensive or may not even be
+// supported), except for values of "primitive" types, which are often boxed anew
+public final class ValueKey {
+
+  private final Object[] values;
+
+  private final int hashCode;
+
+  public ValueKey(final Object... values) {
+    this.values = values;
+
+    int hashCode = 1;
+    for (final Object value : values) {
+      hashCode = 31 * hashCode + valueHashCode(value);
+    }
+    this.hashCode = hashCode;
+  }
+
+  @Override
+  public final boolean equals(final Object other) {
+    if (!(other instanceof ValueKey)) {
+      return false;
+    }
+
+    final ValueKey otherKey = (ValueKey) other;
+
+    if (this.hashCode != otherKey.hashCode || this.values.length != otherKey.values.length) {
+      return false;
+    }
+
+    for (int index = 0; index < this.values.length; ++index) {
+      if (!valuesEqual(this.values[index], otherKey.values[index])) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public final int hashCode() {
+    return this.hashCode;
+  }
+
+  private static final boolean isValueType(final Object value) {
+    return value instanceof String || value instanceof Number || value instanceof Boolean
+        || value instanceof Character || value instanceof Enum;
+  }
+
+  private static final boolean valuesEqual(final Object first, final Object second) {
+    if (first == second) {
+      return true;
+    }
+
+    return first != null && isValueType(first) && first.equals(second);
+  }
+
+  private static final int valueHashCode(final Object value) {
+    if (value != null && isValueType(value)) {
+      return value.hashCode();
+    }
+
+    return System.identityHashCode(value);
+  }
+
+}
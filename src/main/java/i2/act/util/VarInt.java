@@ -0,0 +1,80 @@
+package i2.act.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// variable-length encoding of integers (LEB128): seven bits per byte, the highest bit is set if
+// more bytes follow; i.e., values below 128 take a single byte
+//
+// signed values are zigzag-encoded first (0, -1, 1, -2, ... -> 0, 1, 2, 3, ...), such that small
+// negative values are short as well
+public final class VarInt {
+
+  private VarInt() {
+    // intentionally left blank
+  }
+
+  public static final void writeUnsigned(final long value, final OutputStream outputStream)
+      throws IOException {
+    long remaining = value;
+
+    while ((remaining & ~0x7FL) != 0) {
+      outputStream.write((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+
+    outputStream.write((int) remaining);
+  }
+
+  public static final void writeSigned(final long value, final OutputStream outputStream)
+      throws IOException {
+    writeUnsigned(encodeZigZag(value), outputStream);
+  }
+
+  public static final long readUnsigned(final InputStream inputStream) throws IOException {
+    return readUnsigned(inputStream.read(), inputStream);
+  }
+
+  // 'firstByte' is the first byte of the value that has already been read from the stream (e.g.,
+  // to check for the end of the stream)
+  public static final long readUnsigned(final int firstByte, final InputStream inputStream)
+      throws IOException {
+    long value = 0;
+    int shift = 0;
+    int nextByte = firstByte;
+
+    while (true) {
+      if (nextByte == -1) {
+        throw new EOFException("unexpected end of variable-length integer");
+      }
+
+      if (shift > 63) {
+        throw new IOException("variable-length integer is too long");
+      }
+
+      value |= (long) (nextByte & 0x7F) << shift;
+
+      if ((nextByte & 0x80) == 0) {
+        return value;
+      }
+
+      shift += 7;
+      nextByte = inputStream.read();
+    }
+  }
+
+  public static final long readSigned(final InputStream inputStream) throws IOException {
+    return decodeZigZag(readUnsigned(inputStream));
+  }
+
+  public static final long encodeZigZag(final long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  public static final long decodeZigZag(final long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+}
@@ -0,0 +1,143 @@
+package i2.act.fuzzer;
+
+import i2.act.tests.util.TestSpecifications;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class GeneratorProductionCacheTest {
+
+  private static Specification specification;
+
+  @BeforeClass
+  public static final void loadSpecification() {
+    specification = TestSpecifications.loadSpecification(TestSpecifications.PAPER_SPEC_GEN);
+  }
+
+  @Test
+  public final void testGeneratorValues() {
+    final List<GeneratorNode> generatorNodes = collectGeneratorNodes(0);
+    final GeneratorProductionCache cache = new GeneratorProductionCache();
+
+    for (final GeneratorNode generatorNode : generatorNodes) {
+      final List<Production> productions = cache.getProductions(generatorNode);
+      final List<?> generatorValues = generatorNode.generatorValues(generatorNode);
+
+      assertEquals(generatorValues.size(), productions.size());
+      for (int index = 0; index < productions.size(); ++index) {
+        assertSame(generatorValues.get(index), productions.get(index).generatorValue);
+      }
+    }
+  }
+
+  @Test
+  public final void testHits() {
+    final List<GeneratorNode> generatorNodes = collectGeneratorNodes(0);
+    final GeneratorProductionCache cache = new GeneratorProductionCache();
+
+    final GeneratorNode generatorNode = generatorNodes.get(0);
+    final List<Production> productions = cache.getProductions(generatorNode);
+
+    assertEquals(0, cache.getHits());
+    assertEquals(1, cache.getMisses());
+
+    // e.g., after backtracking over the same node
+    assertSame(productions, cache.getProductions(generatorNode));
+
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+
+    // nodes with the same (i.e., identical) inherited attribute values share their productions
+    for (final GeneratorNode otherNode : generatorNodes) {
+      final boolean sameScope = getScope(otherNode) == getScope(generatorNode);
+      assertEquals(sameScope, cache.getProductions(otherNode) == productions);
+    }
+
+    assertEquals(generatorNodes.size() + 2, cache.getHits() + cache.getMisses());
+  }
+
+  @Test
+  public final void testEviction() {
+    final List<GeneratorNode> generatorNodes = collectGeneratorNodes(0);
+    final GeneratorProductionCache cache = new GeneratorProductionCache(1);
+
+    final GeneratorNode firstNode = generatorNodes.get(0);
+
+    GeneratorNode otherNode = null;
+    for (final GeneratorNode generatorNode : generatorNodes) {
+      if (getScope(generatorNode) != getScope(firstNode)) {
+        otherNode = generatorNode;
+        break;
+      }
+    }
+
+    assertTrue(otherNode != null);
+
+    final List<Production> productions = cache.getProductions(firstNode);
+    cache.getProductions(otherNode);
+
+    // only the productions of the other node are cached
+    assertNotSame(productions, cache.getProductions(firstNode));
+
+    assertEquals(0, cache.getHits());
+    assertEquals(3, cache.getMisses());
+  }
+
+  @Test
+  public final void testUnmodifiableProductions() {
+    final List<GeneratorNode> generatorNodes = collectGeneratorNodes(0);
+    final GeneratorProductionCache cache = new GeneratorProductionCache();
+
+    final List<Production> productions = cache.getProductions(generatorNodes.get(0));
+
+    try {
+      productions.clear();
+      fail("cached productions can be modified");
+    } catch (final UnsupportedOperationException exception) {
+      // expected
+    }
+  }
+
+  // the generator nodes of a program (with their inherited attributes)
+  private static final List<GeneratorNode> collectGeneratorNodes(final long seed) {
+    final Node program = TestSpecifications.generateProgram(specification, seed);
+
+    final List<GeneratorNode> generatorNodes = new ArrayList<>();
+    collectGeneratorNodes(program, generatorNodes);
+
+    assertTrue(generatorNodes.size() > 1);
+
+    return generatorNodes;
+  }
+
+  private static final void collectGeneratorNodes(final Node node,
+      final List<GeneratorNode> generatorNodes) {
+    if (node instanceof GeneratorNode) {
+      assertTrue(node.allInheritedAttributesEvaluated());
+      generatorNodes.add((GeneratorNode) node);
+    }
+
+    for (final Node child : node.getChildren()) {
+      collectGeneratorNodes(child, generatorNodes);
+    }
+  }
+
+  // the symbol table (i.e., the only inherited attribute) of the generator node
+  private static final Object getScope(final GeneratorNode generatorNode) {
+    final List<Attribute> inheritedAttributes =
+        generatorNode.getNodeClass().getInheritedAttributes();
+    assertEquals(1, inheritedAttributes.size());
+
+    return inheritedAttributes.get(0).getValue(generatorNode);
+  }
+
+}
@@ -0,0 +1,180 @@
+package i2.act.fuzzer;
+
+import i2.act.tests.util.TestSpecifications;
+import i2.act.util.Pair;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// checks that the frontier yields the same nodes (with the same fail patterns) as a depth-first
+// search from the root node that is restarted after each resolved node
+public final class ResolutionFrontierTest {
+
+  private static final int COUNT = 20;
+
+  private static Specification specification;
+
+  @BeforeClass
+  public static final void loadSpecification() {
+    specification = TestSpecifications.loadSpecification(TestSpecifications.PAPER_SPEC);
+  }
+
+  @Test
+  public final void testSameNodesAsSearchFromRoot() {
+    int resolvedNodes = 0;
+
+    // number of times the first resolvable node was not the first node of the frontier
+    int skippedNodes = 0;
+
+    for (int seed = 0; seed < COUNT; ++seed) {
+      final Node program = TestSpecifications.generateProgram(specification, seed);
+
+      final List<Node> guardedNodes = new ArrayList<>();
+      collectGuardedNodes(program, program, guardedNodes);
+
+      // fail pattern of the complete tree (only matches where no sibling has been removed)
+      final FailPattern completeTree = FailPattern.fromFailingRoot(program, true);
+
+      // remove every other guard/unit node
+      final Map<Node, Production> removedNodes = new IdentityHashMap<>();
+      for (int index = 0; index < guardedNodes.size(); index += 2) {
+        final Node guardedNode = guardedNodes.get(index);
+
+        removedNodes.put(guardedNode, guardedNode.getProduction());
+        guardedNode.deconstruct();
+      }
+
+      // fail pattern of the incomplete tree (with wildcards at the removed nodes)
+      program.addFailPattern(completeTree);
+      program.addFailPattern(FailPattern.fromFailingRoot(program, true));
+
+      program.clearAttributeValues(true);
+      program.evaluateAttributesLoop();
+
+      // some nodes can not be resolved yet (i.e., the following nodes have to be checked)
+      final List<Node> blockedNodes = new ArrayList<>();
+      for (int index = 0; index < guardedNodes.size(); index += 6) {
+        final Node blockedNode = guardedNodes.get(index);
+        blockedNodes.add(blockedNode);
+
+        for (final Attribute attribute : blockedNode.getNodeClass().getInheritedAttributes()) {
+          attribute.clearValue(blockedNode);
+        }
+      }
+
+      final ResolutionFrontier frontier = new ResolutionFrontier();
+      frontier.collect(program);
+
+      while (true) {
+        final Pair<Node, FailPatternIndex> expected = findFirstResolvable(program);
+        final int index = frontier.findFirstResolvable();
+
+        if (expected == null) {
+          assertEquals(-1, index);
+          break;
+        }
+
+        assertTrue(index >= 0);
+        assertSame(expected.getFirst(), frontier.getNode(index));
+        assertEquals(expected.getSecond().asList(), frontier.getFailPatterns(index).asList());
+
+        if (index > 0) {
+          ++skippedNodes;
+        }
+
+        // resolve the node again
+        final Node node = frontier.getNode(index);
+        node.applyProduction(removedNodes.get(node), TestSpecifications.MAX_DEPTH);
+        frontier.remove(index);
+        ++resolvedNodes;
+      }
+
+      for (final Node removedNode : removedNodes.keySet()) {
+        assertEquals(!blockedNodes.contains(removedNode), removedNode.isResolved());
+      }
+    }
+
+    assertTrue(resolvedNodes > 0);
+    assertTrue(skippedNodes > 0);
+  }
+
+  @Test
+  public final void testClear() {
+    final Node program = TestSpecifications.generateProgram(specification, 0);
+
+    final List<Node> guardedNodes = new ArrayList<>();
+    collectGuardedNodes(program, program, guardedNodes);
+
+    final Node guardedNode = guardedNodes.get(0);
+    guardedNode.deconstructButKeepInheritedAttributeValues();
+
+    final ResolutionFrontier frontier = new ResolutionFrontier();
+
+    frontier.collect(program);
+    assertEquals(0, frontier.findFirstResolvable());
+    assertSame(guardedNode, frontier.getNode(0));
+
+    frontier.clear();
+    assertEquals(-1, frontier.findFirstResolvable());
+
+    // collecting again starts from scratch
+    frontier.collect(program);
+    frontier.collect(program);
+    assertEquals(0, frontier.findFirstResolvable());
+
+    frontier.remove(0);
+    assertEquals(-1, frontier.findFirstResolvable());
+  }
+
+  // the outermost guard/unit nodes below the root node (in depth-first order)
+  private static final void collectGuardedNodes(final Node node, final Node rootNode,
+      final List<Node> guardedNodes) {
+    if (node != rootNode && node.isGuardedOrUnit()) {
+      guardedNodes.add(node);
+      return;
+    }
+
+    for (final Node child : node.getChildren()) {
+      collectGuardedNodes(child, rootNode, guardedNodes);
+    }
+  }
+
+  // the search that has been replaced by the frontier
+  private static final Pair<Node, FailPatternIndex> findFirstResolvable(final Node rootNode) {
+    return findFirstResolvable(rootNode, rootNode.getFailPatterns(), rootNode);
+  }
+
+  private static final Pair<Node, FailPatternIndex> findFirstResolvable(final Node currentNode,
+      final FailPatternIndex failPatterns, final Node rootNode) {
+    if (currentNode != rootNode && currentNode.isGuardedOrUnit()) {
+      if (!currentNode.isResolved() && currentNode.allInheritedAttributesEvaluated()) {
+        return new Pair<>(currentNode, failPatterns);
+      }
+
+      return null;
+    }
+
+    final int numberOfChildren = currentNode.getNumberOfChildren();
+    for (int childIndex = 0; childIndex < numberOfChildren; ++childIndex) {
+      final Pair<Node, FailPatternIndex> candidate = findFirstResolvable(
+          currentNode.getChild(childIndex), failPatterns.filter(currentNode, childIndex),
+          rootNode);
+
+      if (candidate != null) {
+        return candidate;
+      }
+    }
+
+    return null;
+  }
+
+}
@@ -0,0 +1,174 @@
+package i2.act.fuzzer.main;
+
+import i2.act.fuzzer.Specification;
+import i2.act.fuzzer.SpecificationFactory;
+import i2.act.tests.util.TestSpecifications;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// checks the protocol of the daemon: each response is either a line 'ok' followed by chunks
+// ('<number of bytes>\n<bytes>', the last chunk is empty) or a line 'error <message>'
+public final class GeneratorDaemonTest {
+
+  private static final int COUNT = 5;
+
+  private static SpecificationFactory specificationFactory;
+  private static Specification specification;
+
+  @BeforeClass
+  public static final void loadSpecification() {
+    specificationFactory = TestSpecifications.createCompiler(TestSpecifications.PAPER_SPEC,
+        Collections.<String>emptySet()).loadFactory();
+    specification = specificationFactory.createSpecification();
+  }
+
+  private static final class CountingSpecificationFactory implements SpecificationFactory {
+
+    public final AtomicInteger numberOfSpecifications = new AtomicInteger(0);
+
+    @Override
+    public final Specification createSpecification(final long seed) {
+      this.numberOfSpecifications.incrementAndGet();
+      return specificationFactory.createSpecification(seed);
+    }
+
+  }
+
+  @Test
+  public final void testPrograms() throws IOException {
+    final CountingSpecificationFactory countingFactory = new CountingSpecificationFactory();
+    final GeneratorDaemon daemon = createDaemon(countingFactory);
+
+    final StringBuilder requests = new StringBuilder();
+    for (int seed = 0; seed < COUNT; ++seed) {
+      requests.append(String.format("--seed %d\n", seed));
+    }
+
+    final InputStream responses = serve(daemon, requests.toString());
+
+    for (int seed = 0; seed < COUNT; ++seed) {
+      final String expected =
+          TestSpecifications.generateProgram(specification, seed).printCode();
+
+      assertEquals("ok", readLine(responses));
+      assertEquals(expected, readChunks(responses));
+    }
+
+    assertEquals(-1, responses.read());
+
+    // all requests use the specification that has been created by the daemon
+    assertEquals(1, countingFactory.numberOfSpecifications.get());
+  }
+
+  @Test
+  public final void testAST() throws IOException {
+    final GeneratorDaemon daemon = createDaemon(specificationFactory);
+    final InputStream responses = serve(daemon, "--seed 7 --ast\n--seed 7 --ast --short\n");
+
+    assertEquals("ok", readLine(responses));
+    assertEquals(TestSpecifications.generateProgram(specification, 7).serialize(false),
+        readChunks(responses));
+
+    assertEquals("ok", readLine(responses));
+    assertEquals(TestSpecifications.generateProgram(specification, 7).serialize(true),
+        readChunks(responses));
+
+    assertEquals(-1, responses.read());
+  }
+
+  @Test
+  public final void testErrors() throws IOException {
+    final GeneratorDaemon daemon = createDaemon(specificationFactory);
+
+    // the daemon keeps answering after an invalid request
+    final InputStream responses =
+        serve(daemon, "--maxDepth 5\n--seed 1 --unknown\n\n--seed 1\n");
+
+    assertTrue(readLine(responses).startsWith("error "));
+    assertTrue(readLine(responses).startsWith("error "));
+
+    assertEquals("ok", readLine(responses));
+    assertEquals(TestSpecifications.generateProgram(specification, 1).printCode(),
+        readChunks(responses));
+
+    assertEquals(-1, responses.read());
+  }
+
+  @Test
+  public final void testQuit() throws IOException {
+    final GeneratorDaemon daemon = createDaemon(specificationFactory);
+    final InputStream responses = serve(daemon, "--seed 1\nquit\n--seed 2\n");
+
+    assertEquals("ok", readLine(responses));
+    readChunks(responses);
+
+    assertEquals(-1, responses.read());
+  }
+
+  private static final GeneratorDaemon createDaemon(
+      final SpecificationFactory specificationFactory) {
+    // the same defaults as the ones of the non-daemon mode
+    return new GeneratorDaemon(specificationFactory, TestSpecifications.MAX_DEPTH, 0., -1, -1,
+        false, false, false, null, false, true);
+  }
+
+  // handles the given requests and returns the responses
+  private static final InputStream serve(final GeneratorDaemon daemon, final String requests) {
+    final InputStream originalInput = System.in;
+    final PrintStream originalOutput = System.out;
+
+    final ByteArrayOutputStream responses = new ByteArrayOutputStream();
+
+    try {
+      System.setIn(new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)));
+      System.setOut(new PrintStream(responses));
+
+      daemon.serveStandardStreams();
+    } finally {
+      System.setIn(originalInput);
+      System.setOut(originalOutput);
+    }
+
+    return new ByteArrayInputStream(responses.toByteArray());
+  }
+
+  private static final String readLine(final InputStream inputStream) throws IOException {
+    final StringBuilder builder = new StringBuilder();
+
+    int character;
+    while ((character = inputStream.read()) != '\n') {
+      assertTrue(character != -1);
+      builder.append((char) character);
+    }
+
+    return builder.toString();
+  }
+
+  private static final String readChunks(final InputStream inputStream) throws IOException {
+    final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+    int chunkSize;
+    while ((chunkSize = Integer.parseInt(readLine(inputStream))) > 0) {
+      final byte[] chunk = new byte[chunkSize];
+      assertEquals(chunkSize, inputStream.read(chunk));
+
+      content.write(chunk);
+    }
+
+    return new String(content.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,236 @@
+package i2.act.fuzzer.main;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.oracle.Oracle;
+import i2.act.fuzzer.oracle.OracleFactory;
+import i2.act.tests.util.TestSpecifications;
+import i2.act.util.FileUtil;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class OraclePoolTest {
+
+  // the oracle answers according to the content of the program file
+  private static final String NO_BUG = "no bug";
+  private static final String BUG = "bug";
+  private static final String TIMEOUT = "timeout";
+  private static final String FAILURE = "failure";
+  private static final String BLOCK = "block";
+
+  private static Node program;
+
+  @BeforeClass
+  public static final void generateProgram() {
+    program = TestSpecifications.generateProgram(
+        TestSpecifications.loadSpecification(TestSpecifications.PAPER_SPEC), 0);
+  }
+
+  private static final class TestOracleFactory implements OracleFactory {
+
+    // released once the blocking checks may finish (with 'NO_BUG')
+    public final CountDownLatch blockedChecks = new CountDownLatch(1);
+
+    @Override
+    public final String getName() {
+      return "test";
+    }
+
+    @Override
+    public final Oracle createOracle(final String arguments, final long timeout) {
+      return new Oracle() {
+
+          @Override
+          public final Oracle.Result check(final String programFileName) {
+            final String content = FileUtil.readFile(programFileName).trim();
+
+            switch (content) {
+              case NO_BUG:
+                return Oracle.Result.NO_BUG;
+              case BUG:
+                return Oracle.Result.BUG;
+              case TIMEOUT:
+                return Oracle.Result.TIMEOUT;
+              case BLOCK:
+                try {
+                  TestOracleFactory.this.blockedChecks.await();
+                } catch (final InterruptedException exception) {
+                  Thread.currentThread().interrupt();
+                }
+                return Oracle.Result.NO_BUG;
+              default:
+                throw new RPGException("check failed: " + programFileName);
+            }
+          }
+
+          @Override
+          public final void close() {
+            // intentionally left blank
+          }
+
+      };
+    }
+
+  }
+
+  @Test
+  public final void testKeepOnlyPrograms() throws IOException {
+    final File directory = Files.createTempDirectory("programs").toFile();
+    final String[] contents = { NO_BUG, BUG, TIMEOUT, NO_BUG, BUG, NO_BUG };
+
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    final OutputPipeline outputPipeline = createOutputPipeline(failed);
+    final OraclePool oraclePool = new OraclePool(new TestOracleFactory(), "", 3, -1,
+        outputPipeline, null, failed);
+
+    for (int seed = 0; seed < contents.length; ++seed) {
+      final String fileName = writeProgram(directory, seed, contents[seed]);
+      oraclePool.check(program, seed, fileName, getASTFileName(directory, seed), 0, 0, 0);
+    }
+
+    oraclePool.close();
+    outputPipeline.close();
+
+    assertFalse(failed.get());
+
+    for (int seed = 0; seed < contents.length; ++seed) {
+      // a check that exceeds the timeout counts as triggering a bug
+      final boolean kept = !contents[seed].equals(NO_BUG);
+
+      assertEquals(kept, new File(getProgramFileName(directory, seed)).exists());
+      assertEquals(kept, new File(getASTFileName(directory, seed)).exists());
+    }
+  }
+
+  @Test
+  public final void testFirstFailure() throws IOException {
+    final File directory = Files.createTempDirectory("programs").toFile();
+    final String[] contents = { BUG, FAILURE + " 1", FAILURE + " 2", NO_BUG, FAILURE + " 3" };
+
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    final OutputPipeline outputPipeline = createOutputPipeline(failed);
+    final OraclePool oraclePool = new OraclePool(new TestOracleFactory(), "", 1, -1,
+        outputPipeline, null, failed);
+
+    for (int seed = 0; seed < contents.length; ++seed) {
+      final String fileName = writeProgram(directory, seed, contents[seed]);
+      oraclePool.check(program, seed, fileName, null, 0, 0, 0);
+    }
+
+    try {
+      oraclePool.close();
+      fail("failure of oracle not reported");
+    } catch (final RPGException exception) {
+      // a single thread checks the programs in order
+      assertEquals("check failed: " + getProgramFileName(directory, 1), exception.getMessage());
+    }
+
+    outputPipeline.close();
+
+    assertTrue(failed.get());
+
+    // the programs that could not be checked are not kept
+    assertTrue(new File(getProgramFileName(directory, 0)).exists());
+    assertFalse(new File(getProgramFileName(directory, 1)).exists());
+    assertFalse(new File(getProgramFileName(directory, 2)).exists());
+    assertFalse(new File(getProgramFileName(directory, 3)).exists());
+    assertFalse(new File(getProgramFileName(directory, 4)).exists());
+  }
+
+  @Test
+  public final void testDiscardProgramsAfterFailure() throws IOException {
+    final File directory = Files.createTempDirectory("programs").toFile();
+
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    final OutputPipeline outputPipeline = createOutputPipeline(failed);
+    final TestOracleFactory oracleFactory = new TestOracleFactory();
+    final OraclePool oraclePool =
+        new OraclePool(oracleFactory, "", 1, -1, outputPipeline, null, failed);
+
+    // the failing check is done before the blocking checks occupy the pool -> the last program
+    // is not checked at all
+    final String[] contents = { FAILURE, BLOCK, BLOCK, BUG };
+
+    for (int seed = 0; seed < contents.length; ++seed) {
+      final String fileName = writeProgram(directory, seed, contents[seed]);
+      oraclePool.check(program, seed, fileName, null, 0, 0, 0);
+    }
+
+    assertFalse(new File(getProgramFileName(directory, 3)).exists());
+
+    oracleFactory.blockedChecks.countDown();
+
+    try {
+      oraclePool.close();
+      fail("failure of oracle not reported");
+    } catch (final RPGException exception) {
+      // expected
+    }
+
+    outputPipeline.close();
+
+    assertFalse(new File(getProgramFileName(directory, 0)).exists());
+  }
+
+  @Test
+  public final void testWorkerTimeout() throws IOException {
+    final File directory = Files.createTempDirectory("programs").toFile();
+
+    // the worker does not read its input -> the program (which exceeds the pipe buffer) can not
+    // be sent completely
+    final char[] content = new char[1 << 20];
+    Arrays.fill(content, 'x');
+
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    final OutputPipeline outputPipeline = createOutputPipeline(failed);
+    final OraclePool oraclePool = new OraclePool(OracleFactory.forName("worker"), "sleep 60",
+        1, 500, outputPipeline, null, failed);
+
+    final long timeBefore = System.currentTimeMillis();
+
+    final String fileName = writeProgram(directory, 0, new String(content));
+    oraclePool.check(program, 0, fileName, null, 0, 0, 0);
+
+    oraclePool.close();
+    outputPipeline.close();
+
+    assertTrue(System.currentTimeMillis() - timeBefore < 30000);
+    assertFalse(failed.get());
+    assertTrue(new File(fileName).exists());
+  }
+
+  private static final OutputPipeline createOutputPipeline(final AtomicBoolean failed) {
+    return new OutputPipeline(OutputPipeline.DEFAULT_CAPACITY, false, false, null, null, null,
+        failed);
+  }
+
+  private static final String getProgramFileName(final File directory, final long seed) {
+    return new File(directory, String.format("prog_%d", seed)).getPath();
+  }
+
+  private static final String getASTFileName(final File directory, final long seed) {
+    return new File(directory, String.format("prog_%d.ast", seed)).getPath();
+  }
+
+  private static final String writeProgram(final File directory, final long seed,
+      final String content) {
+    final String fileName = getProgramFileName(directory, seed);
+    FileUtil.writeToFile(content, fileName);
+
+    return fileName;
+  }
+
+}
@@ -0,0 +1,128 @@
+package i2.act.tests;
+
+import i2.act.fuzzer.archive.ArchiveReader;
+import i2.act.fuzzer.archive.ArchiveWriter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public final class ArchiveTest {
+
+  private static final long[] SEEDS = { 42, 7, -3, 1000, 0 };
+
+  @Test
+  public final void testRoundTrip() throws IOException {
+    final File directory = Files.createTempDirectory("archive").toFile();
+
+    // small segments -> the programs are spread over several segments
+    writeArchive(directory, 100, true);
+
+    final ArchiveReader reader = new ArchiveReader(directory.getPath());
+    assertEquals(SEEDS.length, reader.size());
+
+    for (final long seed : SEEDS) {
+      final ArchiveReader.Entry entry = reader.find(seed);
+
+      assertEquals(seed, entry.seed);
+      assertEquals(getProgram(seed), entry.getProgram());
+      assertArrayEquals(getAST(seed), entry.getAST());
+      assertEquals((int) seed * 2, entry.size);
+      assertEquals(3, entry.depth);
+      assertEquals(seed + 1, entry.generationTime);
+    }
+
+    assertNull(reader.find(1));
+  }
+
+  @Test
+  public final void testWithoutASTs() throws IOException {
+    final File directory = Files.createTempDirectory("archive").toFile();
+
+    writeArchive(directory, ArchiveWriter.DEFAULT_MAX_SEGMENT_SIZE, false);
+
+    final ArchiveReader.Entry entry = new ArchiveReader(directory.getPath()).find(1000);
+
+    assertEquals(getProgram(1000), entry.getProgram());
+    assertFalse(entry.hasAST());
+    assertNull(entry.getAST());
+  }
+
+  @Test
+  public final void testMissingIndex() throws IOException {
+    final File directory = Files.createTempDirectory("archive").toFile();
+
+    writeArchive(directory, ArchiveWriter.DEFAULT_MAX_SEGMENT_SIZE, true);
+
+    // simulate a crash while the last record is written
+    new File(directory, "segment_00000.index").delete();
+
+    final File dataFile = new File(directory, "segment_00000.data");
+    try (final RandomAccessFile file = new RandomAccessFile(dataFile, "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    final ArchiveReader reader = new ArchiveReader(directory.getPath());
+    assertEquals(SEEDS.length - 1, reader.size());
+
+    for (int index = 0; index < SEEDS.length - 1; ++index) {
+      assertEquals(getProgram(SEEDS[index]), reader.find(SEEDS[index]).getProgram());
+    }
+
+    assertNull(reader.find(SEEDS[SEEDS.length - 1]));
+  }
+
+  @Test
+  public final void testDuplicateSeeds() throws IOException {
+    final File directory = Files.createTempDirectory("archive").toFile();
+
+    try (final ArchiveWriter writer =
+        new ArchiveWriter(directory.getPath(), ArchiveWriter.DEFAULT_MAX_SEGMENT_SIZE, false)) {
+      final long[] seeds = { 9, 5, 1, 5 };
+
+      for (int index = 0; index < seeds.length; ++index) {
+        writer.append(seeds[index], index, 1, 0,
+            getProgram(seeds[index]).getBytes(StandardCharsets.UTF_8), null);
+      }
+    }
+
+    final ArchiveReader reader = new ArchiveReader(directory.getPath());
+    assertEquals(4, reader.size());
+
+    // the first record of a seed is returned
+    assertEquals(1, reader.find(5).size);
+    assertEquals(2, reader.find(1).size);
+    assertEquals(0, reader.find(9).size);
+    assertNull(reader.find(0));
+    assertNull(reader.find(10));
+  }
+
+  private static final void writeArchive(final File directory, final long maxSegmentSize,
+      final boolean writeASTs) {
+    try (final ArchiveWriter writer =
+        new ArchiveWriter(directory.getPath(), maxSegmentSize, writeASTs)) {
+      for (final long seed : SEEDS) {
+        writer.append(seed, (int) seed * 2, 3, seed + 1,
+            getProgram(seed).getBytes(StandardCharsets.UTF_8), getAST(seed));
+      }
+    }
+  }
+
+  private static final String getProgram(final long seed) {
+    return String.format("int main() { return %d; } // \u00e4", seed);
+  }
+
+  private static final byte[] getAST(final long seed) {
+    return new byte[] { 'S', 'S', 'A', 'B', (byte) seed };
+  }
+
+}
@@ -0,0 +1,137 @@
+package i2.act.tests;
+
+import i2.act.fuzzer.Attribute;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.Specification;
+import i2.act.tests.util.TestSpecifications;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// checks that the worklist-based attribute evaluation computes the same attributes as the
+// evaluation in rounds (in which each round re-visits all attribute rules)
+public final class AttributeEvaluatorTest {
+
+  private static final int COUNT = 20;
+
+  private static Specification specification;
+
+  @BeforeClass
+  public static final void loadSpecification() {
+    specification = TestSpecifications.loadSpecification(TestSpecifications.PAPER_SPEC);
+  }
+
+  @Test
+  public final void testSameAttributesAsRounds() {
+    for (int seed = 0; seed < COUNT; ++seed) {
+      final Node program = TestSpecifications.generateProgram(specification, seed);
+
+      // the values of the symbol tables flow from each statement to the next one (i.e., up and
+      // down the tree), which takes several rounds but only one call of the worklist evaluation
+      checkSameAttributesAsRounds(program, false);
+      assertTrue(program.allGuardsSatisfied(true));
+    }
+  }
+
+  @Test
+  public final void testShallowEvaluation() {
+    for (int seed = 0; seed < COUNT; ++seed) {
+      final Node program = TestSpecifications.generateProgram(specification, seed);
+
+      checkSameAttributesAsRounds(program, true);
+    }
+  }
+
+  @Test
+  public final void testIncompleteTrees() {
+    for (int seed = 0; seed < COUNT; ++seed) {
+      final Node program = TestSpecifications.generateProgram(specification, seed);
+
+      // the attributes that depend on the removed sub-trees can not be computed -> the
+      // evaluation has to stop without them
+      final List<Node> statementLists = new ArrayList<>();
+      collectNodes(program, "StmtList", statementLists);
+
+      final Node statementList = statementLists.get(statementLists.size() / 2);
+      statementList.deconstruct();
+
+      checkSameAttributesAsRounds(program, false);
+      assertFalse(statementList.isResolved());
+    }
+  }
+
+  @Test
+  public final void testRepeatedEvaluation() {
+    final Node program = TestSpecifications.generateProgram(specification, 0);
+
+    program.clearAttributeValues(true);
+    program.evaluateAttributesLoop(false, false);
+
+    final List<String> expected = describeAttributes(program);
+
+    // nothing left to compute (and no state of the previous evaluation is left over)
+    program.evaluateAttributesLoop(false, false);
+    assertEquals(expected, describeAttributes(program));
+
+    program.clearAttributeValues(true);
+    program.evaluateAttributesLoop(false, false);
+    assertEquals(expected, describeAttributes(program));
+  }
+
+  private static final void checkSameAttributesAsRounds(final Node program,
+      final boolean shallow) {
+    program.clearAttributeValues(true);
+    program.evaluateAttributesInRounds(shallow, false);
+
+    final List<String> expected = describeAttributes(program);
+
+    program.clearAttributeValues(true);
+    program.evaluateAttributesLoop(shallow, false);
+
+    assertEquals(expected, describeAttributes(program));
+  }
+
+  private static final void collectNodes(final Node node, final String className,
+      final List<Node> nodes) {
+    if (node.getNodeClass().getName().equals(className)) {
+      nodes.add(node);
+    }
+
+    for (final Node child : node.getChildren()) {
+      collectNodes(child, className, nodes);
+    }
+  }
+
+  // the computed attributes of all nodes (the symbol tables are only compared by their presence,
+  // since they do not have a textual representation)
+  private static final List<String> describeAttributes(final Node program) {
+    final List<String> description = new ArrayList<>();
+    describeAttributes(program, description);
+
+    return description;
+  }
+
+  private static final void describeAttributes(final Node node, final List<String> description) {
+    for (final Attribute attribute : node.getNodeClass().getAttributes()) {
+      if (attribute.hasValue(node)) {
+        final Object value = attribute.getValue(node);
+        final boolean printable = (value instanceof String) || (value instanceof Boolean);
+
+        description.add(String.format("%d.%s = %s", node.id, attribute.getName(),
+            printable ? value : "<value>"));
+      }
+    }
+
+    for (final Node child : node.getChildren()) {
+      describeAttributes(child, description);
+    }
+  }
+
+}
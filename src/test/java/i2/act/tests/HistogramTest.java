@@ -0,0 +1,69 @@
+package i2.act.tests;
+
+import i2.act.util.Histogram;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class HistogramTest {
+
+  @Test
+  public final void testEmpty() {
+    final Histogram histogram = new Histogram();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getPercentile(99.));
+  }
+
+  @Test
+  public final void testSmallValuesAreExact() {
+    final Histogram histogram = new Histogram();
+
+    for (int value = 1; value <= 20; ++value) {
+      histogram.record(value);
+    }
+
+    assertEquals(20, histogram.getCount());
+    assertEquals(1, histogram.getMin());
+    assertEquals(20, histogram.getMax());
+    assertEquals(10, histogram.getPercentile(50.));
+    assertEquals(18, histogram.getPercentile(90.));
+    assertEquals(20, histogram.getPercentile(100.));
+    assertEquals(10.5, histogram.getMean(), 0.);
+  }
+
+  @Test
+  public final void testRelativeErrorOfLargeValues() {
+    final Histogram histogram = new Histogram();
+
+    for (long value = 1; value <= 1000000; ++value) {
+      histogram.record(value);
+    }
+
+    final long[] expected = { 500000, 900000, 990000, 999000 };
+    final double[] percentiles = { 50., 90., 99., 99.9 };
+
+    for (int index = 0; index < percentiles.length; ++index) {
+      final long percentile = histogram.getPercentile(percentiles[index]);
+
+      assertTrue(percentile >= expected[index]);
+      assertTrue(percentile - expected[index] < expected[index] / 16);
+    }
+
+    assertEquals(1000000, histogram.getPercentile(100.));
+  }
+
+  @Test
+  public final void testNegativeValues() {
+    final Histogram histogram = new Histogram();
+    histogram.record(-5);
+
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getMax());
+  }
+
+}
@@ -0,0 +1,102 @@
+package i2.act.tests;
+
+import i2.act.fuzzer.runtime.Interner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public final class InternerTest {
+
+  private static final class Value {
+
+    public final int key;
+
+    public Value(final int key) {
+      this.key = key;
+    }
+
+  }
+
+  private static final Interner.Structure<Value> STRUCTURE = new Interner.Structure<Value>() {
+
+      @Override
+      public final int hashCode(final Value value) {
+        // few distinct hash codes -> many collisions
+        return value.key % 7;
+      }
+
+      @Override
+      public final boolean equals(final Value first, final Value second) {
+        return first.key == second.key;
+      }
+
+  };
+
+  @Test
+  public final void testCanonicalInstances() {
+    final Interner<Value> interner = new Interner<>(STRUCTURE);
+
+    final Value first = interner.intern(new Value(1));
+    final Value second = interner.intern(new Value(8));
+
+    assertNotSame(first, second);
+    assertSame(first, interner.intern(new Value(1)));
+    assertSame(second, interner.intern(new Value(8)));
+    assertEquals(2, interner.size());
+  }
+
+  @Test
+  public final void testConcurrentInterning() throws Exception {
+    final Interner<Value> interner = new Interner<>(STRUCTURE);
+
+    final int numberOfThreads = 8;
+    final int numberOfValues = 1000;
+
+    final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+    try {
+      final List<Future<Value[]>> futures = new ArrayList<>();
+
+      for (int thread = 0; thread < numberOfThreads; ++thread) {
+        futures.add(executor.submit(new Callable<Value[]>() {
+
+            @Override
+            public final Value[] call() {
+              final Value[] values = new Value[numberOfValues];
+
+              for (int key = 0; key < numberOfValues; ++key) {
+                values[key] = interner.intern(new Value(key));
+              }
+
+              return values;
+            }
+
+        }));
+      }
+
+      final Value[] expected = futures.get(0).get();
+
+      for (final Future<Value[]> future : futures) {
+        final Value[] values = future.get();
+
+        for (int key = 0; key < numberOfValues; ++key) {
+          assertSame(expected[key], values[key]);
+        }
+      }
+
+      assertEquals(numberOfValues, interner.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,84 @@
+package i2.act.tests;
+
+import i2.act.SpecificationCompiler;
+import i2.act.util.FileUtil;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// checks that the programs generated by several threads are the same as the ones generated by a
+// single thread (i.e., that the runtime classes of the specifications do not share any state)
+public final class MultiThreadingTest {
+
+  private static final long SEED = 100;
+  private static final int COUNT = 20;
+  private static final int THREADS = 4;
+
+  private static File cacheDirectory;
+
+  @BeforeClass
+  public static final void createCacheDirectory() throws IOException {
+    cacheDirectory = Files.createTempDirectory("specifications").toFile();
+  }
+
+  @Test
+  public final void testSMT() throws IOException {
+    checkSpecification("specs/smt.ls", "out/smt/runtime", 11);
+  }
+
+  @Test
+  public final void testSMTStrings() throws IOException {
+    checkSpecification("specs/smt_strings.ls", "out/smt/runtime", 13);
+  }
+
+  @Test
+  public final void testLua() throws IOException {
+    checkSpecification("specs/lua.ls", "out/lua/runtime", 13);
+  }
+
+  private static final void checkSpecification(final String specificationFileName,
+      final String runtimeDirectory, final int maxDepth) throws IOException {
+    final SpecificationCompiler compiler = new SpecificationCompiler(specificationFileName,
+        maxDepth, null, null, false, Collections.<String>emptySet(), false, runtimeDirectory,
+        cacheDirectory.getPath());
+
+    final File singleThreaded = generatePrograms(compiler, 1);
+    final File multiThreaded = generatePrograms(compiler, THREADS);
+
+    for (int index = 0; index < COUNT; ++index) {
+      final String fileName = String.format("prog_%d", SEED + index);
+
+      final File expected = new File(singleThreaded, fileName);
+      final File actual = new File(multiThreaded, fileName);
+
+      assertTrue(expected.exists());
+      assertTrue(actual.exists());
+
+      assertEquals(fileName, FileUtil.readFile(expected.getPath()),
+          FileUtil.readFile(actual.getPath()));
+    }
+  }
+
+  private static final File generatePrograms(final SpecificationCompiler compiler,
+      final int numberOfThreads) throws IOException {
+    final File outputDirectory = Files.createTempDirectory("programs").toFile();
+
+    compiler.runMain(new String[] {
+      "--seed", String.valueOf(SEED),
+      "--count", String.valueOf(COUNT),
+      "--threads", String.valueOf(numberOfThreads),
+      "--out", new File(outputDirectory, "prog_#{SEED}").getPath()
+    });
+
+    return outputDirectory;
+  }
+
+}
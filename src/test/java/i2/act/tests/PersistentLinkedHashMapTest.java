@@ -0,0 +1,82 @@
+package i2.act.tests;
+
+import i2.act.util.PersistentLinkedHashMap;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class PersistentLinkedHashMapTest {
+
+  @Test
+  public final void testInsertionOrder() {
+    final PersistentLinkedHashMap<String, Integer> map =
+        PersistentLinkedHashMap.<String, Integer>empty()
+            .put("foo", 1).put("bar", 2).put("baz", 3).put("foo", 4);
+
+    assertEquals(3, map.size());
+    assertEquals(Arrays.asList("foo", "bar", "baz"), map.keys());
+    assertEquals(Arrays.asList(4, 2, 3), map.values());
+    assertEquals(Integer.valueOf(4), map.get("foo"));
+  }
+
+  @Test
+  public final void testPersistence() {
+    final PersistentLinkedHashMap<String, Integer> original =
+        PersistentLinkedHashMap.<String, Integer>empty().put("foo", 1);
+    final PersistentLinkedHashMap<String, Integer> modified = original.put("foo", 2).put("bar", 3);
+
+    assertEquals(Arrays.asList(1), original.values());
+    assertFalse(original.containsKey("bar"));
+    assertEquals(Arrays.asList(2, 3), modified.values());
+  }
+
+  @Test
+  public final void testEquality() {
+    final PersistentLinkedHashMap<String, Integer> first =
+        PersistentLinkedHashMap.<String, Integer>empty().put("foo", 1).put("bar", 2);
+    final PersistentLinkedHashMap<String, Integer> second =
+        PersistentLinkedHashMap.<String, Integer>empty().put("bar", 2).put("foo", 1);
+
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+    assertNotEquals(first, second.put("foo", 3));
+  }
+
+  @Test
+  public final void testAgainstLinkedHashMap() {
+    final Random random = new Random(42);
+
+    PersistentLinkedHashMap<String, Integer> persistentMap = PersistentLinkedHashMap.empty();
+    final LinkedHashMap<String, Integer> linkedHashMap = new LinkedHashMap<>();
+
+    for (int i = 0; i < 10000; ++i) {
+      final String key = (random.nextInt(20) == 0) ? null : ("key" + random.nextInt(1000));
+      final int value = random.nextInt(5);
+
+      persistentMap = persistentMap.put(key, value);
+      linkedHashMap.put(key, value);
+    }
+
+    assertEquals(linkedHashMap.size(), persistentMap.size());
+    assertEquals(new ArrayList<>(linkedHashMap.keySet()), persistentMap.keys());
+    assertEquals(new ArrayList<>(linkedHashMap.values()), persistentMap.values());
+    assertEquals(linkedHashMap, persistentMap.toLinkedHashMap());
+
+    final List<String> keys = persistentMap.keys();
+    for (final String key : keys) {
+      assertTrue(persistentMap.containsKey(key));
+      assertEquals(linkedHashMap.get(key), persistentMap.get(key));
+    }
+  }
+
+}
@@ -0,0 +1,99 @@
+package i2.act.tests;
+
+import i2.act.StarSmithTranslate;
+import i2.act.fuzzer.Specification;
+import i2.act.fuzzer.runtime.PureFunctionCache;
+import i2.act.tests.util.TestSpecifications;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public final class PureFunctionCacheTest {
+
+  private static final int COUNT = 10;
+
+  private static final String PURE_FUNCTION = "SymbTab:contains";
+
+  @Test
+  public final void testLookup() {
+    final PureFunctionCache cache = new PureFunctionCache(PURE_FUNCTION);
+    final Object table = new Object();
+
+    final PureFunctionCache.Entry entry = cache.lookup(table, "x");
+    assertFalse(entry.hasValue());
+    assertSame(Boolean.TRUE, entry.setValue(Boolean.TRUE));
+
+    // the object arguments are compared by identity, the strings by value
+    assertTrue(cache.lookup(table, new String("x")).hasValue());
+    assertFalse(cache.lookup(new Object(), "x").hasValue());
+    assertFalse(cache.lookup(table, "y").hasValue());
+
+    assertEquals(1, cache.getHits());
+    assertEquals(3, cache.getMisses());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public final void testEviction() {
+    final PureFunctionCache cache = new PureFunctionCache(PURE_FUNCTION, 1);
+
+    cache.lookup("x").setValue(1);
+    cache.lookup("y").setValue(2);
+
+    assertFalse(cache.lookup("x").hasValue());
+    assertEquals(2, cache.lookup("y").getValue());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public final void testOnlyPureFunctionsMemoized() {
+    final String javaCode = new StarSmithTranslate(TestSpecifications.PAPER_SPEC,
+        TestSpecifications.MAX_DEPTH).translateToJava("paper_spec", null, null, false,
+            Collections.singleton(PURE_FUNCTION), false);
+
+    assertTrue(javaCode.contains("pure_SymbTab_contains.lookup("));
+
+    // the other functions are not declared to be pure
+    assertFalse(javaCode.contains("pure_SymbTab_put"));
+    assertFalse(javaCode.contains("pure_SymbTab_empty"));
+  }
+
+  @Test
+  public final void testNoPureFunctions() {
+    final Specification specification =
+        TestSpecifications.loadSpecification(TestSpecifications.PAPER_SPEC);
+
+    assertTrue(specification.getPureFunctionCaches().isEmpty());
+  }
+
+  @Test
+  public final void testSamePrograms() {
+    final Specification specification =
+        TestSpecifications.loadSpecification(TestSpecifications.PAPER_SPEC);
+    final Specification memoizingSpecification = TestSpecifications.createCompiler(
+        TestSpecifications.PAPER_SPEC, Collections.singleton(PURE_FUNCTION))
+        .loadFactory().createSpecification();
+
+    final List<PureFunctionCache> caches = memoizingSpecification.getPureFunctionCaches();
+    assertEquals(1, caches.size());
+
+    final PureFunctionCache cache = caches.get(0);
+    assertEquals(PURE_FUNCTION, cache.getFunctionName());
+
+    for (int seed = 0; seed < COUNT; ++seed) {
+      assertEquals(
+          TestSpecifications.generateProgram(specification, seed).printCode(),
+          TestSpecifications.generateProgram(memoizingSpecification, seed).printCode());
+    }
+
+    assertTrue(cache.getMisses() > 0);
+  }
+
+}
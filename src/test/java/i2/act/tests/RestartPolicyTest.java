@@ -0,0 +1,59 @@
+package i2.act.tests;
+
+import i2.act.errors.RPGException;
+import i2.act.fuzzer.RestartPolicy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public final class RestartPolicyTest {
+
+  @Test
+  public final void testLubySequence() {
+    final long[] expected = { 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1 };
+
+    for (int index = 0; index < expected.length; ++index) {
+      assertEquals(expected[index], RestartPolicy.Luby.luby(index + 1));
+    }
+  }
+
+  @Test
+  public final void testLubyBudgets() {
+    final RestartPolicy policy = RestartPolicy.fromString("luby:100");
+
+    assertEquals(100, policy.getBudget(0));
+    assertEquals(100, policy.getBudget(1));
+    assertEquals(200, policy.getBudget(2));
+    assertEquals(400, policy.getBudget(6));
+  }
+
+  @Test
+  public final void testGeometricBudgets() {
+    final RestartPolicy policy = RestartPolicy.fromString("geometric:10:2");
+
+    assertEquals(10, policy.getBudget(0));
+    assertEquals(20, policy.getBudget(1));
+    assertEquals(80, policy.getBudget(3));
+    assertEquals(Integer.MAX_VALUE, policy.getBudget(100));
+  }
+
+  @Test
+  public final void testCombine() {
+    assertEquals(50, RestartPolicy.combine(-1, 50));
+    assertEquals(30, RestartPolicy.combine(30, 50));
+    assertEquals(30, RestartPolicy.combine(30, -1));
+  }
+
+  @Test
+  public final void testUnknownPolicy() {
+    try {
+      RestartPolicy.fromString("linear:10");
+      fail("unknown restart policy accepted");
+    } catch (final RPGException exception) {
+      // expected
+    }
+  }
+
+}
@@ -0,0 +1,87 @@
+package i2.act.tests;
+
+import i2.act.fuzzer.Specification;
+import i2.act.fuzzer.SpecificationFactory;
+import i2.act.fuzzer.main.FuzzerLoop;
+import i2.act.tests.util.TestSpecifications;
+import i2.act.util.FileUtil;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// checks that all generator threads share a single specification (and that sharing it does not
+// change the generated programs)
+public final class SharedSpecificationTest {
+
+  private static final long SEED = 100;
+  private static final int COUNT = 20;
+  private static final int THREADS = 4;
+
+  private static SpecificationFactory specificationFactory;
+
+  @BeforeClass
+  public static final void loadFactory() {
+    specificationFactory = TestSpecifications.createCompiler(TestSpecifications.PAPER_SPEC,
+        Collections.<String>emptySet()).loadFactory();
+  }
+
+  private static final class CountingSpecificationFactory implements SpecificationFactory {
+
+    public final AtomicInteger numberOfSpecifications = new AtomicInteger(0);
+
+    @Override
+    public final Specification createSpecification(final long seed) {
+      this.numberOfSpecifications.incrementAndGet();
+      return specificationFactory.createSpecification(seed);
+    }
+
+  }
+
+  @Test
+  public final void testOneSpecification() throws IOException {
+    final File singleThreaded = generatePrograms(1);
+    final File multiThreaded = generatePrograms(THREADS);
+
+    for (int index = 0; index < COUNT; ++index) {
+      final String fileName = String.format("prog_%d", SEED + index);
+
+      final File expected = new File(singleThreaded, fileName);
+      final File actual = new File(multiThreaded, fileName);
+
+      assertTrue(expected.exists());
+      assertTrue(actual.exists());
+
+      assertEquals(fileName, FileUtil.readFile(expected.getPath()),
+          FileUtil.readFile(actual.getPath()));
+    }
+  }
+
+  private static final File generatePrograms(final int numberOfThreads) throws IOException {
+    final File outputDirectory = Files.createTempDirectory("programs").toFile();
+    final CountingSpecificationFactory countingFactory = new CountingSpecificationFactory();
+
+    // preferring small productions uses the min sizes that are computed lazily by the (shared)
+    // specification
+    FuzzerLoop.generatePrograms(countingFactory, TestSpecifications.MAX_DEPTH, new String[] {
+      "--seed", String.valueOf(SEED),
+      "--count", String.valueOf(COUNT),
+      "--threads", String.valueOf(numberOfThreads),
+      "--small", "0.5",
+      "--out", new File(outputDirectory, "prog_#{SEED}").getPath()
+    });
+
+    assertEquals(1, countingFactory.numberOfSpecifications.get());
+
+    return outputDirectory;
+  }
+
+}
@@ -0,0 +1,132 @@
+package i2.act.tests;
+
+import i2.act.SpecificationCompiler;
+import i2.act.tests.util.TestSpecifications;
+import i2.act.util.FileUtil;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// checks that the cache of the compiled specifications is only used if neither the specification
+// nor its runtime classes nor the translation options have changed
+public final class SpecificationCompilerTest {
+
+  private File specificationFile;
+  private File runtimeDirectory;
+  private File cacheDirectory;
+
+  @Before
+  public final void copySpecification() throws IOException {
+    final File directory = Files.createTempDirectory("specification").toFile();
+
+    this.specificationFile = new File(directory, "paper_spec.ls");
+    copyFile(new File(TestSpecifications.PAPER_SPEC), this.specificationFile);
+
+    this.runtimeDirectory = new File(directory, "runtime");
+    assertTrue(this.runtimeDirectory.mkdir());
+
+    for (final File runtimeFile : new File(TestSpecifications.PAPER_SPEC_RUNTIME).listFiles()) {
+      copyFile(runtimeFile, new File(this.runtimeDirectory, runtimeFile.getName()));
+    }
+
+    this.cacheDirectory = new File(directory, "cache");
+  }
+
+  @Test
+  public final void testUnchanged() {
+    final File classDirectory = createCompiler().compile();
+    assertTrue(new File(classDirectory, "paper_spec.class").isFile());
+
+    final long lastModified = classDirectory.lastModified();
+
+    assertEquals(classDirectory, createCompiler().compile());
+    assertEquals(lastModified, classDirectory.lastModified());
+    assertEquals(1, this.cacheDirectory.list().length);
+  }
+
+  @Test
+  public final void testSpecificationChanged() {
+    final File classDirectory = createCompiler().compile();
+    final String specification = FileUtil.readFile(this.specificationFile.getPath());
+
+    // the same length -> only the content differs
+    writeFile(this.specificationFile, specification.replace("@weight(3)", "@weight(4)"));
+    final File changedClassDirectory = createCompiler().compile();
+
+    assertFalse(classDirectory.equals(changedClassDirectory));
+    assertEquals(2, this.cacheDirectory.list().length);
+
+    // the cache entry of the original specification is used again
+    writeFile(this.specificationFile, specification);
+    assertEquals(classDirectory, createCompiler().compile());
+  }
+
+  @Test
+  public final void testRuntimeChanged() {
+    final File classDirectory = createCompiler().compile();
+
+    final File runtimeFile = new File(this.runtimeDirectory, "SymbTab.java");
+    writeFile(runtimeFile,
+        FileUtil.readFile(runtimeFile.getPath()) + "// changed runtime class\n");
+
+    assertFalse(classDirectory.equals(createCompiler().compile()));
+  }
+
+  @Test
+  public final void testRuntimeClassAdded() {
+    final File classDirectory = createCompiler().compile();
+
+    writeFile(new File(this.runtimeDirectory, "Helper.java"),
+        "package runtime;\n\nfinal class Helper {\n}\n");
+
+    final File changedClassDirectory = createCompiler().compile();
+
+    assertFalse(classDirectory.equals(changedClassDirectory));
+    assertTrue(new File(changedClassDirectory, "runtime/Helper.class").isFile());
+  }
+
+  @Test
+  public final void testOptionsChanged() {
+    final File classDirectory = createCompiler().compile();
+
+    final SpecificationCompiler otherDepth = new SpecificationCompiler(
+        this.specificationFile.getPath(), TestSpecifications.MAX_DEPTH + 1, null, null, false,
+        Collections.<String>emptySet(), false, this.runtimeDirectory.getPath(),
+        this.cacheDirectory.getPath());
+    final SpecificationCompiler pureFunctions = createCompiler(
+        Collections.singleton("SymbTab:contains"));
+
+    assertFalse(classDirectory.equals(otherDepth.compile()));
+    assertFalse(classDirectory.equals(pureFunctions.compile()));
+    assertEquals(3, this.cacheDirectory.list().length);
+  }
+
+  private final SpecificationCompiler createCompiler() {
+    return createCompiler(Collections.<String>emptySet());
+  }
+
+  private final SpecificationCompiler createCompiler(final Set<String> pureFunctions) {
+    return new SpecificationCompiler(this.specificationFile.getPath(),
+        TestSpecifications.MAX_DEPTH, null, null, false, pureFunctions, false,
+        this.runtimeDirectory.getPath(), this.cacheDirectory.getPath());
+  }
+
+  private static final void copyFile(final File source, final File target) {
+    writeFile(target, FileUtil.readFile(source.getPath()));
+  }
+
+  private static final void writeFile(final File file, final String content) {
+    FileUtil.writeToFile(content, file.getPath());
+  }
+
+}
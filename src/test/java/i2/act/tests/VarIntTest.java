@@ -0,0 +1,99 @@
+package i2.act.tests;
+
+import i2.act.util.VarInt;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public final class VarIntTest {
+
+  private static final long[] VALUES = {
+    0, 1, 127, 128, 300, 16383, 16384, Integer.MAX_VALUE, Long.MAX_VALUE
+  };
+
+  @Test
+  public final void testEncodedLength() throws IOException {
+    assertEquals(1, encodeUnsigned(0).length);
+    assertEquals(1, encodeUnsigned(127).length);
+    assertEquals(2, encodeUnsigned(128).length);
+    assertEquals(2, encodeUnsigned(16383).length);
+    assertEquals(3, encodeUnsigned(16384).length);
+    assertEquals(10, encodeUnsigned(-1).length);
+
+    // small negative values are short as well
+    assertEquals(1, encodeSigned(-1).length);
+    assertEquals(1, encodeSigned(-64).length);
+  }
+
+  @Test
+  public final void testUnsignedRoundTrip() throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    for (final long value : VALUES) {
+      VarInt.writeUnsigned(value, outputStream);
+    }
+
+    final ByteArrayInputStream inputStream =
+        new ByteArrayInputStream(outputStream.toByteArray());
+
+    for (final long value : VALUES) {
+      assertEquals(value, VarInt.readUnsigned(inputStream));
+    }
+
+    assertEquals(-1, inputStream.read());
+  }
+
+  @Test
+  public final void testSignedRoundTrip() throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    for (final long value : VALUES) {
+      VarInt.writeSigned(value, outputStream);
+      VarInt.writeSigned(-value, outputStream);
+    }
+    VarInt.writeSigned(Long.MIN_VALUE, outputStream);
+
+    final ByteArrayInputStream inputStream =
+        new ByteArrayInputStream(outputStream.toByteArray());
+
+    for (final long value : VALUES) {
+      assertEquals(value, VarInt.readSigned(inputStream));
+      assertEquals(-value, VarInt.readSigned(inputStream));
+    }
+    assertEquals(Long.MIN_VALUE, VarInt.readSigned(inputStream));
+  }
+
+  @Test
+  public final void testTruncatedValue() throws IOException {
+    final byte[] bytes = encodeUnsigned(16384);
+
+    try {
+      VarInt.readUnsigned(new ByteArrayInputStream(bytes, 0, bytes.length - 1));
+      fail("expected EOFException");
+    } catch (final EOFException exception) {
+      // expected
+    }
+  }
+
+  private static final byte[] encodeUnsigned(final long value) throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    VarInt.writeUnsigned(value, outputStream);
+
+    return outputStream.toByteArray();
+  }
+
+  private static final byte[] encodeSigned(final long value) throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    VarInt.writeSigned(value, outputStream);
+
+    return outputStream.toByteArray();
+  }
+
+}
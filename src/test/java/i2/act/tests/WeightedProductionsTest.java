@@ -0,0 +1,103 @@
+package i2.act.tests;
+
+import i2.act.fuzzer.CodeSink;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.Production;
+import i2.act.fuzzer.WeightedProductions;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public final class WeightedProductionsTest {
+
+  private static final Production createProduction(final int id, final int weight) {
+    return new Production(id, "p" + id, weight, null, new i2.act.fuzzer.Class[0], new int[0],
+        false, -1) {
+
+      @Override
+      public final Node[] createChildrenFor(final Node node, final int maxRecursionDepth) {
+        return new Node[] {};
+      }
+
+      @Override
+      public final void printCode(final Node node, final CodeSink sink, final int indentation) {
+        // intentionally left blank
+      }
+
+      @Override
+      public final void tokenize(final Node node, final List<String> tokens) {
+        // intentionally left blank
+      }
+
+      @Override
+      public final boolean isGeneratorNode() {
+        return false;
+      }
+
+    };
+  }
+
+  private static final List<Production> createProductions(final int... weights) {
+    final List<Production> productions = new ArrayList<>();
+
+    for (int id = 0; id < weights.length; ++id) {
+      productions.add(createProduction(id, weights[id]));
+    }
+
+    return productions;
+  }
+
+  // the choice of the previous implementation (linear scan over the productions)
+  private static final Production chooseLinear(final List<Production> productions,
+      final int random) {
+    int sumOfWeights = 0;
+
+    for (final Production production : productions) {
+      sumOfWeights += production.weight;
+      if (random < sumOfWeights) {
+        return production;
+      }
+    }
+
+    throw new AssertionError("random number out of range");
+  }
+
+  @Test
+  public final void testZeroWeights() {
+    final List<Production> productions = createProductions(0, 2, 0, 1, 0);
+    final WeightedProductions weightedProductions = new WeightedProductions(productions);
+
+    assertEquals(2, weightedProductions.getProductions().size());
+    assertSame(productions.get(1), weightedProductions.getProductions().get(0));
+    assertSame(productions.get(3), weightedProductions.getProductions().get(1));
+    assertEquals(3, weightedProductions.getTotalWeight());
+  }
+
+  @Test
+  public final void testSameChoiceAsLinearScan() {
+    final List<Production> productions = createProductions(3, 0, 1, 5, 0, 2, 1, 7);
+    final WeightedProductions weightedProductions = new WeightedProductions(productions);
+
+    assertEquals(19, weightedProductions.getTotalWeight());
+
+    for (int random = 0; random < weightedProductions.getTotalWeight(); ++random) {
+      assertSame(chooseLinear(productions, random), weightedProductions.choose(random));
+    }
+  }
+
+  @Test
+  public final void testSingleProduction() {
+    final List<Production> productions = createProductions(0, 4);
+    final WeightedProductions weightedProductions = new WeightedProductions(productions);
+
+    for (int random = 0; random < 4; ++random) {
+      assertSame(productions.get(1), weightedProductions.choose(random));
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+package i2.act.tests.util;
+
+import i2.act.SpecificationCompiler;
+import i2.act.fuzzer.Node;
+import i2.act.fuzzer.RandomFuzzer;
+import i2.act.fuzzer.Specification;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Compiles the (small) specifications of the paper for the tests of the fuzzer and generates
+ * programs from them.
+ */
+public final class TestSpecifications {
+
+  public static final String PAPER_SPEC = "specs/paper_spec.ls";
+  public static final String PAPER_SPEC_GEN = "specs/paper_spec_gen.ls";
+
+  public static final String PAPER_SPEC_RUNTIME = "out/paper_spec/runtime";
+
+  public static final int MAX_DEPTH = 11;
+
+  private static File cacheDirectory;
+
+  private TestSpecifications() {
+    /* intentionally left blank */
+  }
+
+  /**
+   * Returns the cache directory of the compiled specifications (shared by all tests of a run).
+   *
+   * @return  the cache directory
+   */
+  public static final synchronized File getCacheDirectory() {
+    if (cacheDirectory == null) {
+      try {
+        cacheDirectory = Files.createTempDirectory("specifications").toFile();
+      } catch (final IOException exception) {
+        fail("unable to create cache directory: " + exception.getMessage());
+      }
+    }
+
+    return cacheDirectory;
+  }
+
+  /**
+   * Returns a compiler for the given specification that uses the runtime of the paper
+   * specifications.
+   *
+   * @param specificationFileName  the file name of the specification
+   * @param pureFunctions          the runtime functions that should be memoized
+   * @return                       the compiler
+   */
+  public static final SpecificationCompiler createCompiler(final String specificationFileName,
+      final Set<String> pureFunctions) {
+    return new SpecificationCompiler(specificationFileName, MAX_DEPTH, null, null, false,
+        pureFunctions, false, PAPER_SPEC_RUNTIME, getCacheDirectory().getPath());
+  }
+
+  /**
+   * Compiles and instantiates the given specification.
+   *
+   * @param specificationFileName  the file name of the specification
+   * @return                       the specification
+   */
+  public static final Specification loadSpecification(final String specificationFileName) {
+    return createCompiler(specificationFileName, Collections.<String>emptySet())
+        .loadFactory().createSpecification();
+  }
+
+  /**
+   * Generates a program with the same settings as the default settings of the fuzzer.
+   *
+   * @param specification  the specification
+   * @param seed           the seed of the program
+   * @return               the root node of the program
+   */
+  public static final Node generateProgram(final Specification specification, final long seed) {
+    final RandomFuzzer fuzzer = RandomFuzzer.createFor(specification, seed, 0., false, false,
+        -1, -1, false, null, null);
+
+    return fuzzer.generateProgram(MAX_DEPTH, false);
+  }
+
+}